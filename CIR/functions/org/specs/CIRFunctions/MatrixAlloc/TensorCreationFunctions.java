@@ -1027,8 +1027,7 @@ public class TensorCreationFunctions extends CirBuilder {
         String cBody = SpecsIo.getResource(TensorCreationResource.FREE_VIEW_BODY);
 
         // Apply changes to default fields
-        String tensorShapeTag = "<TENSOR_SHAPE>";
-        cBody = cBody.replace(tensorShapeTag, DynamicMatrixStruct.TENSOR_SHAPE);
+        cBody = DynamicMatrixStruct.replaceFields(null, cBody);
 
         // Create instance
         LiteralInstance setTensor = new LiteralInstance(fTypes, functionName, getFilename(), cBody);
@@ -30,7 +30,8 @@ public enum TensorCreationResource implements ResourceProvider {
     EYE_BODY("eye_body.c"),
     FREE_BODY("free_body.c"),
     FREE_VIEW_BODY("free_view_body.c"),
-    FREE_COMMENTS("free_comments.c");
+    FREE_COMMENTS("free_comments.c"),
+    HEADER_POOL_BODY("header_pool_body.c");
 
     private final static String RESOURCE_FOLDER = "cirlib/tensor_creation";
 
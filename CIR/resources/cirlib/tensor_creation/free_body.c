@@ -4,18 +4,22 @@
 		return;
 	}
 
-	/* Free the values, if tensor owns the data */
+	/* Free the values, if tensor owns the data, or release them, if the tensor must */
 	if((*t)-><TENSOR_OWNS_DATA>) {
 		<FREE_DATA_FUNCTION>[[(*t)-><TENSOR_DATA>]];
 		(*t)-><TENSOR_DATA> = NULL;
+	} else if((*t)-><TENSOR_RELEASE_DATA> != NULL) {
+		(*t)-><TENSOR_RELEASE_DATA>(*t);
+		(*t)-><TENSOR_RELEASE_DATA> = NULL;
+		(*t)-><TENSOR_DATA> = NULL;
 	}
 	
 	/* Free the shape data */
-	free((*t)-><TENSOR_SHAPE>);
+<FREE_SHAPE>
 	(*t)-><TENSOR_SHAPE> = NULL;
 	
 	/* Free the tensor itself */
-	free(*t);
+<RELEASE_HEADER>
 	
 	/* Set the pointer to null */
 	*t = NULL;
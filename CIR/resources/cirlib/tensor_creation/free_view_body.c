@@ -4,8 +4,10 @@
 		return;
 	}
 
-	/* Free the shape data */
-	free((*t)-><TENSOR_SHAPE>);
+	/* Free the shape data, unless it is stored in the tensor */
+	if((*t)-><TENSOR_SHAPE> != (*t)-><TENSOR_INLINE_SHAPE>) {
+		free((*t)-><TENSOR_SHAPE>);
+	}
 	(*t)-><TENSOR_SHAPE> = NULL;
 	
 	/* Free the tensor itself */
@@ -0,0 +1,37 @@
+/* tensor_header_pool(tensor* header) */
+
+	/* Structures that were released, which are reused before allocating new ones */
+	static <TENSOR_STRUCT>* pool[<POOL_CAPACITY>];
+	static int pool_size = 0;
+#ifdef _OPENMP
+	/* Each thread of OpenMP parallel loops has its own pool */
+#pragma omp threadprivate(pool, pool_size)
+#endif
+
+	/* If a structure is given, release it to the pool */
+	if(header != NULL) {
+		if(pool_size < <POOL_CAPACITY>) {
+			pool[pool_size] = header;
+			pool_size++;
+		} else {
+			free(header);
+		}
+
+		return NULL;
+	}
+
+	/* Otherwise, acquire a structure */
+	if(pool_size > 0) {
+		pool_size--;
+		pool[pool_size]-><TENSOR_RELEASE_DATA> = NULL;
+		return pool[pool_size];
+	}
+
+	header = (<TENSOR_STRUCT>*) malloc(sizeof(<TENSOR_STRUCT>));
+	if(header == NULL) {
+		printf("ERROR: Could not allocate memory for the matrix structure\n");
+		exit(EXIT_FAILURE);
+	}
+	header-><TENSOR_RELEASE_DATA> = NULL;
+
+	return header;
@@ -1,9 +1,11 @@
 /* new_row(int* shape, int dims, tensor** t) */
 
-	int TRIES = 2;
 	int i;
 	int length;
+	int capacity;
 	int sameShape;
+	int previous_capacity = 0;
+	int previous_dims = 0;
 	int* previous_shape = NULL;
 	<DATA_TYPE>* previous_data = NULL;
 	
@@ -19,28 +21,20 @@
 		} 		
 		
 		/* Save pointers to previous shape and data */
-		/* Only free data if tensor owns it */
+		/* Only free data if tensor owns it, and release it now if the tensor must */
 		if((*t)->owns_data) {
 			previous_data = (*t)-><TENSOR_DATA>;
+			previous_capacity = (*t)-><TENSOR_CAPACITY>;
+		} else if((*t)-><TENSOR_RELEASE_DATA> != NULL) {
+			(*t)-><TENSOR_RELEASE_DATA>(*t);
+			(*t)-><TENSOR_RELEASE_DATA> = NULL;
 		}
 		
-		previous_shape = (*t)-><TENSOR_SHAPE>;		
-	}
-
-	/* Create the tensor and return it. */
-	free(*t);
-	
-	for(i=0; i<TRIES; i++) {
-		*t = (<TENSOR_STRUCT>*) malloc(sizeof(<TENSOR_STRUCT>));
-		if (*t != NULL) {
-			break;
-		}
-	}
-	/**t = (<TENSOR_STRUCT>*) malloc(sizeof(<TENSOR_STRUCT>)); */
-
-	if (*t == NULL) {
-       printf("ERROR: Could not allocate memory for the matrix structure\n");
-	   exit(EXIT_FAILURE);
+		previous_shape = (*t)-><TENSOR_SHAPE>;
+		previous_dims = (*t)-><TENSOR_DIMS>;
+	} else {
+		/* Create the tensor structure. */
+<ALLOCATE_HEADER>
 	}
 
 	/* Calculate the length of the linearized version of the tensor. */
@@ -49,26 +43,44 @@
 		length *= shape[i];
 	}
 
-	<FREE_DATA_FUNCTION>[[previous_data]];
-	if(length == 0) {
-		(*t)-><TENSOR_DATA> = NULL;
+	if(previous_data != NULL && length <= previous_capacity) {
+		/* Shrinking, or growing within the capacity, reuses the buffer */
+		(*t)-><TENSOR_DATA> = previous_data;
 	} else {
-		(*t)-><TENSOR_DATA> = (<DATA_TYPE>*) <CUSTOM_DATA_ALLOCATOR>[[sizeof(<DATA_TYPE>) * length]];
-		if((*t)-><TENSOR_DATA> == NULL) {
-			printf("ERROR: Could not allocate memory for the matrix elements (%d elements)\n", length);
-			exit(EXIT_FAILURE);
-        }
+		/* Grow geometrically, so that repeatedly growing a matrix has amortized linear cost */
+		capacity = length;
+		if(previous_data != NULL && previous_capacity < (int) (~0u >> 2) && previous_capacity * 2 > length) {
+			capacity = previous_capacity * 2;
+		}
+
+		<FREE_DATA_FUNCTION>[[previous_data]];
+		if(capacity == 0) {
+			(*t)-><TENSOR_DATA> = NULL;
+		} else {
+			(*t)-><TENSOR_DATA> = (<DATA_TYPE>*) <CUSTOM_DATA_ALLOCATOR>[[sizeof(<DATA_TYPE>) * capacity]];
+			if((*t)-><TENSOR_DATA> == NULL) {
+				printf("ERROR: Could not allocate memory for the matrix elements (%d elements)\n", capacity);
+				exit(EXIT_FAILURE);
+			}
+		}
+
+		(*t)-><TENSOR_CAPACITY> = capacity;
 	}
-	
 
 	(*t)-><TENSOR_LENGTH> = length;
 
-	free(previous_shape);
-	(*t)-><TENSOR_SHAPE> = (int*) malloc(sizeof(int) * dims);
-	if((*t)-><TENSOR_SHAPE> == NULL) {
-		printf("ERROR: Could not allocated memory for the matrix shape\n");
-		exit(EXIT_FAILURE);
-    }	
+	/* Reuse the previous shape storage, if it is large enough */
+	if(previous_shape == NULL || dims > previous_dims) {
+		if(previous_shape != NULL) {
+<FREE_SHAPE>
+		}
+
+<ALLOCATE_SHAPE>
+		if((*t)-><TENSOR_SHAPE> == NULL) {
+			printf("ERROR: Could not allocated memory for the matrix shape\n");
+			exit(EXIT_FAILURE);
+		}
+	}
 	
 	for (i = 0; i < dims; ++i) {
 		(*t)-><TENSOR_SHAPE>[i] = shape[i];
@@ -35,15 +35,19 @@
 					exit(EXIT_FAILURE);
 				}
 
-				// Free previous data if view owns it
+				// Free previous data if view owns it, or release it if the view must
 				if((*view)->owns_data) {
 					free((*view)->data);
+				} else if((*view)-><TENSOR_RELEASE_DATA> != NULL) {
+					(*view)-><TENSOR_RELEASE_DATA>(*view);
+					(*view)-><TENSOR_RELEASE_DATA> = NULL;
 				}
 				
 				// Update view
 				(*view)->data = temp_pointer;
 				// Set data as owned
 				(*view)->owns_data = 1;
+				(*view)-><TENSOR_CAPACITY> = length;
 			}
 			
 			
@@ -72,10 +76,14 @@
 		else {
 			if((*view)->owns_data) {
 				free((*view)->data);
+			} else if((*view)-><TENSOR_RELEASE_DATA> != NULL) {
+				(*view)-><TENSOR_RELEASE_DATA>(*view);
+				(*view)-><TENSOR_RELEASE_DATA> = NULL;
 			}
 			//free((*view)-><TENSOR_DATA>);
 			(*view)-><TENSOR_DATA> = t-><TENSOR_DATA> + offset;
 			(*view)->owns_data = 0;
+			(*view)-><TENSOR_CAPACITY> = 0;
 		}
 
 		// Sanity check
@@ -96,6 +104,7 @@
        printf("ERROR: Could not allocate memory for the view structure\n");
 	   exit(EXIT_FAILURE);
 	}
+	(*view)-><TENSOR_RELEASE_DATA> = NULL;
 
 	// Correct shape if matrix is column vector
 	if(isColumn) {
@@ -110,6 +119,7 @@
 		/* Allocate memory and copy values */
 		if(copy) {
 			(*view)->owns_data = 1;
+			(*view)-><TENSOR_CAPACITY> = length;
 			(*view)-><TENSOR_DATA> = (<DATA_TYPE>*) malloc(sizeof(<DATA_TYPE>) * length);
 			for(i=0; i<length; i++) {
 				(*view)-><TENSOR_DATA>[i] = t-><TENSOR_DATA>[i + offset];
@@ -118,6 +128,7 @@
 		/* Assign a pointer to given tensor's data, plus an offset */
 		else {
 			(*view)->owns_data = 0;
+			(*view)-><TENSOR_CAPACITY> = 0;
 			(*view)-><TENSOR_DATA> = t-><TENSOR_DATA> + offset;
 		}
 	
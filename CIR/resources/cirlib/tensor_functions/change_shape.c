@@ -1,8 +1,16 @@
-   //free(thetas_roll->shape);
    int i;
+   int dims = <SHAPE_LENGTH>;
    
-   free(t->shape);
-   t->shape = malloc(sizeof(int) * <SHAPE_LENGTH>);
-   for(i=0; i<<SHAPE_LENGTH>; i++) {
+   /* The shape array holds at least t->dims elements, so it can be reused unless the new shape is longer */
+   if(dims > t->dims) {
+<FREE_SHAPE>
+<ALLOCATE_SHAPE>
+   }
+   for(i=0; i<dims; i++) {
 	   t->shape[i] = <SHAPE_GET>;
    }
+   
+   while (dims > 2 && t->shape[dims - 1] == 1) {
+	   --dims;
+   }
+   t->dims = dims;
@@ -1,53 +1,65 @@
 /*  create(int index_1, int index_2... tensor_d** t) */
 
 
-	int TRIES = 2;
 	int i;
 	int length;
+	int capacity;
 	int dims;
+	int reuse_shape = 0;
 	
-	/* If matrix is already allocated, free it */
-	if(*t != NULL) {
-	
-		<CALL_FREE>;
-		*t = NULL;
-	}
-
-	/* Create the tensor and return it. */	
-	for(i=0; i<TRIES; i++) {
-		*t = (<TENSOR_STRUCT>*) malloc(sizeof(<TENSOR_STRUCT>));
-		if (*t != NULL) {
-			break;
-		}
-	}
-
-	if (*t == NULL) {
-		printf("ERROR: Could not allocate memory for the matrix structure\n");
-		exit(EXIT_FAILURE);
-	}
-
 	/* Calculate the length of the linearized version of the tensor. */
 	length = <LENGTH_CALC>;
 	dims = <DIMS>;
 
-
-	if(length == 0) {
-		(*t)->data = NULL;
+	/* If the matrix already owns a large enough buffer, reuse it */
+	if(*t != NULL && (*t)-><TENSOR_OWNS_DATA> && (*t)-><TENSOR_DATA> != NULL && length <= (*t)-><TENSOR_CAPACITY>) {
+	
+		/* The shape storage can also be reused, if it is large enough */
+		if(dims <= (*t)-><TENSOR_DIMS>) {
+			reuse_shape = 1;
+		} else {
+<FREE_SHAPE>
+		}
 	} else {
-		(*t)->data = (<DATA_TYPE>*) <CUSTOM_DATA_ALLOCATOR>[[sizeof(<DATA_TYPE>) * length]];
-		if((*t)->data == NULL) {
-			printf("ERROR: Could not allocate memory for the matrix elements (%d elements)\n", length);
-			exit(EXIT_FAILURE);
+	
+		/* Grow geometrically, so that repeatedly growing a matrix has amortized linear cost */
+		capacity = length;
+		if(*t != NULL && (*t)-><TENSOR_OWNS_DATA> && (*t)-><TENSOR_CAPACITY> < (int) (~0u >> 2)
+				&& (*t)-><TENSOR_CAPACITY> * 2 > length) {
+			capacity = (*t)-><TENSOR_CAPACITY> * 2;
 		}
-	}
 	
+		/* If matrix is already allocated, free it */
+		if(*t != NULL) {
+	
+			<CALL_FREE>;
+			*t = NULL;
+		}
+
+		/* Create the tensor and return it. */	
+<ALLOCATE_HEADER>
 
-	(*t)->length = length;
+		if(capacity == 0) {
+			(*t)-><TENSOR_DATA> = NULL;
+		} else {
+			(*t)-><TENSOR_DATA> = (<DATA_TYPE>*) <CUSTOM_DATA_ALLOCATOR>[[sizeof(<DATA_TYPE>) * capacity]];
+			if((*t)-><TENSOR_DATA> == NULL) {
+				printf("ERROR: Could not allocate memory for the matrix elements (%d elements)\n", capacity);
+				exit(EXIT_FAILURE);
+			}
+		}
 
-	(*t)->shape = (int*) malloc(sizeof(int) * dims);
-	if((*t)->shape == NULL) {
-		printf("ERROR: Could not allocated memory for the matrix shape\n");
-		exit(EXIT_FAILURE);
+		(*t)-><TENSOR_CAPACITY> = capacity;
+	}
+
+	(*t)-><TENSOR_LENGTH> = length;
+
+	if(!reuse_shape) {
+<ALLOCATE_SHAPE>
+		if((*t)-><TENSOR_SHAPE> == NULL) {
+			printf("ERROR: Could not allocated memory for the matrix shape\n");
+			exit(EXIT_FAILURE);
+		}
 	}
 	
 <SHAPE_ASSIGN>
@@ -57,9 +69,9 @@ while (dims > 2 && (*t)->shape[dims - 1] == 1) {
 
 <INITIALIZE_DATA>
 
-	(*t)->dims = dims;
+	(*t)-><TENSOR_DIMS> = dims;
 
 	/* Data is owned by the tensor, since it allocated it */
-	(*t)->owns_data = 1;
+	(*t)-><TENSOR_OWNS_DATA> = 1;
 	
 	return *t;
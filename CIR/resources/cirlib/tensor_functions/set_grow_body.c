@@ -0,0 +1,89 @@
+/* set_grow(int index, ? value, tensor** t) */
+
+	int i;
+	int length;
+	int old_length;
+	int capacity;
+	int shape[2];
+	<DATA_TYPE>* data;
+
+	/* Negative indexes can not be made valid by growing the matrix */
+	if(index < 0) {
+		printf("ERROR (<FUNCTION_NAME>): Trying to access position %d in matrix with %d elements\n", index, *t == NULL ? 0 : (*t)-><TENSOR_LENGTH>);
+		exit(EXIT_FAILURE);
+	}
+
+	/* If the index is inside the matrix range, just set the value */
+	if(*t != NULL && index < (*t)-><TENSOR_LENGTH>) {
+		<ASSIGNMENT>;
+		return *t;
+	}
+
+	length = index + 1;
+	old_length = 0;
+
+	/* Empty matrices and row vectors grow as row vectors, column vectors grow as column vectors */
+	shape[0] = 1;
+	shape[1] = length;
+	if(*t != NULL) {
+		old_length = (*t)-><TENSOR_LENGTH>;
+
+		if(old_length > 0) {
+			if((*t)-><TENSOR_DIMS> > 2 || ((*t)-><TENSOR_SHAPE>[0] > 1 && (*t)-><TENSOR_SHAPE>[1] > 1)) {
+				printf("ERROR: In assignment A(I) = B, a matrix A can not be resized\n");
+				exit(EXIT_FAILURE);
+			}
+
+			if((*t)-><TENSOR_SHAPE>[0] > 1) {
+				shape[0] = length;
+				shape[1] = 1;
+			}
+		}
+	}
+
+	if(*t == NULL) {
+		<CALL_NEW_HELPER>(shape, 2, t);
+	} else if(!(*t)-><TENSOR_OWNS_DATA> || length > (*t)-><TENSOR_CAPACITY>) {
+		/* Grow geometrically, so that repeatedly appending to a matrix has amortized linear cost */
+		capacity = length;
+		if((*t)-><TENSOR_OWNS_DATA> && (*t)-><TENSOR_CAPACITY> < (int) (~0u >> 2)
+				&& (*t)-><TENSOR_CAPACITY> * 2 > length) {
+			capacity = (*t)-><TENSOR_CAPACITY> * 2;
+		}
+
+		data = (<DATA_TYPE>*) <CUSTOM_DATA_ALLOCATOR>[[sizeof(<DATA_TYPE>) * capacity]];
+		if(data == NULL) {
+			printf("ERROR: Could not allocate memory for the matrix elements (%d elements)\n", capacity);
+			exit(EXIT_FAILURE);
+		}
+
+		for(i = 0; i < old_length; ++i) {
+			data[i] = (*t)-><TENSOR_DATA>[i];
+		}
+
+		if((*t)-><TENSOR_OWNS_DATA>) {
+			<FREE_DATA_FUNCTION>[[(*t)-><TENSOR_DATA>]];
+		} else if((*t)-><TENSOR_RELEASE_DATA> != NULL) {
+			(*t)-><TENSOR_RELEASE_DATA>(*t);
+			(*t)-><TENSOR_RELEASE_DATA> = NULL;
+		}
+
+		(*t)-><TENSOR_DATA> = data;
+		(*t)-><TENSOR_CAPACITY> = capacity;
+		(*t)-><TENSOR_OWNS_DATA> = 1;
+	}
+
+	/* Growing within the capacity only updates the shape */
+	(*t)-><TENSOR_LENGTH> = length;
+	(*t)-><TENSOR_SHAPE>[0] = shape[0];
+	(*t)-><TENSOR_SHAPE>[1] = shape[1];
+	(*t)-><TENSOR_DIMS> = 2;
+
+	/* New elements are initialized to zero */
+	for(i = old_length; i < index; ++i) {
+		(*t)-><TENSOR_DATA>[i] = 0;
+	}
+
+	<ASSIGNMENT>;
+
+	return *t;
@@ -3,6 +3,11 @@
  *
  * Represents a tensor.
  * Has information about the shape of the tensor and the length of its linearized version.
+ * When the tensor owns its data, the capacity is the number of elements allocated for it,
+ * which can be larger than the length so that resizes within the capacity reuse the buffer.
+ * Small shapes can be stored in the structure itself, in which case the shape points to the inline shape.
+ * A tensor that does not own its data can still have to release it when it no longer uses it
+ * (e.g., a view of a mapped file), in which case release_data is the function that does it, and is NULL otherwise.
  *
  */
 typedef struct tensor_struct_<SMALL_ID> {
@@ -13,5 +18,8 @@ typedef struct tensor_struct_<SMALL_ID> {
 	int* <TENSOR_SHAPE>;
 	int <TENSOR_DIMS>;
 	int <TENSOR_OWNS_DATA>;
+	int <TENSOR_CAPACITY>;
+	void (*<TENSOR_RELEASE_DATA>)(struct tensor_struct_<SMALL_ID>*);
+	int <TENSOR_INLINE_SHAPE>[<INLINE_SHAPE_DIMS>];
 
 } <TENSOR_NAME>;
\ No newline at end of file
@@ -0,0 +1,213 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.CIR;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.specs.CIR.CodeGenerator.CodeGeneratorUtils;
+import org.specs.CIR.FunctionInstance.FunctionInstance;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Writes the .c and .h files of a CProject.
+ *
+ * <p>
+ * The code of each file is streamed to disk, instead of being built as a single string, and files whose content did not
+ * change keep their modification time, so that build tools only recompile what changed. Files can be generated and
+ * written in parallel.
+ */
+public class CProjectWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String TEMPORARY_SUFFIX = ".matisse-tmp";
+
+    private int threads = 1;
+
+    private final AtomicInteger writtenFiles = new AtomicInteger();
+    private final AtomicInteger unchangedFiles = new AtomicInteger();
+
+    /**
+     *
+     * @param threads
+     *            the number of files generated at the same time. 1 means sequential
+     * @return this writer
+     */
+    public CProjectWriter withThreads(int threads) {
+        Preconditions.checkArgument(threads > 0, "Expected at least one thread, got " + threads);
+
+        this.threads = threads;
+
+        return this;
+    }
+
+    /**
+     *
+     * @return the number of files written by this writer, because they were new or their content changed
+     */
+    public int getWrittenFiles() {
+        return writtenFiles.get();
+    }
+
+    /**
+     *
+     * @return the number of files that were not written, because their content did not change
+     */
+    public int getUnchangedFiles() {
+        return unchangedFiles.get();
+    }
+
+    public void write(CProject cproject, File outputFolder) {
+        List<FunctionInstance> instances = new ArrayList<>(cproject.getAllInstances().values());
+        Collection<CFile> cfiles = CirUtils.buildCFiles(instances);
+
+        List<GeneratedFile> files = new ArrayList<>();
+        for (CFile cmodule : cfiles) {
+            if (cmodule.hasHeaderFile()) {
+                files.add(new GeneratedFile(new File(outputFolder, cmodule.getIncludeSelf()), cmodule, true));
+            }
+
+            if (cmodule.hasImplementationFile()) {
+                files.add(new GeneratedFile(new File(outputFolder, cmodule.getCFilename()), cmodule, false));
+            }
+        }
+
+        // Folders are created before the files are written, to avoid concurrent creation of the same folder
+        Set<File> folders = new LinkedHashSet<>();
+        for (GeneratedFile file : files) {
+            folders.add(file.file.getParentFile());
+        }
+        for (File folder : folders) {
+            if (!folder.isDirectory() && !folder.mkdirs()) {
+                throw new RuntimeException("Could not create folder " + folder);
+            }
+        }
+
+        if (threads == 1 || files.size() < 2) {
+            for (GeneratedFile file : files) {
+                writeIfChanged(file);
+            }
+
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (GeneratedFile file : files) {
+                tasks.add(pool.submit(() -> writeIfChanged(file)));
+            }
+
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void writeIfChanged(GeneratedFile generatedFile) {
+        File file = generatedFile.file;
+        File temporaryFile = new File(file.getParentFile(), file.getName() + TEMPORARY_SUFFIX);
+
+        try {
+            MessageDigest digest = newDigest();
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new DigestOutputStream(new FileOutputStream(temporaryFile), digest), StandardCharsets.UTF_8),
+                    BUFFER_SIZE)) {
+
+                if (generatedFile.isHeader) {
+                    CodeGeneratorUtils.writeHFileCode(generatedFile.cmodule, writer);
+                } else {
+                    CodeGeneratorUtils.writeCFileCode(generatedFile.cmodule, writer);
+                }
+            }
+
+            if (file.isFile() && file.length() == temporaryFile.length()
+                    && Arrays.equals(digest.digest(), hash(file))) {
+
+                Files.delete(temporaryFile.toPath());
+                unchangedFiles.incrementAndGet();
+                return;
+            }
+
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            writtenFiles.incrementAndGet();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        } finally {
+            // Only left behind if the code generation, the comparison or the move failed
+            if (temporaryFile.exists()) {
+                temporaryFile.delete();
+            }
+        }
+    }
+
+    private static byte[] hash(File file) throws IOException {
+        MessageDigest digest = newDigest();
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream input = new FileInputStream(file)) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        return digest.digest();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class GeneratedFile {
+        final File file;
+        final CFile cmodule;
+        final boolean isHeader;
+
+        GeneratedFile(File file, CFile cmodule, boolean isHeader) {
+            this.file = file;
+            this.cmodule = cmodule;
+            this.isHeader = isHeader;
+        }
+    }
+}
@@ -89,6 +89,17 @@ public interface CirKeys {
     DataKey<String> CUSTOM_DATA_ALLOCATOR = KeyFactory.string("custom_data_allocator", "malloc($1)");
     DataKey<String> CUSTOM_ALLOCATION_HEADER = KeyFactory.string("custom_allocation_header", "");
 
+    /**
+     * Indicates if the structures of dynamic matrices are reused through a per-type pool, instead of being allocated
+     * and freed each time, and if small shapes are stored inside the structure.
+     * 
+     * <p>
+     * The data of the matrices is still allocated with {@link #CUSTOM_DATA_ALLOCATOR}. As default, returns 'false'.
+     * 
+     */
+    DataKey<Boolean> POOL_TENSOR_HEADERS = KeyFactory.bool("pool_tensor_headers")
+            .setDefault(() -> false);
+
     /**
      * TODO: Method will be unneeded after MemoryLayout is replaced with an Enumeration
      * 
@@ -155,36 +155,21 @@ public class CirUtils {
      * @param outputFolder
      */
     public static void writeProject(CProject cproject, File outputFolder) {
+        writeProject(cproject, outputFolder, 1);
+    }
 
-        // Collect implementations
-        // Map<String, FunctionInstance> implementations = collectImplementations(cproject);
-        Map<String, FunctionInstance> implementations = cproject.getAllInstances();
-
-        List<FunctionInstance> instances = SpecsFactory.newArrayList(implementations.values());
-
-        // Get CFiles
-        Collection<CFile> cfiles = buildCFiles(instances);
-
-        for (CFile cmodule : cfiles) {
-
-            // Get .h filename
-            if (cmodule.hasHeaderFile()) {
-                // File hfile = getHFile(cmodule, cproject, outputFolder);
-                File hfile = new File(outputFolder, cmodule.getIncludeSelf());
-                SpecsIo.mkdir(hfile.getParentFile().getPath());
-                SpecsIo.write(hfile, CodeGeneratorUtils.hFileCode(cmodule));
-
-            }
-
-            // Get .c filename
-            if (cmodule.hasImplementationFile()) {
-                // File cfile = getCFile(cmodule, cproject, outputFolder);
-                File cfile = new File(outputFolder, cmodule.getCFilename());
-                SpecsIo.mkdir(cfile.getParentFile().getPath());
-                SpecsIo.write(cfile, CodeGeneratorUtils.cFileCode(cmodule));
-            }
-        }
-
+    /**
+     * Writes the .c and .h files of the project. Files whose content did not change are not rewritten.
+     * 
+     * @param cproject
+     * @param outputFolder
+     * @param threads
+     *            the number of files generated at the same time
+     */
+    public static void writeProject(CProject cproject, File outputFolder, int threads) {
+        new CProjectWriter()
+                .withThreads(threads)
+                .write(cproject, outputFolder);
     }
 
     public static void writeProjectUniqueFile(CProject cproject, String baseName, File outputFolder) {
@@ -375,7 +360,7 @@ public class CirUtils {
      * @param values
      * @return
      */
-    private static Collection<CFile> buildCFiles(Collection<FunctionInstance> values) {
+    static Collection<CFile> buildCFiles(Collection<FunctionInstance> values) {
         Map<String, CFile> cfiles = SpecsFactory.newHashMap();
 
         for (FunctionInstance instance : values) {
@@ -14,6 +14,7 @@
 package org.specs.CIR.CodeGenerator;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -245,21 +246,39 @@ public class CodeGeneratorUtils {
     public static String hFileCode(CFile cModule) {
         StringBuilder builder = new StringBuilder();
 
+        try {
+            writeHFileCode(cModule, builder);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+            throw new RuntimeException(e);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Writes the code for the H file represented by 'cModule', without building the whole file in memory.
+     * 
+     * @param cModule
+     * @param output
+     * @throws IOException
+     */
+    public static void writeHFileCode(CFile cModule, Appendable output) throws IOException {
         // Comment
-        builder.append("/* Header file for ");
-        builder.append(cModule.getModuleName());
-        builder.append(" */\n\n");
+        output.append("/* Header file for ");
+        output.append(cModule.getModuleName());
+        output.append(" */\n\n");
 
         // ifndef
         String defName = cModule.getIfDefName();
-        builder.append("#ifndef ").append(defName).append("\n");
-        builder.append("#define ").append(defName).append("\n\n");
+        output.append("#ifndef ").append(defName).append("\n");
+        output.append("#define ").append(defName).append("\n\n");
 
         // Header includes
         Set<String> headerIncludes = CirUtils.getHeaderIncludes(cModule);
 
         String includeCode = getIncludeCode(headerIncludes, cModule.getModuleName());
-        builder.append(includeCode);
+        output.append(includeCode);
 
         // Function declarations
         for (FunctionInstance functionData : cModule.getFunctionList()) {
@@ -276,12 +295,10 @@ public class CodeGeneratorUtils {
             // String declaration = functionDeclarationHeader(functionData);
             String declaration = functionData.getDeclarationCode();
 
-            builder.append(declaration).append("\n\n");
+            output.append(declaration).append("\n\n");
         }
 
-        builder.append("#endif\n");
-
-        return builder.toString();
+        output.append("#endif\n");
     }
 
     public static String getIncludeCode(Set<String> headerIncludes, String filename) {
@@ -330,8 +347,26 @@ public class CodeGeneratorUtils {
     public static String cFileCode(CFile cModule) {
         StringBuilder builder = new StringBuilder();
 
+        try {
+            writeCFileCode(cModule, builder);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+            throw new RuntimeException(e);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Writes the code for the C file represented by 'cModule', one function at a time.
+     * 
+     * @param cModule
+     * @param output
+     * @throws IOException
+     */
+    public static void writeCFileCode(CFile cModule, Appendable output) throws IOException {
         // Comment
-        builder.append("/* Implementation file for ").append(cModule.getModuleName()).append(" */\n\n");
+        output.append("/* Implementation file for ").append(cModule.getModuleName()).append(" */\n\n");
 
         // Add includes
         Set<String> includes = new HashSet<>();
@@ -352,7 +387,7 @@ public class CodeGeneratorUtils {
         includes.addAll(CirUtils.getBodyIncludes(cModule));
 
         String includeCode = getIncludeCode(includes, cModule.getModuleName());
-        builder.append(includeCode);
+        output.append(includeCode);
 
         // Add functions
         for (FunctionInstance functionData : cModule.getFunctionList()) {
@@ -361,10 +396,8 @@ public class CodeGeneratorUtils {
             }
 
             String functionImplementation = functionData.getImplementationCode();
-            builder.append("\n").append(functionImplementation);
+            output.append("\n").append(functionImplementation);
         }
-
-        return builder.toString();
     }
 
     /**
@@ -0,0 +1,62 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.CIR.FunctionInstance.Instances;
+
+import org.specs.CIR.FunctionInstance.FunctionInstance;
+import org.specs.CIR.FunctionInstance.FunctionType;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A function whose .c and .h files were written by a previous compilation, and are still up-to-date.
+ * 
+ * <p>
+ * Calls to this function include its header, as usual, but the function adds no code to the project, so its files are
+ * left untouched.
+ */
+public class PrebuiltInstance extends FunctionInstance {
+
+    private final String cFunctionName;
+    private final String cFilename;
+
+    public PrebuiltInstance(FunctionType functionTypes, String cFunctionName, String cFilename) {
+        super(functionTypes);
+
+        Preconditions.checkArgument(cFunctionName != null);
+        Preconditions.checkArgument(cFilename != null);
+
+        this.cFunctionName = cFunctionName;
+        this.cFilename = cFilename;
+    }
+
+    @Override
+    public String getCName() {
+        return cFunctionName;
+    }
+
+    @Override
+    public String getCFilename() {
+        return cFilename;
+    }
+
+    @Override
+    public boolean hasImplementation() {
+        return false;
+    }
+
+    @Override
+    public boolean hasDeclaration() {
+        return false;
+    }
+}
@@ -70,6 +70,16 @@ public class DynamicMatrixFunctions implements MatrixFunctions {
         return (ProviderData data) -> new SetDynamic(data).create();
     }
 
+    /**
+     * Sets a single value in a matrix, using a linear zero-based index, growing the matrix if the index is outside its
+     * range, like A(I) = B.
+     * 
+     * @see SetDynamic#createGrowing()
+     */
+    public InstanceProvider setGrowing() {
+        return (ProviderData data) -> new SetDynamic(data).createGrowing();
+    }
+
     @Override
     public InstanceProvider free() {
         return Free.getProvider();
@@ -31,6 +31,7 @@ import org.specs.CIR.Types.ATypes.Matrix.MatrixType;
 import org.specs.CIR.Utilities.InputChecker.CirInputsChecker;
 import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixUtils;
 import org.specs.CIRTypes.Types.DynamicMatrix.Utils.DynamicMatrixResource;
+import org.specs.CIRTypes.Types.DynamicMatrix.Utils.TensorHeaders;
 import org.specs.CIRTypes.Types.Void.VoidType;
 
 import pt.up.fe.specs.util.utilities.Replacer;
@@ -89,6 +90,10 @@ public class ChangeShape extends AInstanceBuilder {
 	body.replace("<SHAPE_LENGTH>", shapeNumel.getCode());
 	body.replace("<SHAPE_GET>", shapeGet.getCode());
 
+	MatrixType matrixType = getData().getInputType(MatrixType.class, 0);
+	TensorHeaders headers = new TensorHeaders(getData(), matrixType.matrix().getElementType());
+	headers.replaceTags(body, "t", "dims");
+
 	LiteralInstance instance = new LiteralInstance(type, functionName, filename, body.toString());
 
 	// Complete instance
@@ -42,6 +42,8 @@ import org.specs.CIR.Utilities.InputChecker.CirInputsChecker;
 import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixType;
 import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixUtils;
 import org.specs.CIRTypes.Types.DynamicMatrix.Utils.DynamicMatrixResource;
+import org.specs.CIRTypes.Types.DynamicMatrix.Utils.DynamicMatrixStruct;
+import org.specs.CIRTypes.Types.DynamicMatrix.Utils.TensorHeaders;
 
 import pt.up.fe.specs.util.utilities.Replacer;
 
@@ -123,6 +125,11 @@ public class Create extends AInstanceBuilder {
         instance.setCustomImplementationIncludes(SystemInclude.Stdlib, SystemInclude.Stdio);
         instance.getCustomImplementationInstances().add(callInstances);
 
+        TensorHeaders headers = new TensorHeaders(getData(), elementType);
+        if (headers.isPooled()) {
+            instance.getCustomImplementationInstances().add(headers.getPoolInstance());
+        }
+
         return instance;
     }
 
@@ -137,8 +144,7 @@ public class Create extends AInstanceBuilder {
 
         body.replace("<DIMS>", inputNames.size());
 
-        body.replaceRegex("<CUSTOM_DATA_ALLOCATOR>\\[\\[(.*)\\]\\]",
-                getData().getSettings().get(CirKeys.CUSTOM_DATA_ALLOCATOR));
+        DynamicMatrixStruct.replaceFields(getData(), body);
 
         // MatrixNodes matrixNodes = new MatrixNodes(getSetup());
 
@@ -147,6 +153,9 @@ public class Create extends AInstanceBuilder {
         callInstances.add(freeCall);
         body.replace("<CALL_FREE>", freeCall.getCode());
 
+        TensorHeaders headers = new TensorHeaders(getData(), elementType);
+        headers.replaceTags(body, "(*t)", "dims");
+
         StringJoiner lengthCalc = new StringJoiner(" * ");
         inputNames.forEach((input) -> lengthCalc.add(input));
         body.replace("<LENGTH_CALC>", lengthCalc.toString());
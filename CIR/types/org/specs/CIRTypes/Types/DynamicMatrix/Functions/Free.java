@@ -34,6 +34,7 @@ import org.specs.CIR.Utilities.InputChecker.CirInputsChecker;
 import org.specs.CIRFunctions.MatrixAlloc.TensorCreationResource;
 import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixType;
 import org.specs.CIRTypes.Types.DynamicMatrix.Utils.DynamicMatrixStruct;
+import org.specs.CIRTypes.Types.DynamicMatrix.Utils.TensorHeaders;
 import org.specs.CIRTypes.Types.Void.VoidType;
 
 import pt.up.fe.specs.util.SpecsIo;
@@ -96,6 +97,9 @@ public class Free extends AInstanceBuilder {
 
         // Apply changes to default fields
         DynamicMatrixStruct.replaceFields(getData(), body);
+
+        TensorHeaders headers = new TensorHeaders(getData(), elementType);
+        headers.replaceTags(body, "(*t)", "0");
         // replacer.replace("<TENSOR_DATA>", DynamicMatrixStruct.TENSOR_DATA);
         // replacer.replace("<TENSOR_SHAPE>", DynamicMatrixStruct.TENSOR_SHAPE);
 
@@ -106,6 +110,10 @@ public class Free extends AInstanceBuilder {
             setTensor.setCustomImplementationIncludes(customAllocationHeader);
         }
 
+        if (headers.isPooled()) {
+            setTensor.getCustomImplementationInstances().add(headers.getPoolInstance());
+        }
+
         // Set comments
         String comments = freeCommentsResource.getValue();
         setTensor.setComments(comments);
@@ -39,6 +39,7 @@ import org.specs.CIRFunctions.MatrixAlloc.TensorCreationResource;
 import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixType;
 import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixUtils;
 import org.specs.CIRTypes.Types.DynamicMatrix.Utils.DynamicMatrixStruct;
+import org.specs.CIRTypes.Types.DynamicMatrix.Utils.TensorHeaders;
 import org.specs.CIRTypes.Types.Pointer.PointerType;
 
 import pt.up.fe.specs.util.SpecsIo;
@@ -130,6 +131,9 @@ public class CreateHelper extends AInstanceBuilder {
         cBody.replace("<CALL_IS_SAME_SHAPE>", isSameShapeInstance.getCName());
         cBody.replace("<CALL_FREE>", freeInstance.getCName());
 
+        TensorHeaders headers = new TensorHeaders(getData(), elementType);
+        headers.replaceTags(cBody, "(*t)", dimsName);
+
         List<CNode> dependentInstances = new ArrayList<>();
 
         if (elementType.code().requiresExplicitInitialization()) {
@@ -167,6 +171,9 @@ public class CreateHelper extends AInstanceBuilder {
         // Set instance
         newEmptyTensor.getCustomImplementationInstances().add(isSameShapeInstance, freeInstance);
         newEmptyTensor.getCustomImplementationInstances().add(dependentInstances);
+        if (headers.isPooled()) {
+            newEmptyTensor.getCustomImplementationInstances().add(headers.getPoolInstance());
+        }
 
         return newEmptyTensor;
     }
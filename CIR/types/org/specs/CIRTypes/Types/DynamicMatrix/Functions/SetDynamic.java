@@ -15,6 +15,7 @@ package org.specs.CIRTypes.Types.DynamicMatrix.Functions;
 
 import static org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixFunctions.getFilename;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
@@ -38,8 +39,11 @@ import org.specs.CIR.Types.VariableType;
 import org.specs.CIR.Types.ATypes.Matrix.MatrixFunctionName;
 import org.specs.CIR.Types.ATypes.Matrix.MatrixType;
 import org.specs.CIR.Types.ATypes.Matrix.MatrixUtils;
+import org.specs.CIR.Types.ATypes.Scalar.ScalarUtils;
+import org.specs.CIR.Types.Views.Code.CodeUtils;
 import org.specs.CIR.Utilities.AssignmentUtils;
 import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixType;
+import org.specs.CIRTypes.Types.DynamicMatrix.Functions.LowLevel.CreateHelper;
 import org.specs.CIRTypes.Types.DynamicMatrix.Utils.DynamicMatrixResource;
 import org.specs.CIRTypes.Types.DynamicMatrix.Utils.DynamicMatrixStruct;
 import org.specs.CIRTypes.Types.Void.VoidType;
@@ -48,6 +52,7 @@ import com.google.common.base.Preconditions;
 
 import pt.up.fe.specs.util.SpecsFactory;
 import pt.up.fe.specs.util.SpecsIo;
+import pt.up.fe.specs.util.utilities.Replacer;
 
 /**
  * Creates a new instance of the function 'set', which sets a single value in an allocated matrix. Uses zero-based
@@ -90,6 +95,79 @@ public class SetDynamic extends AInstanceBuilder {
 
     }
 
+    /**
+     * Creates a new instance of the function 'set_tensor_grow', which sets a single value in a matrix using a linear
+     * zero-based index. If the index is outside the range of the matrix, the matrix grows as in A(I) = B, and the
+     * elements between the previous end and the index are set to zero.
+     * 
+     * <p>
+     * The matrix grows geometrically, and a grow within its capacity reuses the buffer, so appending elements in a loop
+     * has amortized constant cost per element.
+     * 
+     * <p>
+     * FunctionCall receives:<br>
+     * - A matrix, whose values will be set;<br>
+     * - An integer with the linear zero-based index;<br>
+     * - A value, which will be used to set the matrix at the specified index;<br>
+     * The matrix is also the output (as input) of the function.
+     * 
+     * @return
+     */
+    public FunctionInstance createGrowing() {
+        Preconditions.checkArgument(getData().getNumInputs() == 3, "Growing set must have exactly one index");
+
+        MatrixType matrixType = getTypeAtIndex(MatrixType.class, 0);
+        VariableType elementType = MatrixUtils.getElementType(matrixType);
+        Preconditions.checkArgument(!elementType.code().requiresExplicitInitialization(),
+                "Growing set does not support elements that require explicit initialization: " + elementType);
+
+        String functionName = "set_tensor_grow_" + elementType.getSmallId();
+
+        String tensorName = "t";
+        String indexName = "index";
+        String valueName = "value";
+
+        DynamicMatrixType tensorType = DynamicMatrixType.newInstance(elementType);
+
+        List<String> inputNames = Arrays.asList(indexName, valueName);
+        List<VariableType> inputTypes = Arrays.asList(getNumerics().newInt(), elementType);
+        FunctionType fTypes = FunctionType.newInstanceWithOutputsAsInputs(inputNames, inputTypes, tensorName,
+                tensorType);
+
+        // Instance that creates the matrix, if it does not exist yet
+        FunctionInstance newHelperInstance = CreateHelper.getProvider(ScalarUtils.toScalar(elementType))
+                .newCInstance(getData());
+
+        VariableNode tensorNode = CNodeFactory.newVariable(tensorName, tensorType.pointer().getType(true));
+
+        Replacer body = new Replacer(SpecsIo.getResource(DynamicMatrixResource.SET_GROW_BODY));
+
+        body.replace("<FUNCTION_NAME>", functionName);
+        body.replace("<DATA_TYPE>", CodeUtils.getType(elementType));
+        body.replace("<CALL_NEW_HELPER>", newHelperInstance.getCName());
+        body.replace("<ASSIGNMENT>",
+                MatrixCode.getAllocStore(tensorNode, indexName, CNodeFactory.newVariable(valueName, elementType),
+                        getData()));
+        DynamicMatrixStruct.replaceFields(getData(), body);
+
+        LiteralInstance setInstance = new LiteralInstance(fTypes, functionName, getFilename(), body.toString());
+
+        setInstance.getCustomImplementationInstances().add(newHelperInstance);
+        setInstance.getCustomImplementationInstances()
+                .add(AssignmentUtils.getAssignmentInstances(elementType, elementType, getData()));
+
+        List<String> includes = new ArrayList<>();
+        includes.add(SystemInclude.Stdio.getIncludeName());
+        includes.add(SystemInclude.Stdlib.getIncludeName());
+        String customAllocationHeader = getSettings().get(CirKeys.CUSTOM_ALLOCATION_HEADER);
+        if (!customAllocationHeader.isEmpty()) {
+            includes.add(customAllocationHeader);
+        }
+        setInstance.setCustomImplementationIncludes(includes);
+
+        return setInstance;
+    }
+
     /**
      * Creates a new instance of the function 'set', which sets a single value in an allocated matrix. Uses zero-based
      * indexing.
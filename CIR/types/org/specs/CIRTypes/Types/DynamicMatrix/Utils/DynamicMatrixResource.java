@@ -33,6 +33,7 @@ public enum DynamicMatrixResource implements ResourceProvider {
     SET_MATRIX_VALUES_BODY("set_matrix_values_body.c"),
     GET_VALUE_BODY("get_value_body.c"),
     SET_VALUE_BODY("set_value_body.c"),
+    SET_GROW_BODY("set_grow_body.c"),
     TRANSPOSE_BODY("transpose_body.c");
 
     private final static String RESOURCE_FOLDER = "cirlib/tensor_functions";
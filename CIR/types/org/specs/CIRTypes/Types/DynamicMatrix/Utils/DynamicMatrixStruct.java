@@ -42,6 +42,18 @@ public class DynamicMatrixStruct {
     public final static String TENSOR_DIMS = "dims";
     public final static String TENSOR_SHAPE = "shape";
     public final static String TENSOR_DATA = "data";
+    public final static String TENSOR_CAPACITY = "capacity";
+    public final static String TENSOR_INLINE_SHAPE = "inline_shape";
+    /**
+     * Function that releases the data of a tensor that does not own it, but that must release it when it no longer
+     * uses it (e.g., a view of a mapped file), or NULL.
+     */
+    public final static String TENSOR_RELEASE_DATA = "release_data";
+
+    /**
+     * Maximum number of dimensions of shapes that can be stored in {@link #TENSOR_INLINE_SHAPE}.
+     */
+    public final static int INLINE_SHAPE_DIMS = 4;
 
     private static ThreadSafeLazy<String> structResource = new ThreadSafeLazy<>(
             () -> SpecsIo.getResource(TENSOR_STRUCT_RESOURCE));
@@ -75,6 +87,7 @@ public class DynamicMatrixStruct {
         // Replace fields
         body.replace("<SMALL_ID>", varType.getSmallId());
         body.replace("<DATA_TYPE>", CodeUtils.getType(varType));
+        body.replace("<INLINE_SHAPE_DIMS>", INLINE_SHAPE_DIMS);
 
         replaceFields(null, body);
         /*
@@ -103,6 +116,9 @@ public class DynamicMatrixStruct {
         code.replace("<TENSOR_SHAPE>", TENSOR_SHAPE);
         code.replace("<TENSOR_DIMS>", TENSOR_DIMS);
         code.replace("<TENSOR_OWNS_DATA>", TENSOR_OWNS_DATA);
+        code.replace("<TENSOR_CAPACITY>", TENSOR_CAPACITY);
+        code.replace("<TENSOR_INLINE_SHAPE>", TENSOR_INLINE_SHAPE);
+        code.replace("<TENSOR_RELEASE_DATA>", TENSOR_RELEASE_DATA);
         if (providerData != null) {
             code.replaceRegex("<FREE_DATA_FUNCTION>\\[\\[(.*)\\]\\]",
                     providerData.getSettings().get(CirKeys.CUSTOM_FREE_DATA_CODE));
@@ -0,0 +1,196 @@
+/**
+ * Copyright 2026 SPeCS.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+
+package org.specs.CIRTypes.Types.DynamicMatrix.Utils;
+
+import java.util.Arrays;
+
+import org.specs.CIR.CirKeys;
+import org.specs.CIR.FunctionInstance.FunctionInstance;
+import org.specs.CIR.FunctionInstance.FunctionType;
+import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.CIR.FunctionInstance.Instances.LiteralInstance;
+import org.specs.CIR.Language.SystemInclude;
+import org.specs.CIR.Types.VariableType;
+import org.specs.CIRFunctions.MatrixAlloc.TensorCreationResource;
+import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixType;
+import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixUtils;
+
+import pt.up.fe.specs.util.SpecsIo;
+import pt.up.fe.specs.util.lazy.ThreadSafeLazy;
+import pt.up.fe.specs.util.utilities.Replacer;
+
+/**
+ * Generates the code that allocates and frees the structure and the shape of dynamic matrices.
+ * 
+ * <p>
+ * If {@link CirKeys#POOL_TENSOR_HEADERS} is enabled, structures are acquired from and released to a per-type pool, and
+ * shapes with up to {@link DynamicMatrixStruct#INLINE_SHAPE_DIMS} dimensions are stored in the structure. Otherwise,
+ * both are allocated with malloc.
+ */
+public class TensorHeaders {
+
+    private static final int POOL_CAPACITY = 64;
+
+    private static final ThreadSafeLazy<String> headerPoolBodyResource = new ThreadSafeLazy<>(
+            () -> SpecsIo.getResource(TensorCreationResource.HEADER_POOL_BODY));
+
+    private final VariableType elementType;
+    private final String structName;
+    private final boolean pooled;
+
+    public TensorHeaders(ProviderData data, VariableType elementType) {
+        this.elementType = elementType;
+        this.structName = DynamicMatrixUtils.getStructInstance(DynamicMatrixType.newInstance(elementType)).getCName();
+        this.pooled = data.getSettings().get(CirKeys.POOL_TENSOR_HEADERS);
+    }
+
+    public boolean isPooled() {
+        return pooled;
+    }
+
+    /**
+     * 
+     * @return the function that acquires (when called with NULL) or releases structures of the matrix type, or null if
+     *         structures are not pooled
+     */
+    public FunctionInstance getPoolInstance() {
+        if (!pooled) {
+            return null;
+        }
+
+        String functionName = "tensor_header_pool_" + elementType.getSmallId();
+
+        DynamicMatrixType tensorType = DynamicMatrixType.newInstance(elementType);
+        FunctionType functionType = FunctionType.newInstance(Arrays.asList("header"), Arrays.asList(tensorType),
+                "pooled", tensorType);
+
+        Replacer body = new Replacer(headerPoolBodyResource.getValue());
+        body.replace("<TENSOR_STRUCT>", structName);
+        body.replace("<POOL_CAPACITY>", POOL_CAPACITY);
+        DynamicMatrixStruct.replaceFields(null, body);
+
+        LiteralInstance instance = new LiteralInstance(functionType, functionName, DynamicMatrixUtils.getFilename(),
+                body.toString());
+        instance.setCustomImplementationIncludes(SystemInclude.Stdlib, SystemInclude.Stdio);
+
+        return instance;
+    }
+
+    /**
+     * 
+     * @param tensor
+     *            the code of the matrix pointer (e.g., (*t))
+     * @return code that assigns a new structure, without data to release, to the given matrix pointer
+     */
+    public String getAllocateCode(String tensor) {
+        if (pooled) {
+            return tensor + " = " + getPoolInstance().getCName() + "(NULL);\n";
+        }
+
+        return tensor + " = (" + structName + "*) malloc(sizeof(" + structName + "));\n"
+                + "if (" + tensor + " == NULL) {\n"
+                + "\tprintf(\"ERROR: Could not allocate memory for the matrix structure\\n\");\n"
+                + "\texit(EXIT_FAILURE);\n"
+                + "}\n"
+                + tensor + "->" + DynamicMatrixStruct.TENSOR_RELEASE_DATA + " = NULL;\n";
+    }
+
+    /**
+     * 
+     * @param tensor
+     *            the code of the matrix pointer (e.g., (*t))
+     * @return code that frees the structure of the given matrix, but not its data nor its shape
+     */
+    public String getReleaseCode(String tensor) {
+        if (pooled) {
+            return getPoolInstance().getCName() + "(" + tensor + ");\n";
+        }
+
+        return "free(" + tensor + ");\n";
+    }
+
+    /**
+     * 
+     * @param tensor
+     *            the code of the matrix pointer (e.g., (*t))
+     * @param dims
+     *            the code of the number of dimensions of the shape
+     * @return code that assigns storage for the shape of the given matrix. The caller must check if the shape is NULL
+     */
+    public String getAllocateShapeCode(String tensor, String dims) {
+        String shape = tensor + "->" + DynamicMatrixStruct.TENSOR_SHAPE;
+        String allocation = shape + " = (int*) malloc(sizeof(int) * " + dims + ");\n";
+
+        if (!pooled) {
+            return allocation;
+        }
+
+        return "if (" + dims + " <= " + DynamicMatrixStruct.INLINE_SHAPE_DIMS + ") {\n"
+                + "\t" + shape + " = " + tensor + "->" + DynamicMatrixStruct.TENSOR_INLINE_SHAPE + ";\n"
+                + "} else {\n"
+                + "\t" + allocation
+                + "}\n";
+    }
+
+    /**
+     * 
+     * @param tensor
+     *            the code of the matrix pointer (e.g., (*t))
+     * @return code that frees the storage of the shape of the given matrix
+     */
+    public String getFreeShapeCode(String tensor) {
+        return getFreeShapeCode(tensor, pooled);
+    }
+
+    /**
+     * 
+     * @param tensor
+     *            the code of the matrix pointer (e.g., (*t))
+     * @param inlineShapes
+     *            if true, the shape might be stored in the structure
+     * @return code that frees the storage of the shape of the given matrix
+     */
+    public static String getFreeShapeCode(String tensor, boolean inlineShapes) {
+        String shape = tensor + "->" + DynamicMatrixStruct.TENSOR_SHAPE;
+
+        if (!inlineShapes) {
+            return "free(" + shape + ");\n";
+        }
+
+        return "if (" + shape + " != " + tensor + "->" + DynamicMatrixStruct.TENSOR_INLINE_SHAPE + ") {\n"
+                + "\tfree(" + shape + ");\n"
+                + "}\n";
+    }
+
+    /**
+     * Replaces the tags &lt;ALLOCATE_HEADER&gt;, &lt;RELEASE_HEADER&gt;, &lt;ALLOCATE_SHAPE&gt; and &lt;FREE_SHAPE&gt;
+     * in the given template.
+     * 
+     * @param body
+     * @param tensor
+     *            the code of the matrix pointer (e.g., (*t))
+     * @param dims
+     *            the code of the number of dimensions, used when allocating the shape
+     * @return the given body
+     */
+    public Replacer replaceTags(Replacer body, String tensor, String dims) {
+        body.replace("<ALLOCATE_HEADER>", getAllocateCode(tensor));
+        body.replace("<RELEASE_HEADER>", getReleaseCode(tensor));
+        body.replace("<ALLOCATE_SHAPE>", getAllocateShapeCode(tensor, dims));
+        body.replace("<FREE_SHAPE>", getFreeShapeCode(tensor));
+
+        return body;
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.CIR;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.specs.CIR.FunctionInstance.FunctionInstance;
+import org.specs.CIR.FunctionInstance.FunctionType;
+import org.specs.CIR.FunctionInstance.FunctionTypeBuilder;
+import org.specs.CIR.FunctionInstance.Instances.LiteralInstance;
+import org.specs.CIR.Passes.CRecipe;
+import org.specs.CIRTypes.Types.Numeric.NumericFactory;
+
+import pt.up.fe.specs.util.SpecsIo;
+
+public class CProjectWriterTest {
+
+    private static final FileTime OLD_TIME = FileTime.fromMillis(1_000_000_000_000L);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testUnchangedFilesKeepModificationTime() throws IOException {
+        File folder = temporaryFolder.newFolder();
+
+        CProjectWriter firstWriter = new CProjectWriter();
+        firstWriter.write(newProject("return 1;", "return 2;"), folder);
+        Assert.assertEquals(4, firstWriter.getWrittenFiles());
+        Assert.assertEquals(0, firstWriter.getUnchangedFiles());
+
+        File first = new File(folder, "first.c");
+        File second = new File(folder, "second.c");
+        File secondHeader = new File(folder, "second.h");
+        for (File file : Arrays.asList(first, second, secondHeader)) {
+            Files.setLastModifiedTime(file.toPath(), OLD_TIME);
+        }
+
+        CProjectWriter secondWriter = new CProjectWriter();
+        secondWriter.write(newProject("return 1;", "return 3;"), folder);
+
+        // Only the implementation of the second function changed
+        Assert.assertEquals(1, secondWriter.getWrittenFiles());
+        Assert.assertEquals(3, secondWriter.getUnchangedFiles());
+
+        Assert.assertEquals(OLD_TIME, Files.getLastModifiedTime(first.toPath()));
+        Assert.assertEquals(OLD_TIME, Files.getLastModifiedTime(secondHeader.toPath()));
+        Assert.assertNotEquals(OLD_TIME, Files.getLastModifiedTime(second.toPath()));
+        Assert.assertTrue(SpecsIo.read(second).contains("return 3;"));
+
+        assertNoTemporaryFiles(folder);
+    }
+
+    @Test
+    public void testParallelWrite() throws IOException {
+        File sequentialFolder = temporaryFolder.newFolder();
+        File parallelFolder = temporaryFolder.newFolder();
+
+        new CProjectWriter().write(newProject("return 1;", "return 2;"), sequentialFolder);
+
+        CProjectWriter parallelWriter = new CProjectWriter().withThreads(4);
+        parallelWriter.write(newProject("return 1;", "return 2;"), parallelFolder);
+        Assert.assertEquals(4, parallelWriter.getWrittenFiles());
+
+        for (String name : Arrays.asList("first.c", "first.h", "second.c", "second.h")) {
+            Assert.assertEquals(name, SpecsIo.read(new File(sequentialFolder, name)),
+                    SpecsIo.read(new File(parallelFolder, name)));
+        }
+
+        CProjectWriter secondParallelWriter = new CProjectWriter().withThreads(4);
+        secondParallelWriter.write(newProject("return 1;", "return 2;"), parallelFolder);
+        Assert.assertEquals(0, secondParallelWriter.getWrittenFiles());
+        Assert.assertEquals(4, secondParallelWriter.getUnchangedFiles());
+
+        assertNoTemporaryFiles(parallelFolder);
+    }
+
+    @Test
+    public void testFailedGenerationRemovesTemporaryFile() throws IOException {
+        File folder = temporaryFolder.newFolder();
+
+        CProject project = new CProject(CRecipe.empty(), CirTestUtils.newDefaultSettings());
+        project.addFunction(new LiteralInstance(newFunctionType(), "broken", "broken", "return 0;") {
+            @Override
+            public String getImplementationCode() {
+                throw new IllegalStateException("Generation failed");
+            }
+        });
+
+        try {
+            new CProjectWriter().write(project, folder);
+            Assert.fail("Expected the generation to fail");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("Generation failed", e.getMessage());
+        }
+
+        Assert.assertFalse(new File(folder, "broken.c").exists());
+        assertNoTemporaryFiles(folder);
+    }
+
+    private static CProject newProject(String firstBody, String secondBody) {
+        CProject project = new CProject(CRecipe.empty(), CirTestUtils.newDefaultSettings());
+        project.addFunction(newFunction("first", firstBody));
+        project.addFunction(newFunction("second", secondBody));
+
+        return project;
+    }
+
+    private static FunctionInstance newFunction(String name, String body) {
+        return new LiteralInstance(newFunctionType(), name, name, body);
+    }
+
+    private static FunctionType newFunctionType() {
+        return FunctionTypeBuilder.newSimple()
+                .returning(NumericFactory.defaultFactory().newInt())
+                .build();
+    }
+
+    private static void assertNoTemporaryFiles(File folder) {
+        List<String> temporaryFiles = SpecsIo.getFilesRecursive(folder).stream()
+                .map(File::getName)
+                .filter(name -> name.endsWith(".matisse-tmp"))
+                .collect(Collectors.toList());
+
+        Assert.assertEquals(Arrays.asList(), temporaryFiles);
+    }
+}
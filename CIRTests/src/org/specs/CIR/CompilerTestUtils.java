@@ -0,0 +1,201 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.CIR;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.specs.CIR.FunctionInstance.FunctionInstance;
+import org.specs.CIR.FunctionInstance.FunctionType;
+import org.specs.CIR.FunctionInstance.FunctionTypeBuilder;
+import org.specs.CIR.FunctionInstance.Instances.LiteralInstance;
+import org.specs.CIR.Language.SystemInclude;
+import org.specs.CIR.Passes.CRecipe;
+import org.specs.CIRTypes.Types.Numeric.NumericFactory;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+
+import pt.up.fe.specs.util.SpecsIo;
+
+/**
+ * Compiles and runs generated C code in tests.
+ * 
+ * <p>
+ * The C compiler is given by the system property {@value #CC_PROPERTY} (by default, gcc). Tests that need it are
+ * skipped when it is not available.
+ */
+public class CompilerTestUtils {
+
+    public static final String CC_PROPERTY = "matisse.tests.cc";
+
+    private static final String EXECUTABLE_NAME = "test.exe";
+    private static final String HARNESS_FUNCTION = "run_test";
+    private static final String HARNESS_FILENAME = "test_harness";
+
+    private static Boolean compilerAvailable;
+
+    public static void assumeCompilerAvailable() {
+        Assume.assumeTrue("C compiler not available", isCompilerAvailable());
+    }
+
+    private static synchronized boolean isCompilerAvailable() {
+        if (compilerAvailable == null) {
+            try {
+                compilerAvailable = run(Arrays.asList(getCompiler(), "--version"), new File(".")).exitCode == 0;
+            } catch (UncheckedIOException e) {
+                compilerAvailable = false;
+            }
+        }
+
+        return compilerAvailable;
+    }
+
+    private static String getCompiler() {
+        return System.getProperty(CC_PROPERTY, "gcc");
+    }
+
+    /**
+     * Writes a program whose main() runs the given test code, together with the code of the given instances and of
+     * their dependencies.
+     * 
+     * <p>
+     * The test code is the body of a function that returns 0 when the test passes. It can use EXPECT(condition), which
+     * fails the test when the condition does not hold.
+     */
+    public static void writeHarness(File folder, DataStore settings, String testCode,
+            FunctionInstance... dependencies) {
+
+        FunctionType functionType = FunctionTypeBuilder.newSimple()
+                .returning(NumericFactory.defaultFactory().newInt())
+                .build();
+
+        String body = "#define EXPECT(condition) "
+                + "if (!(condition)) { printf(\"FAIL: %s\\n\", #condition); return 1; }\n\n"
+                + testCode
+                + "\n#undef EXPECT\n";
+        LiteralInstance harness = new LiteralInstance(functionType, HARNESS_FUNCTION, HARNESS_FILENAME, body);
+        harness.setCustomImplementationIncludes(SystemInclude.Stdio.getIncludeName(),
+                SystemInclude.Stdlib.getIncludeName());
+        harness.getCustomImplementationInstances().add(dependencies);
+
+        CProject project = new CProject(CRecipe.empty(), settings);
+        project.addFunction(harness);
+        CirUtils.writeProjectUniqueFile(project, HARNESS_FILENAME, folder);
+
+        SpecsIo.write(new File(folder, "main.c"), "int " + HARNESS_FUNCTION + "();\n"
+                + "\n"
+                + "int main() {\n"
+                + "\treturn " + HARNESS_FUNCTION + "();\n"
+                + "}\n");
+    }
+
+    /**
+     * Compiles all C files in the folder, with the folder as an include directory, runs the executable and returns
+     * its output. Fails the test if the compilation or the program fail.
+     */
+    public static String compileAndRun(File folder, String... flags) {
+        return run(compile(folder, flags));
+    }
+
+    /**
+     * Compiles all C files in the folder, with the folder as an include directory. Fails the test if the compilation
+     * fails.
+     * 
+     * @return the executable
+     */
+    public static File compile(File folder, String... flags) {
+        assumeCompilerAvailable();
+
+        File executable = new File(folder, EXECUTABLE_NAME);
+
+        List<String> compile = new ArrayList<>();
+        compile.add(getCompiler());
+        compile.addAll(Arrays.asList(flags));
+        compile.add("-I" + folder.getAbsolutePath());
+        compile.add("-o");
+        compile.add(executable.getAbsolutePath());
+        for (File cFile : SpecsIo.getFilesRecursive(folder, "c")) {
+            compile.add(cFile.getAbsolutePath());
+        }
+        compile.add("-lm");
+
+        ProcessResult compilation = run(compile, executable.getParentFile());
+        Assert.assertEquals("Compilation failed:\n" + compilation.output, 0, compilation.exitCode);
+
+        return executable;
+    }
+
+    /**
+     * Runs the executable. Fails the test if it does not exit successfully.
+     * 
+     * @return the output of the executable
+     */
+    public static String run(File executable) {
+        ProcessResult execution = run(Arrays.asList(executable.getAbsolutePath()), executable.getParentFile());
+        Assert.assertEquals("Execution failed:\n" + execution.output, 0, execution.exitCode);
+
+        return execution.output;
+    }
+
+    /**
+     * Runs the executable. Fails the test if it exits successfully.
+     * 
+     * @return the output of the executable
+     */
+    public static String runExpectingFailure(File executable) {
+        ProcessResult execution = run(Arrays.asList(executable.getAbsolutePath()), executable.getParentFile());
+        Assert.assertNotEquals("Execution should have failed:\n" + execution.output, 0, execution.exitCode);
+
+        return execution.output;
+    }
+
+    private static ProcessResult run(List<String> command, File folder) {
+        try {
+            Process process = new ProcessBuilder(command)
+                    .directory(folder)
+                    .redirectErrorStream(true)
+                    .start();
+
+            String output;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                output = reader.lines().collect(Collectors.joining("\n"));
+            }
+
+            return new ProcessResult(process.waitFor(), output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class ProcessResult {
+        final int exitCode;
+        final String output;
+
+        ProcessResult(int exitCode, String output) {
+            this.exitCode = exitCode;
+            this.output = output;
+        }
+    }
+}
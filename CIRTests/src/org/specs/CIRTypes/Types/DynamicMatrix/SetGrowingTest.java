@@ -0,0 +1,222 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.CIRTypes.Types.DynamicMatrix;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.specs.CIR.CirTestUtils;
+import org.specs.CIR.CompilerTestUtils;
+import org.specs.CIR.FunctionInstance.FunctionInstance;
+import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.CIR.Types.ATypes.Scalar.ScalarType;
+import org.specs.CIRFunctions.MatrixAlloc.TensorCreationFunctions;
+import org.specs.CIRTypes.Types.DynamicMatrix.Functions.LowLevel.CreateHelper;
+import org.specs.CIRTypes.Types.Numeric.NumericFactory;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+
+import pt.up.fe.specs.util.utilities.Replacer;
+
+/**
+ * Compiles and runs the growing set, as in A(I) = B.
+ * 
+ * <p>
+ * Test code can use &lt;TENSOR&gt; (the matrix structure), &lt;SET&gt;(index, value, &amp;t), &lt;NEW&gt;(shape, dims,
+ * &amp;t), &lt;VIEW&gt;(t, offset, length, &amp;view) and &lt;FREE&gt;(&amp;t).
+ */
+public class SetGrowingTest {
+
+    private static final ScalarType ELEMENT_TYPE = NumericFactory.defaultFactory().newDouble();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testAppendPastCapacity() throws IOException {
+        run("<TENSOR>* t = NULL;\n"
+                + "int i;\n"
+                + "double* previous_data;\n"
+                + "for (i = 0; i < 5; ++i) {\n"
+                + "   <SET>(i, i + 1.0, &t);\n"
+                + "}\n"
+                + "EXPECT(t->length == 5);\n"
+                + "EXPECT(t->capacity == 8);\n"
+                + "previous_data = t->data;\n"
+                // Past the capacity, with a gap
+                + "<SET>(9, 10.0, &t);\n"
+                + "EXPECT(t->data != previous_data);\n"
+                + "EXPECT(t->length == 10);\n"
+                + "EXPECT(t->capacity == 16);\n"
+                + "EXPECT(t->dims == 2 && t->shape[0] == 1 && t->shape[1] == 10);\n"
+                + "for (i = 0; i < 5; ++i) {\n"
+                + "   EXPECT(t->data[i] == i + 1.0);\n"
+                + "}\n"
+                + "for (i = 5; i < 9; ++i) {\n"
+                + "   EXPECT(t->data[i] == 0);\n"
+                + "}\n"
+                + "EXPECT(t->data[9] == 10.0);\n"
+                + "<FREE>(&t);\n"
+                + "EXPECT(t == NULL);\n"
+                + "return 0;\n");
+    }
+
+    @Test
+    public void testGrowWithinCapacity() throws IOException {
+        run("<TENSOR>* t = NULL;\n"
+                + "double* data;\n"
+                + "<SET>(0, 1.0, &t);\n"
+                + "<SET>(1, 2.0, &t);\n"
+                + "<SET>(2, 3.0, &t);\n"
+                + "EXPECT(t->length == 3);\n"
+                + "EXPECT(t->capacity == 4);\n"
+                + "data = t->data;\n"
+                + "<SET>(3, 4.0, &t);\n"
+                + "EXPECT(t->data == data);\n"
+                + "EXPECT(t->length == 4 && t->capacity == 4);\n"
+                + "EXPECT(t->shape[0] == 1 && t->shape[1] == 4);\n"
+                + "EXPECT(t->data[0] == 1.0 && t->data[1] == 2.0 && t->data[2] == 3.0 && t->data[3] == 4.0);\n"
+                // Inside the range, only the value changes
+                + "<SET>(1, 7.0, &t);\n"
+                + "EXPECT(t->data == data && t->length == 4 && t->data[1] == 7.0);\n"
+                + "<FREE>(&t);\n"
+                + "return 0;\n");
+    }
+
+    @Test
+    public void testColumnVector() throws IOException {
+        run("<TENSOR>* t = NULL;\n"
+                + "int shape[2] = {3, 1};\n"
+                + "<NEW>(shape, 2, &t);\n"
+                + "t->data[0] = 1.0;\n"
+                + "t->data[1] = 2.0;\n"
+                + "t->data[2] = 3.0;\n"
+                + "<SET>(4, 5.0, &t);\n"
+                + "EXPECT(t->dims == 2 && t->shape[0] == 5 && t->shape[1] == 1);\n"
+                + "EXPECT(t->length == 5);\n"
+                + "EXPECT(t->data[2] == 3.0 && t->data[3] == 0 && t->data[4] == 5.0);\n"
+                + "<FREE>(&t);\n"
+                + "return 0;\n");
+    }
+
+    @Test
+    public void testRowVector() throws IOException {
+        run("<TENSOR>* t = NULL;\n"
+                + "<TENSOR>* empty = NULL;\n"
+                + "int shape[2] = {1, 2};\n"
+                + "int empty_shape[2] = {0, 0};\n"
+                + "<NEW>(shape, 2, &t);\n"
+                + "t->data[0] = 1.0;\n"
+                + "t->data[1] = 2.0;\n"
+                + "<SET>(2, 3.0, &t);\n"
+                + "EXPECT(t->dims == 2 && t->shape[0] == 1 && t->shape[1] == 3);\n"
+                + "EXPECT(t->data[0] == 1.0 && t->data[1] == 2.0 && t->data[2] == 3.0);\n"
+                // Empty matrices grow as row vectors
+                + "<NEW>(empty_shape, 2, &empty);\n"
+                + "<SET>(1, 4.0, &empty);\n"
+                + "EXPECT(empty->dims == 2 && empty->shape[0] == 1 && empty->shape[1] == 2);\n"
+                + "EXPECT(empty->data[0] == 0 && empty->data[1] == 4.0);\n"
+                + "<FREE>(&t);\n"
+                + "<FREE>(&empty);\n"
+                + "return 0;\n");
+    }
+
+    @Test
+    public void testGrowView() throws IOException {
+        run("<TENSOR>* t = NULL;\n"
+                + "<TENSOR>* view = NULL;\n"
+                + "int shape[2] = {1, 4};\n"
+                + "<NEW>(shape, 2, &t);\n"
+                + "t->data[0] = 1.0;\n"
+                + "t->data[1] = 2.0;\n"
+                + "t->data[2] = 3.0;\n"
+                + "t->data[3] = 4.0;\n"
+                + "<VIEW>(t, 1, 2, &view);\n"
+                + "EXPECT(!view->owns_data);\n"
+                // Inside the range, the view still writes to the matrix
+                + "<SET>(0, 20.0, &view);\n"
+                + "EXPECT(t->data[1] == 20.0);\n"
+                // Growing copies the elements of the view, and leaves the matrix as it was
+                + "<SET>(2, 9.0, &view);\n"
+                + "EXPECT(view->owns_data);\n"
+                + "EXPECT(view->data != t->data + 1);\n"
+                + "EXPECT(view->length == 3);\n"
+                + "EXPECT(view->data[0] == 20.0 && view->data[1] == 3.0 && view->data[2] == 9.0);\n"
+                + "EXPECT(t->length == 4);\n"
+                + "EXPECT(t->data[0] == 1.0 && t->data[1] == 20.0 && t->data[2] == 3.0 && t->data[3] == 4.0);\n"
+                + "<FREE>(&view);\n"
+                + "<FREE>(&t);\n"
+                + "return 0;\n");
+    }
+
+    @Test
+    public void testResizeMatrix() throws IOException {
+        String output = runExpectingFailure("<TENSOR>* t = NULL;\n"
+                + "int shape[2] = {2, 2};\n"
+                + "<NEW>(shape, 2, &t);\n"
+                + "<SET>(4, 1.0, &t);\n"
+                + "return 0;\n");
+
+        assertTrue(output, output.contains("a matrix A can not be resized"));
+    }
+
+    @Test
+    public void testNegativeIndex() throws IOException {
+        String output = runExpectingFailure("<TENSOR>* t = NULL;\n"
+                + "int shape[2] = {1, 3};\n"
+                + "<NEW>(shape, 2, &t);\n"
+                + "<SET>(-1, 1.0, &t);\n"
+                + "return 0;\n");
+
+        assertTrue(output, output.contains("Trying to access position -1 in matrix with 3 elements"));
+    }
+
+    private void run(String testCode) throws IOException {
+        CompilerTestUtils.run(compile(testCode));
+    }
+
+    private String runExpectingFailure(String testCode) throws IOException {
+        return CompilerTestUtils.runExpectingFailure(compile(testCode));
+    }
+
+    private File compile(String testCode) throws IOException {
+        CompilerTestUtils.assumeCompilerAvailable();
+
+        DataStore settings = CirTestUtils.newDefaultSettings();
+        ProviderData data = ProviderData.newInstance(settings);
+
+        DynamicMatrixType matrixType = DynamicMatrixType.newInstance(ELEMENT_TYPE);
+        FunctionInstance set = matrixType.matrix().functions().setGrowing()
+                .newCInstance(data.create(matrixType, data.getNumerics().newInt(), ELEMENT_TYPE));
+        FunctionInstance create = CreateHelper.getProvider(ELEMENT_TYPE).newCInstance(data);
+        FunctionInstance view = new TensorCreationFunctions(data).newGetRowView(ELEMENT_TYPE, false);
+        FunctionInstance free = matrixType.matrix().functions().free().newCInstance(data.create(matrixType));
+
+        Replacer code = new Replacer(testCode);
+        code.replace("<TENSOR>", DynamicMatrixUtils.getStructInstance(matrixType).getCName());
+        code.replace("<SET>", set.getCName());
+        code.replace("<NEW>", create.getCName());
+        code.replace("<VIEW>", view.getCName());
+        code.replace("<FREE>", free.getCName());
+
+        File folder = temporaryFolder.newFolder();
+        CompilerTestUtils.writeHarness(folder, settings, code.toString(), set, create, view, free);
+
+        return CompilerTestUtils.compile(folder);
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright 2026 SPeCS.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+
+package org.specs.CIRTypes.Types.DynamicMatrix;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.specs.CIR.CirKeys;
+import org.specs.CIR.CirTestUtils;
+import org.specs.CIR.CompilerTestUtils;
+import org.specs.CIR.FunctionInstance.FunctionInstance;
+import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.CIR.Types.VariableType;
+import org.specs.CIR.Types.ATypes.Scalar.ScalarType;
+import org.specs.CIRTypes.Types.DynamicMatrix.Functions.LowLevel.CreateHelper;
+import org.specs.CIRTypes.Types.DynamicMatrix.Utils.TensorHeaders;
+import org.specs.CIRTypes.Types.Numeric.NumericFactory;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+
+import pt.up.fe.specs.util.utilities.Replacer;
+
+public class TensorHeadersTest {
+
+    private static final ScalarType ELEMENT_TYPE = NumericFactory.defaultFactory().newFloat();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testDefault() {
+        TensorHeaders headers = new TensorHeaders(CirTestUtils.newDefaultProviderData(), ELEMENT_TYPE);
+
+        assertFalse(headers.isPooled());
+        assertNull(headers.getPoolInstance());
+        assertTrue(headers.getAllocateCode("(*t)").contains("malloc"));
+        assertEquals("free(t);\n", headers.getReleaseCode("t"));
+        assertEquals("t->shape = (int*) malloc(sizeof(int) * dims);\n", headers.getAllocateShapeCode("t", "dims"));
+        assertEquals("free(t->shape);\n", headers.getFreeShapeCode("t"));
+    }
+
+    @Test
+    public void testPooled() {
+        DataStore settings = CirTestUtils.newDefaultSettings();
+        settings.set(CirKeys.POOL_TENSOR_HEADERS, true);
+        TensorHeaders headers = new TensorHeaders(ProviderData.newInstance(settings), ELEMENT_TYPE);
+
+        assertTrue(headers.isPooled());
+
+        String poolName = headers.getPoolInstance().getCName();
+        assertEquals("(*t) = " + poolName + "(NULL);\n", headers.getAllocateCode("(*t)"));
+        assertEquals(poolName + "(t);\n", headers.getReleaseCode("t"));
+        assertTrue(headers.getAllocateShapeCode("t", "dims").contains("t->shape = t->inline_shape;"));
+        assertTrue(headers.getFreeShapeCode("t").contains("if (t->shape != t->inline_shape)"));
+    }
+
+    /**
+     * Creates and frees matrices in a loop, checking that the structure is reused and that only shapes with more than
+     * 4 dimensions use the heap.
+     */
+    @Test
+    public void testPooledCreateFreeLoop() throws IOException {
+        compileAndRun("<TENSOR>* t = NULL;\n"
+                + "<TENSOR>* header;\n"
+                + "int shape2[2] = {3, 4};\n"
+                + "int shape4[4] = {2, 3, 2, 2};\n"
+                + "int shape5[5] = {2, 3, 2, 2, 2};\n"
+                + "int i;\n"
+                + "int j;\n"
+                + "<NEW>(shape2, 2, &t);\n"
+                + "header = t;\n"
+                + "<FREE>(&t);\n"
+                + "EXPECT(t == NULL);\n"
+                + "for (i = 0; i < 1000; ++i) {\n"
+                // Shapes with up to 4 dimensions are stored in the structure
+                + "   <NEW>(shape2, 2, &t);\n"
+                + "   EXPECT(t == header);\n"
+                + "   EXPECT(t->shape == t->inline_shape);\n"
+                + "   EXPECT(t->dims == 2 && t->shape[0] == 3 && t->shape[1] == 4 && t->length == 12);\n"
+                + "   <FREE>(&t);\n"
+                + "   <NEW>(shape4, 4, &t);\n"
+                + "   EXPECT(t == header);\n"
+                + "   EXPECT(t->shape == t->inline_shape);\n"
+                + "   EXPECT(t->dims == 4 && t->length == 24);\n"
+                + "   <FREE>(&t);\n"
+                // Larger shapes use the heap
+                + "   <NEW>(shape5, 5, &t);\n"
+                + "   EXPECT(t == header);\n"
+                + "   EXPECT(t->shape != t->inline_shape);\n"
+                + "   EXPECT(t->dims == 5 && t->length == 48);\n"
+                + "   for (j = 0; j < 5; ++j) {\n"
+                + "      EXPECT(t->shape[j] == shape5[j]);\n"
+                + "   }\n"
+                + "   for (j = 0; j < t->length; ++j) {\n"
+                + "      t->data[j] = j;\n"
+                + "   }\n"
+                + "   <FREE>(&t);\n"
+                + "   EXPECT(t == NULL);\n"
+                + "   <CREATE_5>(2, 2, 3, 2, 2, &t);\n"
+                + "   EXPECT(t == header);\n"
+                + "   EXPECT(t->shape != t->inline_shape);\n"
+                + "   EXPECT(t->dims == 5 && t->shape[2] == 3 && t->shape[4] == 2 && t->length == 48);\n"
+                + "   <FREE>(&t);\n"
+                + "   <CREATE_2>(5, 6, &t);\n"
+                + "   EXPECT(t == header);\n"
+                + "   EXPECT(t->shape == t->inline_shape);\n"
+                + "   EXPECT(t->dims == 2 && t->length == 30);\n"
+                // Growing to 5 dimensions moves the shape to the heap
+                + "   <NEW>(shape5, 5, &t);\n"
+                + "   EXPECT(t == header);\n"
+                + "   EXPECT(t->shape != t->inline_shape);\n"
+                + "   EXPECT(t->dims == 5 && t->length == 48);\n"
+                + "   <FREE>(&t);\n"
+                + "}\n"
+                + "return 0;\n");
+    }
+
+    /**
+     * Frees more matrices than the pool keeps, checking that the pool returns the structures that it kept.
+     */
+    @Test
+    public void testPoolOverflow() throws IOException {
+        compileAndRun("<TENSOR>* t[<NUM_MATRICES>];\n"
+                + "<TENSOR>* headers[<NUM_MATRICES>];\n"
+                + "int shape[2] = {2, 2};\n"
+                + "int i;\n"
+                + "for (i = 0; i < <NUM_MATRICES>; ++i) {\n"
+                + "   t[i] = NULL;\n"
+                + "   <NEW>(shape, 2, &t[i]);\n"
+                + "   headers[i] = t[i];\n"
+                + "}\n"
+                + "for (i = 0; i < <NUM_MATRICES>; ++i) {\n"
+                + "   <FREE>(&t[i]);\n"
+                + "}\n"
+                // The first structures were kept, and the others were freed, so the last one kept is acquired first
+                + "for (i = <POOL_CAPACITY> - 1; i >= 0; --i) {\n"
+                + "   <NEW>(shape, 2, &t[i]);\n"
+                + "   EXPECT(t[i] == headers[i]);\n"
+                + "}\n"
+                + "for (i = 0; i < <POOL_CAPACITY>; ++i) {\n"
+                + "   <FREE>(&t[i]);\n"
+                + "}\n"
+                + "return 0;\n");
+    }
+
+    private void compileAndRun(String testCode) throws IOException {
+        CompilerTestUtils.assumeCompilerAvailable();
+
+        DataStore settings = CirTestUtils.newDefaultSettings();
+        settings.set(CirKeys.POOL_TENSOR_HEADERS, true);
+        ProviderData data = ProviderData.newInstance(settings);
+
+        DynamicMatrixType matrixType = DynamicMatrixType.newInstance(ELEMENT_TYPE);
+        FunctionInstance create = CreateHelper.getProvider(ELEMENT_TYPE).newCInstance(data);
+        FunctionInstance create2 = newCreate(data, matrixType, 2);
+        FunctionInstance create5 = newCreate(data, matrixType, 5);
+        FunctionInstance free = matrixType.matrix().functions().free().newCInstance(data.create(matrixType));
+
+        Replacer code = new Replacer(testCode);
+        code.replace("<TENSOR>", DynamicMatrixUtils.getStructInstance(matrixType).getCName());
+        code.replace("<NEW>", create.getCName());
+        code.replace("<CREATE_2>", create2.getCName());
+        code.replace("<CREATE_5>", create5.getCName());
+        code.replace("<FREE>", free.getCName());
+        // Must match the capacity of the pool
+        code.replace("<POOL_CAPACITY>", 64);
+        code.replace("<NUM_MATRICES>", 70);
+
+        File folder = temporaryFolder.newFolder();
+        CompilerTestUtils.writeHarness(folder, settings, code.toString(), create, create2, create5, free);
+        CompilerTestUtils.compileAndRun(folder);
+    }
+
+    private static FunctionInstance newCreate(ProviderData data, DynamicMatrixType matrixType, int dims) {
+        VariableType[] dimTypes = new VariableType[dims];
+        for (int i = 0; i < dims; ++i) {
+            dimTypes[i] = data.getNumerics().newInt();
+        }
+
+        ProviderData createData = data.create(dimTypes);
+        createData.setOutputType(ELEMENT_TYPE);
+
+        return matrixType.matrix().functions().create().newCInstance(createData);
+    }
+}
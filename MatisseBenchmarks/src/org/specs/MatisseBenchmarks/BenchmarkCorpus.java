@@ -0,0 +1,177 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatisseBenchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.specs.MatlabIR.MatlabLanguage.LanguageMode;
+import org.specs.MatlabProcessor.MatlabParser.MatlabParser;
+
+import com.google.common.base.Preconditions;
+
+import pt.up.fe.specs.util.SpecsIo;
+
+/**
+ * The M-files the benchmarks run on.
+ *
+ * <p>
+ * The "resources" corpus contains the M-files of the test resources of the repository that parse successfully. It is
+ * only used by the front end benchmarks, since most of those files are fragments that can not be compiled on their
+ * own. The synthetic corpora contain a single compilable file, with about 1k, 10k or 100k lines.
+ *
+ * <p>
+ * The folders of the resources corpus are given by the system property {@value #RESOURCE_FOLDERS_PROPERTY} (separated
+ * by the path separator), and are relative to the root of the repository, given by {@value #ROOT_PROPERTY} (by
+ * default, the parent of the working directory).
+ */
+public class BenchmarkCorpus {
+
+    public static final String RESOURCES = "resources";
+    public static final String SYNTHETIC_1K = "synthetic-1k";
+    public static final String SYNTHETIC_10K = "synthetic-10k";
+    public static final String SYNTHETIC_100K = "synthetic-100k";
+
+    public static final String ROOT_PROPERTY = "matisse.benchmarks.root";
+    public static final String RESOURCE_FOLDERS_PROPERTY = "matisse.benchmarks.resources";
+
+    private static final String DEFAULT_RESOURCE_FOLDERS = String.join(File.pathSeparator,
+            "MatisseLibTests/resources",
+            "MatlabProcessorTests/resources",
+            "MatlabToCLib/resources");
+
+    private static final Map<String, BenchmarkCorpus> CORPORA = new HashMap<>();
+
+    private final String name;
+    private final Map<String, String> files;
+    private final String entryFile;
+
+    private BenchmarkCorpus(String name, Map<String, String> files, String entryFile) {
+        this.name = name;
+        this.files = Collections.unmodifiableMap(files);
+        this.entryFile = entryFile;
+    }
+
+    public static synchronized BenchmarkCorpus get(String name) {
+        return CORPORA.computeIfAbsent(name, BenchmarkCorpus::build);
+    }
+
+    private static BenchmarkCorpus build(String name) {
+        switch (name) {
+        case RESOURCES:
+            return buildFromResources();
+        case SYNTHETIC_1K:
+            return buildSynthetic(name, 1_000);
+        case SYNTHETIC_10K:
+            return buildSynthetic(name, 10_000);
+        case SYNTHETIC_100K:
+            return buildSynthetic(name, 100_000);
+        default:
+            throw new IllegalArgumentException("Unknown corpus: " + name);
+        }
+    }
+
+    /**
+     *
+     * @param name
+     * @param entryFile
+     *            the name of the file
+     * @param code
+     *            the code of the file, which must have an entry function without inputs
+     * @return a corpus with a single file, which is not cached
+     */
+    public static BenchmarkCorpus newSingleFile(String name, String entryFile, String code) {
+        Map<String, String> files = new HashMap<>();
+        files.put(entryFile, code);
+
+        return new BenchmarkCorpus(name, files, entryFile);
+    }
+
+    private static BenchmarkCorpus buildSynthetic(String name, int lines) {
+        String filename = SyntheticCorpusGenerator.ENTRY_FUNCTION + ".m";
+
+        Map<String, String> files = new HashMap<>();
+        files.put(filename, SyntheticCorpusGenerator.generate(lines));
+
+        return new BenchmarkCorpus(name, files, filename);
+    }
+
+    private static BenchmarkCorpus buildFromResources() {
+        File root = new File(System.getProperty(ROOT_PROPERTY, ".."));
+        String folders = System.getProperty(RESOURCE_FOLDERS_PROPERTY, DEFAULT_RESOURCE_FOLDERS);
+
+        Map<String, String> files = new HashMap<>();
+        for (String folderName : folders.split(File.pathSeparator)) {
+            File folder = new File(root, folderName);
+            if (!folder.isDirectory()) {
+                continue;
+            }
+
+            for (File file : SpecsIo.getFilesRecursive(folder, "m")) {
+                String code = SpecsIo.read(file);
+
+                // Test resources include invalid code, for the error reporting tests
+                if (new MatlabParser(LanguageMode.MATLAB, Optional.empty()).parseTry(code).isPresent()) {
+                    files.put(file.getPath(), code);
+                }
+            }
+        }
+
+        Preconditions.checkState(!files.isEmpty(), "No M-files found in " + folders + ", relative to "
+                + root.getAbsolutePath());
+
+        return new BenchmarkCorpus(RESOURCES, files, null);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     *
+     * @return the code of each file, by filename
+     */
+    public Map<String, String> getFiles() {
+        return files;
+    }
+
+    /**
+     *
+     * @return the lines of each file
+     */
+    public List<List<String>> getLines() {
+        List<List<String>> lines = new ArrayList<>();
+        for (String code : files.values()) {
+            lines.add(Arrays.asList(code.split("\\r?\\n")));
+        }
+
+        return lines;
+    }
+
+    /**
+     *
+     * @return the file with the function to compile
+     */
+    public String getEntryFile() {
+        Preconditions.checkState(entryFile != null, "Corpus " + name + " can not be compiled");
+
+        return entryFile;
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatisseBenchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks and writes the results as JSON, so that runs of different commits can be compared.
+ *
+ * <p>
+ * Usage: BenchmarkLauncher [result file] [benchmark regex]. By default, runs every benchmark of this package and
+ * writes to benchmark-results.json. The benchmarks must be compiled with the JMH annotation processor
+ * (jmh-generator-annprocess).
+ */
+public class BenchmarkLauncher {
+
+    private static final String DEFAULT_RESULT_FILE = "benchmark-results.json";
+
+    public static void main(String[] args) throws RunnerException {
+        String resultFile = args.length > 0 ? args[0] : DEFAULT_RESULT_FILE;
+        String include = args.length > 1 ? args[1] : BenchmarkLauncher.class.getPackage().getName() + ".*";
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatisseBenchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.specs.matisselib.DefaultRecipes;
+import org.specs.matisselib.ProjectPassServices;
+import org.specs.matisselib.passes.ssa.DeadCodeEliminationPass;
+import org.specs.matisselib.typeinference.PostTypeInferencePass;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+
+/**
+ * Compares the cost of the change tracking used by the pass scheduler with the cost of an idempotent pass it lets the
+ * scheduler skip.
+ *
+ * <p>
+ * The corpus is compiled once with the optimizing recipe, so both benchmarks see code on which the idempotent pass has
+ * nothing left to do, which is the case in which the scheduler skips it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class ChangeTrackingBenchmarks {
+
+    @Param({ BenchmarkCorpus.SYNTHETIC_1K, BenchmarkCorpus.SYNTHETIC_10K, BenchmarkCorpus.SYNTHETIC_100K })
+    public String corpus;
+
+    private final PostTypeInferencePass idempotentPass = new DeadCodeEliminationPass();
+    private CompilationFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        fixture = new CompilationFixture(BenchmarkCorpus.get(corpus),
+                DefaultRecipes.getOptimizingBasePostTypeInferenceRecipe())
+                        .inferTypes()
+                        .applyPostTypeInferencePasses();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void updateChangeTracking(Blackhole blackhole) {
+        for (TypedInstance instance : fixture.getInferredInstances()) {
+            blackhole.consume(instance.updateChangeTracking());
+        }
+    }
+
+    @Benchmark
+    public void applyIdempotentPass() {
+        for (TypedInstance instance : fixture.getInferredInstances()) {
+            DataStore passData = fixture.getManager().getPassData(instance);
+
+            idempotentPass.apply(instance, passData);
+            passData.get(ProjectPassServices.DATA_PROVIDER).update(idempotentPass);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatisseBenchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.specs.CIR.CProject;
+import org.specs.CIR.CirUtils;
+import org.specs.matisselib.DefaultRecipes;
+import org.specs.matisselib.ProjectPassServices;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.specs.matisselib.unssa.VariableAllocator;
+import org.specs.matisselib.unssa.allocators.EfficientVariableAllocator;
+
+import pt.up.fe.specs.util.SpecsIo;
+
+/**
+ * Measures the stages after the post-type-inference passes: variable allocation and the writing of the C files.
+ *
+ * <p>
+ * The corpus is compiled once, with the recipe used by MatlabToCExecute, and both stages are repeated on the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CodeGenerationBenchmarks {
+
+    @Param({ BenchmarkCorpus.SYNTHETIC_1K, BenchmarkCorpus.SYNTHETIC_10K, BenchmarkCorpus.SYNTHETIC_100K })
+    public String corpus;
+
+    private CompilationFixture fixture;
+    private List<TypedInstance> instances;
+    private CProject cproject;
+    private File outputFolder;
+
+    @Setup
+    public void setup() throws IOException {
+        fixture = new CompilationFixture(BenchmarkCorpus.get(corpus),
+                DefaultRecipes.getTestPostTypeInferenceRecipe(true))
+                        .inferTypes()
+                        .applyPostTypeInferencePasses();
+
+        instances = fixture.getInferredInstances();
+        cproject = fixture.buildCProject();
+        outputFolder = Files.createTempDirectory("matisse-benchmark").toFile();
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+
+        SpecsIo.deleteFolderContents(outputFolder);
+        outputFolder.delete();
+    }
+
+    @Benchmark
+    public void allocateVariables(Blackhole blackhole) {
+        VariableAllocator allocator = new EfficientVariableAllocator();
+
+        for (TypedInstance instance : instances) {
+            blackhole.consume(allocator.performAllocation(instance, fixture.getManager().getPassData(instance)
+                    .get(ProjectPassServices.GLOBAL_TYPE_PROVIDER)));
+        }
+    }
+
+    @Benchmark
+    public void writeProject() {
+        CirUtils.writeProject(cproject, outputFolder);
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatisseBenchmarks;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.specs.CIR.CProject;
+import org.specs.CIR.FunctionInstance.FunctionInstance;
+import org.specs.Matisse.Matlab.TypesMap;
+import org.specs.MatlabIR.MatlabLanguage.LanguageMode;
+import org.specs.MatlabToC.MatlabToCUtils;
+import org.specs.MatlabToC.CodeBuilder.SsaToCBuilder;
+import org.specs.MatlabToC.SystemInfo.ImplementationData;
+import org.specs.MatlabToC.jOptions.MatlabToCKeys;
+import org.specs.MatlabToC.jOptions.MatlabToCOptionUtils;
+import org.specs.matisselib.DefaultRecipes;
+import org.specs.matisselib.MatisseLibOption;
+import org.specs.matisselib.ProjectPassCompilationManager;
+import org.specs.matisselib.ProjectPassCompilationOptions;
+import org.specs.matisselib.providers.MatlabFunctionTable;
+import org.specs.matisselib.typeinference.PostTypeInferenceRecipe;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.specs.matisselib.unssa.allocators.EfficientVariableAllocator;
+import org.suikasoft.jOptions.DataStore.SimpleDataStore;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+import org.suikasoft.jOptions.Interfaces.DataView;
+
+import pt.up.fe.specs.util.providers.StringProvider;
+
+/**
+ * Compiles a corpus the same way MatlabToCExecute does, up to a given stage, so that benchmarks can measure the next
+ * stage.
+ */
+public class CompilationFixture implements AutoCloseable {
+
+    private final DataStore settings;
+    private final MatlabFunctionTable systemFunctions;
+    private final ProjectPassCompilationManager manager;
+
+    private TypedInstance topLevelInstance;
+    private FunctionInstance implementation;
+
+    /**
+     * Creates the compilation manager and applies the AST passes to the entry file of the corpus.
+     *
+     * @param corpus
+     * @param postTypeInferenceRecipe
+     *            the passes applied by {@link #applyPostTypeInferencePasses()}
+     */
+    public CompilationFixture(BenchmarkCorpus corpus, PostTypeInferenceRecipe postTypeInferenceRecipe) {
+        this(corpus, postTypeInferenceRecipe, MatlabToCOptionUtils.newDefaultSettings());
+    }
+
+    /**
+     *
+     * @param corpus
+     * @param postTypeInferenceRecipe
+     * @param settings
+     *            the settings of the compilation, as built by {@link MatlabToCOptionUtils#newDefaultSettings()}
+     */
+    public CompilationFixture(BenchmarkCorpus corpus, PostTypeInferenceRecipe postTypeInferenceRecipe,
+            DataStore settings) {
+        this.settings = settings;
+
+        ImplementationData implementationData = MatlabToCUtils.newImplementationData(LanguageMode.MATLAB,
+                new TypesMap(),
+                settings);
+        systemFunctions = implementationData.getBuiltInPrototypes();
+
+        Map<String, StringProvider> availableFiles = new HashMap<>();
+        corpus.getFiles().forEach((name, code) -> availableFiles.put(name, () -> code));
+
+        DataStore additionalServices = new SimpleDataStore("additional-services");
+        additionalServices.add(MatisseLibOption.SUPPRESS_PRINTING, true);
+
+        ProjectPassCompilationOptions options = new ProjectPassCompilationOptions()
+                .withPreTypeInferenceRecipe(DefaultRecipes.DefaultMatlabASTTypeInferenceRecipe)
+                .withSsaRecipe(DefaultRecipes.getDefaultPreTypeInferenceRecipe(settings))
+                .withPostTypeInferenceRecipe(postTypeInferenceRecipe)
+                .withInferenceRuleList(settings.get(MatlabToCKeys.TYPE_INFERENCE_RULES))
+                .withAvailableFiles(availableFiles)
+                .withSystemFunctions(systemFunctions)
+                .withAdditionalServices(DataView.newInstance(additionalServices))
+                .withLanguageMode(LanguageMode.MATLAB)
+                .withZ3Enabled(settings.get(MatlabToCKeys.ENABLE_Z3))
+                .withDifferenceBoundsEnabled(settings.get(MatlabToCKeys.ENABLE_DIFFERENCE_BOUNDS));
+
+        manager = new ProjectPassCompilationManager(options);
+        manager.applyPreTypeInferencePasses(corpus.getEntryFile());
+    }
+
+    public ProjectPassCompilationManager getManager() {
+        return manager;
+    }
+
+    /**
+     * Infers the types of the entry function and of every function it calls.
+     */
+    public CompilationFixture inferTypes() {
+        topLevelInstance = manager.applyTypeInference(settings);
+
+        return this;
+    }
+
+    public CompilationFixture applyPostTypeInferencePasses() {
+        manager.applyPostTypeInferencePasses();
+
+        return this;
+    }
+
+    public List<TypedInstance> getInferredInstances() {
+        return manager.getInferredInstances();
+    }
+
+    /**
+     * Generates the C code of the inferred functions. Must be called after the post-type-inference passes.
+     */
+    public CProject buildCProject() {
+        implementation = SsaToCBuilder.buildImplementation(manager,
+                topLevelInstance,
+                systemFunctions,
+                new EfficientVariableAllocator(),
+                SsaToCBuilder.DEFAULT_SSA_TO_C_RULES);
+
+        CProject cproject = new CProject(DefaultRecipes.DefaultCRecipe, settings);
+        cproject.addFunction(implementation);
+
+        return cproject;
+    }
+
+    /**
+     *
+     * @return the C function of the entry function, built by the last call to {@link #buildCProject()}
+     */
+    public FunctionInstance getImplementation() {
+        return implementation;
+    }
+
+    @Override
+    public void close() {
+        manager.close();
+    }
+}
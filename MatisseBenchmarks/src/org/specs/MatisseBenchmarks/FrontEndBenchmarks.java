@@ -0,0 +1,115 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatisseBenchmarks;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.specs.MatlabIR.MatlabLanguage.LanguageMode;
+import org.specs.MatlabProcessor.MatlabParser.MatlabParser;
+import org.specs.MatlabProcessor.Reporting.ProcessorReportService;
+import org.specs.MatlabProcessor.Tokenizer.MatlabLineTokenizer;
+
+import pt.up.fe.specs.util.utilities.StringSlice;
+
+/**
+ * Measures the tokenizer and the parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FrontEndBenchmarks {
+
+    @Param({ BenchmarkCorpus.RESOURCES, BenchmarkCorpus.SYNTHETIC_1K, BenchmarkCorpus.SYNTHETIC_10K,
+            BenchmarkCorpus.SYNTHETIC_100K })
+    public String corpus;
+
+    private Collection<String> files;
+    private List<List<String>> lines;
+
+    @Setup
+    public void setup() {
+        BenchmarkCorpus benchmarkCorpus = BenchmarkCorpus.get(corpus);
+
+        files = benchmarkCorpus.getFiles().values();
+        lines = benchmarkCorpus.getLines();
+    }
+
+    @Benchmark
+    public void tokenize(Blackhole blackhole) {
+        for (List<String> fileLines : lines) {
+            MatlabLineTokenizer tokenizer = new MatlabLineTokenizer(LanguageMode.MATLAB,
+                    new ProcessorReportService(null, "benchmark.m", Optional.empty()));
+
+            int lineNumber = 0;
+            for (String line : fileLines) {
+                blackhole.consume(tokenizer.getTokens(new StringSlice(line), ++lineNumber));
+            }
+        }
+    }
+
+    /**
+     * Tokenizes the corpus, reporting the number of tokenized lines per second.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void tokenizeThroughput(TokenizedLines tokenizedLines, Blackhole blackhole) {
+        tokenize(blackhole);
+
+        for (List<String> fileLines : lines) {
+            tokenizedLines.lines += fileLines.size();
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String code : files) {
+            blackhole.consume(new MatlabParser(LanguageMode.MATLAB, Optional.empty()).parse(code));
+        }
+    }
+
+    /**
+     * Counts the lines given to the tokenizer. JMH reports it as a rate, in the time unit of the benchmark.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class TokenizedLines {
+        public long lines;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            lines = 0;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatisseBenchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.specs.matisselib.DefaultRecipes;
+import org.specs.matisselib.ProjectPassServices;
+import org.specs.matisselib.typeinference.PostTypeInferencePass;
+import org.specs.matisselib.typeinference.PostTypeInferenceRecipeBuilder;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+
+/**
+ * Measures the loop passes of the optimizing recipe.
+ *
+ * <p>
+ * Before each invocation, the corpus is compiled with the passes of the optimizing recipe that precede the first
+ * occurrence of the measured pass, so that the pass sees the same code it would see in a normal compilation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class LoopPassBenchmarks {
+
+    @Param({ "LoopFusionPass", "LoopInterchangePass", "LoopInvariantCodeMotionPass" })
+    public String pass;
+
+    @Param({ BenchmarkCorpus.SYNTHETIC_1K, BenchmarkCorpus.SYNTHETIC_10K, BenchmarkCorpus.SYNTHETIC_100K })
+    public String corpus;
+
+    private PostTypeInferencePass measuredPass;
+    private CompilationFixture fixture;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        PostTypeInferenceRecipeBuilder previousPasses = new PostTypeInferenceRecipeBuilder();
+
+        measuredPass = null;
+        for (PostTypeInferencePass recipePass : DefaultRecipes.getOptimizingBasePostTypeInferenceRecipe()
+                .getPasses()) {
+            if (recipePass.getClass().getSimpleName().equals(pass)) {
+                measuredPass = recipePass;
+                break;
+            }
+
+            previousPasses.addPass(recipePass);
+        }
+
+        if (measuredPass == null) {
+            throw new IllegalArgumentException("Pass not in the optimizing recipe: " + pass);
+        }
+
+        fixture = new CompilationFixture(BenchmarkCorpus.get(corpus), previousPasses.getRecipe())
+                .inferTypes()
+                .applyPostTypeInferencePasses();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void applyPass() {
+        for (TypedInstance instance : fixture.getInferredInstances()) {
+            DataStore passData = fixture.getManager().getPassData(instance);
+
+            measuredPass.apply(instance, passData);
+            passData.get(ProjectPassServices.DATA_PROVIDER).update(measuredPass);
+        }
+    }
+}
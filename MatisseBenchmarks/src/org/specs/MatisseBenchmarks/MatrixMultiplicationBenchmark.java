@@ -0,0 +1,213 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatisseBenchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import org.specs.CIR.CProject;
+import org.specs.CIR.CirKeys;
+import org.specs.CIR.CirUtils;
+import org.specs.CIR.FunctionInstance.FunctionInstance;
+import org.specs.CIR.Options.MemoryLayout;
+import org.specs.MatlabToC.jOptions.MatisseOptimization;
+import org.specs.MatlabToC.jOptions.MatlabToCKeys;
+import org.specs.MatlabToC.jOptions.MatlabToCOptionUtils;
+import org.specs.matisselib.DefaultRecipes;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+import org.suikasoft.jOptions.Options.MultipleChoice;
+
+import com.google.common.base.Preconditions;
+
+import pt.up.fe.specs.util.SpecsEnums;
+import pt.up.fe.specs.util.SpecsIo;
+import pt.up.fe.specs.util.collections.HashSetString;
+
+/**
+ * Compares the generated C code of matrix multiplication without BLAS: the M-file implementation (naive) against the
+ * blocked kernel. Unlike the other benchmarks, this measures the generated code, not the compiler.
+ *
+ * <p>
+ * For each element class and memory layout, compiles an M-file that multiplies two square matrices, builds the C code
+ * with a C compiler and runs it. Reports the time of the multiplications and the GFLOPS.
+ *
+ * <p>
+ * Usage: MatrixMultiplicationBenchmark [size]. The C compiler and its flags are given by the system properties
+ * {@value #CC_PROPERTY} (by default, gcc) and {@value #CFLAGS_PROPERTY} (by default, -O2).
+ */
+public class MatrixMultiplicationBenchmark {
+
+    public static final String CC_PROPERTY = "matisse.benchmarks.cc";
+    public static final String CFLAGS_PROPERTY = "matisse.benchmarks.cflags";
+
+    private static final int DEFAULT_SIZE = 512;
+    private static final int REPETITIONS = 3;
+
+    private static final String ENTRY_FUNCTION = "matmul_main";
+
+    private static final String MFILE_TEMPLATE = ""
+            + "function total = %1$s()\n"
+            + "    n = %2$d;\n"
+            + "    a = zeros(n, n, '%3$s');\n"
+            + "    b = zeros(n, n, '%3$s');\n"
+            + "    for j = 1:n\n"
+            + "        for i = 1:n\n"
+            + "            a(i, j) = (i - j) / n;\n"
+            + "            b(i, j) = (i + j) / n;\n"
+            + "        end\n"
+            + "    end\n"
+            + "    total = 0;\n"
+            + "    for r = 1:%4$d\n"
+            + "        c = a * b;\n"
+            + "        total = total + c(r, n - r + 1);\n"
+            + "    end\n"
+            + "end\n";
+
+    private static final String HARNESS_TEMPLATE = ""
+            + "#include <stdio.h>\n"
+            + "#include <time.h>\n"
+            + "\n"
+            + "%1$s %2$s();\n"
+            + "\n"
+            + "int main(void) {\n"
+            + "\tclock_t start = clock();\n"
+            + "\t%1$s result = %2$s();\n"
+            + "\tdouble seconds = (double) (clock() - start) / CLOCKS_PER_SEC;\n"
+            + "\n"
+            + "\tprintf(\"%%f %%f\\n\", seconds, (double) result);\n"
+            + "\treturn 0;\n"
+            + "}\n";
+
+    private static final List<String> ELEMENT_CLASSES = Arrays.asList("double", "single");
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+
+        File root = Files.createTempDirectory("matisse-matmul-benchmark").toFile();
+        try {
+            System.out.println("class\tlayout\tkernel\tseconds\tgflops\tresult");
+
+            for (String elementClass : ELEMENT_CLASSES) {
+                for (MemoryLayout memoryLayout : MemoryLayout.values()) {
+                    for (boolean blocked : Arrays.asList(false, true)) {
+                        String name = elementClass + "_" + memoryLayout.name().toLowerCase(Locale.UK) + "_"
+                                + (blocked ? "blocked" : "naive");
+                        File folder = SpecsIo.mkdir(new File(root, name));
+
+                        generate(folder, size, elementClass, memoryLayout, blocked);
+                        String[] output = compileAndRun(folder).trim().split(" ");
+
+                        double seconds = Double.parseDouble(output[0]);
+                        double gflops = 2.0 * size * size * size * REPETITIONS / seconds / 1e9;
+
+                        System.out.println(String.format(Locale.UK, "%s\t%s\t%s\t%.3f\t%.2f\t%s", elementClass,
+                                memoryLayout, blocked ? "blocked" : "naive", seconds, gflops, output[1]));
+                    }
+                }
+            }
+        } finally {
+            SpecsIo.deleteFolderContents(root);
+            root.delete();
+        }
+    }
+
+    /**
+     * Writes the C code of the benchmark M-file, and a main() that times it, to the given folder.
+     */
+    private static void generate(File folder, int size, String elementClass, MemoryLayout memoryLayout,
+            boolean blocked) {
+
+        DataStore settings = MatlabToCOptionUtils.newDefaultSettings();
+
+        // Both kernels are measured without BLAS, over matrices of any size
+        HashSetString optimizations = settings.get(MatlabToCKeys.MATISSE_OPTIMIZATIONS);
+        optimizations.remove(MatisseOptimization.UseBlas.getName());
+        if (!blocked) {
+            optimizations.remove(MatisseOptimization.UseBlockedMatrixMul.getName());
+        }
+        settings.set(MatlabToCKeys.BLOCKED_MATRIX_MUL_THRESHOLD, 0);
+        settings.set(MatlabToCKeys.BLOCKED_MATRIX_MUL_MIN_OPERATIONS, 0);
+
+        MultipleChoice memoryLayoutChoice = MultipleChoice
+                .newInstance(SpecsEnums.buildList(MemoryLayout.values()));
+        memoryLayoutChoice.setChoice(memoryLayout.name());
+        settings.set(CirKeys.MEMORY_LAYOUT, memoryLayoutChoice);
+
+        String code = String.format(MFILE_TEMPLATE, ENTRY_FUNCTION, size, elementClass, REPETITIONS);
+        BenchmarkCorpus corpus = BenchmarkCorpus.newSingleFile(folder.getName(), ENTRY_FUNCTION + ".m", code);
+
+        try (CompilationFixture fixture = new CompilationFixture(corpus,
+                DefaultRecipes.getTestPostTypeInferenceRecipe(true), settings)) {
+
+            CProject cproject = fixture.inferTypes()
+                    .applyPostTypeInferencePasses()
+                    .buildCProject();
+            CirUtils.writeProject(cproject, folder);
+
+            FunctionInstance entry = fixture.getImplementation();
+            String returnType = entry.getFunctionType().getCReturnType().code().getSimpleType();
+            SpecsIo.write(new File(folder, "benchmark_main.c"),
+                    String.format(HARNESS_TEMPLATE, returnType, entry.getCName()));
+        }
+    }
+
+    /**
+     *
+     * @return the output of the benchmark executable
+     */
+    private static String compileAndRun(File folder) throws IOException, InterruptedException {
+        File executable = new File(folder, "benchmark");
+
+        List<String> compile = new ArrayList<>();
+        compile.add(System.getProperty(CC_PROPERTY, "gcc"));
+        compile.addAll(Arrays.asList(System.getProperty(CFLAGS_PROPERTY, "-O2").split("\\s+")));
+        compile.add("-I" + folder.getAbsolutePath());
+        compile.add("-o");
+        compile.add(executable.getAbsolutePath());
+        for (File cFile : SpecsIo.getFilesRecursive(folder, "c")) {
+            compile.add(cFile.getAbsolutePath());
+        }
+        compile.add("-lm");
+
+        execute(compile, folder);
+
+        return execute(Arrays.asList(executable.getAbsolutePath()), folder);
+    }
+
+    private static String execute(List<String> command, File folder) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command)
+                .directory(folder)
+                .redirectErrorStream(true)
+                .start();
+
+        String output;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            output = reader.lines().collect(Collectors.joining("\n"));
+        }
+
+        int exitCode = process.waitFor();
+        Preconditions.checkState(exitCode == 0, "Command %s failed with exit code %s:\n%s", command.get(0),
+                exitCode, output);
+
+        return output;
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatisseBenchmarks;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.specs.matisselib.helpers.sizeinfo.SizeGroupInformation;
+import org.specs.matisselib.services.scalarbuilderinfo.SimpleScalarValueInformationBuilderService;
+
+/**
+ * Measures the copies of SizeGroupInformation, which the size analysis takes at every speculative loop.
+ *
+ * <p>
+ * The information describes the given number of matrices, each with its own numel and two dimensions, and one matrix
+ * of the same size as each of them. Only the public API that predates the persistent stores is used, so the benchmark
+ * can be run on older commits to compare.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SizeInformationBenchmarks {
+
+    @Param({ "100", "1000", "10000" })
+    public int matrices;
+
+    private SizeGroupInformation info;
+    private int nextUpdate;
+
+    @Setup
+    public void setup() {
+        info = new SizeGroupInformation(name -> Optional.empty(), new SimpleScalarValueInformationBuilderService());
+
+        for (int i = 0; i < matrices; ++i) {
+            String matrix = "A$" + i;
+
+            info.buildNumel(matrix, "$numel_" + i);
+            info.buildSize(matrix, 0, "$rows_" + i);
+            info.buildSize(matrix, 1, "$cols_" + i);
+            info.buildMatrixWithSameSize("B$" + i, matrix);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        info.close();
+    }
+
+    @Benchmark
+    public SizeGroupInformation copy() {
+        return new SizeGroupInformation(info);
+    }
+
+    /**
+     * A copy followed by a few updates, which is the common pattern for a loop body.
+     */
+    @Benchmark
+    public SizeGroupInformation copyAndUpdate() {
+        SizeGroupInformation copy = new SizeGroupInformation(info);
+
+        int matrix = nextUpdate++ % matrices;
+        copy.buildSize("A$" + matrix, 2, "$depth");
+        copy.buildNumel("C$" + matrix, "$numel_" + matrix);
+        copy.buildMatrixWithSameSize("D$" + matrix, "A$" + matrix);
+
+        return copy;
+    }
+}
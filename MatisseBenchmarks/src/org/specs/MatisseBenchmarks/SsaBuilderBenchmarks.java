@@ -0,0 +1,89 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatisseBenchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.specs.MatlabIR.MatlabLanguage.LanguageMode;
+import org.specs.MatlabIR.MatlabNode.nodes.root.FunctionNode;
+import org.specs.MatlabIR.MatlabNodePass.CommonPassData;
+import org.specs.MatlabIR.MatlabNodePass.FunctionIdentification;
+import org.specs.matisselib.DefaultRecipes;
+import org.specs.matisselib.PreTypeInferencePassManager;
+import org.specs.matisselib.ssa.SsaBuilder;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+import org.suikasoft.jOptions.Interfaces.DataView;
+
+import pt.up.fe.specs.util.providers.StringProvider;
+
+/**
+ * Measures the conversion of every function of a corpus to SSA form, after the AST passes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SsaBuilderBenchmarks {
+
+    @Param({ BenchmarkCorpus.SYNTHETIC_1K, BenchmarkCorpus.SYNTHETIC_10K, BenchmarkCorpus.SYNTHETIC_100K })
+    public String corpus;
+
+    private final List<FunctionNode> functions = new ArrayList<>();
+    private final List<DataStore> passData = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        BenchmarkCorpus benchmarkCorpus = BenchmarkCorpus.get(corpus);
+
+        Map<String, StringProvider> availableFiles = new HashMap<>();
+        benchmarkCorpus.getFiles().forEach((name, code) -> availableFiles.put(name, () -> code));
+
+        PreTypeInferencePassManager manager = new PreTypeInferencePassManager(LanguageMode.MATLAB,
+                DefaultRecipes.DefaultMatlabASTTypeInferenceRecipe,
+                availableFiles,
+                DataView.empty());
+        manager.applyPreTypeInferencePasses(benchmarkCorpus.getEntryFile());
+
+        for (FunctionIdentification functionId : manager.getFunctionsIn(benchmarkCorpus.getEntryFile()).get()) {
+            // Applies the pending AST passes
+            functions.add((FunctionNode) manager.getFunctionNode(functionId).get());
+            passData.add(manager.getPassDataForPreTypeInference(functionId));
+        }
+    }
+
+    @Benchmark
+    public void buildSsa(Blackhole blackhole) {
+        for (int i = 0; i < functions.size(); ++i) {
+            blackhole.consume(SsaBuilder.buildSsa(functions.get(i), new CommonPassData(passData.get(i))));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatisseBenchmarks;
+
+/**
+ * Generates a compilable M-file with approximately the requested number of lines.
+ *
+ * <p>
+ * The file has an entry function without inputs that calls a sequence of kernels. Each kernel has loop nests that the
+ * loop passes act on: a row-major nest (interchange), adjacent loops over the same range (fusion) and loop-invariant
+ * computations (code motion).
+ */
+public class SyntheticCorpusGenerator {
+
+    public static final String ENTRY_FUNCTION = "bench_main";
+
+    private static final String KERNEL_TEMPLATE = ""
+            + "function y = kernel_%1$d(n)\n"
+            + "    a = zeros(n, n);\n"
+            + "    b = zeros(n, n);\n"
+            + "    for i = 1:n\n"
+            + "        for j = 1:n\n"
+            + "            a(i, j) = i * %2$d + j;\n"
+            + "        end\n"
+            + "    end\n"
+            + "    for i = 1:n\n"
+            + "        for j = 1:n\n"
+            + "            b(j, i) = a(j, i) + %3$d;\n"
+            + "        end\n"
+            + "    end\n"
+            + "    c = zeros(1, n);\n"
+            + "    for i = 1:n\n"
+            + "        c(i) = b(i, i) * 2;\n"
+            + "    end\n"
+            + "    for i = 1:n\n"
+            + "        c(i) = c(i) + a(i, 1);\n"
+            + "    end\n"
+            + "    s = 0;\n"
+            + "    for k = 1:n\n"
+            + "        t = n * %4$d;\n"
+            + "        if c(k) > t\n"
+            + "            s = s + c(k) - t;\n"
+            + "        else\n"
+            + "            s = s + b(k, n - k + 1);\n"
+            + "        end\n"
+            + "    end\n"
+            + "    y = s;\n"
+            + "end\n";
+
+    private static final int KERNEL_LINES = 31;
+
+    // Function declaration, initialization and end of the entry function
+    private static final int ENTRY_LINES = 3;
+
+    private SyntheticCorpusGenerator() {
+    }
+
+    /**
+     *
+     * @param lines
+     *            the approximate number of lines of the generated code
+     * @return the code of the M-file, whose main function is {@link #ENTRY_FUNCTION}
+     */
+    public static String generate(int lines) {
+        // Each kernel also adds a call in the entry function and a blank line
+        int numKernels = Math.max(1, (lines - ENTRY_LINES) / (KERNEL_LINES + 2));
+
+        StringBuilder code = new StringBuilder();
+        code.append("function total = ").append(ENTRY_FUNCTION).append("()\n");
+        code.append("    total = 0;\n");
+        for (int kernel = 0; kernel < numKernels; ++kernel) {
+            code.append("    total = total + kernel_").append(kernel).append("(").append(8 + kernel % 8)
+                    .append(");\n");
+        }
+        code.append("end\n");
+
+        for (int kernel = 0; kernel < numKernels; ++kernel) {
+            code.append("\n");
+            code.append(String.format(KERNEL_TEMPLATE, kernel, kernel % 5 + 2, kernel % 3 + 1, kernel % 4 + 1));
+        }
+
+        return code.toString();
+    }
+}
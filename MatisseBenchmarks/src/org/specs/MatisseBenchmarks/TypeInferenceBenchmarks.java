@@ -0,0 +1,68 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatisseBenchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.specs.matisselib.typeinference.PostTypeInferenceRecipe;
+
+/**
+ * Measures the type inference of a corpus, which for each specialization builds the SSA form, applies the SSA passes
+ * and runs TypeInferencePass.inferTypes.
+ *
+ * <p>
+ * Type inference can only be applied once per manager, so each invocation uses a new manager, created outside of the
+ * measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class TypeInferenceBenchmarks {
+
+    @Param({ BenchmarkCorpus.SYNTHETIC_1K, BenchmarkCorpus.SYNTHETIC_10K, BenchmarkCorpus.SYNTHETIC_100K })
+    public String corpus;
+
+    private CompilationFixture fixture;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        fixture = new CompilationFixture(BenchmarkCorpus.get(corpus), PostTypeInferenceRecipe.empty());
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public CompilationFixture inferTypes() {
+        return fixture.inferTypes();
+    }
+}
@@ -16,6 +16,8 @@ package org.specs.matisselib;
 import org.specs.matisselib.helpers.GenericSizeGroupInformationBuilder;
 import org.specs.matisselib.helpers.sizeinfo.SizeGroupInformation;
 import org.specs.matisselib.services.DataService;
+import org.specs.matisselib.ssa.DefUseIndex;
+import org.specs.matisselib.ssa.FunctionBody;
 import org.specs.matisselib.typeinference.TypedInstance;
 import org.specs.matisselib.unssa.ControlFlowGraph;
 import org.specs.matisselib.unssa.ControlFlowGraphBuilder;
@@ -34,4 +36,19 @@ public class CompilerDataProviders {
             }, (SizeGroupInformation value) -> {
                 value.close();
             });
+
+    /**
+     * The index is owned by the function body and kept up to date by the SsaBlock mutators, so passes that only modify
+     * the body through them can preserve it. Disposing it detaches it from the body. An index the body already
+     * discarded (e.g., in {@link FunctionBody#setBlocks(java.util.List)}) is built again.
+     */
+    public static final DataService<DefUseIndex> DEF_USE_INDEX = new DataService<>("def_use_index",
+            (TypedInstance instance, DataStore dataStore) -> {
+                return instance.getFunctionBody().getDefUseIndex();
+            }, (DefUseIndex value) -> {
+                // A detached index is no longer the one of the body, which may have built a new one
+                if (!value.isDetached()) {
+                    value.getBody().discardDefUseIndex();
+                }
+            }, (DefUseIndex value) -> !value.isDetached());
 }
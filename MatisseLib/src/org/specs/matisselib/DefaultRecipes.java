@@ -46,6 +46,7 @@ import org.specs.matisselib.passes.posttype.ConvertToSetAllPass;
 import org.specs.matisselib.passes.posttype.DuplicatedReadEliminationPass;
 import org.specs.matisselib.passes.posttype.ElementWisePass;
 import org.specs.matisselib.passes.posttype.EndEliminationPass;
+import org.specs.matisselib.passes.posttype.FixedPointPassGroup;
 import org.specs.matisselib.passes.posttype.FullRangeEliminationPass;
 import org.specs.matisselib.passes.posttype.GetOrFirstSimplificationPass;
 import org.specs.matisselib.passes.posttype.HorzcatEliminationPass;
@@ -236,12 +237,14 @@ public class DefaultRecipes {
         postBuilder.addPass(new AccessSizeEliminationPass());
         postBuilder.addPass(new BoundsCheckMotionPass());
         postBuilder.addPass(new UnnecessaryValidationEliminationPass());
-        postBuilder.addPass(new FixedAccessPropagationPass());
-        postBuilder.addPass(new DeadCodeEliminationPass());
-        postBuilder.addPass(new RedundantAllocationEliminationPass());
-        postBuilder.addPass(new DeadCodeEliminationPass());
-        postBuilder.addPass(new LoopMatrixDependencyEliminationPass());
-        postBuilder.addPass(new DeadCodeEliminationPass());
+        // Each of these passes can expose opportunities for the others
+        postBuilder.addPass(new FixedPointPassGroup(
+                new FixedAccessPropagationPass(),
+                new DeadCodeEliminationPass(),
+                new RedundantAllocationEliminationPass(),
+                new DeadCodeEliminationPass(),
+                new LoopMatrixDependencyEliminationPass(),
+                new DeadCodeEliminationPass()));
         postBuilder.addPass(new RedundantSizeCheckPass());
         postBuilder.addPass(new RedundantAssignmentEliminationPass(true));
         postBuilder.addPass(new LoopInvariantCodeMotionPass());
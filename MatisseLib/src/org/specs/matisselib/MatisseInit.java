@@ -13,13 +13,16 @@
 
 package org.specs.matisselib;
 
+import java.io.File;
 import java.io.PrintStream;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
+import java.util.Optional;
 
 import org.specs.MatlabIR.MatlabLanguage.LanguageMode;
 import org.specs.MatlabIR.MatlabNodePass.CommonPassData;
+import org.specs.MatlabProcessor.MatlabParser.ParsedFileCache;
 import org.specs.matisselib.matlabinference.utils.SystemFunctionTypes;
 import org.specs.matisselib.services.UserFileProviderService;
 import org.suikasoft.jOptions.Datakey.DataKey;
@@ -86,7 +89,8 @@ public class MatisseInit implements KeyUser {
         passData.addAll(additionalServices);
 
         // Create MFilesService
-        passData.add(MatisseInit.MFILES_SERVICE, new UserFileProviderService(languageMode, availableFiles));
+        passData.add(MatisseInit.MFILES_SERVICE,
+                new UserFileProviderService(languageMode, availableFiles, newParsedFileCache(passData)));
 
         // Create SystemFunctions
         passData.add(MatisseInit.SYSTEM_FUNCTION_TYPES, SystemFunctionTypes.newInstance());
@@ -99,4 +103,17 @@ public class MatisseInit implements KeyUser {
 
         return passData;
     }
+
+    private static Optional<ParsedFileCache> newParsedFileCache(DataStore passData) {
+        if (!passData.hasValue(MatisseLibOption.AST_CACHE_FOLDER)) {
+            return Optional.empty();
+        }
+
+        String cacheFolder = passData.get(MatisseLibOption.AST_CACHE_FOLDER);
+        if (cacheFolder.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new ParsedFileCache(new File(cacheFolder)));
+    }
 }
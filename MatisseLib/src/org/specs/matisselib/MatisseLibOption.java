@@ -32,4 +32,9 @@ public class MatisseLibOption {
     public static final DataKey<Boolean> DUMP_OUTPUT_TYPES = KeyFactory.bool("dump_output_types");
 
     public static final DataKey<StringList> PASSES_TO_LOG = KeyFactory.stringList("passes_to_log");
+
+    /**
+     * Folder where parsed M-files are cached between compilations. If empty, parsed files are not cached.
+     */
+    public static final DataKey<String> AST_CACHE_FOLDER = KeyFactory.string("ast_cache_folder", "");
 }
@@ -43,6 +43,17 @@ public interface MatlabAstPassManager extends KeyUser {
 
     void applyPreTypeInferencePasses(String rootFile);
 
+    /**
+     * Loads the main function of an additional entry point, after the passes have been applied to the root file. The
+     * pending passes are applied to the function when its node is requested.
+     * 
+     * @param file
+     * @return the identification of the main function of the file
+     */
+    default FunctionIdentification addEntryPoint(String file) {
+	throw new NotImplementedException("Not implemented for class '" + getClass() + "'");
+    }
+
     FunctionIdentification processResource(ResourceProvider resource);
 
     FunctionIdentification processResource(String name, String code);
@@ -66,6 +66,11 @@ public enum PassMessage implements MessageType {
 
     UNRECOGNIZED_DIRECTIVE(ReportCategory.WARNING, "Unrecognized Directive"),
 
+    /**
+     * Decisions of automatic parallelization, for loops that were and were not parallelized.
+     */
+    PARALLELIZATION_REPORT(ReportCategory.INFORMATION, "Parallelization Report"),
+
     /**
      * When a directive is valid in MATISSE (e.g. %!parallel) but the specific parameters are not.
      */
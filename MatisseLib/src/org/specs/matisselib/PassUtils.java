@@ -17,7 +17,9 @@ import org.specs.matisselib.functionproperties.DisableOptimizationProperty;
 import org.specs.matisselib.services.DataService;
 import org.specs.matisselib.services.Logger;
 import org.specs.matisselib.ssa.FunctionBody;
+import org.specs.matisselib.typeinference.PostTypeInferencePass;
 import org.specs.matisselib.typeinference.TypedInstance;
+import org.specs.matisselib.typeinference.TypedInstanceStateList;
 import org.suikasoft.jOptions.Interfaces.DataStore;
 
 public class PassUtils {
@@ -35,6 +37,19 @@ public class PassUtils {
         return dataStore.get(ProjectPassServices.DATA_PROVIDER).buildData(dataType);
     }
 
+    /**
+     * 
+     * @return true if the pass does not simply apply itself to each instance in turn
+     */
+    public static boolean overridesListApply(PostTypeInferencePass pass) {
+        try {
+            return pass.getClass().getMethod("apply", TypedInstanceStateList.class)
+                    .getDeclaringClass() != PostTypeInferencePass.class;
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public static boolean skipPass(FunctionBody source, String optimizationId) {
         return source.getPropertyStream(DisableOptimizationProperty.class)
                 .anyMatch(property -> property.getOptimizationId().equals(optimizationId));
@@ -44,6 +44,7 @@ import org.specs.MatlabIR.MatlabNodePass.interfaces.MatlabNodePass;
 import org.specs.matisselib.passmanager.PassManager;
 import org.specs.matisselib.services.DirectiveParser;
 import org.specs.matisselib.services.NamingService;
+import org.specs.matisselib.services.PassProfiler;
 import org.specs.matisselib.services.TokenReportingService;
 import org.specs.matisselib.services.UserFileProviderService;
 import org.specs.matisselib.services.WideScopeService;
@@ -61,7 +62,7 @@ import pt.up.fe.specs.util.SpecsCollections;
 import pt.up.fe.specs.util.providers.ResourceProvider;
 import pt.up.fe.specs.util.providers.StringProvider;
 
-public class PreTypeInferencePassManager implements MatlabAstPassManager {
+public class PreTypeInferencePassManager implements MatlabAstPassManager, AutoCloseable {
 
     private final MatlabRecipe preTypeInferenceRecipe;
 
@@ -84,13 +85,34 @@ public class PreTypeInferencePassManager implements MatlabAstPassManager {
             Map<String, StringProvider> availableFiles,
             DataView additionalServices) {
 
+        this(languageMode, recipe, availableFiles, additionalServices, 1);
+    }
+
+    /**
+     * 
+     * @param parsingThreads
+     *            if greater than 1, the function declarations of all available files are scanned in parallel, and files
+     *            are parsed in the background before they are requested. The AST passes are always applied in the
+     *            calling thread.
+     */
+    public PreTypeInferencePassManager(LanguageMode languageMode,
+            MatlabRecipe recipe,
+            Map<String, StringProvider> availableFiles,
+            DataView additionalServices,
+            int parsingThreads) {
+
         Preconditions.checkArgument(recipe != null);
         Preconditions.checkArgument(availableFiles != null);
+        Preconditions.checkArgument(parsingThreads > 0, "Expected at least one parsing thread, got " + parsingThreads);
 
         this.preTypeInferenceRecipe = recipe;
 
         this.basePassData = new MatisseInit().newPassData(languageMode, new HashMap<>(availableFiles),
                 additionalServices);
+
+        if (parsingThreads > 1) {
+            this.basePassData.get(MatisseInit.MFILES_SERVICE).enableParallelParsing(parsingThreads);
+        }
     }
 
     /* (non-Javadoc)
@@ -318,6 +340,17 @@ public class PreTypeInferencePassManager implements MatlabAstPassManager {
     public boolean hasFunctionNode(FunctionIdentification functionId) {
         Preconditions.checkArgument(functionId != null);
 
+        if (this.parsedFunctions.containsKey(functionId)) {
+            return true;
+        }
+
+        // Avoid parsing the file until the function is actually needed
+        UserFileProviderService files = this.basePassData.get(MatisseInit.MFILES_SERVICE);
+        if (files.hasMainUnit(functionId.getFile(), functionId.getName())) {
+            files.prefetch(functionId.getFile());
+            return true;
+        }
+
         return getUnderlyingFunctionNode(functionId).isPresent();
     }
 
@@ -393,7 +426,16 @@ public class PreTypeInferencePassManager implements MatlabAstPassManager {
         DataStore data = getPassDataForPreTypeInference(functionId);
 
         MatlabNode node = getUnderlyingFunctionNode(functionId).get();
-        pass.apply(node, data);
+
+        Optional<PassProfiler> profiler = data.getTry(ProjectPassServices.PASS_PROFILER);
+        if (profiler.isPresent()) {
+            try (PassProfiler.Measurement measurement = profiler.get().start("ast", pass.getName(),
+                    functionId.toString())) {
+                pass.apply(node, data);
+            }
+        } else {
+            pass.apply(node, data);
+        }
     }
 
     /* (non-Javadoc)
@@ -406,19 +448,7 @@ public class PreTypeInferencePassManager implements MatlabAstPassManager {
 
         this.appliedPreTypeInferencePasses = true;
 
-        DataStore passData = getPassDataForPreTypeInference(rootFile);
-
-        // Ensure in scope
-        FileNode fileNode = passData.get(MatisseInit.MFILES_SERVICE).getFileNode(rootFile)
-                .orElseThrow(() -> new IllegalArgumentException("No such file: " + rootFile));
-
-        String mainUnitName = fileNode.getMainUnitName();
-        this.rootFunction = new FunctionIdentification(rootFile, mainUnitName);
-
-        // Ensure function is loaded
-        if (!getUnderlyingFunctionNode(this.rootFunction).isPresent()) {
-            throw new RuntimeException("Could not find specified function.");
-        }
+        this.rootFunction = loadMainFunction(rootFile);
 
         // Now apply the passes themselves
         while (this.currentPreTypeRecipePass < this.preTypeInferenceRecipe.size()) {
@@ -438,6 +468,36 @@ public class PreTypeInferencePassManager implements MatlabAstPassManager {
         return this.passLog.toString();
     }
 
+    /* (non-Javadoc)
+     * @see org.specs.matisselib.MatlabAstPassManager#addEntryPoint(java.lang.String)
+     */
+    @Override
+    public FunctionIdentification addEntryPoint(String file) {
+        Preconditions.checkArgument(file != null);
+        Preconditions.checkState(this.appliedPreTypeInferencePasses,
+                "Can only call addEntryPoint after applyPreTypeInferencePasses");
+
+        return loadMainFunction(file);
+    }
+
+    private FunctionIdentification loadMainFunction(String file) {
+        DataStore passData = getPassDataForPreTypeInference(file);
+
+        // Ensure in scope
+        FileNode fileNode = passData.get(MatisseInit.MFILES_SERVICE).getFileNode(file)
+                .orElseThrow(() -> new IllegalArgumentException("No such file: " + file));
+
+        String mainUnitName = fileNode.getMainUnitName();
+        FunctionIdentification mainFunction = new FunctionIdentification(file, mainUnitName);
+
+        // Ensure function is loaded
+        if (!getUnderlyingFunctionNode(mainFunction).isPresent()) {
+            throw new RuntimeException("Could not find specified function.");
+        }
+
+        return mainFunction;
+    }
+
     /* (non-Javadoc)
      * @see org.specs.matisselib.MatlabAstPassManager#processResource(pt.up.fe.specs.util.Interfaces.ResourceProvider)
      */
@@ -479,4 +539,9 @@ public class PreTypeInferencePassManager implements MatlabAstPassManager {
     public void setReportStream(PrintStream reportStream) {
         this.basePassData.set(MatisseInit.PRINT_STREAM, reportStream);
     }
+
+    @Override
+    public void close() {
+        this.basePassData.get(MatisseInit.MFILES_SERVICE).close();
+    }
 }
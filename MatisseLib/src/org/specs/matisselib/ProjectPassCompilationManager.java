@@ -16,9 +16,19 @@ package org.specs.matisselib;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.specs.CIR.FunctionInstance.InstanceProvider;
@@ -32,6 +42,10 @@ import org.specs.MatlabIR.MatlabNodePass.FunctionIdentification;
 import org.specs.matisselib.passes.ssa.SsaValidatorPass;
 import org.specs.matisselib.providers.MatlabFunctionTable;
 import org.specs.matisselib.services.DefaultDataProviderService;
+import org.specs.matisselib.services.PassProfiler;
+import org.specs.matisselib.services.PassScheduler;
+import org.specs.matisselib.services.ScalarValueInformationBuilderService;
+import org.specs.matisselib.services.scalarbuilderinfo.DifferenceBoundScalarValueInformationBuilderService;
 import org.specs.matisselib.services.scalarbuilderinfo.SimpleScalarValueInformationBuilderService;
 import org.specs.matisselib.services.scalarbuilderinfo.Z3ScalarValueInformationBuilderService;
 import org.specs.matisselib.services.systemfunctions.CommonSystemFunctionProviderService;
@@ -57,7 +71,7 @@ import pt.up.fe.specs.util.providers.ResourceProvider;
 public class ProjectPassCompilationManager implements KeyUser, AutoCloseable {
     private static final boolean ENABLE_AGGRESSIVE_VALIDATION = false;
 
-    private final MatlabAstPassManager preTypeInferenceManager;
+    private final PreTypeInferencePassManager preTypeInferenceManager;
 
     private final SsaRecipe ssaRecipe;
     private final PostTypeInferenceRecipe postTypeInferenceRecipe;
@@ -66,7 +80,10 @@ public class ProjectPassCompilationManager implements KeyUser, AutoCloseable {
 
     private final MatlabFunctionTable functionTable;
     private final boolean enableZ3;
+    private final boolean enableDifferenceBounds;
+    private final ForkJoinPool postTypeInferencePool;
 
+    private final List<FunctionIdentification> entryPoints = new ArrayList<>();
     private TypeInferencePass typeInference;
     private boolean appliedPostTypeInferencePasses = false;
 
@@ -74,6 +91,23 @@ public class ProjectPassCompilationManager implements KeyUser, AutoCloseable {
 
     private final MultiMap<FunctionIdentification, InferenceResult> inferenceResults = new MultiMap<>();
 
+    /**
+     * Index of inferenceResults, by specialization. Since the key depends on which arguments are specialized for
+     * constant values, the distinct sets of constant-specialized arguments of each function are kept, in order to
+     * build the key of a call.
+     */
+    private final Map<SpecializationKey, InferenceResult> specializations = new HashMap<>();
+    private final Map<FunctionIdentification, List<BitSet>> constantSpecializedArguments = new HashMap<>();
+    private final Set<TypedInstance> reusedInstances = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int specializationHits;
+    private int specializationMisses;
+
+    private static final String POST_TYPE_PHASE = "post-type";
+    private static final String ALL_INSTANCES = "<all>";
+
+    // Time spent in external solvers (e.g., Z3) by each post-type-inference pass, in nanoseconds
+    private final Map<String, Long> solverTimePerPass = new LinkedHashMap<>();
+
     public ProjectPassCompilationManager(ProjectPassCompilationOptions options) {
 
         Preconditions.checkArgument(options != null);
@@ -82,13 +116,18 @@ public class ProjectPassCompilationManager implements KeyUser, AutoCloseable {
         preTypeInferenceManager = new PreTypeInferencePassManager(options.getLanguageMode(),
                 options.getPreTypeInferenceRecipe(),
                 options.getAvailableFiles(),
-                options.getAdditionalServices());
+                options.getAdditionalServices(),
+                options.getParsingThreads());
         ssaRecipe = options.getSsaRecipe();
         postTypeInferenceRecipe = options.getPostTypeInferenceRecipe();
         functionTable = options.getSystemFunctions();
         inferenceRuleList = options.getInferenceRuleList();
         enableZ3 = options.isz3Enabled();
+        enableDifferenceBounds = options.isDifferenceBoundsEnabled();
         defaultTypes = options.getDefaultTypes();
+
+        int threads = options.getPostTypeInferenceThreads();
+        postTypeInferencePool = threads > 1 ? new ForkJoinPool(threads) : null;
     }
 
     @Override
@@ -107,10 +146,42 @@ public class ProjectPassCompilationManager implements KeyUser, AutoCloseable {
     public void applyPreTypeInferencePasses(String rootFile) {
         Preconditions.checkArgument(rootFile != null);
 
-        preTypeInferenceManager.applyPreTypeInferencePasses(rootFile);
+        applyPreTypeInferencePasses(Arrays.asList(rootFile));
+    }
+
+    /**
+     * Applies the pre-type-inference passes to several entry points, which are then compiled together, sharing the
+     * specializations of the functions they call.
+     * 
+     * @param rootFiles
+     *            the files of the entry points. The first one is the root function of the project
+     */
+    public void applyPreTypeInferencePasses(List<String> rootFiles) {
+        Preconditions.checkArgument(rootFiles != null && !rootFiles.isEmpty(), "Expected at least one root file");
+        Preconditions.checkState(entryPoints.isEmpty(), "Can only call applyPreTypeInferencePasses once");
+
+        preTypeInferenceManager.applyPreTypeInferencePasses(rootFiles.get(0));
+        entryPoints.add(preTypeInferenceManager.getRootFunction());
+
+        for (String rootFile : rootFiles.subList(1, rootFiles.size())) {
+            FunctionIdentification entryPoint = preTypeInferenceManager.addEntryPoint(rootFile);
+            if (!entryPoints.contains(entryPoint)) {
+                entryPoints.add(entryPoint);
+            }
+        }
     }
 
     public TypedInstance applyTypeInference(DataStore setupTable) {
+        return applyTypeInferenceToEntryPoints(setupTable).get(0);
+    }
+
+    /**
+     * Infers the types of the main function of each entry point, using the default types.
+     * 
+     * @param setupTable
+     * @return the instances of the entry points, in the order they were given to applyPreTypeInferencePasses
+     */
+    public List<TypedInstance> applyTypeInferenceToEntryPoints(DataStore setupTable) {
         Preconditions.checkArgument(setupTable != null);
         Preconditions.checkState(preTypeInferenceManager.getAppliedPreTypeInferencePasses(),
                 "Can only call applyTypeInference after applyPreTypeInferencePasses");
@@ -119,7 +190,12 @@ public class ProjectPassCompilationManager implements KeyUser, AutoCloseable {
 
         typeInference = new TypeInferencePass(defaultTypes, setupTable, this);
 
-        return typeInference.inferMainFunctionTypes(preTypeInferenceManager.getRootFunction());
+        List<TypedInstance> instances = new ArrayList<>();
+        for (FunctionIdentification entryPoint : entryPoints) {
+            instances.add(typeInference.inferMainFunctionTypes(entryPoint));
+        }
+
+        return instances;
     }
 
     public ScriptInferenceResult applyScriptTypeInference(DataStore setupTable) {
@@ -154,12 +230,12 @@ public class ProjectPassCompilationManager implements KeyUser, AutoCloseable {
         Preconditions.checkArgument(data != null);
         Preconditions.checkArgument(typeInference != null);
 
-        List<InferenceResult> candidates = inferenceResults.get(functionId);
-        for (InferenceResult candidate : candidates) {
-            if (candidate.accepts(data)) {
-                return candidate.instance;
-            }
+        InferenceResult existingResult = findSpecialization(functionId, data);
+        if (existingResult != null) {
+            ++specializationHits;
+            return existingResult.instance;
         }
+        ++specializationMisses;
 
         String arguments = data.getInputTypes()
                 .stream()
@@ -173,9 +249,7 @@ public class ProjectPassCompilationManager implements KeyUser, AutoCloseable {
 
         passData.add(ProjectPassServices.TYPED_INSTANCE_PROVIDER, new CommonTypedInstanceProviderService(this));
         passData.add(ProjectPassServices.SYSTEM_FUNCTION_PROVIDER, new CommonSystemFunctionProviderService(this));
-        passData.add(ProjectPassServices.SCALAR_VALUE_INFO_BUILDER_PROVIDER,
-                enableZ3 ? new Z3ScalarValueInformationBuilderService()
-                        : new SimpleScalarValueInformationBuilderService());
+        passData.add(ProjectPassServices.SCALAR_VALUE_INFO_BUILDER_PROVIDER, newScalarValueInformationBuilder());
         passData.set(ProjectPassServices.GLOBAL_TYPE_PROVIDER,
                 name -> Optional.ofNullable(defaultTypes.getSymbol("global", name)));
 
@@ -193,10 +267,68 @@ public class ProjectPassCompilationManager implements KeyUser, AutoCloseable {
 
         InferenceResult result = new InferenceResult(instance, passData, outputData);
         inferenceResults.put(functionId, result);
+        addSpecialization(functionId, result, outputData == null ? null : outputData.size());
 
         return instance;
     }
 
+    private ScalarValueInformationBuilderService newScalarValueInformationBuilder() {
+        if (enableZ3) {
+            return new Z3ScalarValueInformationBuilderService();
+        }
+
+        if (enableDifferenceBounds) {
+            return new DifferenceBoundScalarValueInformationBuilderService();
+        }
+
+        return new SimpleScalarValueInformationBuilderService();
+    }
+
+    private void addSpecialization(FunctionIdentification functionId, InferenceResult result, Integer numOutputs) {
+        SpecializationKey key = SpecializationKey.of(functionId, result.instance, numOutputs);
+        specializations.putIfAbsent(key, result);
+
+        List<BitSet> functionArguments = constantSpecializedArguments.computeIfAbsent(functionId,
+                id -> new ArrayList<>());
+        BitSet arguments = SpecializationKey.getConstantSpecializedArguments(result.instance);
+        if (!functionArguments.contains(arguments)) {
+            functionArguments.add(arguments);
+        }
+    }
+
+    private InferenceResult findSpecialization(FunctionIdentification functionId, ProviderData data) {
+        List<BitSet> functionArguments = constantSpecializedArguments.get(functionId);
+        if (functionArguments == null) {
+            return null;
+        }
+
+        // Usually a function always specializes the same arguments, so there is a single candidate key
+        for (BitSet arguments : functionArguments) {
+            InferenceResult result = specializations.get(SpecializationKey.of(functionId, arguments, data));
+            if (result != null) {
+                return result;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * 
+     * @return the number of calls to inferFunction that reused a previously inferred specialization
+     */
+    public int getSpecializationHits() {
+        return specializationHits;
+    }
+
+    /**
+     * 
+     * @return the number of calls to inferFunction that required type inference of a new specialization
+     */
+    public int getSpecializationMisses() {
+        return specializationMisses;
+    }
+
     /**
      * Applies the pass of index passId to the function indicated by functionId.
      * 
@@ -214,22 +346,10 @@ public class ProjectPassCompilationManager implements KeyUser, AutoCloseable {
         log("Applying post-type-inference pass " + passId + " " + pass.getName() + " to "
                 + inferenceResult.instance.getFunctionIdentification());
 
-        DataStore data = inferenceResult.instancedPassData;
-
-        try {
-            pass.apply(inferenceResult.instance, data);
-
-            runAfterPassCode(inferenceResult.instance, pass, data);
-        } catch (RuntimeException e) {
-            System.err.println("At:");
-            System.err.println(inferenceResult.instance.getFunctionBody());
-
-            e.printStackTrace();
-            throw new RuntimeException(e);
-        }
+        applyPassTo(inferenceResult, pass);
     }
 
-    private void runAfterPassCode(TypedInstance instance, PostTypeInferencePass pass, DataStore data) {
+    private static void runAfterPassCode(TypedInstance instance, PostTypeInferencePass pass, DataStore data) {
         if (ProjectPassCompilationManager.ENABLE_AGGRESSIVE_VALIDATION) {
             new SsaValidatorPass("auto-after-" + pass.getName()).apply(instance, data);
         }
@@ -242,9 +362,17 @@ public class ProjectPassCompilationManager implements KeyUser, AutoCloseable {
         do {
             appliedAnyPass = false;
 
+            if (postTypeInferencePool != null) {
+                appliedAnyPass |= applyInstanceLocalCatchUpPasses();
+            }
+
             // Create new list, since list of inferenceResults can change while applying a pass
             for (FunctionIdentification id : new ArrayList<>(inferenceResults.keySet())) {
                 for (InferenceResult result : inferenceResults.get(id)) {
+                    if (isReused(result.instance)) {
+                        continue;
+                    }
+
                     while (result.getCurrentPass() < currentPostTypeInferencePass
                             && result.getCurrentPass() < postTypeInferenceRecipe.size()
                             && !result.isInPass()) {
@@ -260,6 +388,89 @@ public class ProjectPassCompilationManager implements KeyUser, AutoCloseable {
         } while (appliedAnyPass);
     }
 
+    /**
+     * Advances, in parallel, every instance that is behind through its consecutive instance-local passes.
+     * 
+     * <p>
+     * Each instance stops at the first pass that is not instance-local, which is then applied by the sequential
+     * catch-up loop.
+     * 
+     * @return true if any pass was applied
+     */
+    private boolean applyInstanceLocalCatchUpPasses() {
+        List<InferenceResult> pendingResults = new ArrayList<>();
+        for (InferenceResult result : inferenceResults.flatValues()) {
+            if (!result.isInPass() && !isReused(result.instance) && isNextCatchUpPassInstanceLocal(result)) {
+                pendingResults.add(result);
+            }
+        }
+
+        if (pendingResults.isEmpty()) {
+            return false;
+        }
+
+        // Logging is not thread-safe, so messages are written before the passes are applied.
+        for (InferenceResult result : pendingResults) {
+            for (int passId = result.getCurrentPass(); passId < currentPostTypeInferencePass
+                    && postTypeInferenceRecipe.get(passId).isInstanceLocal(); ++passId) {
+                log("Applying post-type-inference pass " + passId + " "
+                        + postTypeInferenceRecipe.get(passId).getName()
+                        + " to " + result.instance.getFunctionIdentification());
+            }
+
+            result.setInPass(true);
+        }
+
+        runInParallel(pendingResults, result -> {
+            while (isNextCatchUpPassInstanceLocal(result)) {
+                PostTypeInferencePass pass = postTypeInferenceRecipe.get(result.getCurrentPass());
+
+                applyPassTo(result, pass);
+                result.nextPass();
+            }
+        });
+
+        for (InferenceResult result : pendingResults) {
+            result.setInPass(false);
+        }
+
+        return true;
+    }
+
+    private boolean isNextCatchUpPassInstanceLocal(InferenceResult result) {
+        return result.getCurrentPass() < currentPostTypeInferencePass
+                && result.getCurrentPass() < postTypeInferenceRecipe.size()
+                && postTypeInferenceRecipe.get(result.getCurrentPass()).isInstanceLocal();
+    }
+
+    private void applyPassTo(InferenceResult result, PostTypeInferencePass pass) {
+        try {
+            long solverTimeBefore = getSolverTime(result);
+            applyPass(pass, result.instance, result.instancedPassData);
+            addSolverTime(pass, getSolverTime(result) - solverTimeBefore);
+        } catch (RuntimeException e) {
+            synchronized (System.err) {
+                System.err.println("At:");
+                System.err.println(result.instance.getFunctionBody());
+
+                e.printStackTrace();
+            }
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void runInParallel(List<InferenceResult> results, Consumer<InferenceResult> action) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (InferenceResult result : results) {
+            tasks.add(postTypeInferencePool.submit(() -> action.accept(result)));
+        }
+
+        // Join in submission order, so that the reported failure is the same one a sequential run would report.
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
     public void applyPostTypeInferencePasses() {
         Preconditions.checkState(!appliedPostTypeInferencePasses,
                 "Can only call applyPostTypeInferencePasses once");
@@ -271,7 +482,10 @@ public class ProjectPassCompilationManager implements KeyUser, AutoCloseable {
 
             PostTypeInferencePass pass = postTypeInferenceRecipe.get(currentPostTypeInferencePass);
 
-            List<InferenceResult> instances = inferenceResults.flatValues();
+            List<InferenceResult> instances = inferenceResults.flatValues()
+                    .stream()
+                    .filter(result -> !isReused(result.instance))
+                    .collect(Collectors.toList());
 
             for (InferenceResult result : instances) {
                 log("Applying post-type-inference pass " + currentPostTypeInferencePass + " " + pass.getName() + " to "
@@ -281,12 +495,43 @@ public class ProjectPassCompilationManager implements KeyUser, AutoCloseable {
                 result.setInPass(true);
             }
 
-            pass.apply(new TypedInstanceStateList(instances));
+            List<InferenceResult> scheduledInstances = new ArrayList<>();
+            for (InferenceResult result : instances) {
+                if (!shouldSkip(pass, result.instance, result.instancedPassData)) {
+                    scheduledInstances.add(result);
+                }
+            }
 
+            long solverTimeBefore = getSolverTime(scheduledInstances);
+            Optional<PassProfiler> profiler = instances.isEmpty() ? Optional.empty()
+                    : instances.get(0).instancedPassData.getTry(ProjectPassServices.PASS_PROFILER);
+            if (postTypeInferencePool != null && pass.isInstanceLocal() && scheduledInstances.size() > 1) {
+                runInParallel(scheduledInstances,
+                        result -> applyProfiled(pass, result.instance, result.instancedPassData));
+            } else if (profiler.isPresent() && !PassUtils.overridesListApply(pass)) {
+                // Equivalent to the default apply(TypedInstanceStateList), but measures each instance
+                for (InferenceResult result : scheduledInstances) {
+                    applyProfiled(pass, result.instance, result.instancedPassData);
+                }
+            } else if (profiler.isPresent()) {
+                try (PassProfiler.Measurement measurement = profiler.get().start(POST_TYPE_PHASE, pass.getName(),
+                        ALL_INSTANCES)) {
+                    pass.apply(new TypedInstanceStateList(scheduledInstances));
+                }
+            } else {
+                pass.apply(new TypedInstanceStateList(scheduledInstances));
+            }
+            addSolverTime(pass, getSolverTime(scheduledInstances) - solverTimeBefore);
+
+            Set<InferenceResult> appliedResults = Collections.newSetFromMap(new IdentityHashMap<>());
+            appliedResults.addAll(scheduledInstances);
             for (InferenceResult result : instances) {
                 result.nextPass();
 
-                runAfterPassCode(result.instance, pass, result.instancedPassData);
+                if (appliedResults.contains(result)) {
+                    recordExecution(pass, result.instance, result.instancedPassData);
+                    runAfterPassCode(result.instance, pass, result.instancedPassData);
+                }
 
                 assert result.isInPass();
                 result.setInPass(false);
@@ -294,6 +539,128 @@ public class ProjectPassCompilationManager implements KeyUser, AutoCloseable {
 
             ++currentPostTypeInferencePass;
         }
+
+        synchronized (solverTimePerPass) {
+            solverTimePerPass.forEach((passName, time) -> log("Solver time in " + passName + ": "
+                    + time / 1_000_000 + "ms"));
+        }
+    }
+
+    /**
+     * Marks instances whose generated code from a previous compilation is still up-to-date. The post-type-inference
+     * passes are not applied to them, and their code is not generated again.
+     * 
+     * <p>
+     * Must be called before {@link #applyPostTypeInferencePasses()}.
+     * 
+     * @param instances
+     *            instances returned by this manager
+     */
+    public void reuseInstances(Collection<TypedInstance> instances) {
+        Preconditions.checkState(!appliedPostTypeInferencePasses,
+                "Can only reuse instances before applyPostTypeInferencePasses");
+
+        reusedInstances.addAll(instances);
+    }
+
+    /**
+     * 
+     * @return true if the given instance was marked by {@link #reuseInstances(Collection)}
+     */
+    public boolean isReused(TypedInstance instance) {
+        return reusedInstances.contains(instance);
+    }
+
+    /**
+     * Applies a pass to a single instance, the same way the passes of the recipe are applied: the application may be
+     * skipped by the {@link PassScheduler}, is measured by the {@link PassProfiler}, and is followed by the validation
+     * of the instance (when enabled) and by the invalidation of the data the pass does not preserve.
+     * 
+     * <p>
+     * Used by passes that apply other passes (e.g., {@link org.specs.matisselib.passes.posttype.FixedPointPassGroup}).
+     * 
+     * @return true if the pass was applied, false if it was skipped
+     */
+    public static boolean applyPass(PostTypeInferencePass pass, TypedInstance instance, DataStore passData) {
+        if (shouldSkip(pass, instance, passData)) {
+            return false;
+        }
+
+        applyProfiled(pass, instance, passData);
+        recordExecution(pass, instance, passData);
+        runAfterPassCode(instance, pass, passData);
+
+        return true;
+    }
+
+    /**
+     * Passes that override {@link PostTypeInferencePass#apply(TypedInstanceStateList)} may depend on all instances, so
+     * they are never skipped.
+     */
+    private static boolean shouldSkip(PostTypeInferencePass pass, TypedInstance instance, DataStore passData) {
+        Optional<PassScheduler> scheduler = passData.getTry(ProjectPassServices.PASS_SCHEDULER);
+        if (!scheduler.isPresent()) {
+            return false;
+        }
+
+        if (PassUtils.overridesListApply(pass)) {
+            scheduler.get().beforeUnscheduledChange(instance);
+            return false;
+        }
+
+        return scheduler.get().shouldSkip(pass, instance);
+    }
+
+    private static void recordExecution(PostTypeInferencePass pass, TypedInstance instance, DataStore passData) {
+        passData.getTry(ProjectPassServices.PASS_SCHEDULER)
+                .ifPresent(scheduler -> scheduler.recordExecution(pass, instance));
+    }
+
+    private static void applyProfiled(PostTypeInferencePass pass, TypedInstance instance, DataStore passData) {
+        Optional<PassProfiler> profiler = passData.getTry(ProjectPassServices.PASS_PROFILER);
+        if (profiler.isPresent()) {
+            try (PassProfiler.Measurement measurement = profiler.get().start(POST_TYPE_PHASE, pass.getName(),
+                    instance.getFunctionIdentification().toString())) {
+                pass.apply(instance, passData);
+            }
+        } else {
+            pass.apply(instance, passData);
+        }
+    }
+
+    private static long getSolverTime(InferenceResult result) {
+        return result.instancedPassData.getTry(ProjectPassServices.SCALAR_VALUE_INFO_BUILDER_PROVIDER)
+                .map(ScalarValueInformationBuilderService::getSolverTime)
+                .orElse(0L);
+    }
+
+    private static long getSolverTime(List<InferenceResult> results) {
+        long solverTime = 0;
+        for (InferenceResult result : results) {
+            solverTime += getSolverTime(result);
+        }
+
+        return solverTime;
+    }
+
+    private void addSolverTime(PostTypeInferencePass pass, long solverTime) {
+        if (solverTime <= 0) {
+            return;
+        }
+
+        synchronized (solverTimePerPass) {
+            solverTimePerPass.merge(pass.getName(), solverTime, Long::sum);
+        }
+    }
+
+    /**
+     * 
+     * @return the time spent in external solvers by each post-type-inference pass, in nanoseconds
+     */
+    public Map<String, Long> getSolverTimePerPass() {
+        synchronized (solverTimePerPass) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(solverTimePerPass));
+        }
     }
 
     public void forceLoadResource(ResourceProvider resource) {
@@ -361,18 +728,22 @@ public class ProjectPassCompilationManager implements KeyUser, AutoCloseable {
     }
 
     public DataStore getPassData(TypedInstance instance) {
-        List<InferenceResult> candidates = inferenceResults.get(instance.getFunctionIdentification());
-        for (InferenceResult candidate : candidates) {
-            if (candidate.accepts(instance.getProviderData())) {
-                return candidate.instancedPassData;
-            }
+        InferenceResult result = findSpecialization(instance.getFunctionIdentification(), instance.getProviderData());
+        if (result == null) {
+            throw new UnsupportedOperationException();
         }
 
-        throw new UnsupportedOperationException();
+        return result.instancedPassData;
     }
 
     @Override
     public void close() {
+        if (postTypeInferencePool != null) {
+            postTypeInferencePool.shutdown();
+        }
+
+        preTypeInferenceManager.close();
+
         for (InferenceResult result : inferenceResults.flatValues()) {
 
             // for (Object obj : result.instancedPassData.getValuesMap().values()) {
@@ -42,6 +42,9 @@ public class ProjectPassCompilationOptions {
     private DataView additionalServices = DataView.empty();
     private LanguageMode languageMode;
     private boolean enableZ3 = false;
+    private boolean enableDifferenceBounds = false;
+    private int postTypeInferenceThreads = 1;
+    private int parsingThreads = 1;
     private TypesMap defaultTypes = new TypesMap();
 
     public ProjectPassCompilationOptions() {
@@ -57,6 +60,9 @@ public class ProjectPassCompilationOptions {
         this.additionalServices = options.additionalServices;
         this.languageMode = options.languageMode;
         this.enableZ3 = options.enableZ3;
+        this.enableDifferenceBounds = options.enableDifferenceBounds;
+        this.postTypeInferenceThreads = options.postTypeInferenceThreads;
+        this.parsingThreads = options.parsingThreads;
         this.defaultTypes = options.defaultTypes;
     }
 
@@ -122,6 +128,37 @@ public class ProjectPassCompilationOptions {
         return this;
     }
 
+    /**
+     * When Z3 is disabled, uses scalar information based on intervals and difference constraints, instead of the one
+     * that only tracks equal values.
+     */
+    public ProjectPassCompilationOptions withDifferenceBoundsEnabled(boolean enableDifferenceBounds) {
+        this.enableDifferenceBounds = enableDifferenceBounds;
+
+        return this;
+    }
+
+    /**
+     * Sets the number of threads used to apply instance-local post-type-inference passes. A value of 1 applies all
+     * passes sequentially.
+     */
+    public ProjectPassCompilationOptions withPostTypeInferenceThreads(int postTypeInferenceThreads) {
+        this.postTypeInferenceThreads = postTypeInferenceThreads;
+
+        return this;
+    }
+
+    /**
+     * Sets the number of threads used to parse M-files. With more than one thread, the declarations of all available
+     * files are scanned up front, and files are parsed in the background before they are requested. A value of 1
+     * parses each file when it is first requested.
+     */
+    public ProjectPassCompilationOptions withParsingThreads(int parsingThreads) {
+        this.parsingThreads = parsingThreads;
+
+        return this;
+    }
+
     public ProjectPassCompilationOptions withDefaultTypes(TypesMap typesMap) {
         this.defaultTypes = typesMap;
 
@@ -136,6 +173,8 @@ public class ProjectPassCompilationOptions {
         Preconditions.checkState(this.availableFiles != null);
         Preconditions.checkState(this.systemFunctions != null);
         Preconditions.checkState(this.additionalServices != null);
+        Preconditions.checkState(this.postTypeInferenceThreads > 0);
+        Preconditions.checkState(this.parsingThreads > 0);
     }
 
     public MatlabRecipe getPreTypeInferenceRecipe() {
@@ -170,6 +209,18 @@ public class ProjectPassCompilationOptions {
         return this.enableZ3;
     }
 
+    public boolean isDifferenceBoundsEnabled() {
+        return this.enableDifferenceBounds;
+    }
+
+    public int getPostTypeInferenceThreads() {
+        return this.postTypeInferenceThreads;
+    }
+
+    public int getParsingThreads() {
+        return this.parsingThreads;
+    }
+
     public LanguageMode getLanguageMode() {
         return this.languageMode;
     }
@@ -18,6 +18,8 @@ import java.util.Collections;
 import org.specs.matisselib.services.AdditionalInformationBuildersService;
 import org.specs.matisselib.services.DataProviderService;
 import org.specs.matisselib.services.GlobalTypeProvider;
+import org.specs.matisselib.services.PassProfiler;
+import org.specs.matisselib.services.PassScheduler;
 import org.specs.matisselib.services.ScalarValueInformationBuilderService;
 import org.specs.matisselib.services.SystemFunctionProviderService;
 import org.specs.matisselib.services.TypedInstanceProviderService;
@@ -51,4 +53,16 @@ public class ProjectPassServices {
 
     public static final DataKey<GlobalTypeProvider> GLOBAL_TYPE_PROVIDER = KeyFactory
             .object("global_type_provider", GlobalTypeProvider.class);
+
+    /**
+     * If present, records the cost of each pass.
+     */
+    public static final DataKey<PassProfiler> PASS_PROFILER = KeyFactory
+            .object("pass_profiler", PassProfiler.class);
+
+    /**
+     * If present, skips post-type-inference pass applications that would do nothing.
+     */
+    public static final DataKey<PassScheduler> PASS_SCHEDULER = KeyFactory
+            .object("pass_scheduler", PassScheduler.class);
 }
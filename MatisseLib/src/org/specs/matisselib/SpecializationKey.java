@@ -0,0 +1,165 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.specs.CIR.FunctionInstance.OutputData;
+import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.CIR.Types.VariableType;
+import org.specs.CIR.Types.ATypes.Scalar.ScalarType;
+import org.specs.CIR.Types.ATypes.Scalar.ScalarUtils;
+import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixType;
+import org.specs.CIRTypes.Types.String.StringType;
+import org.specs.CIRTypes.Types.String.StringTypeUtils;
+import org.specs.MatlabIR.MatlabNodePass.FunctionIdentification;
+import org.specs.matisselib.helpers.InputProcessor;
+import org.specs.matisselib.typeinference.TypedInstance;
+
+/**
+ * Canonical, hashable representation of a function specialization.
+ *
+ * <p>
+ * Two keys are equal if and only if {@link InferenceResult#accepts(ProviderData)} would accept one specialization for
+ * the other: same function, same input types, same values for constant-specialized scalar arguments and string
+ * arguments, same normalized shapes for dynamic matrices and same number of requested outputs.
+ */
+final class SpecializationKey {
+    private final FunctionIdentification functionId;
+    private final BitSet constantSpecialized;
+    private final List<VariableType> inputTypes;
+    private final List<Object> inputValues;
+    private final int numOutputs;
+    private final int hashCode;
+
+    private SpecializationKey(FunctionIdentification functionId,
+            BitSet constantSpecialized,
+            List<VariableType> inputTypes,
+            List<Object> inputValues,
+            int numOutputs) {
+
+        this.functionId = functionId;
+        this.constantSpecialized = constantSpecialized;
+        this.inputTypes = inputTypes;
+        this.inputValues = inputValues;
+        this.numOutputs = numOutputs;
+        this.hashCode = Objects.hash(functionId, constantSpecialized, inputTypes, inputValues, numOutputs);
+    }
+
+    /**
+     *
+     * @param instance
+     * @return the arguments of the instance that are specialized for constant scalar values
+     */
+    static BitSet getConstantSpecializedArguments(TypedInstance instance) {
+        BitSet constantSpecialized = new BitSet();
+
+        int numArguments = instance.getFunctionType().getArgumentsTypes().size();
+        for (int index = 0; index < numArguments; ++index) {
+            if (instance.isScalarConstantSpecialized(index)) {
+                constantSpecialized.set(index);
+            }
+        }
+
+        return constantSpecialized;
+    }
+
+    /**
+     * Builds the key under which an inferred instance is registered.
+     */
+    static SpecializationKey of(FunctionIdentification functionId, TypedInstance instance, Integer numOutputs) {
+        return of(functionId,
+                getConstantSpecializedArguments(instance),
+                instance.getFunctionType().getArgumentsTypes(),
+                numOutputs);
+    }
+
+    /**
+     * Builds the key that a call with the given data would match, assuming the callee specializes the given arguments
+     * for constant values.
+     */
+    static SpecializationKey of(FunctionIdentification functionId, BitSet constantSpecialized, ProviderData data) {
+        List<OutputData> outputData = data.getOutputData();
+
+        return of(functionId,
+                constantSpecialized,
+                data.getInputTypes(),
+                outputData == null ? null : outputData.size());
+    }
+
+    private static SpecializationKey of(FunctionIdentification functionId,
+            BitSet constantSpecialized,
+            List<VariableType> inputTypes,
+            Integer numOutputs) {
+
+        List<Object> inputValues = new ArrayList<>(inputTypes.size());
+        for (int index = 0; index < inputTypes.size(); ++index) {
+            inputValues.add(getValue(inputTypes.get(index), constantSpecialized.get(index)));
+        }
+
+        return new SpecializationKey(functionId,
+                constantSpecialized,
+                Collections.unmodifiableList(new ArrayList<>(inputTypes)),
+                inputValues,
+                numOutputs == null ? -1 : numOutputs);
+    }
+
+    private static Object getValue(VariableType type, boolean specializeConstant) {
+        if (type instanceof ScalarType && specializeConstant) {
+            return ScalarUtils.getConstantString(type);
+        }
+
+        if (type instanceof StringType) {
+            return StringTypeUtils.getString(type);
+        }
+
+        if (type instanceof DynamicMatrixType) {
+            return InputProcessor.processDynamicMatrixInputShape((DynamicMatrixType) type);
+        }
+
+        return null;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SpecializationKey)) {
+            return false;
+        }
+
+        SpecializationKey other = (SpecializationKey) obj;
+        return hashCode == other.hashCode
+                && numOutputs == other.numOutputs
+                && functionId.equals(other.functionId)
+                && constantSpecialized.equals(other.constantSpecialized)
+                && inputTypes.equals(other.inputTypes)
+                && inputValues.equals(other.inputValues);
+    }
+
+    @Override
+    public String toString() {
+        return functionId + inputTypes.toString() + inputValues + "->" + numOutputs;
+    }
+}
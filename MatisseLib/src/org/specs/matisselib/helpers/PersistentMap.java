@@ -0,0 +1,309 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.helpers;
+
+import java.util.function.BiConsumer;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Immutable hash map, implemented as a hash array mapped trie.
+ *
+ * <p>
+ * Updates return a new map that shares all unchanged nodes with the original, so keeping older versions of the map
+ * (e.g. a snapshot before a branch) costs O(1), and each update costs O(log32 n). Null keys and values are not
+ * supported.
+ *
+ * @param <K>
+ *            The type of the keys
+ * @param <V>
+ *            The type of the values
+ */
+public final class PersistentMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Preconditions.checkArgument(key != null);
+
+        if (this.root == null) {
+            return null;
+        }
+
+        return (V) this.root.find(hash(key), key, 0);
+    }
+
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     *
+     * @return a map with the given association, or this map if it already had it
+     */
+    public PersistentMap<K, V> put(K key, V value) {
+        Preconditions.checkArgument(key != null);
+        Preconditions.checkArgument(value != null);
+
+        boolean[] added = new boolean[1];
+        Node base = this.root == null ? BitmapNode.EMPTY : this.root;
+        Node newRoot = base.put(hash(key), key, value, 0, added);
+        if (newRoot == this.root) {
+            return this;
+        }
+
+        return new PersistentMap<>(newRoot, added[0] ? this.size + 1 : this.size);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> consumer) {
+        if (this.root != null) {
+            this.root.forEach((BiConsumer<Object, Object>) consumer);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key);
+            builder.append("=");
+            builder.append(value);
+        });
+        builder.append("}");
+
+        return builder.toString();
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int bitPosition(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static Object[] cloneAndSet(Object[] array, int index, Object value) {
+        Object[] clone = array.clone();
+        clone[index] = value;
+        return clone;
+    }
+
+    private static abstract class Node {
+        abstract Object find(int hash, Object key, int shift);
+
+        abstract Node put(int hash, Object key, Object value, int shift, boolean[] added);
+
+        abstract void forEach(BiConsumer<Object, Object> consumer);
+    }
+
+    /**
+     * Node with up to 32 slots, of which only the used ones are stored. Each slot is either a key/value pair, or a null
+     * key followed by a child node.
+     */
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] array;
+
+        BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(this.bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(int hash, Object key, int shift) {
+            int bit = bitPosition(hash, shift);
+            if ((this.bitmap & bit) == 0) {
+                return null;
+            }
+
+            int index = index(bit);
+            Object currentKey = this.array[2 * index];
+            Object currentValue = this.array[2 * index + 1];
+            if (currentKey == null) {
+                return ((Node) currentValue).find(hash, key, shift + BITS);
+            }
+
+            return key.equals(currentKey) ? currentValue : null;
+        }
+
+        @Override
+        Node put(int hash, Object key, Object value, int shift, boolean[] added) {
+            int bit = bitPosition(hash, shift);
+            int index = index(bit);
+
+            if ((this.bitmap & bit) == 0) {
+                added[0] = true;
+
+                int numEntries = Integer.bitCount(this.bitmap);
+                Object[] newArray = new Object[2 * (numEntries + 1)];
+                System.arraycopy(this.array, 0, newArray, 0, 2 * index);
+                newArray[2 * index] = key;
+                newArray[2 * index + 1] = value;
+                System.arraycopy(this.array, 2 * index, newArray, 2 * (index + 1), 2 * (numEntries - index));
+
+                return new BitmapNode(this.bitmap | bit, newArray);
+            }
+
+            Object currentKey = this.array[2 * index];
+            Object currentValue = this.array[2 * index + 1];
+            if (currentKey == null) {
+                Node child = ((Node) currentValue).put(hash, key, value, shift + BITS, added);
+                if (child == currentValue) {
+                    return this;
+                }
+
+                return new BitmapNode(this.bitmap, cloneAndSet(this.array, 2 * index + 1, child));
+            }
+
+            if (key.equals(currentKey)) {
+                if (value == currentValue) {
+                    return this;
+                }
+
+                return new BitmapNode(this.bitmap, cloneAndSet(this.array, 2 * index + 1, value));
+            }
+
+            added[0] = true;
+
+            Node child = createNode(shift + BITS, currentKey, currentValue, hash, key, value);
+            Object[] newArray = cloneAndSet(this.array, 2 * index, null);
+            newArray[2 * index + 1] = child;
+
+            return new BitmapNode(this.bitmap, newArray);
+        }
+
+        private static Node createNode(int shift, Object key1, Object value1, int hash2, Object key2,
+                Object value2) {
+
+            int hash1 = hash(key1);
+            if (hash1 == hash2) {
+                return new CollisionNode(hash1, new Object[] { key1, value1, key2, value2 });
+            }
+
+            boolean[] ignored = new boolean[1];
+            return EMPTY
+                    .put(hash1, key1, value1, shift, ignored)
+                    .put(hash2, key2, value2, shift, ignored);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> consumer) {
+            for (int i = 0; i < this.array.length; i += 2) {
+                if (this.array[i] == null) {
+                    ((Node) this.array[i + 1]).forEach(consumer);
+                } else {
+                    consumer.accept(this.array[i], this.array[i + 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Key/value pairs whose keys have the same hash.
+     */
+    private static final class CollisionNode extends Node {
+        private final int hash;
+        private final Object[] array;
+
+        CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        @Override
+        Object find(int hash, Object key, int shift) {
+            if (hash != this.hash) {
+                return null;
+            }
+
+            for (int i = 0; i < this.array.length; i += 2) {
+                if (key.equals(this.array[i])) {
+                    return this.array[i + 1];
+                }
+            }
+
+            return null;
+        }
+
+        @Override
+        Node put(int hash, Object key, Object value, int shift, boolean[] added) {
+            if (hash != this.hash) {
+                return new BitmapNode(bitPosition(this.hash, shift), new Object[] { null, this })
+                        .put(hash, key, value, shift, added);
+            }
+
+            for (int i = 0; i < this.array.length; i += 2) {
+                if (key.equals(this.array[i])) {
+                    if (value == this.array[i + 1]) {
+                        return this;
+                    }
+
+                    return new CollisionNode(hash, cloneAndSet(this.array, i + 1, value));
+                }
+            }
+
+            added[0] = true;
+
+            Object[] newArray = new Object[this.array.length + 2];
+            System.arraycopy(this.array, 0, newArray, 0, this.array.length);
+            newArray[this.array.length] = key;
+            newArray[this.array.length + 1] = value;
+
+            return new CollisionNode(hash, newArray);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> consumer) {
+            for (int i = 0; i < this.array.length; i += 2) {
+                consumer.accept(this.array[i], this.array[i + 1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.helpers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Immutable disjoint-set structure, built on {@link PersistentMap}.
+ *
+ * <p>
+ * Unions return a new structure, and older versions remain valid. Since paths can not be compressed without mutation,
+ * sets are joined by rank, so that find costs O(log n) lookups.
+ *
+ * @param <T>
+ *            The type of the elements
+ */
+public final class PersistentUnionFind<T> {
+
+    private static final PersistentUnionFind<?> EMPTY = new PersistentUnionFind<>(PersistentMap.empty(),
+            PersistentMap.empty());
+
+    private final PersistentMap<T, T> parents;
+    // Only ranks above 0 are stored
+    private final PersistentMap<T, Integer> ranks;
+
+    private PersistentUnionFind(PersistentMap<T, T> parents, PersistentMap<T, Integer> ranks) {
+        this.parents = parents;
+        this.ranks = ranks;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentUnionFind<T> empty() {
+        return (PersistentUnionFind<T>) EMPTY;
+    }
+
+    public boolean contains(T element) {
+        return this.parents.containsKey(element);
+    }
+
+    /**
+     *
+     * @return a structure where the element is in a set of its own, or this structure if the element was already
+     *         present
+     */
+    public PersistentUnionFind<T> add(T element) {
+        if (contains(element)) {
+            return this;
+        }
+
+        return new PersistentUnionFind<>(this.parents.put(element, element), this.ranks);
+    }
+
+    /**
+     *
+     * @return the representative of the set of the given element
+     */
+    public T find(T element) {
+        T current = this.parents.get(element);
+        Preconditions.checkArgument(current != null, "Element not in union-find: " + element);
+
+        T parent;
+        while (!(parent = this.parents.get(current)).equals(current)) {
+            current = parent;
+        }
+
+        return current;
+    }
+
+    /**
+     * Joins the sets of both elements, adding the elements that are not yet present.
+     */
+    public PersistentUnionFind<T> union(T element1, T element2) {
+        PersistentUnionFind<T> result = add(element1).add(element2);
+
+        T root1 = result.find(element1);
+        T root2 = result.find(element2);
+        if (root1.equals(root2)) {
+            return result;
+        }
+
+        int rank1 = result.getRank(root1);
+        int rank2 = result.getRank(root2);
+        if (rank1 < rank2) {
+            return new PersistentUnionFind<>(result.parents.put(root1, root2), result.ranks);
+        }
+        if (rank1 > rank2) {
+            return new PersistentUnionFind<>(result.parents.put(root2, root1), result.ranks);
+        }
+
+        return new PersistentUnionFind<>(result.parents.put(root2, root1), result.ranks.put(root1, rank1 + 1));
+    }
+
+    private int getRank(T root) {
+        Integer rank = this.ranks.get(root);
+        return rank == null ? 0 : rank;
+    }
+
+    @Override
+    public String toString() {
+        Map<T, List<T>> sets = new LinkedHashMap<>();
+        this.parents.forEach((element, parent) -> {
+            sets.computeIfAbsent(find(element), root -> new ArrayList<>()).add(element);
+        });
+
+        return sets.values().toString();
+    }
+}
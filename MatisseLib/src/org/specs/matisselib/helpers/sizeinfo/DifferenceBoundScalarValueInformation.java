@@ -0,0 +1,680 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.helpers.sizeinfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.specs.CIR.Types.VariableType;
+import org.specs.CIR.Types.ATypes.Matrix.MatrixType;
+import org.specs.CIR.Types.ATypes.Matrix.MatrixUtils;
+import org.specs.CIR.Types.ATypes.Scalar.ScalarType;
+import org.specs.matisselib.ssa.instructions.FunctionCallInstruction;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Scalar information that does not depend on an external solver. Keeps, for each pair of variables x and y, the best
+ * known bound c such that x - y &lt;= c, in a difference-bound matrix that is kept closed (i.e., every bound is the
+ * tightest that can be derived from the others). Intervals are represented as differences to a special variable whose
+ * value is 0.
+ *
+ * <p>
+ * Constraints that are not differences (e.g., the result of a multiplication) are approximated by intervals. The
+ * approximation is sound: a query only succeeds if it holds for every value that satisfies the constraints that were
+ * added, for both integer and real variables.
+ */
+public class DifferenceBoundScalarValueInformation extends ScalarValueInformation {
+
+    private static final long INFINITY = Long.MAX_VALUE;
+
+    // Bounds beyond this limit are discarded (or weakened), so that the sum of two bounds never overflows.
+    private static final long LIMIT = Long.MAX_VALUE / 4;
+
+    private static final int ZERO = 0;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Function<String, Optional<VariableType>> typeGetter;
+
+    private final Map<String, Integer> indices;
+    private final List<String> names;
+    private final BitSet integerVariables;
+    private final Map<Integer, Double> fractionalConstants;
+
+    // bounds[i][j] is the upper bound of x_i - x_j
+    private long[][] bounds;
+    private int size;
+    private boolean inconsistent;
+
+    public DifferenceBoundScalarValueInformation(Function<String, Optional<VariableType>> typeGetter) {
+        Preconditions.checkArgument(typeGetter != null);
+
+        this.typeGetter = typeGetter;
+        this.indices = new HashMap<>();
+        this.names = new ArrayList<>();
+        this.integerVariables = new BitSet();
+        this.fractionalConstants = new HashMap<>();
+        this.bounds = newBounds(INITIAL_CAPACITY);
+
+        this.names.add("0");
+        this.integerVariables.set(ZERO);
+        this.bounds[ZERO][ZERO] = 0;
+        this.size = 1;
+    }
+
+    private DifferenceBoundScalarValueInformation(DifferenceBoundScalarValueInformation other) {
+        this.typeGetter = other.typeGetter;
+        this.indices = new HashMap<>(other.indices);
+        this.names = new ArrayList<>(other.names);
+        this.integerVariables = (BitSet) other.integerVariables.clone();
+        this.fractionalConstants = new HashMap<>(other.fractionalConstants);
+        this.bounds = new long[other.bounds.length][];
+        for (int i = 0; i < other.bounds.length; ++i) {
+            this.bounds[i] = other.bounds[i].clone();
+        }
+        this.size = other.size;
+        this.inconsistent = other.inconsistent;
+    }
+
+    private static long[][] newBounds(int capacity) {
+        long[][] bounds = new long[capacity][capacity];
+        for (long[] row : bounds) {
+            Arrays.fill(row, INFINITY);
+        }
+
+        return bounds;
+    }
+
+    @Override
+    public DifferenceBoundScalarValueInformation copy() {
+        return new DifferenceBoundScalarValueInformation(this);
+    }
+
+    @Override
+    public void close() {
+        // Nothing needed
+    }
+
+    private int getIndex(String name) {
+        return getIndex(name, null);
+    }
+
+    /**
+     * Same naming rules as Z3ScalarValueInformation: a variable in a context is a distinct variable, named
+     * name#context, whose type is the type of name.
+     */
+    private int getIndex(String originalName, String context) {
+        String name = originalName;
+        if (context != null) {
+            name += "#" + context;
+        } else if (originalName.contains("#")) {
+            originalName = originalName.substring(0, originalName.indexOf('#'));
+        }
+
+        Integer existingIndex = indices.get(name);
+        if (existingIndex != null) {
+            return existingIndex;
+        }
+
+        int index = newVariable(name);
+
+        ScalarType type = typeGetter.apply(originalName)
+                .filter(ScalarType.class::isInstance)
+                .map(ScalarType.class::cast)
+                .orElse(null);
+
+        if (type != null && type.scalar().isInteger()) {
+            integerVariables.set(index);
+        }
+
+        if (type != null && type.scalar().hasConstant()) {
+            setConstant(index, type.scalar().getConstant().doubleValue());
+        }
+
+        return index;
+    }
+
+    private int newVariable(String name) {
+        if (size == bounds.length) {
+            long[][] newBounds = newBounds(bounds.length * 2);
+            for (int i = 0; i < size; ++i) {
+                System.arraycopy(bounds[i], 0, newBounds[i], 0, size);
+            }
+            bounds = newBounds;
+        }
+
+        int index = size++;
+        bounds[index][index] = 0;
+
+        indices.put(name, index);
+        names.add(name);
+
+        return index;
+    }
+
+    private static long add(long bound1, long bound2) {
+        if (bound1 == INFINITY || bound2 == INFINITY) {
+            return INFINITY;
+        }
+
+        // Both are within [-LIMIT, LIMIT], so the sum does not overflow
+        return bound1 + bound2;
+    }
+
+    /**
+     * Adds the constraint x_i - x_j &lt;= bound, and restores the closure of the matrix.
+     */
+    private void addConstraint(int i, int j, long bound) {
+        if (inconsistent || bound >= LIMIT || bound >= bounds[i][j]) {
+            return;
+        }
+
+        // Weakening a bound is always sound
+        bound = Math.max(bound, -LIMIT);
+
+        if (add(bound, bounds[j][i]) < 0) {
+            // x_i - x_j <= bound and x_j - x_i <= bounds[j][i] have no common solution
+            inconsistent = true;
+            return;
+        }
+
+        // Any path a -> b that improves with the new edge goes through i -> j once
+        for (int a = 0; a < size; ++a) {
+            long boundToI = bounds[a][i];
+            if (boundToI == INFINITY) {
+                continue;
+            }
+
+            long boundToJ = add(boundToI, bound);
+            long[] rowA = bounds[a];
+            long[] rowJ = bounds[j];
+            for (int b = 0; b < size; ++b) {
+                long newBound = add(boundToJ, rowJ[b]);
+                if (newBound < rowA[b] && newBound < LIMIT) {
+                    rowA[b] = Math.max(newBound, -LIMIT);
+                }
+            }
+        }
+    }
+
+    private void addEquality(int i, int j, long difference) {
+        addConstraint(i, j, difference);
+        addConstraint(j, i, -difference);
+    }
+
+    private void setConstant(int index, double value) {
+        if (integerVariables.get(index) && value != (long) value) {
+            // Same truncation as Z3ScalarValueInformation
+            value = (long) value;
+        }
+
+        if (value != Math.rint(value) || Math.abs(value) >= LIMIT) {
+            fractionalConstants.put(index, value);
+            return;
+        }
+
+        addEquality(index, ZERO, (long) value);
+    }
+
+    private boolean hasUpperBound(int index) {
+        return bounds[index][ZERO] != INFINITY;
+    }
+
+    private long getUpperBound(int index) {
+        return bounds[index][ZERO];
+    }
+
+    private boolean hasLowerBound(int index) {
+        return bounds[ZERO][index] != INFINITY;
+    }
+
+    private long getLowerBound(int index) {
+        return -bounds[ZERO][index];
+    }
+
+    private void setUpperBound(int index, long bound) {
+        addConstraint(index, ZERO, bound);
+    }
+
+    private void setLowerBound(int index, long bound) {
+        addConstraint(ZERO, index, -bound);
+    }
+
+    private boolean isConstant(int index) {
+        return hasUpperBound(index) && hasLowerBound(index) && getUpperBound(index) == getLowerBound(index);
+    }
+
+    private boolean isKnownLessOrEqual(int i, int j) {
+        return inconsistent || bounds[i][j] <= 0;
+    }
+
+    private boolean isKnownLess(int i, int j) {
+        // Bounds are integers, so a negative bound is at most -1
+        return inconsistent || bounds[i][j] < 0;
+    }
+
+    @Override
+    public void buildScalarCopy(String outScalar, String inScalar) {
+        Preconditions.checkArgument(outScalar != null);
+        Preconditions.checkArgument(inScalar != null);
+
+        addEquality(getIndex(outScalar), getIndex(inScalar), 0);
+    }
+
+    @Override
+    public void addAlias(String oldValue, String newValue) {
+        indices.put(newValue, getIndex(oldValue));
+    }
+
+    @Override
+    public boolean areSameValue(String v1, String v2) {
+        if (v1.equals(v2)) {
+            return true;
+        }
+
+        int index1 = getIndex(v1);
+        int index2 = getIndex(v2);
+
+        if (isKnownLessOrEqual(index1, index2) && isKnownLessOrEqual(index2, index1)) {
+            return true;
+        }
+
+        Double constant1 = fractionalConstants.get(index1);
+        return constant1 != null && constant1.equals(fractionalConstants.get(index2));
+    }
+
+    @Override
+    public boolean isKnownLessThan(String v1, String v2) {
+        return isKnownLess(getIndex(v1), getIndex(v2));
+    }
+
+    @Override
+    public boolean isKnownLessOrEqualTo(String v1, String v2) {
+        return isKnownLessOrEqual(getIndex(v1), getIndex(v2));
+    }
+
+    @Override
+    public void setAtLeast(String value, String minimum) {
+        setAtLeast(value, minimum, null);
+    }
+
+    @Override
+    public void setAtLeast(String value, String minimum, String context) {
+        addConstraint(getIndex(minimum, context), getIndex(value, context), 0);
+    }
+
+    @Override
+    public void setUpTo(String value, String maximum) {
+        setUpTo(value, maximum, null);
+    }
+
+    @Override
+    public void setUpTo(String value, String maximum, String context) {
+        addConstraint(getIndex(value, context), getIndex(maximum, context), 0);
+    }
+
+    @Override
+    public void setTrue(String value) {
+        int index = getIndex(value);
+
+        // value != 0 can only be represented when the sign of the value is known
+        if (!integerVariables.get(index)) {
+            return;
+        }
+
+        if (hasLowerBound(index) && getLowerBound(index) >= 0) {
+            setLowerBound(index, 1);
+        } else if (hasUpperBound(index) && getUpperBound(index) <= 0) {
+            setUpperBound(index, -1);
+        }
+    }
+
+    @Override
+    public void specifyConstant(String var, double value) {
+        setConstant(getIndex(var), value);
+    }
+
+    @Override
+    public void addScalarFunctionCallInformation(FunctionCallInstruction functionCall, String context) {
+        if (functionCall.getOutputs().size() != 1) {
+            return;
+        }
+
+        String outputName = functionCall.getOutputs().get(0);
+        List<String> inputs = functionCall.getInputVariables();
+
+        switch (functionCall.getFunctionName()) {
+        case "plus": {
+            if (inputs.size() != 2) {
+                return;
+            }
+
+            int output = getIndex(outputName, context);
+            int in1 = getIndex(inputs.get(0), context);
+            int in2 = getIndex(inputs.get(1), context);
+
+            // output - in1 = in2, and output - in2 = in1
+            addDifferenceInRangeOf(output, in1, in2);
+            addDifferenceInRangeOf(output, in2, in1);
+            break;
+        }
+        case "minus": {
+            if (inputs.size() != 2) {
+                return;
+            }
+
+            int output = getIndex(outputName, context);
+            int in1 = getIndex(inputs.get(0), context);
+            int in2 = getIndex(inputs.get(1), context);
+
+            // in1 - output = in2
+            addDifferenceInRangeOf(in1, output, in2);
+            break;
+        }
+        case "times": {
+            if (inputs.size() != 2) {
+                return;
+            }
+
+            int output = getIndex(outputName, context);
+            int in1 = getIndex(inputs.get(0), context);
+            int in2 = getIndex(inputs.get(1), context);
+
+            if (isConstant(in1) && getUpperBound(in1) == 1) {
+                addEquality(output, in2, 0);
+            } else if (isConstant(in2) && getUpperBound(in2) == 1) {
+                addEquality(output, in1, 0);
+            } else {
+                addProductBounds(output, in1, in2);
+            }
+            break;
+        }
+        case "max": {
+            if (inputs.size() != 2) {
+                return;
+            }
+
+            int output = getIndex(outputName, context);
+            int in1 = getIndex(inputs.get(0), context);
+            int in2 = getIndex(inputs.get(1), context);
+
+            if (isKnownLessOrEqual(in1, in2)) {
+                addEquality(output, in2, 0);
+            } else if (isKnownLessOrEqual(in2, in1)) {
+                addEquality(output, in1, 0);
+            } else {
+                addConstraint(in1, output, 0);
+                addConstraint(in2, output, 0);
+                if (hasUpperBound(in1) && hasUpperBound(in2)) {
+                    setUpperBound(output, Math.max(getUpperBound(in1), getUpperBound(in2)));
+                }
+            }
+            break;
+        }
+        case "ndims": {
+            if (inputs.size() != 1) {
+                return;
+            }
+
+            int rawNdims = typeGetter.apply(inputs.get(0))
+                    .filter(MatrixType.class::isInstance)
+                    .map(MatrixUtils::getShape)
+                    .map(shape -> shape.getRawNumDims())
+                    .orElse(-1);
+
+            int output = getIndex(outputName, context);
+            setLowerBound(output, 2);
+            if (rawNdims > 2) {
+                setUpperBound(output, rawNdims);
+            }
+            break;
+        }
+        case "le": {
+            if (inputs.size() != 2) {
+                return;
+            }
+
+            int output = getIndex(outputName, context);
+            int in1 = getIndex(inputs.get(0), context);
+            int in2 = getIndex(inputs.get(1), context);
+
+            addBooleanBounds(output, isKnownLessOrEqual(in1, in2), isKnownLess(in2, in1));
+            break;
+        }
+        case "eq":
+        case "ne": {
+            if (inputs.size() != 2) {
+                return;
+            }
+
+            int output = getIndex(outputName, context);
+            int in1 = getIndex(inputs.get(0), context);
+            int in2 = getIndex(inputs.get(1), context);
+
+            boolean knownEqual = isKnownLessOrEqual(in1, in2) && isKnownLessOrEqual(in2, in1);
+            boolean knownDifferent = isKnownLess(in1, in2) || isKnownLess(in2, in1);
+            if (functionCall.getFunctionName().equals("eq")) {
+                addBooleanBounds(output, knownEqual, knownDifferent);
+            } else {
+                addBooleanBounds(output, knownDifferent, knownEqual);
+            }
+            break;
+        }
+        case "size":
+            if (inputs.size() != 2) {
+                return;
+            }
+
+            setLowerBound(getIndex(outputName, context), 0);
+            break;
+        case "numel":
+            if (inputs.size() != 1) {
+                return;
+            }
+
+            setLowerBound(getIndex(outputName, context), 0);
+            break;
+        default:
+            // Do nothing
+        }
+    }
+
+    /**
+     * Adds x_i - x_j = x_k, as bounds of the difference derived from the current interval of x_k.
+     */
+    private void addDifferenceInRangeOf(int i, int j, int k) {
+        if (hasUpperBound(k)) {
+            addConstraint(i, j, getUpperBound(k));
+        }
+        if (hasLowerBound(k)) {
+            addConstraint(j, i, -getLowerBound(k));
+        }
+    }
+
+    private void addProductBounds(int output, int in1, int in2) {
+        if (!hasLowerBound(in1) || !hasUpperBound(in1) || !hasLowerBound(in2) || !hasUpperBound(in2)) {
+            return;
+        }
+
+        long[] candidates = new long[4];
+        try {
+            candidates[0] = Math.multiplyExact(getLowerBound(in1), getLowerBound(in2));
+            candidates[1] = Math.multiplyExact(getLowerBound(in1), getUpperBound(in2));
+            candidates[2] = Math.multiplyExact(getUpperBound(in1), getLowerBound(in2));
+            candidates[3] = Math.multiplyExact(getUpperBound(in1), getUpperBound(in2));
+        } catch (ArithmeticException e) {
+            return;
+        }
+
+        long min = candidates[0];
+        long max = candidates[0];
+        for (long candidate : candidates) {
+            min = Math.min(min, candidate);
+            max = Math.max(max, candidate);
+        }
+
+        setLowerBound(output, min);
+        setUpperBound(output, max);
+    }
+
+    private void addBooleanBounds(int output, boolean knownTrue, boolean knownFalse) {
+        setLowerBound(output, knownTrue ? 1 : 0);
+        setUpperBound(output, knownFalse ? 0 : 1);
+    }
+
+    @Override
+    public void setRangeSize(String size, String start, String end) {
+        int sizeIndex = getIndex(size);
+        int startIndex = getIndex(start);
+        int endIndex = getIndex(end);
+
+        // size = max(end - start + 1, 1)
+        setLowerBound(sizeIndex, 1);
+
+        if (hasUpperBound(endIndex) && hasLowerBound(startIndex)) {
+            setUpperBound(sizeIndex, Math.max(getUpperBound(endIndex) - getLowerBound(startIndex) + 1, 1));
+        }
+
+        if (isConstant(startIndex)) {
+            long startValue = getUpperBound(startIndex);
+
+            // size >= end - start + 1
+            addConstraint(endIndex, sizeIndex, startValue - 1);
+
+            if (isKnownLessOrEqual(startIndex, endIndex)) {
+                // The range is not empty, so size = end - start + 1
+                addConstraint(sizeIndex, endIndex, 1 - startValue);
+            }
+        }
+    }
+
+    @Override
+    public boolean isKnownEqual(String var, int i) {
+        int index = getIndex(var);
+
+        return inconsistent || (isConstant(index) && getUpperBound(index) == i);
+    }
+
+    @Override
+    public boolean isKnownNotEqual(String var, int i) {
+        int index = getIndex(var);
+
+        return inconsistent
+                || (hasUpperBound(index) && getUpperBound(index) < i)
+                || (hasLowerBound(index) && getLowerBound(index) > i);
+    }
+
+    @Override
+    public boolean isKnownPositive(String var) {
+        int index = getIndex(var);
+
+        return inconsistent || (hasLowerBound(index) && getLowerBound(index) > 0);
+    }
+
+    @Override
+    public boolean isKnownNegative(String var) {
+        int index = getIndex(var);
+
+        return inconsistent || (hasUpperBound(index) && getUpperBound(index) < 0);
+    }
+
+    @Override
+    public boolean growsWith(List<String> values, List<String> reference, String ctx1, String ctx2) {
+        // Assume that the reference grows, and check whether the values grow as well
+        DifferenceBoundScalarValueInformation assumption = copy();
+        for (String refVar : reference) {
+            assumption.addConstraint(assumption.getIndex(refVar, ctx2), assumption.getIndex(refVar, ctx1), 0);
+        }
+
+        for (String value : values) {
+            if (!assumption.isKnownLessOrEqual(assumption.getIndex(value, ctx2), assumption.getIndex(value, ctx1))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean mayCollide(List<String> values1, List<String> values2, List<String> reference, String ctx1,
+            String ctx2) {
+
+        if (values1.size() != values2.size()) {
+            return true;
+        }
+
+        // Assume that the values collide, and check whether the reference can still differ
+        DifferenceBoundScalarValueInformation assumption = copy();
+        for (int i = 0; i < values1.size(); i++) {
+            assumption.addEquality(assumption.getIndex(values1.get(i), ctx1),
+                    assumption.getIndex(values2.get(i), ctx2), 0);
+        }
+
+        if (assumption.inconsistent) {
+            return false;
+        }
+
+        for (String refVar : reference) {
+            int index1 = assumption.getIndex(refVar, ctx1);
+            int index2 = assumption.getIndex(refVar, ctx2);
+
+            if (!assumption.isKnownLessOrEqual(index1, index2) || !assumption.isKnownLessOrEqual(index2, index1)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[DifferenceBoundScalarValueInformation:");
+        if (inconsistent) {
+            builder.append(" inconsistent");
+        }
+
+        for (int i = 0; i < size; ++i) {
+            for (int j = 0; j < size; ++j) {
+                if (i == j || bounds[i][j] == INFINITY) {
+                    continue;
+                }
+
+                builder.append("\n\t");
+                if (j == ZERO) {
+                    builder.append(names.get(i));
+                } else if (i == ZERO) {
+                    builder.append("-").append(names.get(j));
+                } else {
+                    builder.append(names.get(i)).append(" - ").append(names.get(j));
+                }
+                builder.append(" <= ").append(bounds[i][j]);
+            }
+        }
+
+        fractionalConstants.forEach((index, value) -> builder.append("\n\t")
+                .append(names.get(index))
+                .append(" = ")
+                .append(value));
+
+        builder.append("\n]");
+
+        return builder.toString();
+    }
+}
@@ -13,69 +13,27 @@
 
 package org.specs.matisselib.helpers.sizeinfo;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 
 import org.specs.CIR.Types.VariableType;
 import org.specs.CIR.Types.ATypes.Scalar.ScalarType;
 import org.specs.CIR.Types.ATypes.Scalar.ScalarUtils;
+import org.specs.matisselib.helpers.PersistentMap;
+import org.specs.matisselib.helpers.PersistentUnionFind;
 
 import com.google.common.base.Preconditions;
 
+/**
+ * Groups the scalars that are known to have the same value.
+ * 
+ * <p>
+ * The groups are kept in persistent structures, so copies share all the groups and cost O(1).
+ */
 public class SimpleScalarValueInformation extends ScalarValueInformation {
-    private static final class ScalarGroup {
-	private final List<String> variablesInGroup = new ArrayList<>();
-	private Double constant = null;
-	private final Function<String, Optional<VariableType>> typeGetter;
-
-	ScalarGroup(String name, Function<String, Optional<VariableType>> typeGetter) {
-	    this.typeGetter = typeGetter;
-
-	    add(name);
-	}
-
-	ScalarGroup(ScalarGroup group) {
-	    this.variablesInGroup.addAll(group.variablesInGroup);
-	    this.constant = group.constant;
-	    this.typeGetter = group.typeGetter;
-	}
-
-	boolean contains(String variableName) {
-	    return this.variablesInGroup.contains(variableName);
-	}
-
-	void add(String variableName) {
-	    this.variablesInGroup.add(variableName);
-
-	    this.typeGetter.apply(variableName)
-		    .filter(ScalarUtils::isScalar)
-		    .filter(ScalarUtils::hasConstant)
-		    .map(ScalarUtils::getConstant)
-		    .ifPresent(number -> {
-
-			setConstant(number.doubleValue());
-
-		    });
-	}
-
-	void setConstant(Double number) {
-	    if (this.constant == null) {
-		this.constant = number;
-	    } else if (this.constant.doubleValue() != number.doubleValue()) {
-		System.err.println("Adding constant " + number + " to group " + this.variablesInGroup
-			+ ", but group already had different constant " + this.constant);
-	    }
-	}
-
-	@Override
-	public String toString() {
-	    return this.variablesInGroup.toString();
-	}
-    }
-
-    private final List<ScalarGroup> scalarGroups = new ArrayList<>();
+    private PersistentUnionFind<String> scalarGroups = PersistentUnionFind.empty();
+    // Constants of each group, indexed by the group representative
+    private PersistentMap<String, Double> groupConstants = PersistentMap.empty();
     private final Function<String, Optional<VariableType>> typeGetter;
 
     public SimpleScalarValueInformation(Function<String, Optional<VariableType>> typeGetter) {
@@ -90,23 +48,46 @@ public class SimpleScalarValueInformation extends ScalarValueInformation {
     @Override
     public SimpleScalarValueInformation copy() {
 	SimpleScalarValueInformation other = new SimpleScalarValueInformation(this.typeGetter);
-	for (ScalarGroup group : this.scalarGroups) {
-	    other.scalarGroups.add(new ScalarGroup(group));
-	}
+	other.scalarGroups = this.scalarGroups;
+	other.groupConstants = this.groupConstants;
 
 	return other;
     }
 
-    private int getOrMakeScalarGroup(String name) {
-	for (int i = 0; i < this.scalarGroups.size(); ++i) {
-	    if (this.scalarGroups.get(i).contains(name)) {
-		return i;
-	    }
+    private String getOrMakeScalarGroup(String name) {
+	if (!this.scalarGroups.contains(name)) {
+	    this.scalarGroups = this.scalarGroups.add(name);
+
+	    this.typeGetter.apply(name)
+		    .filter(ScalarUtils::isScalar)
+		    .filter(ScalarUtils::hasConstant)
+		    .map(ScalarUtils::getConstant)
+		    .ifPresent(number -> this.groupConstants = this.groupConstants.put(name, number.doubleValue()));
 	}
 
-	ScalarGroup newGroup = new ScalarGroup(name, this.typeGetter);
-	this.scalarGroups.add(newGroup);
-	return this.scalarGroups.size() - 1;
+	return this.scalarGroups.find(name);
+    }
+
+    private void joinGroups(String variable1, String variable2) {
+	String group1 = getOrMakeScalarGroup(variable1);
+	String group2 = getOrMakeScalarGroup(variable2);
+	if (group1.equals(group2)) {
+	    return;
+	}
+
+	Double constant1 = this.groupConstants.get(group1);
+	Double constant2 = this.groupConstants.get(group2);
+	if (constant1 != null && constant2 != null && constant1.doubleValue() != constant2.doubleValue()) {
+	    System.err.println("Joining " + variable2 + ", with constant " + constant2 + ", to group of " + variable1
+		    + ", but group already had different constant " + constant1);
+	}
+
+	this.scalarGroups = this.scalarGroups.union(variable1, variable2);
+
+	Double constant = constant1 != null ? constant1 : constant2;
+	if (constant != null) {
+	    this.groupConstants = this.groupConstants.put(this.scalarGroups.find(variable1), constant);
+	}
     }
 
     @Override
@@ -114,22 +95,12 @@ public class SimpleScalarValueInformation extends ScalarValueInformation {
 	Preconditions.checkArgument(outScalar != null);
 	Preconditions.checkArgument(inScalar != null);
 
-	int group = getOrMakeScalarGroup(inScalar);
-	this.scalarGroups.get(group).add(outScalar);
+	joinGroups(inScalar, outScalar);
     }
 
     @Override
     public void addAlias(String oldValue, String newValue) {
-	for (ScalarGroup group : this.scalarGroups) {
-	    if (group.variablesInGroup.contains(oldValue)) {
-		group.variablesInGroup.add(newValue);
-		return;
-	    }
-	}
-
-	ScalarGroup newGroup = new ScalarGroup(oldValue, this.typeGetter);
-	newGroup.add(newValue);
-	this.scalarGroups.add(newGroup);
+	joinGroups(oldValue, newValue);
     }
 
     @Override
@@ -138,15 +109,15 @@ public class SimpleScalarValueInformation extends ScalarValueInformation {
 	    return true;
 	}
 
-	int g1 = getOrMakeScalarGroup(v1);
-	int g2 = getOrMakeScalarGroup(v2);
+	String g1 = getOrMakeScalarGroup(v1);
+	String g2 = getOrMakeScalarGroup(v2);
 
-	if (g1 == g2) {
+	if (g1.equals(g2)) {
 	    return true;
 	}
 
-	Double const1 = this.scalarGroups.get(g1).constant;
-	Double const2 = this.scalarGroups.get(g2).constant;
+	Double const1 = this.groupConstants.get(g1);
+	Double const2 = this.groupConstants.get(g2);
 
 	if (const1 != null) {
 	    return const1.equals(const2);
@@ -180,12 +151,12 @@ public class SimpleScalarValueInformation extends ScalarValueInformation {
 
     @Override
     public void specifyConstant(String var, double value) {
-	int groupId = getOrMakeScalarGroup(var);
-	ScalarGroup group = this.scalarGroups.get(groupId);
-	if (group.constant == null) {
-	    group.constant = value;
+	String group = getOrMakeScalarGroup(var);
+	Double constant = this.groupConstants.get(group);
+	if (constant == null) {
+	    this.groupConstants = this.groupConstants.put(group, value);
 	} else {
-	    assert group.constant == value : "Redefining constant of value " + group.constant + " to different value "
+	    assert constant == value : "Redefining constant of value " + constant + " to different value "
 		    + value + ", for variable " + var;
 	}
     }
@@ -15,9 +15,7 @@ package org.specs.matisselib.helpers.sizeinfo;
 
 import java.io.Closeable;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -28,6 +26,7 @@ import org.specs.CIR.Types.ATypes.Matrix.MatrixType;
 import org.specs.CIR.Types.ATypes.Matrix.MatrixUtils;
 import org.specs.CIR.Types.ATypes.Scalar.ScalarType;
 import org.specs.CIR.Types.ATypes.Scalar.ScalarUtils;
+import org.specs.matisselib.helpers.PersistentMap;
 import org.specs.matisselib.services.ScalarValueInformationBuilderService;
 import org.specs.matisselib.ssa.Input;
 import org.specs.matisselib.ssa.NumberInput;
@@ -55,19 +54,33 @@ public final class SizeGroupInformation implements Closeable {
 
     private static final boolean OVERRIDE_LOG = false;
 
+    /**
+     * Immutable, so that copies of the information can share the categories.
+     */
     private static final class SizeCategory {
-        private String numel;
-        private final Map<Integer, String> dims = new HashMap<>();
-        private final Map<Integer, String> dimsSince = new HashMap<>();
+        static final SizeCategory EMPTY = new SizeCategory(null, PersistentMap.empty(), PersistentMap.empty());
 
-        SizeCategory() {
-            this.numel = null;
+        private final String numel;
+        private final PersistentMap<Integer, String> dims;
+        private final PersistentMap<Integer, String> dimsSince;
+
+        private SizeCategory(String numel, PersistentMap<Integer, String> dims,
+                PersistentMap<Integer, String> dimsSince) {
+            this.numel = numel;
+            this.dims = dims;
+            this.dimsSince = dimsSince;
+        }
+
+        SizeCategory withNumel(String numel) {
+            return new SizeCategory(numel, this.dims, this.dimsSince);
+        }
+
+        SizeCategory withDim(int index, String dim) {
+            return new SizeCategory(this.numel, this.dims.put(index, dim), this.dimsSince);
         }
 
-        SizeCategory(SizeCategory category) {
-            this.numel = category.numel;
-            this.dims.putAll(category.dims);
-            this.dimsSince.putAll(category.dimsSince);
+        SizeCategory withDimSince(int index, String dim) {
+            return new SizeCategory(this.numel, this.dims, this.dimsSince.put(index, dim));
         }
 
         @Override
@@ -77,9 +90,10 @@ public final class SizeGroupInformation implements Closeable {
     }
 
     private final ScalarValueInformation scalarInfo;
-    private final List<SizeCategory> sizeCategories = new ArrayList<>();
-    private final Map<String, Integer> sizes = new HashMap<>();
-    private final Map<String, Integer> sizeMatrices = new HashMap<>();
+    // The stores are persistent, so that copies are O(1) and only the changed entries are duplicated
+    private PersistentMap<Integer, SizeCategory> sizeCategories = PersistentMap.empty();
+    private PersistentMap<String, Integer> sizes = PersistentMap.empty();
+    private PersistentMap<String, Integer> sizeMatrices = PersistentMap.empty();
     private final Function<String, Optional<VariableType>> typeGetter;
     private final Consumer<String> logger;
     private int currentMetaName = 0;
@@ -105,10 +119,9 @@ public final class SizeGroupInformation implements Closeable {
 
         this.logger = size.logger;
         this.scalarInfo = size.scalarInfo.copy();
-        for (SizeCategory category : size.sizeCategories) {
-            this.sizeCategories.add(new SizeCategory(category));
-        }
-        this.sizes.putAll(size.sizes);
+        this.sizeCategories = size.sizeCategories;
+        this.sizes = size.sizes;
+        this.sizeMatrices = size.sizeMatrices;
         this.currentMetaName = size.currentMetaName;
         this.typeGetter = size.typeGetter;
     }
@@ -134,7 +147,7 @@ public final class SizeGroupInformation implements Closeable {
         Preconditions.checkArgument(inMatrix != null);
 
         int sizeGroup = getSizeGroup(inMatrix);
-        this.sizes.put(outMatrix, sizeGroup);
+        this.sizes = this.sizes.put(outMatrix, sizeGroup);
     }
 
     private int getSizeGroup(String matrix) {
@@ -143,21 +156,27 @@ public final class SizeGroupInformation implements Closeable {
             return group;
         }
 
-        SizeCategory category = new SizeCategory();
-        this.sizeCategories.add(category);
-
-        int newGroupId = this.sizeCategories.size() - 1;
-        this.sizes.put(matrix, newGroupId);
+        int newGroupId = this.sizeCategories.size();
+        this.sizeCategories = this.sizeCategories.put(newGroupId, SizeCategory.EMPTY);
+        this.sizes = this.sizes.put(matrix, newGroupId);
 
         return newGroupId;
     }
 
+    private SizeCategory getSizeCategory(int sizeGroup) {
+        return this.sizeCategories.get(sizeGroup);
+    }
+
+    private void setSizeCategory(int sizeGroup, SizeCategory sizeCategory) {
+        this.sizeCategories = this.sizeCategories.put(sizeGroup, sizeCategory);
+    }
+
     public void buildNumel(String matrixInput, String numelOutput) {
         int sizeGroup = getSizeGroup(matrixInput);
-        SizeCategory sizeCategory = this.sizeCategories.get(sizeGroup);
+        SizeCategory sizeCategory = getSizeCategory(sizeGroup);
         String numel = sizeCategory.numel;
         if (numel == null) {
-            sizeCategory.numel = numelOutput;
+            setSizeCategory(sizeGroup, sizeCategory.withNumel(numelOutput));
         } else {
             this.scalarInfo.addAlias(numel, numelOutput);
         }
@@ -165,11 +184,11 @@ public final class SizeGroupInformation implements Closeable {
 
     public void buildSize(String matrixInput, int index, String sizeOutput) {
         int sizeGroup = getSizeGroup(matrixInput);
-        SizeCategory sizeCategory = this.sizeCategories.get(sizeGroup);
+        SizeCategory sizeCategory = getSizeCategory(sizeGroup);
 
         String dim = sizeCategory.dims.get(index);
         if (dim == null) {
-            sizeCategory.dims.put(index, sizeOutput);
+            setSizeCategory(sizeGroup, sizeCategory.withDim(index, sizeOutput));
         } else {
             this.scalarInfo.addAlias(dim, sizeOutput);
         }
@@ -191,11 +210,11 @@ public final class SizeGroupInformation implements Closeable {
         }
 
         int sizeGroup = getSizeGroup(matrixInput);
-        SizeCategory sizeCategory = this.sizeCategories.get(sizeGroup);
+        SizeCategory sizeCategory = getSizeCategory(sizeGroup);
 
         String dim = sizeCategory.dimsSince.get(index);
         if (dim == null) {
-            sizeCategory.dimsSince.put(index, sizeOutput);
+            setSizeCategory(sizeGroup, sizeCategory.withDimSince(index, sizeOutput));
         } else {
             this.scalarInfo.addAlias(dim, sizeOutput);
         }
@@ -203,11 +222,11 @@ public final class SizeGroupInformation implements Closeable {
 
     public void setSizeAtLeast(String matrixInput, int index, String minimum) {
         int sizeGroup = getSizeGroup(matrixInput);
-        SizeCategory sizeCategory = this.sizeCategories.get(sizeGroup);
+        SizeCategory sizeCategory = getSizeCategory(sizeGroup);
 
         String dim = sizeCategory.dims.get(index);
         if (dim == null) {
-            sizeCategory.dims.put(index, dim = generateMetaName());
+            setSizeCategory(sizeGroup, sizeCategory.withDim(index, dim = generateMetaName()));
         }
 
         this.scalarInfo.setAtLeast(dim, minimum);
@@ -229,11 +248,11 @@ public final class SizeGroupInformation implements Closeable {
         }
 
         int sizeGroup = getSizeGroup(matrixInput);
-        SizeCategory sizeCategory = this.sizeCategories.get(sizeGroup);
+        SizeCategory sizeCategory = getSizeCategory(sizeGroup);
 
         String dim = sizeCategory.dimsSince.get(index);
         if (dim == null) {
-            sizeCategory.dimsSince.put(index, dim = generateMetaName());
+            setSizeCategory(sizeGroup, sizeCategory.withDimSince(index, dim = generateMetaName()));
         }
 
         this.scalarInfo.setAtLeast(dim, minimum);
@@ -241,11 +260,12 @@ public final class SizeGroupInformation implements Closeable {
 
     public void setNumelAtLeast(String matrixInput, String minimum) {
         int sizeGroup = getSizeGroup(matrixInput);
-        SizeCategory sizeCategory = this.sizeCategories.get(sizeGroup);
+        SizeCategory sizeCategory = getSizeCategory(sizeGroup);
 
         String numel = sizeCategory.numel;
         if (numel == null) {
-            numel = sizeCategory.numel = generateMetaName();
+            numel = generateMetaName();
+            setSizeCategory(sizeGroup, sizeCategory.withNumel(numel));
         }
 
         this.scalarInfo.setAtLeast(numel, minimum);
@@ -253,12 +273,12 @@ public final class SizeGroupInformation implements Closeable {
 
     public String getNumelResult(String matrixInput) {
         int sizeGroupId = getSizeGroup(matrixInput);
-        SizeCategory sizeCategory = this.sizeCategories.get(sizeGroupId);
+        SizeCategory sizeCategory = getSizeCategory(sizeGroupId);
 
         String numel = sizeCategory.numel;
         if (numel == null) {
             String metaName = generateMetaName();
-            sizeCategory.numel = metaName;
+            setSizeCategory(sizeGroupId, sizeCategory.withNumel(metaName));
             return metaName;
         }
         return numel;
@@ -266,7 +286,7 @@ public final class SizeGroupInformation implements Closeable {
 
     public void buildSizeShape(String matrixInput, String sizeOutput) {
         int sizeGroupId = getSizeGroup(matrixInput);
-        this.sizeMatrices.put(sizeOutput, sizeGroupId);
+        this.sizeMatrices = this.sizeMatrices.put(sizeOutput, sizeGroupId);
     }
 
     public String getSizeResult(String matrixInput, int index) {
@@ -331,6 +351,20 @@ public final class SizeGroupInformation implements Closeable {
         return this.scalarInfo.isKnownEqual(v1, v2);
     }
 
+    public boolean isKnownLessThan(String value, int constant) {
+        String constantName = generateMetaName();
+        this.scalarInfo.specifyConstant(constantName, constant);
+
+        return this.scalarInfo.isKnownLessThan(value, constantName);
+    }
+
+    public boolean isKnownAtLeast(String value, int constant) {
+        String constantName = generateMetaName();
+        this.scalarInfo.specifyConstant(constantName, constant);
+
+        return this.scalarInfo.isKnownLessOrEqualTo(constantName, value);
+    }
+
     public boolean areSameSize(String v1, String v2) {
         if (v1.equals(v2)) {
             return true;
@@ -354,8 +388,8 @@ public final class SizeGroupInformation implements Closeable {
         int commonDims = Math.min(ndims1, ndims2);
         int largestDims = Math.max(ndims1, ndims2);
 
-        SizeCategory category1 = this.sizeCategories.get(s1);
-        SizeCategory category2 = this.sizeCategories.get(s2);
+        SizeCategory category1 = getSizeCategory(s1);
+        SizeCategory category2 = getSizeCategory(s2);
 
         for (int i = 0; i < commonDims; ++i) {
             String dim1 = category1.dims.get(i);
@@ -388,7 +422,7 @@ public final class SizeGroupInformation implements Closeable {
 
     private boolean matrixIsFlatSince(String matrix, int startDim) {
         int group = getSizeGroup(matrix);
-        SizeCategory category = this.sizeCategories.get(group);
+        SizeCategory category = getSizeCategory(group);
         int ndims = ((MatrixType) this.typeGetter.apply(matrix).get())
                 .getTypeShape()
                 .getRawNumDims();
@@ -431,8 +465,8 @@ public final class SizeGroupInformation implements Closeable {
             return true;
         }
 
-        String numel1 = this.sizeCategories.get(s1).numel;
-        String numel2 = this.sizeCategories.get(s2).numel;
+        String numel1 = getSizeCategory(s1).numel;
+        String numel2 = getSizeCategory(s2).numel;
         if (numel1 != null && numel2 != null) {
             return this.scalarInfo.areSameValue(numel1, numel2);
         }
@@ -449,7 +483,7 @@ public final class SizeGroupInformation implements Closeable {
             builder.append("\n\t");
             builder.append(i);
             builder.append(": ");
-            builder.append(this.sizeCategories.get(i));
+            builder.append(getSizeCategory(i));
         }
         builder.append("\n\t");
         builder.append(this.sizes);
@@ -568,9 +602,8 @@ public final class SizeGroupInformation implements Closeable {
             String in = flatten.getInput();
 
             int sizeGroup = getSizeGroup(out);
-            SizeCategory sizeCategory = this.sizeCategories.get(sizeGroup);
-            sizeCategory.numel = getNumelResult(in);
-            sizeCategory.dims.put(0, sizeCategory.numel);
+            String numel = getNumelResult(in);
+            setSizeCategory(sizeGroup, getSizeCategory(sizeGroup).withNumel(numel).withDim(0, numel));
 
             return;
         }
@@ -823,7 +856,7 @@ public final class SizeGroupInformation implements Closeable {
     private void buildMatrixFromShapeMatrix(String input, String output) {
         Integer size = this.sizeMatrices.get(input);
         if (size != null) {
-            this.sizes.put(output, size);
+            this.sizes = this.sizes.put(output, size);
             logAll();
         }
         return;
@@ -871,14 +904,9 @@ public final class SizeGroupInformation implements Closeable {
         }
 
         if (constant != null) {
-            int sizeGroup = getSizeGroup(output);
-            SizeCategory sizeCategory = this.sizeCategories.get(sizeGroup);
-            if (sizeCategory.numel == null) {
-                String metaName = generateMetaName();
-                sizeCategory.numel = metaName;
-            }
+            String numel = getNumelResult(output);
 
-            this.scalarInfo.specifyConstant(sizeCategory.numel, constant);
+            this.scalarInfo.specifyConstant(numel, constant);
         }
     }
 
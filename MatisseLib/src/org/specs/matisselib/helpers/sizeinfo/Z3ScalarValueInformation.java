@@ -13,7 +13,6 @@
 
 package org.specs.matisselib.helpers.sizeinfo;
 
-import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,71 +23,80 @@ import org.specs.CIR.Types.VariableType;
 import org.specs.CIR.Types.ATypes.Matrix.MatrixType;
 import org.specs.CIR.Types.ATypes.Matrix.MatrixUtils;
 import org.specs.CIR.Types.ATypes.Scalar.ScalarType;
+import org.specs.matisselib.helpers.sizeinfo.Z3SolverSession.Frame;
 import org.specs.matisselib.ssa.instructions.FunctionCallInstruction;
 
 import com.microsoft.z3.ArithExpr;
 import com.microsoft.z3.BoolExpr;
 import com.microsoft.z3.Expr;
 import com.microsoft.z3.IntSort;
-import com.microsoft.z3.Params;
-import com.microsoft.z3.Solver;
 import com.microsoft.z3.Sort;
 import com.microsoft.z3.Status;
 
 import pt.up.fe.specs.util.SpecsLogs;
 import pt.up.fe.specs.z3helper.ContextHolder;
-import pt.up.fe.specs.z3helper.UnsupportedPlatformException;
-import pt.up.fe.specs.z3helper.Z3LibraryLoader;
 
 public class Z3ScalarValueInformation extends ScalarValueInformation {
 
-    private static final boolean PRINT_MODEL = false;
-    private static final int SOFT_TIMEOUT = 10;
-
     private final Function<String, Optional<VariableType>> typeGetter;
+    private final Z3SolverSession session;
     private final ContextHolder context;
-    private final Solver solver;
     private final Map<String, ArithExpr> symbols;
+    private Frame frame;
+
+    // Results that may change when assertions are added. Cleared on each new assertion.
+    private final Map<BoolExpr, Status> necessaryQueryResults = new HashMap<>();
+    private final Map<BoolExpr, Status> possibleQueryResults = new HashMap<>();
+
     private boolean closed;
 
     public Z3ScalarValueInformation(Function<String, Optional<VariableType>> typeGetter) {
-        try {
-            Z3LibraryLoader.loadNativeLibraries();
-        } catch (IOException | UnsupportedPlatformException e) {
-            throw new RuntimeException(e);
-        }
+        this(typeGetter, new Z3SolverSession());
+    }
 
+    /**
+     * Creates an information that uses the given session, taking ownership of the reference of the caller.
+     */
+    Z3ScalarValueInformation(Function<String, Optional<VariableType>> typeGetter, Z3SolverSession session) {
         this.typeGetter = typeGetter;
-        this.context = new ContextHolder();
-        this.solver = makeSolver();
+        this.session = session;
+        this.context = session.getContext();
+        this.frame = Frame.newRoot();
         this.symbols = new HashMap<>();
     }
 
-    private Z3ScalarValueInformation(Z3ScalarValueInformation other) {
+    private Z3ScalarValueInformation(Z3ScalarValueInformation other, Frame frame) {
         this.typeGetter = other.typeGetter;
+        this.session = other.session;
+        this.session.addRef();
         this.context = other.context;
-        this.context.addRef();
-        this.solver = makeSolver();
-        for (BoolExpr assertion : other.solver.getAssertions()) {
-            this.solver.add(assertion);
-        }
+        this.frame = frame;
         this.symbols = new HashMap<>(other.symbols);
+        this.necessaryQueryResults.putAll(other.necessaryQueryResults);
+        this.possibleQueryResults.putAll(other.possibleQueryResults);
     }
 
-    private Solver makeSolver() {
-        Solver solver = this.context.mkSolver();
-        Params params = this.context.mkParams();
-        params.add("solver2_timeout", SOFT_TIMEOUT);
+    /**
+     * Builds a new information that shares the context and solver of the given session.
+     */
+    public static Z3ScalarValueInformation newInstance(Function<String, Optional<VariableType>> typeGetter,
+            Z3SolverSession session) {
+
+        session.addRef();
+        return new Z3ScalarValueInformation(typeGetter, session);
+    }
 
-        solver.setParameters(params);
-        return solver;
+    private void add(BoolExpr assertion) {
+        this.frame.add(assertion);
+        this.necessaryQueryResults.clear();
+        this.possibleQueryResults.clear();
     }
 
     @Override
     public void close() {
         closed = true;
 
-        this.context.removeRef();
+        this.session.removeRef();
     }
 
     private void checkValid() {
@@ -101,14 +109,18 @@ public class Z3ScalarValueInformation extends ScalarValueInformation {
     public Z3ScalarValueInformation copy() {
         checkValid();
 
-        return new Z3ScalarValueInformation(this);
+        // From now on, the current frame is shared and must not receive new assertions
+        Frame sharedFrame = this.frame;
+        this.frame = Frame.newChild(sharedFrame);
+
+        return new Z3ScalarValueInformation(this, Frame.newChild(sharedFrame));
     }
 
     @Override
     public void buildScalarCopy(String outScalar, String inScalar) {
         checkValid();
 
-        this.solver.add(this.context.mkEq(getSymbol(outScalar), getSymbol(inScalar)));
+        add(this.context.mkEq(getSymbol(outScalar), getSymbol(inScalar)));
     }
 
     @Override
@@ -168,45 +180,51 @@ public class Z3ScalarValueInformation extends ScalarValueInformation {
     }
 
     private boolean isNecessary(BoolExpr exprToTest, String failureMessage) {
-        this.solver.push();
-        this.solver.add(this.context.mkNot(exprToTest));
-        Status status = runSolver();
-        this.solver.pop();
-
-        if (status == Status.UNKNOWN) {
-            SpecsLogs
-                    .msgWarn(failureMessage);
+        if (this.frame.isKnownNecessary(exprToTest)) {
+            return true;
+        }
+
+        Status status = this.necessaryQueryResults.get(exprToTest);
+        if (status == null) {
+            status = this.session.check(this.frame, this.context.mkNot(exprToTest));
+            this.necessaryQueryResults.put(exprToTest, status);
+
+            if (status == Status.UNKNOWN) {
+                SpecsLogs
+                        .msgWarn(failureMessage);
+            }
+        }
+
+        if (status == Status.UNSATISFIABLE) {
+            this.frame.setNecessary(exprToTest);
         }
 
         return status == Status.UNSATISFIABLE;
     }
 
-    @SuppressWarnings("unused")
     private boolean isPossible(BoolExpr exprToTest, String failureMessage) {
-        this.solver.push();
-        this.solver.add(exprToTest);
+        if (this.frame.isKnownImpossible(exprToTest)) {
+            return false;
+        }
 
-        Status status = runSolver();
+        Status status = this.possibleQueryResults.get(exprToTest);
+        if (status == null) {
+            status = this.session.check(this.frame, exprToTest);
+            this.possibleQueryResults.put(exprToTest, status);
 
-        if (status == Status.UNKNOWN) {
-            SpecsLogs
-                    .msgWarn(failureMessage);
+            if (status == Status.UNKNOWN) {
+                SpecsLogs
+                        .msgWarn(failureMessage);
+            }
         }
 
-        if (status == Status.SATISFIABLE && PRINT_MODEL) {
-            System.out.println("For: " + exprToTest.simplify());
-            System.out.println("Test:");
-            System.out.println(solver.getModel());
+        if (status == Status.UNSATISFIABLE) {
+            this.frame.setImpossible(exprToTest);
         }
-        this.solver.pop();
 
         return status == Status.SATISFIABLE;
     }
 
-    private Status runSolver() {
-        return this.solver.check();
-    }
-
     @Override
     public boolean isKnownLessOrEqualTo(String v1, String v2) {
         checkValid();
@@ -225,12 +243,12 @@ public class Z3ScalarValueInformation extends ScalarValueInformation {
     public void setUpTo(String value, String maximum, String context) {
         checkValid();
 
-        this.solver.add(this.context.mkLe(getSymbol(value, context), getSymbol(maximum, context)));
+        add(this.context.mkLe(getSymbol(value, context), getSymbol(maximum, context)));
     }
 
     @Override
     public void setTrue(String value) {
-        this.solver.add(this.context.mkNe(getSymbol(value), mkIntConst(0)));
+        add(this.context.mkNe(getSymbol(value), mkIntConst(0)));
     }
 
     @Override
@@ -256,7 +274,7 @@ public class Z3ScalarValueInformation extends ScalarValueInformation {
             value = (int) value;
         }
 
-        this.solver.add(this.context.mkEq(symbol,
+        add(this.context.mkEq(symbol,
                 this.context.mkNumeral(Double.toString(value), sort)));
     }
 
@@ -280,7 +298,7 @@ public class Z3ScalarValueInformation extends ScalarValueInformation {
             String in1 = functionCall.getInputVariables().get(0);
             String in2 = functionCall.getInputVariables().get(1);
 
-            this.solver.add(
+            add(
                     this.context.mkEq(getSymbol(output, context),
                             this.context.mkSub(getSymbol(in1, context), getSymbol(in2, context))));
             break;
@@ -294,7 +312,7 @@ public class Z3ScalarValueInformation extends ScalarValueInformation {
             String in1 = functionCall.getInputVariables().get(0);
             String in2 = functionCall.getInputVariables().get(1);
 
-            this.solver.add(this.context.mkEq(getSymbol(output, context),
+            add(this.context.mkEq(getSymbol(output, context),
                     this.context.mkAdd(getSymbol(in1, context), getSymbol(in2, context))));
 
             break;
@@ -309,7 +327,7 @@ public class Z3ScalarValueInformation extends ScalarValueInformation {
             String in1 = functionCall.getInputVariables().get(0);
             String in2 = functionCall.getInputVariables().get(1);
 
-            this.solver.add(this.context.mkEq(getSymbol(output, context),
+            add(this.context.mkEq(getSymbol(output, context),
                     this.context.mkMul(getSymbol(in1, context), getSymbol(in2, context))));
 
             break;
@@ -322,7 +340,7 @@ public class Z3ScalarValueInformation extends ScalarValueInformation {
             String in1 = functionCall.getInputVariables().get(0);
             String in2 = functionCall.getInputVariables().get(1);
 
-            this.solver.add(this.context.mkEq(getSymbol(output, context),
+            add(this.context.mkEq(getSymbol(output, context),
                     mkMax(getSymbol(in1, context), getSymbol(in2, context))));
 
             break;
@@ -339,9 +357,9 @@ public class Z3ScalarValueInformation extends ScalarValueInformation {
                     .map(shape -> shape.getRawNumDims())
                     .orElse(-1);
 
-            this.solver.add(this.context.mkGe(getSymbol(output, context), mkIntConst(2)));
+            add(this.context.mkGe(getSymbol(output, context), mkIntConst(2)));
             if (rawNdims > 2) {
-                this.solver.add(this.context.mkLe(getSymbol(output, context), mkIntConst(rawNdims)));
+                add(this.context.mkLe(getSymbol(output, context), mkIntConst(rawNdims)));
             }
 
             break;
@@ -356,7 +374,7 @@ public class Z3ScalarValueInformation extends ScalarValueInformation {
 
             ArithExpr trueValue = mkIntConst(1);
             ArithExpr falseValue = mkIntConst(0);
-            this.solver.add(this.context.mkEq(getSymbol(output, context),
+            add(this.context.mkEq(getSymbol(output, context),
                     this.context.mkITE(this.context.mkLe(getSymbol(in1, context), getSymbol(in2, context)), trueValue,
                             falseValue)));
 
@@ -372,7 +390,7 @@ public class Z3ScalarValueInformation extends ScalarValueInformation {
 
             ArithExpr trueValue = mkIntConst(1);
             ArithExpr falseValue = mkIntConst(0);
-            this.solver.add(this.context.mkEq(getSymbol(output, context),
+            add(this.context.mkEq(getSymbol(output, context),
                     this.context.mkITE(this.context.mkEq(getSymbol(in1, context), getSymbol(in2, context)),
                             trueValue,
                             falseValue)));
@@ -389,7 +407,7 @@ public class Z3ScalarValueInformation extends ScalarValueInformation {
 
             ArithExpr trueValue = mkIntConst(1);
             ArithExpr falseValue = mkIntConst(0);
-            this.solver.add(this.context.mkEq(getSymbol(output, context),
+            add(this.context.mkEq(getSymbol(output, context),
                     this.context.mkITE(this.context.mkEq(getSymbol(in1, context), getSymbol(in2, context)),
                             falseValue,
                             trueValue)));
@@ -401,14 +419,14 @@ public class Z3ScalarValueInformation extends ScalarValueInformation {
                 return;
             }
 
-            this.solver.add(this.context.mkGe(getSymbol(output, context), mkIntConst(0)));
+            add(this.context.mkGe(getSymbol(output, context), mkIntConst(0)));
             break;
         case "numel":
             if (functionCall.getInputVariables().size() != 1) {
                 return;
             }
 
-            this.solver.add(this.context.mkGe(getSymbol(output, context), mkIntConst(0)));
+            add(this.context.mkGe(getSymbol(output, context), mkIntConst(0)));
             break;
         default:
             // Do nothing
@@ -428,7 +446,7 @@ public class Z3ScalarValueInformation extends ScalarValueInformation {
         ArithExpr diffPlusOne = this.context.mkAdd(diff, one);
         Expr sizeValue = mkMax(diffPlusOne, one);
 
-        this.solver.add(this.context.mkEq(getSymbol(size), sizeValue));
+        add(this.context.mkEq(getSymbol(size), sizeValue));
     }
 
     private Expr mkMax(ArithExpr expr1, ArithExpr expr2) {
@@ -446,7 +464,7 @@ public class Z3ScalarValueInformation extends ScalarValueInformation {
         checkValid();
 
         StringBuilder builder = new StringBuilder("[Z3 Solver:");
-        for (BoolExpr assertion : this.solver.getAssertions()) {
+        for (BoolExpr assertion : this.frame.getAllAssertions()) {
             builder.append("\n\t");
             builder.append(assertion);
         }
@@ -0,0 +1,261 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.helpers.sizeinfo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.microsoft.z3.BoolExpr;
+import com.microsoft.z3.Params;
+import com.microsoft.z3.Solver;
+import com.microsoft.z3.Status;
+
+import pt.up.fe.specs.z3helper.ContextHolder;
+import pt.up.fe.specs.z3helper.UnsupportedPlatformException;
+import pt.up.fe.specs.z3helper.Z3LibraryLoader;
+
+/**
+ * A Z3 context and a single incremental solver, shared by several {@link Z3ScalarValueInformation}.
+ *
+ * <p>
+ * The assertions of each information are kept in a tree of {@link Frame}s: copying an information freezes its frame,
+ * and both the original and the copy continue in new child frames. Before each query, the solver scopes are popped
+ * and pushed so that they match the path from the root to the frame of the queried information, which avoids
+ * re-adding every assertion when an information is copied.
+ */
+public class Z3SolverSession {
+
+    private static final boolean PRINT_MODEL = false;
+    private static final int SOFT_TIMEOUT = 10;
+
+    private final ContextHolder context;
+    private final Solver solver;
+
+    // One solver scope per frame, and the number of assertions of that frame that were added to the scope
+    private final List<Frame> activeFrames = new ArrayList<>();
+    private final List<Integer> activeSizes = new ArrayList<>();
+
+    private long solverTime;
+    private int queries;
+
+    /**
+     * Creates a new session. The reference of the context that is created belongs to the caller, and should be
+     * released with {@link #removeRef()}.
+     */
+    public Z3SolverSession() {
+        try {
+            Z3LibraryLoader.loadNativeLibraries();
+        } catch (IOException | UnsupportedPlatformException e) {
+            throw new RuntimeException(e);
+        }
+
+        this.context = new ContextHolder();
+        this.solver = this.context.mkSolver();
+
+        Params params = this.context.mkParams();
+        params.add("solver2_timeout", SOFT_TIMEOUT);
+        this.solver.setParameters(params);
+    }
+
+    public ContextHolder getContext() {
+        return this.context;
+    }
+
+    public void addRef() {
+        this.context.addRef();
+    }
+
+    public void removeRef() {
+        this.context.removeRef();
+    }
+
+    /**
+     *
+     * @return the time spent in the solver, in nanoseconds
+     */
+    public long getSolverTime() {
+        return this.solverTime;
+    }
+
+    /**
+     *
+     * @return the number of times the solver was invoked
+     */
+    public int getQueries() {
+        return this.queries;
+    }
+
+    /**
+     * Checks the satisfiability of the assertions of the given frame (and of its ancestors), together with the given
+     * expression.
+     */
+    Status check(Frame frame, BoolExpr expr) {
+        activate(frame);
+
+        this.solver.push();
+        this.solver.add(expr);
+
+        long start = System.nanoTime();
+        Status status = this.solver.check();
+        this.solverTime += System.nanoTime() - start;
+        ++this.queries;
+
+        if (status == Status.SATISFIABLE && PRINT_MODEL) {
+            System.out.println("For: " + expr.simplify());
+            System.out.println("Test:");
+            System.out.println(this.solver.getModel());
+        }
+
+        this.solver.pop();
+
+        return status;
+    }
+
+    private void activate(Frame frame) {
+        List<Frame> path = frame.getPath();
+
+        int common = 0;
+        while (common < this.activeFrames.size()
+                && common < path.size()
+                && this.activeFrames.get(common) == path.get(common)
+                && this.activeSizes.get(common) == path.get(common).assertions.size()) {
+            ++common;
+        }
+
+        // The frame of a scope may have received new assertions since it was pushed. If it is the last scope we keep,
+        // we only need to add those.
+        boolean extendLast = common < this.activeFrames.size()
+                && common < path.size()
+                && this.activeFrames.get(common) == path.get(common);
+        int scopesToKeep = extendLast ? common + 1 : common;
+
+        int scopesToPop = this.activeFrames.size() - scopesToKeep;
+        if (scopesToPop > 0) {
+            this.solver.pop(scopesToPop);
+            this.activeFrames.subList(scopesToKeep, this.activeFrames.size()).clear();
+            this.activeSizes.subList(scopesToKeep, this.activeSizes.size()).clear();
+        }
+
+        if (extendLast) {
+            Frame lastFrame = path.get(common);
+            List<BoolExpr> assertions = lastFrame.assertions;
+            for (int i = this.activeSizes.get(common); i < assertions.size(); ++i) {
+                this.solver.add(assertions.get(i));
+            }
+            this.activeSizes.set(common, assertions.size());
+        }
+
+        for (int i = scopesToKeep; i < path.size(); ++i) {
+            Frame pathFrame = path.get(i);
+
+            this.solver.push();
+            for (BoolExpr assertion : pathFrame.assertions) {
+                this.solver.add(assertion);
+            }
+
+            this.activeFrames.add(pathFrame);
+            this.activeSizes.add(pathFrame.assertions.size());
+        }
+    }
+
+    /**
+     * A set of assertions, in addition to the assertions of its parent.
+     *
+     * <p>
+     * Only the leaf frame of an information receives new assertions. Since assertions are never removed, facts proven
+     * necessary or impossible in a frame remain so in all its descendants.
+     */
+    static final class Frame {
+        private final Frame parent;
+        private final List<BoolExpr> assertions = new ArrayList<>();
+        private final Set<BoolExpr> necessary = new HashSet<>();
+        private final Set<BoolExpr> impossible = new HashSet<>();
+
+        private Frame(Frame parent) {
+            this.parent = parent;
+        }
+
+        static Frame newRoot() {
+            return new Frame(null);
+        }
+
+        /**
+         * Creates a frame that extends the given frame, which must no longer receive new assertions.
+         */
+        static Frame newChild(Frame parent) {
+            // Skip frames that add nothing, so that chains of copies don't result in chains of solver scopes
+            while (parent != null && parent.assertions.isEmpty() && parent.necessary.isEmpty()
+                    && parent.impossible.isEmpty()) {
+                parent = parent.parent;
+            }
+
+            return new Frame(parent);
+        }
+
+        void add(BoolExpr assertion) {
+            this.assertions.add(assertion);
+        }
+
+        boolean isKnownNecessary(BoolExpr expr) {
+            for (Frame frame = this; frame != null; frame = frame.parent) {
+                if (frame.necessary.contains(expr)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        boolean isKnownImpossible(BoolExpr expr) {
+            for (Frame frame = this; frame != null; frame = frame.parent) {
+                if (frame.impossible.contains(expr)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        void setNecessary(BoolExpr expr) {
+            this.necessary.add(expr);
+        }
+
+        void setImpossible(BoolExpr expr) {
+            this.impossible.add(expr);
+        }
+
+        List<Frame> getPath() {
+            List<Frame> path = new ArrayList<>();
+            for (Frame frame = this; frame != null; frame = frame.parent) {
+                path.add(frame);
+            }
+            Collections.reverse(path);
+
+            return path;
+        }
+
+        List<BoolExpr> getAllAssertions() {
+            List<BoolExpr> allAssertions = new ArrayList<>();
+            for (Frame frame : getPath()) {
+                allAssertions.addAll(frame.assertions);
+            }
+
+            return allAssertions;
+        }
+    }
+}
@@ -17,9 +17,13 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
@@ -28,6 +32,12 @@ import pt.up.fe.specs.util.SpecsLogs;
 
 public class ClassFinderHelper {
 
+    /**
+     * Results of previous searches, by packages and base class. The classpath does not change while the program runs,
+     * so long-running processes (e.g., the compilation daemon) only need to scan it once per search.
+     */
+    private static final Map<List<Object>, HashMap<String, ? extends Class<?>>> CACHE = new ConcurrentHashMap<>();
+
     /**
      * Gets all classes in the current classpath that are in one of the specified packages (or subpackages) and belong
      * to the specified base class.
@@ -47,6 +57,21 @@ public class ClassFinderHelper {
     public static <T> HashMap<String, Class<? extends T>> findClasses(List<String> packages, Class<T> baseClass)
             throws IOException {
 
+        List<Object> key = Arrays.asList(new ArrayList<>(packages), baseClass);
+
+        HashMap<String, Class<? extends T>> cachedClasses = (HashMap<String, Class<? extends T>>) CACHE.get(key);
+        if (cachedClasses == null) {
+            cachedClasses = findClassesUncached(packages, baseClass);
+            CACHE.putIfAbsent(key, cachedClasses);
+        }
+
+        // Callers may modify the returned map
+        return new HashMap<>(cachedClasses);
+    }
+
+    private static <T> HashMap<String, Class<? extends T>> findClassesUncached(List<String> packages,
+            Class<T> baseClass) throws IOException {
+
         HashMap<String, Class<? extends T>> passClasses = new HashMap<>();
 
         File jarFile;
@@ -0,0 +1,110 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.loopproperties;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Indicates that the iterations of this loop are independent, and that the loop should be distributed among threads
+ * with an OpenMP <code>parallel for</code> pragma.
+ *
+ * <p>
+ * The variables are SSA names, so the property must be added after the last pass that renames variables. The names of
+ * each group are expected to be coalesced into a single C variable.
+ */
+public final class OpenMPParallelForProperty extends LoopProperty {
+    public static final class ReductionVariable {
+        private final String operator;
+        private final List<String> names;
+
+        public ReductionVariable(String operator, List<String> names) {
+            Preconditions.checkArgument(operator != null);
+            Preconditions.checkArgument(names != null && !names.isEmpty());
+
+            this.operator = operator;
+            this.names = new ArrayList<>(names);
+        }
+
+        public String getOperator() {
+            return operator;
+        }
+
+        public List<String> getNames() {
+            return Collections.unmodifiableList(names);
+        }
+
+        @Override
+        public String toString() {
+            return operator + ":" + names;
+        }
+    }
+
+    private final String schedule;
+    private final List<ReductionVariable> reductions;
+    private final List<List<String>> sharedVariables;
+
+    /**
+     *
+     * @param schedule
+     *            the content of the schedule clause (e.g., "static, 4"), or an empty string to omit it
+     * @param reductions
+     *            the variables accumulated across iterations
+     * @param sharedVariables
+     *            the variables (e.g., matrices built in place) that are written by all iterations, without being
+     *            privatized
+     */
+    public OpenMPParallelForProperty(String schedule,
+            List<ReductionVariable> reductions,
+            List<List<String>> sharedVariables) {
+        Preconditions.checkArgument(schedule != null);
+        Preconditions.checkArgument(reductions != null);
+        Preconditions.checkArgument(sharedVariables != null);
+
+        this.schedule = schedule;
+        this.reductions = new ArrayList<>(reductions);
+        this.sharedVariables = new ArrayList<>(sharedVariables);
+    }
+
+    public String getSchedule() {
+        return schedule;
+    }
+
+    public List<ReductionVariable> getReductions() {
+        return Collections.unmodifiableList(reductions);
+    }
+
+    public List<List<String>> getSharedVariables() {
+        return Collections.unmodifiableList(sharedVariables);
+    }
+
+    @Override
+    public FusionResult getFusionResultWithoutEquivalent() {
+        return FusionResult.rejectFusion();
+    }
+
+    @Override
+    public FusionResult getFusionResultWith(LoopProperty property) {
+        return FusionResult.rejectFusion();
+    }
+
+    @Override
+    public String toString() {
+        return "[omp_parallel_for schedule(" + schedule + ") reductions" + reductions + " shared" + sharedVariables
+                + "]";
+    }
+}
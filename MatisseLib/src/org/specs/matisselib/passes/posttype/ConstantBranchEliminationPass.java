@@ -215,4 +215,9 @@ public class ConstantBranchEliminationPass implements PostTypeInferencePass {
                 CompilerDataProviders.CONTROL_FLOW_GRAPH, // Explicitly invalidated
                 CompilerDataProviders.SIZE_GROUP_INFORMATION); // Explicitly invalidated
     }
+
+    @Override
+    public boolean isInstanceLocal() {
+        return true;
+    }
 }
@@ -112,6 +112,11 @@ public class DuplicatedReadEliminationPass implements PostTypeInferencePass {
         );
     }
 
+    @Override
+    public boolean isInstanceLocal() {
+        return true;
+    }
+
     private static class GetAccess {
         private final String matrix;
         private final List<String> indices;
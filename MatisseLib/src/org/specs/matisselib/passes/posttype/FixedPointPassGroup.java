@@ -0,0 +1,119 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.passes.posttype;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.specs.matisselib.PassUtils;
+import org.specs.matisselib.ProjectPassCompilationManager;
+import org.specs.matisselib.ProjectPassServices;
+import org.specs.matisselib.services.DataService;
+import org.specs.matisselib.services.PassScheduler;
+import org.specs.matisselib.ssa.instructions.SsaInstruction;
+import org.specs.matisselib.typeinference.PostTypeInferencePass;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Applies a sequence of passes to an instance repeatedly, until the instance stops changing.
+ *
+ * <p>
+ * The iterations are driven by the {@link PassScheduler} (see
+ * {@link PassScheduler#applyUntilUnchanged(List, TypedInstance, Predicate)}), which also gives the maximum
+ * number of iterations. Without a scheduler, the passes are applied once, exactly as if they were listed in the
+ * recipe one after the other. Each pass is applied with
+ * {@link ProjectPassCompilationManager#applyPass(PostTypeInferencePass, TypedInstance, DataStore)}, so it is
+ * scheduled, profiled and validated like the passes of the recipe.
+ *
+ * <p>
+ * The passes are applied to one instance at a time, so passes that override
+ * {@link PostTypeInferencePass#apply(org.specs.matisselib.typeinference.TypedInstanceStateList)} are not supported.
+ */
+public class FixedPointPassGroup implements PostTypeInferencePass {
+    private final List<PostTypeInferencePass> passes;
+
+    public FixedPointPassGroup(PostTypeInferencePass... passes) {
+        this(Arrays.asList(passes));
+    }
+
+    public FixedPointPassGroup(List<PostTypeInferencePass> passes) {
+        Preconditions.checkArgument(passes != null && !passes.isEmpty(), "Expected at least one pass");
+        for (PostTypeInferencePass pass : passes) {
+            Preconditions.checkArgument(!PassUtils.overridesListApply(pass),
+                    "Pass " + pass.getName() + " can not be applied to each instance separately");
+        }
+
+        this.passes = new ArrayList<>(passes);
+    }
+
+    public List<PostTypeInferencePass> getPasses() {
+        return Collections.unmodifiableList(passes);
+    }
+
+    @Override
+    public void apply(TypedInstance instance, DataStore passData) {
+        Predicate<PostTypeInferencePass> applier = pass -> ProjectPassCompilationManager.applyPass(pass, instance,
+                passData);
+
+        Optional<PassScheduler> scheduler = passData.getTry(ProjectPassServices.PASS_SCHEDULER);
+        if (scheduler.isPresent()) {
+            scheduler.get().applyUntilUnchanged(passes, instance, applier);
+        } else {
+            passes.forEach(applier::test);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return passes.stream()
+                .map(PostTypeInferencePass::getName)
+                .collect(Collectors.joining(", ", "FixedPointPassGroup[", "]"));
+    }
+
+    @Override
+    public boolean preserveData(DataService<?> key) {
+        // The data was already invalidated after each of the passes
+        return true;
+    }
+
+    @Override
+    public boolean isInstanceLocal() {
+        return passes.stream().allMatch(PostTypeInferencePass::isInstanceLocal);
+    }
+
+    @Override
+    public Set<Class<? extends SsaInstruction>> getRelevantInstructionTypes() {
+        Set<Class<? extends SsaInstruction>> relevantTypes = new HashSet<>();
+        for (PostTypeInferencePass pass : passes) {
+            Set<Class<? extends SsaInstruction>> passTypes = pass.getRelevantInstructionTypes();
+            if (passTypes.isEmpty()) {
+                return Collections.emptySet();
+            }
+
+            relevantTypes.addAll(passTypes);
+        }
+
+        return relevantTypes;
+    }
+}
@@ -2,7 +2,9 @@ package org.specs.matisselib.passes.posttype;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import org.specs.CIR.Types.VariableType;
 import org.specs.CIR.Types.ATypes.Matrix.MatrixType;
@@ -250,4 +252,14 @@ public class LoopAccumulatorExtractorPass implements PostTypeInferencePass {
                 CompilerDataProviders.CONTROL_FLOW_GRAPH,
                 CompilerDataProviders.SIZE_GROUP_INFORMATION);
     }
+
+    @Override
+    public Set<Class<? extends SsaInstruction>> getRelevantInstructionTypes() {
+        return Collections.singleton(ForInstruction.class);
+    }
+
+    @Override
+    public boolean isInstanceLocal() {
+        return true;
+    }
 }
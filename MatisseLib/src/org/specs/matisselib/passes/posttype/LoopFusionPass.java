@@ -1491,4 +1491,9 @@ public class LoopFusionPass implements PostTypeInferencePass {
         return PassUtils.approveIn(key,
                 CompilerDataProviders.SIZE_GROUP_INFORMATION);
     }
+
+    @Override
+    public boolean isInstanceLocal() {
+        return true;
+    }
 }
@@ -844,4 +844,9 @@ public class LoopInterchangePass implements PostTypeInferencePass {
     public static List<DataKey<?>> getRequiredParameters() {
         return Arrays.asList(INTERCHANGE_FORMAT, OPTIMIZATION_ID);
     }
+
+    @Override
+    public boolean isInstanceLocal() {
+        return true;
+    }
 }
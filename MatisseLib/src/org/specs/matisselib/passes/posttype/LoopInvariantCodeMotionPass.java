@@ -243,4 +243,8 @@ public class LoopInvariantCodeMotionPass implements PostTypeInferencePass {
                 CompilerDataProviders.SIZE_GROUP_INFORMATION);
     }
 
+    @Override
+    public boolean isInstanceLocal() {
+        return true;
+    }
 }
@@ -282,4 +282,9 @@ public class LoopMatrixCopyEliminationPass implements PostTypeInferencePass {
                 // Explicitly invalidated
                 CompilerDataProviders.SIZE_GROUP_INFORMATION);
     }
+
+    @Override
+    public boolean isInstanceLocal() {
+        return true;
+    }
 }
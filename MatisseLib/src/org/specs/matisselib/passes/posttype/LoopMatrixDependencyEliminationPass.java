@@ -1,12 +1,14 @@
 package org.specs.matisselib.passes.posttype;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -281,4 +283,9 @@ public class LoopMatrixDependencyEliminationPass extends TypeTransparentSsaPass
                 CompilerDataProviders.CONTROL_FLOW_GRAPH,
                 CompilerDataProviders.SIZE_GROUP_INFORMATION);
     }
+
+    @Override
+    public Set<Class<? extends SsaInstruction>> getRelevantInstructionTypes() {
+        return Collections.singleton(ForInstruction.class);
+    }
 }
@@ -14,6 +14,7 @@
 package org.specs.matisselib.passes.posttype;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
@@ -190,4 +191,8 @@ public class RedundantAllocationEliminationPass extends TypeTransparentSsaPass {
                 CompilerDataProviders.SIZE_GROUP_INFORMATION);
     }
 
+    @Override
+    public Set<Class<? extends SsaInstruction>> getRelevantInstructionTypes() {
+        return Collections.singleton(FunctionCallInstruction.class);
+    }
 }
@@ -26,9 +26,9 @@ import org.specs.CIR.Types.ATypes.Scalar.ScalarType;
 import org.specs.matisselib.CompilerDataProviders;
 import org.specs.matisselib.PassUtils;
 import org.specs.matisselib.ProjectPassServices;
-import org.specs.matisselib.helpers.UsageMap;
 import org.specs.matisselib.services.DataService;
 import org.specs.matisselib.services.SystemFunctionProviderService;
+import org.specs.matisselib.ssa.DefUseIndex;
 import org.specs.matisselib.ssa.SsaBlock;
 import org.specs.matisselib.ssa.instructions.FunctionCallInstruction;
 import org.specs.matisselib.ssa.instructions.MatrixSetInstruction;
@@ -50,7 +50,8 @@ public class SetOutputPropagationPass implements PostTypeInferencePass {
     @Override
     public void apply(TypedInstance instance, DataStore passData) {
 
-        UsageMap usageMap = UsageMap.build(instance.getFunctionBody());
+        DefUseIndex defUse = passData.get(ProjectPassServices.DATA_PROVIDER)
+                .buildData(CompilerDataProviders.DEF_USE_INDEX);
 
         SystemFunctionProviderService functionProvider = passData.get(ProjectPassServices.SYSTEM_FUNCTION_PROVIDER);
 
@@ -65,7 +66,7 @@ public class SetOutputPropagationPass implements PostTypeInferencePass {
                     continue;
                 }
 
-                if (usageMap.getUsageCount(output) != 1) {
+                if (defUse.getUseCount(output) != 1) {
                     continue;
                 }
 
@@ -26,9 +26,9 @@ import org.specs.CIR.Types.ATypes.Matrix.MatrixUtils;
 import org.specs.matisselib.CompilerDataProviders;
 import org.specs.matisselib.PassUtils;
 import org.specs.matisselib.ProjectPassServices;
-import org.specs.matisselib.helpers.UsageMap;
 import org.specs.matisselib.services.DataProviderService;
 import org.specs.matisselib.services.DataService;
+import org.specs.matisselib.ssa.DefUseIndex;
 import org.specs.matisselib.ssa.instructions.SimpleSetInstruction;
 import org.specs.matisselib.ssa.instructions.SsaInstruction;
 import org.specs.matisselib.typeinference.PostTypeInferencePass;
@@ -62,7 +62,7 @@ public class ShapePropagationPass implements PostTypeInferencePass {
     public void apply(TypedInstance instance, DataStore passData) {
         DataProviderService dataProvider = passData.get(ProjectPassServices.DATA_PROVIDER);
 
-        UsageMap usages = UsageMap.build(instance.getFunctionBody());
+        DefUseIndex usages = dataProvider.buildData(CompilerDataProviders.DEF_USE_INDEX);
 
         Map<String, String> candidateMatrices = new HashMap<>();
         for (SsaInstruction instruction : instance.getFlattenedInstructionsIterable()) {
@@ -72,7 +72,7 @@ public class ShapePropagationPass implements PostTypeInferencePass {
                 String input = set.getInputMatrix();
                 String output = set.getOutput();
 
-                if (usages.getUsageCount(input) != 1) {
+                if (usages.getUseCount(input) != 1) {
                     // Variable is used elsewhere
                     continue;
                 }
@@ -143,6 +143,12 @@ public class ShapePropagationPass implements PostTypeInferencePass {
     public boolean preserveData(DataService<?> key) {
         return PassUtils.approveIn(key,
                 CompilerDataProviders.CONTROL_FLOW_GRAPH,
-                CompilerDataProviders.SIZE_GROUP_INFORMATION);
+                CompilerDataProviders.SIZE_GROUP_INFORMATION,
+                CompilerDataProviders.DEF_USE_INDEX);
+    }
+
+    @Override
+    public boolean isInstanceLocal() {
+        return true;
     }
 }
@@ -13,8 +13,10 @@
 
 package org.specs.matisselib.passes.posttype;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -120,4 +122,9 @@ public abstract class SizeAwareInstructionRemovalPass<T extends SsaInstruction>
     protected void afterPass(FunctionBody body, DataStore dataStore, boolean performedElimination) {
 
     }
+
+    @Override
+    public Set<Class<? extends SsaInstruction>> getRelevantInstructionTypes() {
+        return Collections.singleton(this.clazz);
+    }
 }
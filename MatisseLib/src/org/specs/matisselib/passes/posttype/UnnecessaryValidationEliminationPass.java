@@ -74,4 +74,9 @@ public class UnnecessaryValidationEliminationPass extends SizeAwareInstructionRe
                 CompilerDataProviders.CONTROL_FLOW_GRAPH,
                 CompilerDataProviders.SIZE_GROUP_INFORMATION);
     }
+
+    @Override
+    public boolean isInstanceLocal() {
+        return true;
+    }
 }
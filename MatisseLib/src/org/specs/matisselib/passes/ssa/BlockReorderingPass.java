@@ -91,4 +91,9 @@ public class BlockReorderingPass extends TypeNeutralSsaPass {
         return PassUtils.approveIn(key,
                 CompilerDataProviders.SIZE_GROUP_INFORMATION);
     }
+
+    @Override
+    public boolean isInstanceLocal() {
+        return true;
+    }
 }
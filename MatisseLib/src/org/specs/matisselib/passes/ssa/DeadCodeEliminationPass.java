@@ -13,18 +13,20 @@
 
 package org.specs.matisselib.passes.ssa;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.ListIterator;
-import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Queue;
-import java.util.stream.Collectors;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Optional;
+import java.util.Set;
 
 import org.specs.matisselib.CompilerDataProviders;
 import org.specs.matisselib.PassUtils;
+import org.specs.matisselib.ProjectPassServices;
 import org.specs.matisselib.passes.TypeNeutralSsaPass;
+import org.specs.matisselib.services.DataProviderService;
 import org.specs.matisselib.services.DataService;
+import org.specs.matisselib.ssa.DefUseIndex;
 import org.specs.matisselib.ssa.FunctionBody;
 import org.specs.matisselib.ssa.InstructionType;
 import org.specs.matisselib.ssa.SsaBlock;
@@ -46,65 +48,59 @@ public class DeadCodeEliminationPass extends TypeNeutralSsaPass {
     public void apply(FunctionBody source, DataStore data) {
         Preconditions.checkArgument(source != null);
 
-        Queue<Integer> pendingVariables = new PriorityQueue<>();
-        Map<String, Integer> variableAssignmentIndices = new HashMap<>();
-        List<SsaInstruction> instructions = source.getBlocks()
-                .stream()
-                .flatMap(block -> block.getInstructions().stream())
-                .collect(Collectors.toList());
-
-        for (int currentInstruction = 0; currentInstruction < instructions.size(); ++currentInstruction) {
-            SsaInstruction instruction = instructions.get(currentInstruction);
-
-            for (String output : instruction.getOutputs()) {
-                variableAssignmentIndices.put(output, currentInstruction);
+        Optional<DataProviderService> dataProvider = data.getTry(ProjectPassServices.DATA_PROVIDER);
+        DefUseIndex defUse = dataProvider
+                .map(provider -> provider.buildData(CompilerDataProviders.DEF_USE_INDEX))
+                .orElseGet(source::getDefUseIndex);
+
+        try {
+            removeDeadCode(source, defUse);
+        } finally {
+            if (!dataProvider.isPresent()) {
+                // Before type inference, nothing would invalidate the index after the following passes
+                source.discardDefUseIndex();
             }
+        }
+    }
 
+    private static void removeDeadCode(FunctionBody source, DefUseIndex defUse) {
+        Deque<SsaInstruction> pendingInstructions = new ArrayDeque<>();
+        for (SsaInstruction instruction : source.getFlattenedInstructionsIterable()) {
             assert instruction.getOutputs() != null;
             assert instruction.getOutputs().stream().allMatch(m -> m != null) : "Found null output at " + instruction;
             if (instruction.getInstructionType() != InstructionType.NO_SIDE_EFFECT
                     || instruction.getOutputs().stream().anyMatch(m -> m.endsWith("$ret"))) {
-                pendingVariables.add(currentInstruction);
+                pendingInstructions.add(instruction);
             }
         }
 
         // Consider a directed graph where each node is an instruction and each edge is a data dependency.
         // We start from a set of nodes that can not be removed and find out every reachable node from those
         // using a breadth-first search (though the order is not important).
+        // The definitions come from the def-use index, so no scan of the body is needed to find them.
 
-        boolean[] isUsed = new boolean[instructions.size()];
-        while (!pendingVariables.isEmpty()) {
-            int instructionIndex = pendingVariables.poll();
-            isUsed[instructionIndex] = true;
+        Set<SsaInstruction> usedInstructions = Collections.newSetFromMap(new IdentityHashMap<>());
+        usedInstructions.addAll(pendingInstructions);
+        while (!pendingInstructions.isEmpty()) {
+            SsaInstruction instruction = pendingInstructions.poll();
 
-            SsaInstruction instruction = instructions.get(instructionIndex);
-            for (String output : instruction.getInputVariables()) {
-                assert variableAssignmentIndices.containsKey(output) : "Use of undeclared variable " + output + ", in "
+            for (String input : instruction.getInputVariables()) {
+                SsaInstruction definition = defUse.getDefinition(input).orElse(null);
+                assert definition != null : "Use of undeclared variable " + input + ", in "
                         + instruction + "\n"
                         + "dependencies: " + instruction.getInputVariables() + "\n"
                         + source;
 
-                int sourceIndex = variableAssignmentIndices.get(output);
-                if (!isUsed[sourceIndex]) {
-                    isUsed[sourceIndex] = true;
-                    pendingVariables.add(sourceIndex);
+                if (definition != null && usedInstructions.add(definition)) {
+                    pendingInstructions.add(definition);
                 }
             }
         }
 
         // All instructions not marked as used can be removed.
-        int currentInstruction = 0;
+        // Removing them through the blocks keeps the def-use index up to date.
         for (SsaBlock block : source.getBlocks()) {
-            ListIterator<SsaInstruction> instructionIterator = block.getInstructions().listIterator();
-            while (instructionIterator.hasNext()) {
-                instructionIterator.next();
-
-                if (!isUsed[currentInstruction]) {
-                    instructionIterator.remove();
-                }
-
-                ++currentInstruction;
-            }
+            block.removeInstructionsIf(instruction -> !usedInstructions.contains(instruction));
         }
     }
 
@@ -112,6 +108,17 @@ public class DeadCodeEliminationPass extends TypeNeutralSsaPass {
     public boolean preserveData(DataService<?> key) {
         return PassUtils.approveIn(key,
                 CompilerDataProviders.CONTROL_FLOW_GRAPH,
-                CompilerDataProviders.SIZE_GROUP_INFORMATION);
+                CompilerDataProviders.SIZE_GROUP_INFORMATION,
+                CompilerDataProviders.DEF_USE_INDEX);
+    }
+
+    @Override
+    public boolean isInstanceLocal() {
+        return true;
+    }
+
+    @Override
+    public boolean isIdempotent() {
+        return true;
     }
 }
@@ -13,10 +13,12 @@
 
 package org.specs.matisselib.passes.ssa;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.specs.matisselib.CompilerDataProviders;
@@ -80,4 +82,9 @@ public class FixedAccessPropagationPass extends TypeNeutralSsaPass {
                 // Explicitly invalidated
                 CompilerDataProviders.SIZE_GROUP_INFORMATION);
     }
+
+    @Override
+    public Set<Class<? extends SsaInstruction>> getRelevantInstructionTypes() {
+        return Collections.singleton(FunctionCallInstruction.class);
+    }
 }
@@ -56,4 +56,9 @@ public class ReorderPhiInstructionsPass extends TypeNeutralSsaPass {
                 CompilerDataProviders.SIZE_GROUP_INFORMATION);
     }
 
+    @Override
+    public boolean isInstanceLocal() {
+        return true;
+    }
+
 }
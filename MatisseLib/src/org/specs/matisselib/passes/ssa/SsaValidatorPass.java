@@ -246,4 +246,9 @@ public class SsaValidatorPass extends TypeNeutralSsaPass {
     public boolean preserveData(DataService<?> key) {
         return true;
     }
+
+    @Override
+    public boolean isInstanceLocal() {
+        return true;
+    }
 }
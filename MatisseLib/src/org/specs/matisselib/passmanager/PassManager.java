@@ -24,9 +24,11 @@ import org.specs.MatlabIR.MatlabNodePass.FunctionIdentification;
 import org.specs.MatlabIR.MatlabNodePass.interfaces.MatlabNodePass;
 import org.specs.matisselib.MatisseInit;
 import org.specs.matisselib.MatlabRecipe;
+import org.specs.matisselib.ProjectPassServices;
 import org.specs.matisselib.passmanager.data.DefaultPassManagerData;
 import org.specs.matisselib.passmanager.data.PassManagerData;
 import org.specs.matisselib.services.DirectiveParser;
+import org.specs.matisselib.services.PassProfiler;
 import org.specs.matisselib.services.TokenReportingService;
 import org.specs.matisselib.servicesv2.ScopeService;
 import org.suikasoft.jOptions.Datakey.DataKey;
@@ -191,7 +193,16 @@ public abstract class PassManager implements KeyUser {
         Optional<FunctionIdentification> previous = passData.setFunctionId(Optional.of(functionId));
 
         MatlabUnitNode node = getUnit(functionId, passData);
-        pass.apply(node, passData);
+
+        Optional<PassProfiler> profiler = passData.getTry(ProjectPassServices.PASS_PROFILER);
+        if (profiler.isPresent()) {
+            try (PassProfiler.Measurement measurement = profiler.get().start("ast", pass.getName(),
+                    functionId.toString())) {
+                pass.apply(node, passData);
+            }
+        } else {
+            pass.apply(node, passData);
+        }
 
         passData.setFunctionId(previous);
     }
@@ -15,6 +15,7 @@ package org.specs.matisselib.services;
 
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import org.specs.matisselib.typeinference.TypedInstance;
 import org.suikasoft.jOptions.Interfaces.DataStore;
@@ -23,6 +24,7 @@ public final class DataService<T> {
     private final String name;
     private final BiFunction<TypedInstance, DataStore, T> builder;
     private final Consumer<T> disposer;
+    private final Predicate<T> validator;
 
     public DataService(String name, BiFunction<TypedInstance, DataStore, T> builder) {
         this(name, builder, value -> {
@@ -30,9 +32,21 @@ public final class DataService<T> {
     }
 
     public DataService(String name, BiFunction<TypedInstance, DataStore, T> builder, Consumer<T> disposer) {
+        this(name, builder, disposer, value -> true);
+    }
+
+    /**
+     * 
+     * @param validator
+     *            tells whether a cached value is still valid. Invalid values are discarded and built again, for data
+     *            that can become stale through changes the passes do not report
+     */
+    public DataService(String name, BiFunction<TypedInstance, DataStore, T> builder, Consumer<T> disposer,
+            Predicate<T> validator) {
         this.name = name;
         this.builder = builder;
         this.disposer = disposer;
+        this.validator = validator;
     }
 
     public String getName() {
@@ -47,6 +61,10 @@ public final class DataService<T> {
         disposer.accept(value);
     }
 
+    public boolean isValid(T value) {
+        return validator.test(value);
+    }
+
     @Override
     public String toString() {
         return getName();
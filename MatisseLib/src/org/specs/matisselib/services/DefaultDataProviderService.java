@@ -18,6 +18,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
+import org.specs.matisselib.ProjectPassServices;
+import org.specs.matisselib.services.PassProfiler.DataServiceEvent;
 import org.specs.matisselib.typeinference.PostTypeInferencePass;
 import org.specs.matisselib.typeinference.TypedInstance;
 import org.suikasoft.jOptions.Datakey.DataKey;
@@ -49,11 +51,17 @@ public final class DefaultDataProviderService implements DataProviderService {
 
         Object o = map.get(dataType);
         if (o != null) {
-            return (T) o;
+            if (dataType.isValid((T) o)) {
+                return (T) o;
+            }
+
+            log("Discarding stale " + dataType);
+            invalidate(dataType);
         }
 
         builds.add(dataType, 1);
         log("Built " + dataType.getName() + " " + builds.getCount(dataType) + " times");
+        getProfiler().ifPresent(profiler -> profiler.recordDataServiceEvent(DataServiceEvent.BUILD, dataType));
         T value = dataType.build(instance, dataStore);
         map.put(dataType, value);
         return value;
@@ -64,7 +72,18 @@ public final class DefaultDataProviderService implements DataProviderService {
     public <T> Optional<T> tryGet(DataService<T> dataType) {
         Map map = getMap();
 
-        return Optional.ofNullable((T) map.get(dataType));
+        T value = (T) map.get(dataType);
+        if (value != null && !dataType.isValid(value)) {
+            log("Discarding stale " + dataType);
+            invalidate(dataType);
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(value);
+    }
+
+    private Optional<PassProfiler> getProfiler() {
+        return dataStore.getTry(ProjectPassServices.PASS_PROFILER);
     }
 
     @SuppressWarnings({ "rawtypes" })
@@ -89,7 +108,10 @@ public final class DefaultDataProviderService implements DataProviderService {
                 Object value = map.get(key);
                 log("Invalidating " + key + " due to " + pass);
                 map.remove(key);
-                ((DataService) key).dispose(value);
+
+                getProfiler().ifPresent(profiler -> profiler
+                        .recordDataServiceEvent(DataServiceEvent.INVALIDATION, (DataService<?>) key, pass.getName()));
+                dispose((DataService) key, value, pass.getName());
             }
         }
     }
@@ -102,8 +124,12 @@ public final class DefaultDataProviderService implements DataProviderService {
         log("Invalidating " + dataType + " explicitly.");
         Object value = map.get(dataType);
         if (value != null) {
-            dataType.dispose((T) value);
             map.remove(dataType);
+
+            String passName = getCurrentPass();
+            getProfiler().ifPresent(
+                    profiler -> profiler.recordDataServiceEvent(DataServiceEvent.INVALIDATION, dataType, passName));
+            dispose(dataType, (T) value, passName);
         }
 
     }
@@ -113,12 +139,27 @@ public final class DefaultDataProviderService implements DataProviderService {
     public void close() {
         Map map = getMap();
 
-        for (Object key : map.keySet()) {
-            Object value = map.get(key);
-            ((DataService) key).dispose(value);
+        String passName = getCurrentPass();
+        for (Object key : new ArrayList<>(map.keySet())) {
+            Object value = map.remove(key);
+            dispose((DataService) key, value, passName);
         }
     }
 
+    /**
+     * Releases a value that is no longer cached. Unlike invalidations, this also happens when the provider is closed.
+     */
+    private <T> void dispose(DataService<T> dataType, T value, String passName) {
+        dataType.dispose(value);
+
+        getProfiler().ifPresent(profiler -> profiler.recordDataServiceEvent(DataServiceEvent.DISPOSAL, dataType,
+                passName));
+    }
+
+    private String getCurrentPass() {
+        return getProfiler().map(PassProfiler::getCurrentPass).orElse("");
+    }
+
     private static void log(String message) {
     	if (ENABLE_LOG) {
     		System.err.println(message);
@@ -0,0 +1,313 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.services;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.specs.matisselib.ProjectPassServices;
+
+import pt.up.fe.specs.util.SpecsIo;
+
+/**
+ * Records the cost of each pass applied to each function.
+ *
+ * <p>
+ * For each pass and function, records the wall time, the CPU time and the bytes allocated by the thread that applied
+ * the pass (when supported by the JVM). Also counts the builds, invalidations and disposals of each
+ * {@link DataService}, attributed to the pass that caused them.
+ *
+ * <p>
+ * Passes may be nested (e.g., a pass that requests a new specialization causes passes to be applied to it), so each
+ * thread keeps a stack of the passes being measured. The collapsed stacks report uses the self time of each pass.
+ *
+ * @see ProjectPassServices#PASS_PROFILER
+ */
+public class PassProfiler {
+
+    public enum DataServiceEvent {
+        BUILD,
+        INVALIDATION,
+        DISPOSAL
+    }
+
+    private static final String NO_PASS = "<none>";
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final boolean measureCpu;
+    private final boolean measureAllocations;
+
+    private final ThreadLocal<Deque<Measurement>> activeMeasurements = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final Map<List<String>, PassStats> passStats = new LinkedHashMap<>();
+    private final Map<String, Long> collapsedStacks = new LinkedHashMap<>();
+    private final Map<List<String>, Integer> dataServiceEvents = new LinkedHashMap<>();
+
+    public PassProfiler() {
+        this.measureCpu = threads.isCurrentThreadCpuTimeSupported();
+        this.measureAllocations = threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported();
+    }
+
+    /**
+     * Starts measuring a pass. The measurement is recorded when the returned object is closed, which must happen in
+     * the same thread.
+     *
+     * @param phase
+     *            the kind of pass (e.g., "ast" or "post-type")
+     * @param passName
+     * @param function
+     *            the function the pass is applied to
+     */
+    public Measurement start(String phase, String passName, String function) {
+        Measurement measurement = new Measurement(phase, passName, function);
+        activeMeasurements.get().push(measurement);
+
+        return measurement;
+    }
+
+    /**
+     *
+     * @return the name of the innermost pass being measured in the current thread, if any
+     */
+    public String getCurrentPass() {
+        Measurement measurement = activeMeasurements.get().peek();
+        return measurement == null ? NO_PASS : measurement.passName;
+    }
+
+    /**
+     * Records an event of a data service, attributed to the given pass.
+     */
+    public void recordDataServiceEvent(DataServiceEvent event, DataService<?> service, String passName) {
+        List<String> key = Arrays.asList(event.name(), service.getName(), passName);
+
+        synchronized (this) {
+            dataServiceEvents.merge(key, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Records an event of a data service, attributed to the pass currently being measured in this thread.
+     */
+    public void recordDataServiceEvent(DataServiceEvent event, DataService<?> service) {
+        recordDataServiceEvent(event, service, getCurrentPass());
+    }
+
+    /**
+     *
+     * @return the number of times the given event of the given data service was recorded for the given pass
+     */
+    public synchronized int getDataServiceEventCount(DataServiceEvent event, DataService<?> service,
+            String passName) {
+        return dataServiceEvents.getOrDefault(Arrays.asList(event.name(), service.getName(), passName), 0);
+    }
+
+    private long getCpuTime() {
+        return measureCpu ? threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    private long getAllocatedBytes() {
+        if (!measureAllocations) {
+            return 0;
+        }
+
+        return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private void finish(Measurement measurement, long wallTime, long cpuTime, long allocatedBytes) {
+        Deque<Measurement> stack = activeMeasurements.get();
+        Measurement top = stack.pop();
+        if (top != measurement) {
+            throw new IllegalStateException("Measurements of passes must be closed in the reverse order of start");
+        }
+
+        Measurement parent = stack.peek();
+        if (parent != null) {
+            parent.childrenWallTime += wallTime;
+        }
+
+        StringBuilder stackName = new StringBuilder();
+        for (Iterator<Measurement> it = stack.descendingIterator(); it.hasNext();) {
+            stackName.append(it.next().getFrameName()).append(';');
+        }
+        stackName.append(measurement.getFrameName());
+
+        List<String> key = Arrays.asList(measurement.phase, measurement.passName, measurement.function);
+
+        synchronized (this) {
+            passStats.computeIfAbsent(key, k -> new PassStats())
+                    .add(wallTime, cpuTime, allocatedBytes);
+            collapsedStacks.merge(stackName.toString(), wallTime - measurement.childrenWallTime, Long::sum);
+        }
+    }
+
+    /**
+     * Writes the report as JSON, with one entry per pass and function, and one entry per data service event.
+     */
+    public synchronized void writeJson(File file) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("{\n  \"passes\": [");
+
+        String separator = "\n";
+        for (Map.Entry<List<String>, PassStats> entry : passStats.entrySet()) {
+            List<String> key = entry.getKey();
+            PassStats stats = entry.getValue();
+
+            builder.append(separator);
+            builder.append("    {\"phase\": ").append(toJsonString(key.get(0)));
+            builder.append(", \"pass\": ").append(toJsonString(key.get(1)));
+            builder.append(", \"function\": ").append(toJsonString(key.get(2)));
+            builder.append(", \"count\": ").append(stats.count);
+            builder.append(", \"wallNanos\": ").append(stats.wallTime);
+            builder.append(", \"cpuNanos\": ").append(measureCpu ? Long.toString(stats.cpuTime) : "null");
+            builder.append(", \"allocatedBytes\": ")
+                    .append(measureAllocations ? Long.toString(stats.allocatedBytes) : "null");
+            builder.append("}");
+
+            separator = ",\n";
+        }
+        builder.append("\n  ],\n  \"dataServices\": [");
+
+        separator = "\n";
+        for (Map.Entry<List<String>, Integer> entry : dataServiceEvents.entrySet()) {
+            List<String> key = entry.getKey();
+
+            builder.append(separator);
+            builder.append("    {\"event\": ").append(toJsonString(key.get(0)));
+            builder.append(", \"service\": ").append(toJsonString(key.get(1)));
+            builder.append(", \"pass\": ").append(toJsonString(key.get(2)));
+            builder.append(", \"count\": ").append(entry.getValue());
+            builder.append("}");
+
+            separator = ",\n";
+        }
+        builder.append("\n  ]\n}\n");
+
+        SpecsIo.write(file, builder.toString());
+    }
+
+    /**
+     * Writes the self wall time of each stack of passes, in microseconds, in the collapsed format used by flame graph
+     * tools (one "frame1;frame2;... value" line per stack).
+     */
+    public synchronized void writeCollapsedStacks(File file) {
+        StringBuilder builder = new StringBuilder();
+        collapsedStacks.forEach((stack, time) -> {
+            builder.append(stack);
+            builder.append(' ');
+            builder.append(Math.max(0, time / 1000));
+            builder.append('\n');
+        });
+
+        SpecsIo.write(file, builder.toString());
+    }
+
+    private static String toJsonString(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+            case '"':
+                builder.append("\\\"");
+                break;
+            case '\\':
+                builder.append("\\\\");
+                break;
+            case '\n':
+                builder.append("\\n");
+                break;
+            case '\r':
+                builder.append("\\r");
+                break;
+            case '\t':
+                builder.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    builder.append(String.format("\\u%04x", (int) c));
+                } else {
+                    builder.append(c);
+                }
+            }
+        }
+        builder.append('"');
+
+        return builder.toString();
+    }
+
+    private static class PassStats {
+        int count;
+        long wallTime;
+        long cpuTime;
+        long allocatedBytes;
+
+        void add(long wallTime, long cpuTime, long allocatedBytes) {
+            ++this.count;
+            this.wallTime += wallTime;
+            this.cpuTime += cpuTime;
+            this.allocatedBytes += allocatedBytes;
+        }
+    }
+
+    /**
+     * A pass being measured.
+     */
+    public class Measurement implements AutoCloseable {
+        private final String phase;
+        private final String passName;
+        private final String function;
+        private final long startWallTime;
+        private final long startCpuTime;
+        private final long startAllocatedBytes;
+        private long childrenWallTime;
+        private boolean closed;
+
+        private Measurement(String phase, String passName, String function) {
+            this.phase = Objects.requireNonNull(phase);
+            this.passName = Objects.requireNonNull(passName);
+            this.function = Objects.requireNonNull(function);
+
+            this.startAllocatedBytes = getAllocatedBytes();
+            this.startCpuTime = getCpuTime();
+            this.startWallTime = System.nanoTime();
+        }
+
+        private String getFrameName() {
+            // ';' separates frames and ' ' separates the value, in the collapsed format
+            return (phase + ":" + passName + " " + function).replace(';', ',').replace(' ', '_');
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            long wallTime = System.nanoTime() - startWallTime;
+            long cpuTime = getCpuTime() - startCpuTime;
+            long allocatedBytes = getAllocatedBytes() - startAllocatedBytes;
+
+            finish(this, wallTime, cpuTime, allocatedBytes);
+        }
+    }
+}
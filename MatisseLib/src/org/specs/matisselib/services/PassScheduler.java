@@ -0,0 +1,265 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.services;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.specs.matisselib.ProjectPassServices;
+import org.specs.matisselib.ssa.instructions.SsaInstruction;
+import org.specs.matisselib.typeinference.PostTypeInferencePass;
+import org.specs.matisselib.typeinference.TypedInstance;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Decides which post-type-inference pass applications can be skipped, because they would do nothing.
+ *
+ * <p>
+ * An application is skipped when the instance has no instruction of the kinds the pass acts on (see
+ * {@link PostTypeInferencePass#getRelevantInstructionTypes()}), or when the pass is idempotent (see
+ * {@link PostTypeInferencePass#isIdempotent()}) and the instance did not change since the pass was last applied to it.
+ *
+ * <p>
+ * Changes are detected with {@link TypedInstance#updateChangeTracking()}, which visits every instruction. To keep
+ * that cost low, the instance is only fingerprinted before an idempotent pass, or before the first pass that follows
+ * one (whose fingerprint then gives the state the idempotent pass left the instance in).
+ *
+ * <p>
+ * Groups of passes applied until the instance stops changing (see
+ * {@link #applyUntilUnchanged(List, TypedInstance, Predicate)}) use the same fingerprints, so that changes are
+ * attributed to the right passes.
+ *
+ * <p>
+ * The scheduler may be used by several threads, as long as each instance is only handled by one thread at a time.
+ *
+ * @see ProjectPassServices#PASS_SCHEDULER
+ */
+public class PassScheduler {
+
+    private final int maxFixedPointIterations;
+
+    private final Map<TypedInstance, Map<Class<?>, Integer>> lastExecutions = new IdentityHashMap<>();
+    // Idempotent passes applied to each instance whose resulting modification count is not known yet
+    private final Map<TypedInstance, Set<Class<?>>> pendingExecutions = new IdentityHashMap<>();
+    private final Map<String, int[]> passStats = new LinkedHashMap<>();
+    private int executions;
+    private int skippedExecutions;
+
+    public PassScheduler() {
+        this(1);
+    }
+
+    /**
+     *
+     * @param maxFixedPointIterations
+     *            the maximum number of times a group of passes is applied while the instance keeps changing. 1 means
+     *            that groups are applied once, as a sequence of passes
+     */
+    public PassScheduler(int maxFixedPointIterations) {
+        Preconditions.checkArgument(maxFixedPointIterations > 0,
+                "Expected at least one iteration, got " + maxFixedPointIterations);
+
+        this.maxFixedPointIterations = maxFixedPointIterations;
+    }
+
+    public int getMaxFixedPointIterations() {
+        return maxFixedPointIterations;
+    }
+
+    /**
+     * Checks whether the application of the pass to the instance can be skipped, and counts it as skipped or executed
+     * accordingly.
+     */
+    public boolean shouldSkip(PostTypeInferencePass pass, TypedInstance instance) {
+        if (pass.isIdempotent() || hasPendingExecutions(instance)) {
+            updateChangeTracking(instance);
+        } else if (!pass.getRelevantInstructionTypes().isEmpty()) {
+            instance.updateInstructionCensus();
+        }
+
+        boolean skip = !hasRelevantInstructions(pass, instance)
+                || (pass.isIdempotent() && getLastExecution(pass, instance) == instance.getModificationCount());
+
+        synchronized (this) {
+            int[] stats = passStats.computeIfAbsent(pass.getName(), name -> new int[2]);
+            if (skip) {
+                ++skippedExecutions;
+                ++stats[1];
+            } else {
+                ++executions;
+                ++stats[0];
+            }
+        }
+
+        return skip;
+    }
+
+    private static boolean hasRelevantInstructions(PostTypeInferencePass pass, TypedInstance instance) {
+        Set<Class<? extends SsaInstruction>> relevantTypes = pass.getRelevantInstructionTypes();
+        if (relevantTypes.isEmpty()) {
+            return true;
+        }
+
+        return relevantTypes.stream().anyMatch(instance::containsInstructionOfType);
+    }
+
+    private synchronized int getLastExecution(PostTypeInferencePass pass, TypedInstance instance) {
+        Map<Class<?>, Integer> instanceExecutions = lastExecutions.get(instance);
+        if (instanceExecutions == null) {
+            return -1;
+        }
+
+        return instanceExecutions.getOrDefault(pass.getClass(), -1);
+    }
+
+    private synchronized boolean hasPendingExecutions(TypedInstance instance) {
+        return pendingExecutions.containsKey(instance);
+    }
+
+    /**
+     * Fingerprints the instance, and attributes the resulting state to the idempotent passes applied since the
+     * previous fingerprint.
+     */
+    private void updateChangeTracking(TypedInstance instance) {
+        instance.updateChangeTracking();
+        int modificationCount = instance.getModificationCount();
+
+        synchronized (this) {
+            Set<Class<?>> pendingPasses = pendingExecutions.remove(instance);
+            if (pendingPasses != null) {
+                Map<Class<?>, Integer> instanceExecutions = lastExecutions.computeIfAbsent(instance,
+                        key -> new HashMap<>());
+                for (Class<?> passClass : pendingPasses) {
+                    instanceExecutions.put(passClass, modificationCount);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a group of passes to the instance repeatedly, until an iteration leaves the instance unchanged, or until
+     * the maximum number of iterations is reached.
+     * 
+     * @param applier
+     *            applies a pass to the instance the way the passes of the recipe are applied (i.e., checking
+     *            {@link #shouldSkip(PostTypeInferencePass, TypedInstance)} and calling
+     *            {@link #recordExecution(PostTypeInferencePass, TypedInstance)}), and returns false if it was skipped
+     * @return the number of iterations
+     */
+    public int applyUntilUnchanged(List<PostTypeInferencePass> passes, TypedInstance instance,
+            Predicate<PostTypeInferencePass> applier) {
+
+        if (maxFixedPointIterations > 1) {
+            updateChangeTracking(instance);
+        }
+
+        int iteration = 0;
+        while (iteration < maxFixedPointIterations) {
+            ++iteration;
+            int modificationCount = instance.getModificationCount();
+
+            boolean appliedAny = false;
+            for (PostTypeInferencePass pass : passes) {
+                appliedAny |= applier.test(pass);
+            }
+
+            if (!appliedAny || iteration == maxFixedPointIterations) {
+                // Skipped passes change nothing
+                break;
+            }
+
+            updateChangeTracking(instance);
+            if (instance.getModificationCount() == modificationCount) {
+                break;
+            }
+        }
+
+        return iteration;
+    }
+
+    /**
+     * Records that the pass was applied to the instance. Must be called after the pass is applied.
+     */
+    public void recordExecution(PostTypeInferencePass pass, TypedInstance instance) {
+        if (!pass.isIdempotent()) {
+            // Changes made by the pass are detected by the next fingerprint
+            return;
+        }
+
+        synchronized (this) {
+            pendingExecutions.computeIfAbsent(instance, key -> new HashSet<>())
+                    .add(pass.getClass());
+        }
+    }
+
+    /**
+     * Must be called before the instance is changed by anything other than a pass checked with
+     * {@link #shouldSkip(PostTypeInferencePass, TypedInstance)} (e.g., a pass that is never skipped), so that the
+     * change is not attributed to the idempotent passes applied before it.
+     */
+    public void beforeUnscheduledChange(TypedInstance instance) {
+        if (hasPendingExecutions(instance)) {
+            updateChangeTracking(instance);
+        }
+    }
+
+    public synchronized int getExecutions() {
+        return executions;
+    }
+
+    public synchronized int getSkippedExecutions() {
+        return skippedExecutions;
+    }
+
+    /**
+     *
+     * @return the number of skipped applications of each pass, by pass name
+     */
+    public synchronized Map<String, Integer> getSkippedExecutionsPerPass() {
+        Map<String, Integer> skipped = new LinkedHashMap<>();
+        passStats.forEach((passName, stats) -> skipped.put(passName, stats[1]));
+
+        return skipped;
+    }
+
+    public synchronized String getReport() {
+        StringBuilder report = new StringBuilder();
+
+        report.append("Skipped ");
+        report.append(skippedExecutions);
+        report.append(" of ");
+        report.append(executions + skippedExecutions);
+        report.append(" post-type-inference pass applications");
+
+        passStats.forEach((passName, stats) -> {
+            if (stats[1] != 0) {
+                report.append("\n\t");
+                report.append(passName);
+                report.append(": skipped ");
+                report.append(stats[1]);
+                report.append(" of ");
+                report.append(stats[0] + stats[1]);
+            }
+        });
+
+        return report.toString();
+    }
+}
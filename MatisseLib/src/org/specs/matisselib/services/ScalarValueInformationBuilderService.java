@@ -27,4 +27,12 @@ import org.specs.matisselib.helpers.sizeinfo.ScalarValueInformation;
  */
 public interface ScalarValueInformationBuilderService {
     public ScalarValueInformation build(Function<String, Optional<VariableType>> typeGetter);
+
+    /**
+     * 
+     * @return the time spent in external solvers by the information built by this service, in nanoseconds
+     */
+    public default long getSolverTime() {
+        return 0;
+    }
 }
@@ -13,27 +13,70 @@
 
 package org.specs.matisselib.services;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.specs.MatlabIR.MatlabLanguage.LanguageMode;
+import org.specs.MatlabIR.MatlabNode.MatlabNode;
+import org.specs.MatlabIR.MatlabNode.nodes.core.AccessCallNode;
+import org.specs.MatlabIR.MatlabNode.nodes.core.IdentifierNode;
 import org.specs.MatlabIR.MatlabNode.nodes.root.FileNode;
+import org.specs.MatlabProcessor.MatlabProcessorUtils;
 import org.specs.MatlabProcessor.MatlabParser.MatlabParser;
+import org.specs.MatlabProcessor.MatlabParser.ParsedFileCache;
 
+import com.google.common.base.Preconditions;
+
+import pt.up.fe.specs.util.SpecsIo;
 import pt.up.fe.specs.util.io.SimpleFile;
 import pt.up.fe.specs.util.providers.StringProvider;
 
+/**
+ * Provides the parsed M-files of the project.
+ * 
+ * <p>
+ * By default, each file is parsed when it is first requested. When parallel parsing is enabled, the function
+ * declarations of all files are scanned up front (without parsing the function bodies), and each time a file is parsed,
+ * the files of the functions it may call are parsed in the background.
+ * 
+ * <p>
+ * Apart from the background parses, this service is not thread-safe.
+ */
 public class UserFileProviderService {
 
     private final LanguageMode languageMode;
     private final Map<String, StringProvider> availableFiles;
     private final Map<String, FileNode> parsedFiles;
+    private final Optional<ParsedFileCache> parsedFileCache;
+
+    private ForkJoinPool parsingPool;
+    private final Map<String, ForkJoinTask<FileNode>> pendingParses = new HashMap<>();
+    // Name of the first function declared in each file, or empty for scripts
+    private Map<String, Optional<String>> declaredFunctions;
 
     public UserFileProviderService(LanguageMode languageMode, Map<String, StringProvider> availableFiles) {
+        this(languageMode, availableFiles, Optional.empty());
+    }
+
+    /**
+     * 
+     * @param languageMode
+     * @param availableFiles
+     * @param parsedFileCache
+     *            if present, parsed trees are read from and written to this cache
+     */
+    public UserFileProviderService(LanguageMode languageMode, Map<String, StringProvider> availableFiles,
+            Optional<ParsedFileCache> parsedFileCache) {
+
         this.languageMode = languageMode;
         this.availableFiles = availableFiles;
         this.parsedFiles = new HashMap<>();
+        this.parsedFileCache = parsedFileCache;
     }
 
     /**
@@ -52,15 +95,131 @@ public class UserFileProviderService {
         }
 
         if (availableFiles.containsKey(name)) {
-            FileNode node = new MatlabParser(languageMode).parse(SimpleFile.newInstance(name, availableFiles.get(name)
-                    .getString()));
+            ForkJoinTask<FileNode> pendingParse = pendingParses.remove(name);
+            FileNode node = pendingParse != null ? pendingParse.join() : parse(name, availableFiles.get(name));
             parsedFiles.put(name, node);
+
+            if (parsingPool != null) {
+                prefetchCallees(node);
+            }
+
             return Optional.of(node);
         }
 
         return Optional.empty();
     }
 
+    private FileNode parse(String name, StringProvider code) {
+        SimpleFile file = SimpleFile.newInstance(name, code.getString());
+
+        return parsedFileCache
+                .map(cache -> cache.parse(file, languageMode))
+                .orElseGet(() -> new MatlabParser(languageMode).parse(file));
+    }
+
+    /**
+     * Starts parsing the files whose names match identifiers used in the given file, since they are likely to be
+     * requested soon.
+     */
+    private void prefetchCallees(FileNode node) {
+        node.getDescendantsStream()
+                .map(UserFileProviderService::getReferencedName)
+                .filter(Optional::isPresent)
+                .map(referencedName -> referencedName.get() + ".m")
+                .distinct()
+                .forEach(this::prefetch);
+    }
+
+    private static Optional<String> getReferencedName(MatlabNode node) {
+        if (node instanceof IdentifierNode) {
+            return Optional.of(((IdentifierNode) node).getName());
+        }
+        if (node instanceof AccessCallNode) {
+            return Optional.of(((AccessCallNode) node).getName());
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Starts parsing the given file in the background, if parallel parsing is enabled and the file was not parsed yet.
+     */
+    public void prefetch(String name) {
+        Preconditions.checkArgument(name != null);
+
+        if (parsingPool == null || parsedFiles.containsKey(name) || pendingParses.containsKey(name)) {
+            return;
+        }
+
+        StringProvider code = availableFiles.get(name);
+        if (code == null) {
+            return;
+        }
+
+        pendingParses.put(name, parsingPool.submit(() -> parse(name, code)));
+    }
+
+    /**
+     * Scans the function declarations of all available files and enables background parsing.
+     * 
+     * @param threads
+     *            the number of threads used to parse files
+     */
+    public void enableParallelParsing(int threads) {
+        Preconditions.checkArgument(threads > 1, "Expected more than one thread, got " + threads);
+        Preconditions.checkState(parsingPool == null, "Parallel parsing is already enabled");
+
+        parsingPool = new ForkJoinPool(threads);
+
+        List<String> names = new ArrayList<>(availableFiles.keySet());
+        List<StringProvider> codes = new ArrayList<>();
+        List<ForkJoinTask<Optional<String>>> tasks = new ArrayList<>();
+        for (String name : names) {
+            StringProvider code = availableFiles.get(name);
+            codes.add(code);
+            tasks.add(parsingPool.submit(() -> MatlabProcessorUtils.getFunctionName(code.getString(), languageMode)));
+        }
+
+        declaredFunctions = new HashMap<>();
+        for (int i = 0; i < names.size(); ++i) {
+            declaredFunctions.put(names.get(i), tasks.get(i).join());
+        }
+    }
+
+    /**
+     * Checks, without parsing the file, whether the main unit of the given file has the given name. Only available
+     * when parallel parsing is enabled.
+     * 
+     * @return true if the file is known to have a main unit with the given name. False if it does not, or if it is not
+     *         known.
+     */
+    public boolean hasMainUnit(String fileName, String unitName) {
+        Preconditions.checkArgument(fileName != null);
+        Preconditions.checkArgument(unitName != null);
+
+        if (declaredFunctions == null) {
+            return false;
+        }
+
+        Optional<String> declaredFunction = declaredFunctions.get(fileName);
+        if (declaredFunction == null) {
+            return false;
+        }
+
+        // Scripts have no declaration, and their main unit is named after the file
+        return declaredFunction.orElse(SpecsIo.removeExtension(fileName)).equals(unitName);
+    }
+
+    /**
+     * Stops the background parses, if any.
+     */
+    public void close() {
+        if (parsingPool != null) {
+            parsingPool.shutdownNow();
+            pendingParses.clear();
+        }
+    }
+
     /**
      * Helper method which throws an exception if file is not found.
      * 
@@ -74,5 +233,10 @@ public class UserFileProviderService {
 
     public void addResourceFile(String name, StringProvider codeProvider) {
         availableFiles.put(name, codeProvider);
+
+        if (declaredFunctions != null) {
+            // Not scanned, so it is parsed when needed
+            declaredFunctions.remove(name);
+        }
     }
 }
@@ -17,15 +17,39 @@ import java.util.Optional;
 import java.util.function.Function;
 
 import org.specs.CIR.Types.VariableType;
+import org.specs.matisselib.DataStoreOwned;
 import org.specs.matisselib.helpers.sizeinfo.ScalarValueInformation;
 import org.specs.matisselib.helpers.sizeinfo.Z3ScalarValueInformation;
+import org.specs.matisselib.helpers.sizeinfo.Z3SolverSession;
 import org.specs.matisselib.services.ScalarValueInformationBuilderService;
 
-public class Z3ScalarValueInformationBuilderService implements ScalarValueInformationBuilderService {
+/**
+ * Builds Z3-backed information. All information built by the same service (e.g., for the same function instance)
+ * share a single Z3 context and solver.
+ */
+public class Z3ScalarValueInformationBuilderService implements ScalarValueInformationBuilderService, DataStoreOwned {
+
+    private Z3SolverSession session;
 
     @Override
     public ScalarValueInformation build(Function<String, Optional<VariableType>> typeGetter) {
-	return new Z3ScalarValueInformation(typeGetter);
+        if (session == null) {
+            session = new Z3SolverSession();
+        }
+
+        return Z3ScalarValueInformation.newInstance(typeGetter, session);
     }
 
+    @Override
+    public long getSolverTime() {
+        return session == null ? 0 : session.getSolverTime();
+    }
+
+    @Override
+    public void close() {
+        if (session != null) {
+            session.removeRef();
+            session = null;
+        }
+    }
 }
@@ -0,0 +1,196 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.ssa;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.specs.matisselib.CompilerDataProviders;
+import org.specs.matisselib.ssa.instructions.SsaInstruction;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Definitions and uses of the variables of a function body.
+ *
+ * <p>
+ * The index is owned by the FunctionBody (see {@link FunctionBody#getDefUseIndex()}), and is kept up to date by the
+ * mutators of SsaBlock and FunctionBody. Changes that bypass them, such as modifying the list returned by
+ * {@link SsaBlock#getInstructions()} or modifying an instruction in place, are not seen by the index. Passes should
+ * obtain it through {@link CompilerDataProviders#DEF_USE_INDEX}, so that it is discarded after passes that do not
+ * preserve it.
+ *
+ * @see CompilerDataProviders#DEF_USE_INDEX
+ */
+public final class DefUseIndex {
+    private final FunctionBody body;
+    private final Map<String, SsaInstruction> definitions = new HashMap<>();
+    // An instruction that uses a variable more than once appears more than once
+    private final Map<String, List<SsaInstruction>> uses = new HashMap<>();
+    private final Map<SsaInstruction, SsaBlock> instructionBlocks = new IdentityHashMap<>();
+    private final Map<SsaBlock, Boolean> attachedBlocks = new IdentityHashMap<>();
+    private boolean detached;
+
+    DefUseIndex(FunctionBody body) {
+        this.body = body;
+
+        for (SsaBlock block : body.getBlocks()) {
+            addBlock(block);
+        }
+    }
+
+    public FunctionBody getBody() {
+        return this.body;
+    }
+
+    /**
+     *
+     * @return the instruction that defines the variable, or empty if the variable is not defined in the body (e.g.
+     *         function arguments)
+     */
+    public Optional<SsaInstruction> getDefinition(String variable) {
+        return Optional.ofNullable(this.definitions.get(variable));
+    }
+
+    /**
+     *
+     * @return the block that contains the instruction, or empty if the instruction is not in the body
+     */
+    public Optional<SsaBlock> getBlock(SsaInstruction instruction) {
+        return Optional.ofNullable(this.instructionBlocks.get(instruction));
+    }
+
+    /**
+     *
+     * @return the instructions that use the variable, once per use
+     */
+    public List<SsaInstruction> getUses(String variable) {
+        List<SsaInstruction> variableUses = this.uses.get(variable);
+        if (variableUses == null) {
+            return Collections.emptyList();
+        }
+
+        return Collections.unmodifiableList(variableUses);
+    }
+
+    /**
+     * Gets the number of uses of the variable, with the same convention as UsageMap: outputs of the function ($ret
+     * variables) count as one additional use, since they are read by the caller.
+     */
+    public int getUseCount(String variable) {
+        List<SsaInstruction> variableUses = this.uses.get(variable);
+        int useCount = variableUses == null ? 0 : variableUses.size();
+
+        if (variable.endsWith("$ret") && this.definitions.containsKey(variable)) {
+            ++useCount;
+        }
+
+        return useCount;
+    }
+
+    public boolean isUsed(String variable) {
+        return getUseCount(variable) != 0;
+    }
+
+    void addBlock(SsaBlock block) {
+        block.setDefUseIndex(this);
+        this.attachedBlocks.put(block, Boolean.TRUE);
+
+        for (SsaInstruction instruction : block.getInstructions()) {
+            add(block, instruction);
+        }
+    }
+
+    void removeBlock(SsaBlock block) {
+        for (SsaInstruction instruction : block.getInstructions()) {
+            remove(instruction);
+        }
+
+        this.attachedBlocks.remove(block);
+        block.setDefUseIndex(null);
+    }
+
+    void add(SsaBlock block, SsaInstruction instruction) {
+        Preconditions.checkArgument(instruction != null);
+
+        this.instructionBlocks.put(instruction, block);
+
+        for (String output : instruction.getOutputs()) {
+            this.definitions.put(output, instruction);
+        }
+
+        for (String input : instruction.getInputVariables()) {
+            this.uses.computeIfAbsent(input, variable -> new ArrayList<>()).add(instruction);
+        }
+    }
+
+    void remove(SsaInstruction instruction) {
+        if (this.instructionBlocks.remove(instruction) == null) {
+            return;
+        }
+
+        for (String output : instruction.getOutputs()) {
+            this.definitions.remove(output, instruction);
+        }
+
+        for (String input : instruction.getInputVariables()) {
+            List<SsaInstruction> variableUses = this.uses.get(input);
+            if (variableUses == null) {
+                continue;
+            }
+
+            for (int i = 0; i < variableUses.size(); ++i) {
+                if (variableUses.get(i) == instruction) {
+                    variableUses.remove(i);
+                    break;
+                }
+            }
+
+            if (variableUses.isEmpty()) {
+                this.uses.remove(input);
+            }
+        }
+    }
+
+    /**
+     * Stops tracking the blocks of the body.
+     */
+    void detach() {
+        for (SsaBlock block : this.attachedBlocks.keySet()) {
+            block.setDefUseIndex(null);
+        }
+
+        this.attachedBlocks.clear();
+        this.detached = true;
+    }
+
+    /**
+     *
+     * @return true if the body discarded this index (e.g., because its blocks were replaced), so it is no longer kept
+     *         up to date
+     */
+    public boolean isDetached() {
+        return this.detached;
+    }
+
+    @Override
+    public String toString() {
+        return "[DefUseIndex " + this.definitions.size() + " definitions, " + this.uses.size() + " used variables]";
+    }
+}
@@ -42,6 +42,12 @@ public class FunctionBody {
 
     private final Map<String, Integer> temporaries = new HashMap<>();
 
+    private DefUseIndex defUseIndex;
+    private final VariableSymbolTable symbols = new VariableSymbolTable();
+
+    // See getModificationCount()
+    private int modificationCount;
+
     public FunctionBody(String functionName, int firstLine, List<String> argumentNames, List<String> outputNames) {
         this.functionName = functionName;
         this.firstLine = firstLine;
@@ -80,6 +86,10 @@ public class FunctionBody {
         Preconditions.checkArgument(!this.blocks.contains(block));
 
         this.blocks.add(0, block);
+        ++this.modificationCount;
+        if (this.defUseIndex != null) {
+            this.defUseIndex.addBlock(block);
+        }
     }
 
     public int addBlock(SsaBlock block) {
@@ -87,6 +97,10 @@ public class FunctionBody {
         Preconditions.checkArgument(!this.blocks.contains(block));
 
         this.blocks.add(block);
+        ++this.modificationCount;
+        if (this.defUseIndex != null) {
+            this.defUseIndex.addBlock(block);
+        }
 
         return this.blocks.size() - 1;
     }
@@ -139,7 +153,9 @@ public class FunctionBody {
     public void setBlocks(List<SsaBlock> blocks) {
         Preconditions.checkArgument(blocks != null);
 
+        discardDefUseIndex();
         this.blocks = new ArrayList<>(blocks);
+        ++this.modificationCount;
     }
 
     public SsaBlock getBlock(int index) {
@@ -209,7 +225,11 @@ public class FunctionBody {
         Preconditions.checkArgument(blockId != 0);
         Preconditions.checkArgument(blockId < this.blocks.size());
 
-        this.blocks.remove(blockId);
+        SsaBlock removedBlock = this.blocks.remove(blockId);
+        ++this.modificationCount;
+        if (this.defUseIndex != null) {
+            this.defUseIndex.removeBlock(removedBlock);
+        }
     }
 
     public void removeBlocks(List<Integer> blockIds) {
@@ -317,8 +337,7 @@ public class FunctionBody {
         Preconditions.checkArgument(instruction != null);
 
         getBlock(location.getBlockId())
-                .getInstructions()
-                .set(location.getInstructionId(), instruction);
+                .replaceInstructionAt(location.getInstructionId(), instruction);
     }
 
     public int getLineFromBlock(SsaInstruction source, int currentBlock, int lastLine) {
@@ -351,6 +370,7 @@ public class FunctionBody {
 
     public void addProperty(FunctionProperty property) {
         this.properties.add(property);
+        ++this.modificationCount;
     }
 
     public <T extends FunctionProperty> Stream<T> getPropertyStream(Class<T> cls) {
@@ -370,6 +390,46 @@ public class FunctionBody {
         getBlock(instructionLocation.getBlockId()).removeInstructionAt(instructionLocation.getInstructionId());
     }
 
+    /**
+     * Gets the def-use index of this body, building it if needed. The index is then kept up to date by the mutators of
+     * the body and of its blocks, until {@link #discardDefUseIndex()} is called.
+     * 
+     * @see DefUseIndex
+     */
+    public DefUseIndex getDefUseIndex() {
+        if (this.defUseIndex == null) {
+            this.defUseIndex = new DefUseIndex(this);
+        }
+
+        return this.defUseIndex;
+    }
+
+    public boolean hasDefUseIndex() {
+        return this.defUseIndex != null;
+    }
+
+    /**
+     * Discards the def-use index, e.g. after the instructions were modified in ways the index can not see.
+     */
+    public void discardDefUseIndex() {
+        if (this.defUseIndex != null) {
+            this.defUseIndex.detach();
+            this.defUseIndex = null;
+        }
+    }
+
+    /**
+     * Gets the interned symbol of a variable name. Symbols are only valid within this body (copies of the body have
+     * their own symbols).
+     */
+    public VariableSymbol getSymbol(String variableName) {
+        return this.symbols.intern(variableName);
+    }
+
+    public VariableSymbolTable getSymbolTable() {
+        return this.symbols;
+    }
+
     public int getNumInputs() {
         return argumentNames.size();
     }
@@ -413,6 +473,16 @@ public class FunctionBody {
         Preconditions.checkState(!isByRef(variableName));
 
         byRefVariables.add(variableName);
+        ++this.modificationCount;
+    }
+
+    /**
+     * 
+     * @return a counter that changes whenever blocks are added, removed or replaced, or properties or %!by_ref
+     *         variables are added. Changes inside the blocks are counted by {@link SsaBlock#getModificationCount()}.
+     */
+    public int getModificationCount() {
+        return this.modificationCount;
     }
 
     /**
@@ -17,6 +17,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.specs.matisselib.ssa.instructions.AssignmentInstruction;
@@ -26,30 +27,60 @@ import org.specs.matisselib.ssa.instructions.SsaInstruction;
 import com.google.common.base.Preconditions;
 
 public class SsaBlock {
-    private final List<SsaInstruction> instructions = new ArrayList<>();
+    private final InstructionList instructions = new InstructionList();
+    // Set while the block belongs to a body whose index is built
+    private DefUseIndex defUseIndex;
+
+    void setDefUseIndex(DefUseIndex defUseIndex) {
+        this.defUseIndex = defUseIndex;
+    }
+
+    private void indexAdded(SsaInstruction instruction) {
+        if (this.defUseIndex != null) {
+            this.defUseIndex.add(this, instruction);
+        }
+    }
+
+    private void indexAdded(List<SsaInstruction> instructions) {
+        if (this.defUseIndex != null) {
+            for (SsaInstruction instruction : instructions) {
+                this.defUseIndex.add(this, instruction);
+            }
+        }
+    }
+
+    private void indexRemoved(SsaInstruction instruction) {
+        if (this.defUseIndex != null) {
+            this.defUseIndex.remove(instruction);
+        }
+    }
 
     public void addInstruction(SsaInstruction instruction) {
         Preconditions.checkArgument(instruction != null);
 
         this.instructions.add(instruction);
+        indexAdded(instruction);
     }
 
     public void addInstructions(List<SsaInstruction> instructions) {
         Preconditions.checkArgument(instructions != null);
 
         this.instructions.addAll(instructions);
+        indexAdded(instructions);
     }
 
     public void prependInstruction(SsaInstruction instruction) {
         Preconditions.checkArgument(instruction != null);
 
         this.instructions.add(0, instruction);
+        indexAdded(instruction);
     }
 
     public void prependInstructions(List<SsaInstruction> instructions) {
         Preconditions.checkArgument(instructions != null);
 
         this.instructions.addAll(0, instructions);
+        indexAdded(instructions);
     }
 
     public void insertInstruction(int index, SsaInstruction instruction) {
@@ -57,6 +88,7 @@ public class SsaBlock {
         Preconditions.checkArgument(instruction != null);
 
         this.instructions.add(index, instruction);
+        indexAdded(instruction);
     }
 
     public void insertInstructions(int index, List<SsaInstruction> instructions) {
@@ -64,12 +96,23 @@ public class SsaBlock {
         Preconditions.checkArgument(instructions != null);
 
         this.instructions.addAll(index, instructions);
+        indexAdded(instructions);
     }
 
     public List<SsaInstruction> getInstructions() {
         return this.instructions;
     }
 
+    /**
+     * 
+     * @return a counter that changes whenever instructions are added, removed, replaced or reordered, including
+     *         through the list returned by {@link #getInstructions()}. Changes to the instructions themselves are not
+     *         counted.
+     */
+    public int getModificationCount() {
+        return this.instructions.getModificationCount();
+    }
+
     public boolean isEmpty() {
         return this.instructions.isEmpty();
     }
@@ -86,23 +129,30 @@ public class SsaBlock {
         Preconditions.checkArgument(newNames != null);
 
         for (SsaInstruction instruction : getInstructions()) {
+            indexRemoved(instruction);
             instruction.renameVariables(newNames);
+            indexAdded(instruction);
         }
     }
 
     public void replaceInstructionAt(int instructionId, List<SsaInstruction> instructionsToInsert) {
-        this.instructions.remove(instructionId);
+        indexRemoved(this.instructions.remove(instructionId));
         this.instructions.addAll(instructionId, instructionsToInsert);
+        indexAdded(instructionsToInsert);
     }
 
     public void replaceInstructionAt(int instructionId, SsaInstruction newInstruction) {
-        this.instructions.set(instructionId, newInstruction);
+        indexRemoved(this.instructions.set(instructionId, newInstruction));
+        indexAdded(newInstruction);
     }
 
     public SsaInstruction removeLastInstruction() {
         Preconditions.checkState(this.instructions.size() > 0);
 
-        return this.instructions.remove(this.instructions.size() - 1);
+        SsaInstruction removedInstruction = this.instructions.remove(this.instructions.size() - 1);
+        indexRemoved(removedInstruction);
+
+        return removedInstruction;
     }
 
     public void removeInstructionsFrom(int instructionId) {
@@ -110,7 +160,7 @@ public class SsaBlock {
         Preconditions.checkArgument(instructionId < this.instructions.size());
 
         while (this.instructions.size() > instructionId) {
-            this.instructions.remove(this.instructions.size() - 1);
+            indexRemoved(this.instructions.remove(this.instructions.size() - 1));
         }
     }
 
@@ -165,7 +215,7 @@ public class SsaBlock {
     }
 
     public void removeInstructionAt(int instructionId) {
-        this.instructions.remove(instructionId);
+        indexRemoved(this.instructions.remove(instructionId));
     }
 
     // Helper operations
@@ -195,6 +245,41 @@ public class SsaBlock {
     }
 
     public void removeInstructions(List<SsaInstruction> instructionsToRemove) {
-        instructions.removeAll(instructionsToRemove);
+        removeInstructionsIf(instructionsToRemove::contains);
+    }
+
+    /**
+     * Removes the instructions that match the predicate, which is evaluated once per instruction, in order.
+     */
+    public void removeInstructionsIf(Predicate<SsaInstruction> filter) {
+        Preconditions.checkArgument(filter != null);
+
+        instructions.removeIf(instruction -> {
+            if (filter.test(instruction)) {
+                indexRemoved(instruction);
+                return true;
+            }
+
+            return false;
+        });
+    }
+
+    /**
+     * ArrayList already counts structural modifications, but not the replacement of an element.
+     */
+    private static class InstructionList extends ArrayList<SsaInstruction> {
+        private static final long serialVersionUID = 1L;
+
+        private int replacements;
+
+        @Override
+        public SsaInstruction set(int index, SsaInstruction element) {
+            ++replacements;
+            return super.set(index, element);
+        }
+
+        int getModificationCount() {
+            return modCount + replacements;
+        }
     }
 }
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.ssa;
+
+/**
+ * Interned name of an SSA variable.
+ *
+ * <p>
+ * Symbols are created by a {@link VariableSymbolTable}, which returns the same object for the same name, so they can be
+ * compared by identity and indexed by their dense integer ID. The properties encoded in the name (e.g., the $ret
+ * suffix) are computed once, when the symbol is created.
+ *
+ * @see FunctionBody#getSymbol(String)
+ */
+public final class VariableSymbol {
+    private static final int RETURN = 1;
+    private static final int GLOBAL = 2;
+    private static final int TEMPORARY = 4;
+
+    private final int id;
+    private final String name;
+    private final int flags;
+
+    VariableSymbol(int id, String name) {
+        this.id = id;
+        this.name = name;
+
+        int flags = 0;
+        if (name.endsWith("$ret")) {
+            flags |= RETURN;
+        }
+        if (name.startsWith("^")) {
+            flags |= GLOBAL;
+        }
+        if (name.startsWith("$")) {
+            flags |= TEMPORARY;
+        }
+        this.flags = flags;
+    }
+
+    /**
+     *
+     * @return the index of this symbol in its table
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     *
+     * @return true if the variable is an output of the function (e.g., y$ret)
+     */
+    public boolean isReturn() {
+        return (this.flags & RETURN) != 0;
+    }
+
+    /**
+     *
+     * @return true if the name refers to a global variable (e.g., ^x)
+     */
+    public boolean isGlobal() {
+        return (this.flags & GLOBAL) != 0;
+    }
+
+    /**
+     *
+     * @return true if the variable was created by {@link FunctionBody#makeTemporary(String)}
+     */
+    public boolean isTemporary() {
+        return (this.flags & TEMPORARY) != 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.id;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.ssa;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Interns variable names as {@link VariableSymbol}s with dense IDs, starting at 0.
+ *
+ * <p>
+ * Symbols are never removed, so IDs remain valid even after the variable is renamed or removed from the function.
+ */
+public final class VariableSymbolTable {
+    private final Map<String, VariableSymbol> symbolsByName = new HashMap<>();
+    private final List<VariableSymbol> symbols = new ArrayList<>();
+
+    /**
+     *
+     * @return the symbol of the given name, creating it if necessary
+     */
+    public VariableSymbol intern(String name) {
+        Preconditions.checkArgument(name != null);
+
+        VariableSymbol symbol = this.symbolsByName.get(name);
+        if (symbol == null) {
+            symbol = new VariableSymbol(this.symbols.size(), name);
+            this.symbolsByName.put(name, symbol);
+            this.symbols.add(symbol);
+        }
+
+        return symbol;
+    }
+
+    public Optional<VariableSymbol> tryGet(String name) {
+        Preconditions.checkArgument(name != null);
+
+        return Optional.ofNullable(this.symbolsByName.get(name));
+    }
+
+    public VariableSymbol get(int id) {
+        return this.symbols.get(id);
+    }
+
+    /**
+     *
+     * @return the number of symbols, which is also the ID the next symbol will have
+     */
+    public int size() {
+        return this.symbols.size();
+    }
+
+    @Override
+    public String toString() {
+        return "[VariableSymbolTable " + this.symbols + "]";
+    }
+}
@@ -188,4 +188,9 @@ public class ForInstruction extends SsaInstruction {
     public void addLoopProperty(LoopProperty property) {
         loopProperties.add(property);
     }
+
+    @Override
+    public int getStateHash() {
+        return 31 * super.getStateHash() + loopProperties.hashCode();
+    }
 }
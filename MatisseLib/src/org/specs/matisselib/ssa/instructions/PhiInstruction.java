@@ -162,4 +162,9 @@ public final class PhiInstruction extends SsaInstruction {
     public List<Integer> getOwnedBlocks() {
 	return Collections.emptyList();
     }
+
+    @Override
+    public int getStateHash() {
+	return 31 * super.getStateHash() + this.sourceBlocks.hashCode();
+    }
 }
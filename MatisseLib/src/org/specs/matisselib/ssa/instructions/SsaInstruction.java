@@ -128,4 +128,21 @@ public abstract class SsaInstruction {
     public abstract void breakBlock(int originalBlock, int startBlock, int endBlock);
 
     public abstract List<Integer> getOwnedBlocks();
+
+    /**
+     * A hash of the state of the instruction that passes may modify in place: the variables and the blocks it refers
+     * to. Used to detect changes without printing the instruction. Instructions with other state that can be modified
+     * in place must include it.
+     * 
+     * @see org.specs.matisselib.typeinference.TypedInstance#updateChangeTracking()
+     */
+    public int getStateHash() {
+        int hash = getInputVariables().hashCode();
+        hash = 31 * hash + getOutputs().hashCode();
+        hash = 31 * hash + getTargetBlocks().hashCode();
+        hash = 31 * hash + getOwnedBlocks().hashCode();
+        hash = 31 * hash + tryGetEndBlock().hashCode();
+
+        return hash;
+    }
 }
@@ -13,7 +13,12 @@
 
 package org.specs.matisselib.typeinference;
 
+import java.util.Collections;
+import java.util.Set;
+
 import org.specs.matisselib.services.DataService;
+import org.specs.matisselib.services.PassScheduler;
+import org.specs.matisselib.ssa.instructions.SsaInstruction;
 import org.suikasoft.jOptions.Interfaces.DataStore;
 import org.suikasoft.jOptions.Interfaces.DataView;
 
@@ -32,6 +37,45 @@ public interface PostTypeInferencePass {
         return false;
     }
 
+    /**
+     * Indicates whether this pass only reads and modifies the instance it is applied to (and its pass data).
+     * 
+     * <p>
+     * Instance-local passes must be thread-safe, must not request new specializations and must not use shared
+     * services, so that they can be applied to several instances concurrently. Passes that override
+     * {@link #apply(TypedInstanceStateList)} are never applied concurrently.
+     * 
+     * @return true if the pass can be applied to multiple instances in parallel
+     */
+    default boolean isInstanceLocal() {
+        return false;
+    }
+
+    /**
+     * The kinds of instruction this pass acts on. When a {@link PassScheduler} is used, the pass is not applied to
+     * instances without any instruction of these kinds.
+     * 
+     * @return the relevant instruction classes (including subclasses), or an empty set if the pass may do something
+     *         regardless of which instructions are present
+     */
+    default Set<Class<? extends SsaInstruction>> getRelevantInstructionTypes() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Indicates whether applying this pass to an instance that did not change since this pass (or another instance of
+     * the same pass class) was last applied to it does nothing. When a {@link PassScheduler} is used, such
+     * applications are skipped.
+     * 
+     * <p>
+     * Passes whose result depends on their parameters, on other instances or on services must not declare this.
+     * 
+     * @return true if the pass reaches a fixed point in a single application
+     */
+    default boolean isIdempotent() {
+        return false;
+    }
+
     default void apply(TypedInstanceStateList instances) {
         for (TypedInstanceContext context : instances) {
             apply(context.instance, context.passData);
@@ -41,6 +41,9 @@ import com.google.common.base.Preconditions;
 import pt.up.fe.specs.util.providers.StringProvider;
 
 public final class TypedInstance {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
     private final FunctionIdentification functionIdentification;
     private final List<String> inputNames;
     private FunctionType functionType;
@@ -49,6 +52,14 @@ public final class TypedInstance {
     private final Map<String, VariableType> variableTypes = new HashMap<>();
     private final StringProvider codeProvider;
 
+    // See updateChangeTracking() and updateInstructionCensus()
+    private int typesModificationCount;
+    private int functionTypeModificationCount;
+    private int modificationCount;
+    private boolean isTracked;
+    private long trackedFingerprint;
+    private Map<Class<?>, Integer> instructionCensus;
+
     public TypedInstance(FunctionIdentification functionIdentification,
             List<String> inputNames,
             FunctionBody functionBody,
@@ -71,6 +82,9 @@ public final class TypedInstance {
     public void setFunctionType(FunctionType functionType) {
         Preconditions.checkArgument(functionType != null);
 
+        if (functionType != this.functionType) {
+            ++functionTypeModificationCount;
+        }
         this.functionType = functionType;
     }
 
@@ -95,7 +109,10 @@ public final class TypedInstance {
         Preconditions.checkArgument(variableName != null);
         Preconditions.checkArgument(variableType != null);
 
-        variableTypes.put(variableName, variableType);
+        VariableType previousType = variableTypes.put(variableName, variableType);
+        if (variableType != previousType) {
+            ++typesModificationCount;
+        }
     }
 
     public String makeTemporary(String semantics, VariableType variableType) {
@@ -243,6 +260,7 @@ public final class TypedInstance {
             if (type != null) {
                 variableTypes.remove(key);
                 variableTypes.put(newNames.get(key), type);
+                ++typesModificationCount;
             }
         }
     }
@@ -290,4 +308,103 @@ public final class TypedInstance {
     public void breakBlock(int originalBlock, int startBlock, int endBlock) {
         getFunctionBody().breakBlock(originalBlock, startBlock, endBlock);
     }
+
+    /**
+     * Updates the modification count and the instruction census of this instance.
+     * 
+     * <p>
+     * Changes to the variable types, the function type, the block list and the instruction lists are seen through
+     * modification counters. Instructions can also be modified in place, so the identity and the
+     * {@link SsaInstruction#getStateHash() state hash} of each instruction are combined with the counters, and
+     * compared with the result of the previous update. Properties are few, so their contents are hashed. Nothing is
+     * printed, so this costs about as much as a pass that visits every instruction once.
+     * 
+     * <p>
+     * Also updates the instruction census (see {@link #updateInstructionCensus()}).
+     * 
+     * @return true if the instance changed since the previous update, or if this is the first update
+     */
+    public boolean updateChangeTracking() {
+        Map<Class<?>, Integer> census = new HashMap<>();
+        long fingerprint = FNV_OFFSET;
+
+        for (SsaBlock block : getBlocks()) {
+            fingerprint = fingerprint(fingerprint, System.identityHashCode(block));
+            fingerprint = fingerprint(fingerprint, block.getModificationCount());
+            for (SsaInstruction instruction : block.getInstructions()) {
+                census.merge(instruction.getClass(), 1, Integer::sum);
+                fingerprint = fingerprint(fingerprint, System.identityHashCode(instruction));
+                fingerprint = fingerprint(fingerprint, instruction.getStateHash());
+            }
+        }
+
+        fingerprint = fingerprint(fingerprint, functionBody.getModificationCount());
+        fingerprint = fingerprint(fingerprint, typesModificationCount);
+        fingerprint = fingerprint(fingerprint, functionTypeModificationCount);
+        for (FunctionProperty property : functionBody.getProperties()) {
+            fingerprint = fingerprint(fingerprint, property.getClass().hashCode());
+            fingerprint = fingerprint(fingerprint, property.toString().hashCode());
+        }
+
+        boolean changed = !isTracked || fingerprint != trackedFingerprint;
+        if (changed && isTracked) {
+            ++modificationCount;
+        }
+
+        isTracked = true;
+        trackedFingerprint = fingerprint;
+        instructionCensus = census;
+
+        return changed;
+    }
+
+    /**
+     * Updates the instruction census of this instance, without checking whether the instance changed.
+     */
+    public void updateInstructionCensus() {
+        Map<Class<?>, Integer> census = new HashMap<>();
+        for (SsaBlock block : getBlocks()) {
+            for (SsaInstruction instruction : block.getInstructions()) {
+                census.merge(instruction.getClass(), 1, Integer::sum);
+            }
+        }
+
+        instructionCensus = census;
+    }
+
+    private static long fingerprint(long fingerprint, int value) {
+        // FNV-1a, one byte at a time
+        for (int shift = 0; shift < 32; shift += 8) {
+            fingerprint ^= (value >>> shift) & 0xff;
+            fingerprint *= FNV_PRIME;
+        }
+
+        return fingerprint;
+    }
+
+    /**
+     * 
+     * @return the number of changes detected by {@link #updateChangeTracking()}
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Checks the instruction census computed by the last call to {@link #updateInstructionCensus()} or
+     * {@link #updateChangeTracking()}.
+     * 
+     * @return true if the instance had an instruction of the given class, or of a subclass
+     */
+    public boolean containsInstructionOfType(Class<? extends SsaInstruction> type) {
+        Preconditions.checkState(instructionCensus != null, "Instruction census was never updated");
+
+        for (Class<?> instructionType : instructionCensus.keySet()) {
+            if (type.isAssignableFrom(instructionType)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
 }
@@ -14,35 +14,38 @@
 package org.specs.matisselib.unssa;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import com.google.common.base.Preconditions;
 
-import pt.up.fe.specs.util.collections.MultiMap;
-
+/**
+ * Interferences between variables.
+ * 
+ * <p>
+ * Each variable has a dense integer index, and the interferences of each index are kept in a bitset, so that adding
+ * and checking interferences takes constant time.
+ */
 public class InterferenceGraph {
     private Map<String, Integer> variables = new HashMap<>();
-    private MultiMap<Integer, Integer> interferences = new MultiMap<>();
-    private int maxIndex = 0;
+    private List<BitSet> interferences = new ArrayList<>();
 
     public void addInterference(String var1, String var2) {
         Preconditions.checkArgument(var1 != null);
         Preconditions.checkArgument(var2 != null);
 
-        int var1Idx = createIfNotExists(var1);
-        int var2Idx = createIfNotExists(var2);
-
-        if (interferences.get(var1Idx).contains(var2Idx)) {
-            return;
-        }
+        addInterference(createIfNotExists(var1), createIfNotExists(var2));
+    }
 
-        interferences.put(var1Idx, var2Idx);
-        interferences.put(var2Idx, var1Idx);
+    /**
+     * Adds an interference between two variables, identified by the indices returned by {@link #addVariable(String)}.
+     */
+    public void addInterference(int var1Idx, int var2Idx) {
+        interferences.get(var1Idx).set(var2Idx);
+        interferences.get(var2Idx).set(var1Idx);
     }
 
     public boolean hasInterference(String var1, String var2) {
@@ -54,10 +57,12 @@ public class InterferenceGraph {
         // However, if we call hasInterference for a variable not in variables
         // That is almost certainly a bug in the caller -- one we want to detect.
         // Additionally, any legitimate use cases can be easily worked around this.
-        Preconditions.checkArgument(variables.containsKey(var1));
-        Preconditions.checkArgument(variables.containsKey(var2));
+        Integer var1Idx = variables.get(var1);
+        Integer var2Idx = variables.get(var2);
+        Preconditions.checkArgument(var1Idx != null);
+        Preconditions.checkArgument(var2Idx != null);
 
-        return interferences.get(variables.get(var1)).contains(variables.get(var2));
+        return interferences.get(var1Idx).get(var2Idx);
     }
 
     /**
@@ -72,38 +77,32 @@ public class InterferenceGraph {
         Preconditions.checkArgument(variables.containsKey(newGroupName),
                 variables + " does not contain " + newGroupName);
 
-        List<Integer> groupIndices = new ArrayList<>();
-        for (String element : group) {
-            groupIndices.add(variables.get(element));
-        }
+        int newGroupIndex = variables.get(newGroupName);
+        BitSet combinedInterferences = interferences.get(newGroupIndex);
 
-        Set<Integer> combinedInterferences = new HashSet<>();
         for (String element : group) {
             assert element != null;
-            if (!variables.containsKey(element)) {
+
+            Integer elementIndex = variables.get(element);
+            if (elementIndex == null || elementIndex == newGroupIndex) {
                 continue;
             }
 
-            int elementIndex = variables.get(element);
-            for (int interference : interferences.get(elementIndex)) {
-                assert !group.contains(interference);
-                combinedInterferences.add(interference);
+            BitSet elementInterferences = interferences.get(elementIndex);
+            for (int i = elementInterferences.nextSetBit(0); i >= 0; i = elementInterferences.nextSetBit(i + 1)) {
+                BitSet otherInterferences = interferences.get(i);
+                otherInterferences.clear(elementIndex);
+                otherInterferences.set(newGroupIndex);
             }
 
-            interferences.remove(elementIndex);
-        }
+            combinedInterferences.or(elementInterferences);
+            elementInterferences.clear();
 
-        int newGroupIndex = variables.get(newGroupName);
-
-        for (int element : combinedInterferences) {
-            interferences.put(element, newGroupIndex);
-            interferences.put(newGroupIndex, element);
+            variables.remove(element);
         }
 
-        for (String obsoleteVar : group) {
-            variables.remove(obsoleteVar);
-        }
-        variables.put(newGroupName, newGroupIndex);
+        // Variables in the same group can not interfere with each other
+        combinedInterferences.clear(newGroupIndex);
     }
 
     @Override
@@ -112,9 +111,14 @@ public class InterferenceGraph {
 
         builder.append(variables);
         builder.append('\n');
-        for (int var1 : interferences.keySet()) {
+        for (int var1 = 0; var1 < interferences.size(); ++var1) {
+            BitSet var1Interferences = interferences.get(var1);
+            if (var1Interferences.isEmpty()) {
+                continue;
+            }
+
             builder.append("Interferences with " + var1 + ":\n");
-            for (int var2 : interferences.get(var1)) {
+            for (int var2 = var1Interferences.nextSetBit(0); var2 >= 0; var2 = var1Interferences.nextSetBit(var2 + 1)) {
                 builder.append("\t" + var2 + "\n");
             }
         }
@@ -128,14 +132,24 @@ public class InterferenceGraph {
         }
     }
 
+    /**
+     * 
+     * @return the index of the variable, creating it if necessary
+     */
+    public int addVariable(String varName) {
+        Preconditions.checkArgument(varName != null);
+
+        return createIfNotExists(varName);
+    }
+
     private int createIfNotExists(String varName) {
-        if (!variables.containsKey(varName)) {
-            int index = maxIndex++;
+        Integer index = variables.get(varName);
+        if (index == null) {
+            index = interferences.size();
             variables.put(varName, index);
-
-            return index;
+            interferences.add(new BitSet());
         }
 
-        return variables.get(varName);
+        return index;
     }
 }
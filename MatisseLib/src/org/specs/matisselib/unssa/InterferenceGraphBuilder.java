@@ -14,9 +14,11 @@
 package org.specs.matisselib.unssa;
 
 import java.util.List;
+import java.util.Objects;
 
 import org.specs.matisselib.ssa.FunctionBody;
 import org.specs.matisselib.ssa.SsaBlock;
+import org.specs.matisselib.ssa.VariableSymbol;
 import org.specs.matisselib.ssa.instructions.SsaInstruction;
 
 import com.google.common.base.Preconditions;
@@ -34,6 +36,12 @@ public class InterferenceGraphBuilder {
 
         InterferenceGraph graph = new InterferenceGraph();
 
+        // The outputs of the instruction at each position, as graph indices
+        int numPositions = lifetimeInfo.getNumPositions();
+        VariableSymbol[][] outputSymbols = new VariableSymbol[numPositions][];
+        int[][] outputIndices = new int[numPositions][];
+        Integer[][] outputTags = new Integer[numPositions][];
+
         List<SsaBlock> blocks = functionBody.getBlocks();
         for (int blockId = 0; blockId < blocks.size(); blockId++) {
             SsaBlock block = blocks.get(blockId);
@@ -41,21 +49,55 @@ public class InterferenceGraphBuilder {
             List<SsaInstruction> instructions = block.getInstructions();
             for (int instructionId = 0; instructionId < instructions.size(); instructionId++) {
                 SsaInstruction instruction = instructions.get(instructionId);
+                int position = lifetimeInfo.getPosition(blockId, instructionId);
 
                 List<String> outputs = instruction.getOutputs();
                 graph.addVariables(outputs);
                 graph.addVariables(instruction.getReferencedGlobals());
-                for (String out : outputs) {
-                    for (String interference : lifetimeInfo.getLiveVariablesAtExit(blockId, instructionId)) {
 
-                        if (!out.equals(interference) && !values.haveSameValueTag(out, interference)) {
-                            graph.addInterference(out, interference);
-                        }
+                outputSymbols[position] = new VariableSymbol[outputs.size()];
+                outputIndices[position] = new int[outputs.size()];
+                outputTags[position] = new Integer[outputs.size()];
+                for (int i = 0; i < outputs.size(); ++i) {
+                    outputSymbols[position][i] = functionBody.getSymbol(outputs.get(i));
+                    outputIndices[position][i] = graph.addVariable(outputs.get(i));
+                    outputTags[position][i] = values.getValueTag(outputs.get(i)).orElse(null);
+                }
+            }
+        }
+
+        // For each variable, visit the positions where it is live at the exit
+        // Variable IDs are the symbol IDs of the function, so outputs are compared by identity.
+        for (int variableId = 0; variableId < lifetimeInfo.getNumVariables(); ++variableId) {
+            int position = lifetimeInfo.getNextLivePositionAtExit(variableId, 0);
+            if (position < 0) {
+                continue;
+            }
 
-                        // Return values and globals always interfere with each other.
-                        if (out.endsWith("$ret") && !interference.contains("$")) {
-                            graph.addInterference(out, interference);
+            VariableSymbol interference = lifetimeInfo.getVariableSymbol(variableId);
+            Integer interferenceTag = values.getValueTag(interference.getName()).orElse(null);
+            boolean isGlobal = !interference.getName().contains("$");
+            int interferenceIndex = -1;
+
+            for (; position >= 0; position = lifetimeInfo.getNextLivePositionAtExit(variableId, position + 1)) {
+                VariableSymbol[] outputs = outputSymbols[position];
+                for (int i = 0; i < outputs.length; ++i) {
+                    VariableSymbol out = outputs[i];
+
+                    boolean interferes = out != interference
+                            && !Objects.equals(outputTags[position][i], interferenceTag);
+
+                    // Return values and globals always interfere with each other.
+                    if (out.isReturn() && isGlobal) {
+                        interferes = true;
+                    }
+
+                    if (interferes) {
+                        if (interferenceIndex < 0) {
+                            interferenceIndex = graph.addVariable(interference.getName());
                         }
+
+                        graph.addInterference(outputIndices[position][i], interferenceIndex);
                     }
                 }
             }
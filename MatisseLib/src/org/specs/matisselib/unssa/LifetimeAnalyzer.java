@@ -20,6 +20,7 @@ import org.specs.matisselib.helpers.BlockUtils;
 import org.specs.matisselib.ssa.FunctionBody;
 import org.specs.matisselib.ssa.InstructionLifetimeInformation;
 import org.specs.matisselib.ssa.SsaBlock;
+import org.specs.matisselib.ssa.VariableSymbol;
 import org.specs.matisselib.ssa.instructions.PhiInstruction;
 import org.specs.matisselib.ssa.instructions.ReadGlobalInstruction;
 import org.specs.matisselib.ssa.instructions.SsaInstruction;
@@ -49,7 +50,7 @@ public class LifetimeAnalyzer {
                 .map(block -> block.getInstructions().size())
                 .collect(Collectors.toList());
 
-        LifetimeInformation info = new LifetimeInformation(rows, columns);
+        LifetimeInformation info = new LifetimeInformation(rows, columns, functionBody.getSymbolTable());
 
         List<SsaBlock> blocks = functionBody.getBlocks();
         int lastBlockId = blocks.size() - 1;
@@ -60,6 +61,7 @@ public class LifetimeAnalyzer {
         functionBody
                 .getFlattenedInstructionsStream()
                 .flatMap(instruction -> instruction.getReferencedGlobals().stream())
+                .map(functionBody::getSymbol)
                 .forEach(global -> markVariableAtExit(info, functionBody, cfg, global, lastBlockId, lastBlockSize - 1,
                         -1));
 
@@ -67,7 +69,8 @@ public class LifetimeAnalyzer {
         functionBody
                 .getFlattenedInstructionsStream()
                 .flatMap(instruction -> instruction.getOutputs().stream())
-                .filter(output -> output.endsWith("$ret"))
+                .map(functionBody::getSymbol)
+                .filter(VariableSymbol::isReturn)
                 .distinct()
                 .forEach(
                         returnedVariable -> markVariableAtExit(info,
@@ -88,7 +91,8 @@ public class LifetimeAnalyzer {
                         int endBlockId = BlockUtils.getBlockEnd(functionBody, blockId);
 
                         int instructionId = blocks.get(endBlockId).getInstructions().size() - 1;
-                        markVariableAtExit(info, functionBody, cfg, name, endBlockId, instructionId, -1);
+                        markVariableAtExit(info, functionBody, cfg, functionBody.getSymbol(name), endBlockId,
+                                instructionId, -1);
                     }
                 }
             }
@@ -104,7 +108,8 @@ public class LifetimeAnalyzer {
                 if (instruction instanceof ReadGlobalInstruction) {
                     ReadGlobalInstruction readGlobal = (ReadGlobalInstruction) instruction;
 
-                    markVariableAtEntry(info, functionBody, cfg, readGlobal.getGlobal(), blockId, instructionId, -1);
+                    markVariableAtEntry(info, functionBody, cfg, functionBody.getSymbol(readGlobal.getGlobal()),
+                            blockId, instructionId, -1);
                 }
             }
         }
@@ -125,13 +130,15 @@ public class LifetimeAnalyzer {
                         String variableName = inputVariables.get(i);
                         int sourceBlock = sourceBlocks.get(i);
 
-                        markVariableAtEntry(info, functionBody, cfg, variableName, blockId, instructionId, sourceBlock);
+                        markVariableAtEntry(info, functionBody, cfg, functionBody.getSymbol(variableName), blockId,
+                                instructionId, sourceBlock);
                     }
                 } else {
                     for (String variableName : instruction.getInputVariables()) {
                         assert variableName != null : "Null variable name at " + instruction.toString();
 
-                        markVariableAtEntry(info, functionBody, cfg, variableName, blockId, instructionId, -1);
+                        markVariableAtEntry(info, functionBody, cfg, functionBody.getSymbol(variableName), blockId,
+                                instructionId, -1);
                     }
                 }
             }
@@ -147,45 +154,51 @@ public class LifetimeAnalyzer {
     private static void markVariableAtEntry(LifetimeInformation info,
             FunctionBody functionBody,
             ControlFlowGraph cfg,
-            String variableName,
+            VariableSymbol variable,
             int blockId,
             int instructionId,
             int phiSource) {
 
-        info.setLiveAtEntry(variableName, blockId, instructionId);
+        int variableId = info.getVariableId(variable);
+        info.setLiveAtEntry(variableId, info.getPosition(blockId, instructionId));
 
         boolean[] visitedBlocks = new boolean[functionBody.getBlocks().size()];
         int startInstruction;
         if (functionBody.getBlock(blockId).getInstructions().get(instructionId).getEntryInterferentOutputs()
-                .contains(variableName)) {
+                .contains(variable.getName())) {
             startInstruction = instructionId;
         } else {
             startInstruction = instructionId - 1;
         }
-        markVariableAtExit(info, functionBody, cfg, variableName, blockId, startInstruction, visitedBlocks, phiSource);
+        markVariableAtExit(info, functionBody, cfg, variable, variableId, blockId, startInstruction,
+                visitedBlocks, phiSource);
     }
 
     private static void markVariableAtExit(LifetimeInformation info,
             FunctionBody functionBody,
             ControlFlowGraph cfg,
-            String variableName,
+            VariableSymbol variable,
             int blockId,
             int instructionId,
             int phiSource) {
 
         boolean[] visitedBlocks = new boolean[functionBody.getBlocks().size()];
-        markVariableAtExit(info, functionBody, cfg, variableName, blockId, instructionId, visitedBlocks, phiSource);
+        markVariableAtExit(info, functionBody, cfg, variable, info.getVariableId(variable), blockId,
+                instructionId, visitedBlocks, phiSource);
     }
 
     private static void markVariableAtExit(LifetimeInformation info,
             FunctionBody functionBody,
             ControlFlowGraph cfg,
-            String variableName,
+            VariableSymbol variable,
+            int variableId,
             int blockId,
             int instructionId,
             boolean[] visitedBlocks,
             int phiSource) {
 
+        String variableName = variable.getName();
+
         List<SsaInstruction> instructions = functionBody
                 .getBlocks()
                 .get(blockId)
@@ -194,8 +207,9 @@ public class LifetimeAnalyzer {
         while (instructionId >= 0) {
             SsaInstruction instruction = instructions
                     .get(instructionId);
+            int position = info.getPosition(blockId, instructionId);
 
-            info.setLiveAtExit(variableName, blockId, instructionId);
+            info.setLiveAtExit(variableId, position);
 
             if (instruction.getEntryInterferentOutputs().contains(variableName)) {
                 // Consider the case of a matrix multiplication
@@ -203,7 +217,7 @@ public class LifetimeAnalyzer {
                 // We can't assign $1 and $2 to the same variable
                 // so we say that $2 is still alive at the entry.
 
-                info.setLiveAtEntry(variableName, blockId, instructionId);
+                info.setLiveAtEntry(variableId, position);
             }
 
             if (instruction.getOutputs().contains(variableName)) {
@@ -215,7 +229,7 @@ public class LifetimeAnalyzer {
                 return;
             }
 
-            info.setLiveAtEntry(variableName, blockId, instructionId);
+            info.setLiveAtEntry(variableId, position);
 
             instructionId--;
         }
@@ -223,7 +237,7 @@ public class LifetimeAnalyzer {
         if (phiSource == -1) {
             List<Integer> antecedents = cfg.getAntecedentsOf(blockId);
             if (antecedents.isEmpty()) {
-                if (variableName.startsWith("^")) {
+                if (variable.isGlobal()) {
                     // Global variable
                     return;
                 } else {
@@ -240,7 +254,7 @@ public class LifetimeAnalyzer {
 
                 SsaBlock block = functionBody.getBlocks().get(antecedent);
                 visitedBlocks[antecedent] = true;
-                markVariableAtExit(info, functionBody, cfg, variableName, antecedent,
+                markVariableAtExit(info, functionBody, cfg, variable, variableId, antecedent,
                         block.getInstructions().size() - 1,
                         visitedBlocks,
                         -1);
@@ -256,7 +270,7 @@ public class LifetimeAnalyzer {
 
             SsaBlock block = functionBody.getBlocks().get(phiSource);
             visitedBlocks[phiSource] = true;
-            markVariableAtExit(info, functionBody, cfg, variableName, phiSource,
+            markVariableAtExit(info, functionBody, cfg, variable, variableId, phiSource,
                     block.getInstructions().size() - 1,
                     visitedBlocks,
                     -1);
@@ -14,115 +14,170 @@
 package org.specs.matisselib.unssa;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
+import org.specs.matisselib.ssa.VariableSymbol;
+import org.specs.matisselib.ssa.VariableSymbolTable;
+
 import com.google.common.base.Preconditions;
 
+/**
+ * Liveness of each variable at the entry and exit of each instruction.
+ * 
+ * <p>
+ * Variables are identified by the IDs of their symbols, and instructions by their position in the function (the
+ * instructions of all blocks, in order). The liveness of each variable is kept in a packed bitset with one bit per
+ * position.
+ */
 public class LifetimeInformation {
 
-    private final int rows;
-    private final List<Integer> columns;
+    private final int[] blockOffsets;
 
-    private Map<String, Bitmap> entryLives = new HashMap<>();
-    private Map<String, Bitmap> exitLives = new HashMap<>();
+    private final VariableSymbolTable symbols;
 
-    private Map<Integer, Map<String, Integer>> firstLiveBlock = new HashMap<>();
-    private Map<Integer, Map<String, Integer>> lastLiveBlock = new HashMap<>();
+    private final List<BitSet> entryLives = new ArrayList<>();
+    private final List<BitSet> exitLives = new ArrayList<>();
 
     public LifetimeInformation(int rows, List<Integer> columns) {
-        this.rows = rows;
-        this.columns = new ArrayList<>(columns);
+        this(rows, columns, new VariableSymbolTable());
     }
 
-    public void setLiveAtEntry(String variableName, int blockId, int instructionId) {
-        Preconditions.checkArgument(variableName != null);
+    /**
+     * 
+     * @param symbols
+     *            the symbols of the function, so that variable IDs are the same as symbol IDs
+     */
+    public LifetimeInformation(int rows, List<Integer> columns, VariableSymbolTable symbols) {
+        Preconditions.checkArgument(columns.size() == rows);
+        Preconditions.checkArgument(symbols != null);
+
+        this.symbols = symbols;
 
-        Bitmap bitmap = entryLives.get(variableName);
-        if (bitmap == null) {
-            bitmap = new Bitmap(rows, columns);
-            entryLives.put(variableName, bitmap);
+        blockOffsets = new int[rows + 1];
+        for (int blockId = 0; blockId < rows; ++blockId) {
+            blockOffsets[blockId + 1] = blockOffsets[blockId] + columns.get(blockId);
         }
-        bitmap.setElementAt(blockId, instructionId, true);
     }
 
-    public void setLiveAtExit(String variableName, int blockId, int instructionId) {
+    /**
+     * 
+     * @return the number of instruction positions in the function
+     */
+    public int getNumPositions() {
+        return blockOffsets[blockOffsets.length - 1];
+    }
+
+    public int getPosition(int blockId, int instructionId) {
+        assert instructionId >= 0 && blockOffsets[blockId] + instructionId < blockOffsets[blockId + 1];
+
+        return blockOffsets[blockId] + instructionId;
+    }
+
+    /**
+     * 
+     * @return the ID of the given variable, creating it if necessary
+     */
+    public int getVariableId(String variableName) {
         Preconditions.checkArgument(variableName != null);
 
-        Bitmap bitmap = exitLives.get(variableName);
-        if (bitmap == null) {
-            bitmap = new Bitmap(rows, columns);
-            exitLives.put(variableName, bitmap);
-        }
-        bitmap.setElementAt(blockId, instructionId, true);
+        return getVariableId(symbols.intern(variableName));
+    }
 
-        if (!lastLiveBlock.containsKey(blockId)) {
-            lastLiveBlock.put(blockId, new HashMap<>());
-        }
-        if (!firstLiveBlock.containsKey(blockId)) {
-            firstLiveBlock.put(blockId, new HashMap<>());
-        }
+    public int getVariableId(VariableSymbol symbol) {
+        int id = symbol.getId();
+        assert symbols.get(id) == symbol : "Symbol " + symbol + " is from another function";
 
-        Map<String, Integer> lastLive = lastLiveBlock.get(blockId);
-        if (lastLive.getOrDefault(variableName, -1) < instructionId) {
-            lastLive.put(variableName, instructionId);
+        while (entryLives.size() <= id) {
+            entryLives.add(new BitSet());
+            exitLives.add(new BitSet());
         }
 
-        Map<String, Integer> firstLive = firstLiveBlock.get(blockId);
-        if (firstLive.getOrDefault(variableName, Integer.MAX_VALUE) > instructionId) {
-            firstLive.put(variableName, instructionId);
-        }
+        return id;
+    }
+
+    private Optional<Integer> tryGetVariableId(String variableName) {
+        return symbols.tryGet(variableName)
+                .map(VariableSymbol::getId)
+                .filter(id -> id < entryLives.size());
+    }
+
+    /**
+     * 
+     * @return the number of variable IDs, some of which may correspond to variables that are never live
+     */
+    public int getNumVariables() {
+        return entryLives.size();
+    }
+
+    public String getVariableName(int variableId) {
+        return symbols.get(variableId).getName();
+    }
+
+    public VariableSymbol getVariableSymbol(int variableId) {
+        return symbols.get(variableId);
+    }
+
+    public void setLiveAtEntry(String variableName, int blockId, int instructionId) {
+        setLiveAtEntry(getVariableId(variableName), getPosition(blockId, instructionId));
+    }
+
+    public void setLiveAtEntry(int variableId, int position) {
+        entryLives.get(variableId).set(position);
+    }
+
+    public void setLiveAtExit(String variableName, int blockId, int instructionId) {
+        setLiveAtExit(getVariableId(variableName), getPosition(blockId, instructionId));
+    }
+
+    public void setLiveAtExit(int variableId, int position) {
+        exitLives.get(variableId).set(position);
     }
 
     public boolean isLiveAtEntry(String variableName, int blockId, int instructionId) {
         Preconditions.checkArgument(variableName != null);
 
-        Bitmap bitmap = entryLives.get(variableName);
-        return bitmap != null && bitmap.getElementAt(blockId, instructionId);
+        Optional<Integer> variableId = tryGetVariableId(variableName);
+        return variableId.isPresent() && entryLives.get(variableId.get()).get(getPosition(blockId, instructionId));
     }
 
     public boolean isLiveAtExit(String variableName, int blockId, int instructionId) {
         Preconditions.checkArgument(variableName != null);
 
-        int firstLive = firstLiveBlock.getOrDefault(blockId, Collections.emptyMap())
-                .getOrDefault(variableName, Integer.MAX_VALUE);
-        if (firstLive > instructionId) {
-            return false;
-        }
-        int lastLive = lastLiveBlock.getOrDefault(blockId, Collections.emptyMap())
-                .getOrDefault(variableName, -1);
-        if (lastLive < instructionId) {
-            return false;
-        }
-
-        Bitmap bitmap = exitLives.get(variableName);
-        return bitmap != null && bitmap.getElementAt(blockId, instructionId);
+        Optional<Integer> variableId = tryGetVariableId(variableName);
+        return variableId.isPresent() && isLiveAtExit(variableId.get(), getPosition(blockId, instructionId));
     }
 
-    public Set<String> getLiveVariablesAtEntry(int blockId, int instructionId) {
-        Set<String> variables = new HashSet<>();
-
-        for (String variableName : entryLives.keySet()) {
-            Bitmap bitmap = entryLives.get(variableName);
+    public boolean isLiveAtExit(int variableId, int position) {
+        return exitLives.get(variableId).get(position);
+    }
 
-            if (bitmap.getElementAt(blockId, instructionId)) {
-                variables.add(variableName);
-            }
-        }
+    /**
+     * 
+     * @return the first position, starting at fromPosition (inclusive), where the variable is live at the exit, or -1
+     *         if there is none
+     */
+    public int getNextLivePositionAtExit(int variableId, int fromPosition) {
+        return exitLives.get(variableId).nextSetBit(fromPosition);
+    }
 
-        return variables;
+    public Set<String> getLiveVariablesAtEntry(int blockId, int instructionId) {
+        return getLiveVariables(entryLives, getPosition(blockId, instructionId));
     }
 
     public Set<String> getLiveVariablesAtExit(int blockId, int instructionId) {
+        return getLiveVariables(exitLives, getPosition(blockId, instructionId));
+    }
+
+    private Set<String> getLiveVariables(List<BitSet> lives, int position) {
         Set<String> variables = new HashSet<>();
 
-        for (String variableName : exitLives.keySet()) {
-            if (isLiveAtExit(variableName, blockId, instructionId)) {
-                variables.add(variableName);
+        for (int variableId = 0; variableId < lives.size(); ++variableId) {
+            if (lives.get(variableId).get(position)) {
+                variables.add(getVariableName(variableId));
             }
         }
 
@@ -16,13 +16,24 @@ package org.specs.matisselib.unssa;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.base.Preconditions;
 
 public class VariableAllocation {
     private final List<List<String>> variableGroups = new ArrayList<>();
 
+    // Each group that is added gets a slot, which never changes. When two groups are merged, the slot of the removed
+    // group points to the slot of the kept group (union-find), and the group ID of a slot is the number of slots
+    // before it that still have a group (computed with a Fenwick tree).
+    private final Map<String, Integer> variableSlots = new HashMap<>();
+    private final List<Integer> groupSlots = new ArrayList<>();
+    private int[] slotParents = new int[16];
+    private int[] liveSlotsTree = new int[17];
+    private int numSlots;
+
     public VariableAllocation() {
 
     }
@@ -31,12 +42,17 @@ public class VariableAllocation {
         Preconditions.checkArgument(group != null);
 
         // This check is too slow to run when not in debug mode.
-        assert !this.variableGroups
+        assert !group
                 .stream()
-                .flatMap(g -> g.stream())
-                .anyMatch(e -> group.contains(e)) : "Variable in " + group + " already in different group.";
+                .anyMatch(variableSlots::containsKey) : "Variable in " + group + " already in different group.";
+
+        int slot = newSlot();
+        for (String variable : group) {
+            this.variableSlots.put(variable, slot);
+        }
 
         this.variableGroups.add(group);
+        this.groupSlots.add(slot);
         return this.variableGroups.size() - 1;
     }
 
@@ -53,14 +69,12 @@ public class VariableAllocation {
     public int getGroupIdForVariable(String variableName) {
         Preconditions.checkArgument(variableName != null);
 
-        for (int groupId = 0; groupId < this.variableGroups.size(); groupId++) {
-            List<String> group = this.variableGroups.get(groupId);
-            if (group.contains(variableName)) {
-                return groupId;
-            }
+        Integer slot = this.variableSlots.get(variableName);
+        if (slot == null) {
+            return -1;
         }
 
-        return -1;
+        return countLiveSlotsUpTo(findSlot(slot)) - 1;
     }
 
     @Override
@@ -85,10 +99,68 @@ public class VariableAllocation {
 
         List<String> newGroup = new ArrayList<>(group1);
         newGroup.addAll(group2);
-        this.variableGroups.remove(group2);
 
-        int index = this.variableGroups.indexOf(group1);
+        int slot1 = this.groupSlots.get(groupId1);
+        int slot2 = this.groupSlots.get(groupId2);
+        this.slotParents[slot2] = slot1;
+        updateLiveSlots(slot2, -1);
+
+        this.variableGroups.remove(groupId2);
+        this.groupSlots.remove(groupId2);
+
+        int index = groupId1 < groupId2 ? groupId1 : groupId1 - 1;
         this.variableGroups.set(index, newGroup);
         return index;
     }
+
+    private int newSlot() {
+        int slot = this.numSlots++;
+        if (slot == this.slotParents.length) {
+            this.slotParents = Arrays.copyOf(this.slotParents, slot * 2);
+
+            // Rebuild the tree, since the ranges covered by each node depend on its size
+            this.liveSlotsTree = new int[slot * 2 + 1];
+            for (int otherSlot = 0; otherSlot < slot; ++otherSlot) {
+                if (this.slotParents[otherSlot] == otherSlot) {
+                    updateLiveSlots(otherSlot, 1);
+                }
+            }
+        }
+
+        this.slotParents[slot] = slot;
+        updateLiveSlots(slot, 1);
+
+        return slot;
+    }
+
+    private int findSlot(int slot) {
+        int root = slot;
+        while (this.slotParents[root] != root) {
+            root = this.slotParents[root];
+        }
+
+        // Path compression
+        while (this.slotParents[slot] != root) {
+            int next = this.slotParents[slot];
+            this.slotParents[slot] = root;
+            slot = next;
+        }
+
+        return root;
+    }
+
+    private void updateLiveSlots(int slot, int delta) {
+        for (int i = slot + 1; i < this.liveSlotsTree.length; i += i & -i) {
+            this.liveSlotsTree[i] += delta;
+        }
+    }
+
+    private int countLiveSlotsUpTo(int slot) {
+        int count = 0;
+        for (int i = slot + 1; i > 0; i -= i & -i) {
+            count += this.liveSlotsTree[i];
+        }
+
+        return count;
+    }
 }
@@ -14,6 +14,7 @@
 package org.specs.matisselib.unssa.allocators;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -180,10 +181,16 @@ public class EfficientVariableAllocator implements VariableAllocator {
         }
 
         if (canMerge(canMerge, interferenceGraph, allocation, group1, group2)) {
+            // Each group is represented in the interference graph by its first variable, so only those two need to
+            // be merged.
+            String representative1 = allocation.getVariableGroups().get(group1).get(0);
+            String representative2 = allocation.getVariableGroups().get(group2).get(0);
+
             int newGroup = allocation.merge(group1, group2);
 
             List<String> newGroupList = allocation.getVariableGroups().get(newGroup);
-            interferenceGraph.mergeGroup(newGroupList, newGroupList.get(0));
+            assert newGroupList.get(0).equals(representative1);
+            interferenceGraph.mergeGroup(Arrays.asList(representative1, representative2), representative1);
             return true;
         }
 
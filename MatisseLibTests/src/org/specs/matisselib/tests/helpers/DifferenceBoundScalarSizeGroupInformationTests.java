@@ -0,0 +1,209 @@
+/**
+ * Copyright 2026 SPeCS.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.tests.helpers;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.specs.CIR.Types.VariableType;
+import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixType;
+import org.specs.CIRTypes.Types.Numeric.NumericFactory;
+import org.specs.matisselib.helpers.sizeinfo.ScalarValueInformation;
+import org.specs.matisselib.helpers.sizeinfo.SizeGroupInformation;
+import org.specs.matisselib.services.scalarbuilderinfo.DifferenceBoundScalarValueInformationBuilderService;
+import org.specs.matisselib.ssa.instructions.UntypedFunctionCallInstruction;
+
+public class DifferenceBoundScalarSizeGroupInformationTests extends SizeGroupInformationTestBase {
+
+    public DifferenceBoundScalarSizeGroupInformationTests() {
+	super(new DifferenceBoundScalarValueInformationBuilderService());
+    }
+
+    @Test
+    public void testMinus() {
+	NumericFactory numerics = getNumerics();
+
+	Map<String, VariableType> types = new HashMap<>();
+	types.put("$one", numerics.newInt(1));
+	types.put("$1", numerics.newInt());
+	types.put("$2", numerics.newInt());
+	types.put("A$1", DynamicMatrixType.newInstance(numerics.newInt()));
+	try (SizeGroupInformation info = new SizeGroupInformation(fromTypes(types), this.scalarValueBuilder)) {
+	    info.addInstructionInformation(
+		    new UntypedFunctionCallInstruction("zeros", Arrays.asList("A$1"), Arrays.asList("$one", "$1")));
+	    info.addInstructionInformation(
+		    new UntypedFunctionCallInstruction("minus", Arrays.asList("$2"), Arrays.asList("$1", "$one")));
+
+	    Assert.assertTrue(info.inRangeOfMatrix(Arrays.asList("$2"), "A$1"));
+	}
+    }
+
+    @Test
+    public void testPlusMinus() {
+	NumericFactory numerics = getNumerics();
+
+	Map<String, VariableType> types = new HashMap<>();
+	types.put("$one", numerics.newInt(1));
+	types.put("$1", numerics.newInt());
+	types.put("$2", numerics.newInt());
+	types.put("$3", numerics.newInt());
+	try (SizeGroupInformation info = new SizeGroupInformation(fromTypes(types), this.scalarValueBuilder)) {
+	    info.addInstructionInformation(
+		    new UntypedFunctionCallInstruction("plus", Arrays.asList("$2"), Arrays.asList("$1", "$one")));
+	    info.addInstructionInformation(
+		    new UntypedFunctionCallInstruction("minus", Arrays.asList("$3"), Arrays.asList("$2", "$one")));
+
+	    Assert.assertTrue(info.areSameValue("$1", "$3"));
+	    Assert.assertFalse(info.areSameValue("$1", "$2"));
+	}
+    }
+
+    @Test
+    public void testLoopIndexInRangeOfMatrix() {
+	NumericFactory numerics = getNumerics();
+
+	// A = zeros(1, n); for i = 2:n, A(i - 1)
+	Map<String, VariableType> types = new HashMap<>();
+	types.put("$one", numerics.newInt(1));
+	types.put("$two", numerics.newInt(2));
+	types.put("n$1", numerics.newInt());
+	types.put("i$1", numerics.newInt());
+	types.put("$1", numerics.newInt());
+	types.put("A$1", DynamicMatrixType.newInstance(numerics.newInt()));
+	try (ScalarValueInformation scalarInfo = this.scalarValueBuilder.build(fromTypes(types));
+		SizeGroupInformation info = new SizeGroupInformation(fromTypes(types), this.scalarValueBuilder)) {
+
+	    info.addInstructionInformation(
+		    new UntypedFunctionCallInstruction("zeros", Arrays.asList("A$1"), Arrays.asList("$one", "n$1")));
+	    info.setUpTo("i$1", info.getNumelResult("A$1"));
+	    info.addInstructionInformation(
+		    new UntypedFunctionCallInstruction("minus", Arrays.asList("$1"), Arrays.asList("i$1", "$one")));
+
+	    // The upper bound is enough for the check against numel, but not for i - 1 >= 1
+	    Assert.assertTrue(info.inRangeOfMatrix(Arrays.asList("i$1"), "A$1"));
+	    Assert.assertTrue(info.inRangeOfMatrix(Arrays.asList("$1"), "A$1"));
+
+	    scalarInfo.setAtLeast("i$1", "$two");
+	    scalarInfo.setUpTo("i$1", "n$1");
+	    scalarInfo.addScalarFunctionCallInformation(
+		    new UntypedFunctionCallInstruction("minus", Arrays.asList("$1"), Arrays.asList("i$1", "$one")));
+
+	    Assert.assertTrue(scalarInfo.isKnownPositive("$1"));
+	    Assert.assertTrue(scalarInfo.isKnownLessThan("$1", "n$1"));
+	    Assert.assertTrue(scalarInfo.isKnownPositive("n$1"));
+	    Assert.assertFalse(scalarInfo.isKnownLessThan("i$1", "n$1"));
+	}
+    }
+
+    @Test
+    public void testLoopIndexBoundsAreTransitive() {
+	NumericFactory numerics = getNumerics();
+
+	// for i = 1:n, for j = i:m, with n <= m
+	Map<String, VariableType> types = new HashMap<>();
+	types.put("$one", numerics.newInt(1));
+	types.put("n$1", numerics.newInt());
+	types.put("m$1", numerics.newInt());
+	types.put("i$1", numerics.newInt());
+	types.put("j$1", numerics.newInt());
+	try (ScalarValueInformation info = this.scalarValueBuilder.build(fromTypes(types))) {
+	    info.setUpTo("n$1", "m$1");
+	    info.setAtLeast("i$1", "$one");
+	    info.setUpTo("i$1", "n$1");
+	    info.setAtLeast("j$1", "i$1");
+	    info.setUpTo("j$1", "m$1");
+
+	    Assert.assertTrue(info.isKnownLessOrEqualTo("i$1", "m$1"));
+	    Assert.assertTrue(info.isKnownLessOrEqualTo("i$1", "j$1"));
+	    Assert.assertTrue(info.isKnownPositive("j$1"));
+	    Assert.assertTrue(info.isKnownPositive("m$1"));
+	    Assert.assertFalse(info.isKnownLessOrEqualTo("j$1", "n$1"));
+	}
+    }
+
+    @Test
+    public void testLoopIndexBoundsInContext() {
+	NumericFactory numerics = getNumerics();
+
+	Map<String, VariableType> types = new HashMap<>();
+	types.put("$one", numerics.newInt(1));
+	types.put("n$1", numerics.newInt());
+	types.put("i$1", numerics.newInt());
+	try (ScalarValueInformation info = this.scalarValueBuilder.build(fromTypes(types))) {
+	    info.setAtLeast("i$1", "$one", "iter1");
+	    info.setUpTo("i$1", "n$1", "iter1");
+
+	    // Bounds in a context only apply to the copy of the variables in that context
+	    Assert.assertTrue(info.isKnownPositive("i$1#iter1"));
+	    Assert.assertTrue(info.isKnownLessOrEqualTo("i$1#iter1", "n$1#iter1"));
+	    Assert.assertFalse(info.isKnownPositive("i$1"));
+	    Assert.assertFalse(info.isKnownLessOrEqualTo("i$1", "n$1"));
+	}
+    }
+
+    @Test
+    public void testEmptyLoopRange() {
+	NumericFactory numerics = getNumerics();
+
+	// for i = 3:1 never runs, so anything can be assumed inside the loop
+	Map<String, VariableType> types = new HashMap<>();
+	types.put("$one", numerics.newInt(1));
+	types.put("$three", numerics.newInt(3));
+	types.put("i$1", numerics.newInt());
+	types.put("n$1", numerics.newInt());
+	try (ScalarValueInformation info = this.scalarValueBuilder.build(fromTypes(types))) {
+	    info.setAtLeast("i$1", "$three");
+	    info.setUpTo("i$1", "$one");
+
+	    Assert.assertTrue(info.isKnownLessThan("i$1", "n$1"));
+	    Assert.assertTrue(info.isKnownEqual("n$1", 0));
+	}
+    }
+
+    @Test
+    public void testCopyGrowsIndependently() {
+	NumericFactory numerics = getNumerics();
+
+	Map<String, VariableType> types = new HashMap<>();
+	types.put("$one", numerics.newInt(1));
+	types.put("n$1", numerics.newInt());
+	types.put("i$1", numerics.newInt());
+	try (ScalarValueInformation info = this.scalarValueBuilder.build(fromTypes(types))) {
+	    info.setAtLeast("i$1", "$one");
+	    info.setUpTo("i$1", "n$1");
+
+	    try (ScalarValueInformation copy = info.copy()) {
+		// Enough variables to grow the bounds matrix of the copy, which must not be shared with the original
+		String previous = "n$1";
+		for (int i = 0; i < 40; ++i) {
+		    String next = "k" + i;
+		    copy.setUpTo(previous, next);
+		    previous = next;
+		}
+		copy.setUpTo("i$1", "$one");
+
+		Assert.assertTrue(copy.isKnownLessOrEqualTo("i$1", "k39"));
+		Assert.assertTrue(copy.isKnownEqual("i$1", 1));
+	    }
+
+	    Assert.assertTrue(info.isKnownPositive("i$1"));
+	    Assert.assertTrue(info.isKnownLessOrEqualTo("i$1", "n$1"));
+	    Assert.assertFalse(info.isKnownEqual("i$1", 1));
+	    Assert.assertFalse(info.isKnownLessOrEqualTo("i$1", "k39"));
+	}
+    }
+}
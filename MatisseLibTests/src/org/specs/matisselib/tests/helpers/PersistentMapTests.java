@@ -0,0 +1,115 @@
+/**
+ * Copyright 2026 SPeCS.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.tests.helpers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.specs.matisselib.helpers.PersistentMap;
+import org.specs.matisselib.helpers.PersistentUnionFind;
+
+public class PersistentMapTests {
+
+    /**
+     * Key with a controlled hash, to test collisions.
+     */
+    private static final class Key {
+        private final int hash;
+        private final String name;
+
+        Key(int hash, String name) {
+            this.hash = hash;
+            this.name = name;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key && ((Key) obj).name.equals(this.name);
+        }
+    }
+
+    @Test
+    public void testPutGet() {
+        PersistentMap<Integer, String> map = PersistentMap.empty();
+        Map<Integer, String> expected = new HashMap<>();
+        for (int i = 0; i < 5000; ++i) {
+            map = map.put(i * 31, "v" + i);
+            expected.put(i * 31, "v" + i);
+        }
+        map = map.put(31, "other");
+        expected.put(31, "other");
+
+        Assert.assertEquals(expected.size(), map.size());
+        for (Map.Entry<Integer, String> entry : expected.entrySet()) {
+            Assert.assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        Assert.assertNull(map.get(1));
+
+        Map<Integer, String> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        Assert.assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void testSnapshot() {
+        PersistentMap<String, Integer> original = PersistentMap.<String, Integer> empty()
+                .put("a", 1)
+                .put("b", 2);
+        PersistentMap<String, Integer> modified = original.put("a", 3).put("c", 4);
+
+        Assert.assertEquals(Integer.valueOf(1), original.get("a"));
+        Assert.assertFalse(original.containsKey("c"));
+        Assert.assertEquals(2, original.size());
+
+        Assert.assertEquals(Integer.valueOf(3), modified.get("a"));
+        Assert.assertEquals(Integer.valueOf(4), modified.get("c"));
+        Assert.assertEquals(3, modified.size());
+    }
+
+    @Test
+    public void testCollisions() {
+        PersistentMap<Key, String> map = PersistentMap.<Key, String> empty()
+                .put(new Key(7, "a"), "a")
+                .put(new Key(7, "b"), "b")
+                .put(new Key(7 + (1 << 25), "c"), "c");
+        PersistentMap<Key, String> updated = map.put(new Key(7, "a"), "d");
+
+        Assert.assertEquals(3, updated.size());
+        Assert.assertEquals("a", map.get(new Key(7, "a")));
+        Assert.assertEquals("d", updated.get(new Key(7, "a")));
+        Assert.assertEquals("b", updated.get(new Key(7, "b")));
+        Assert.assertEquals("c", updated.get(new Key(7 + (1 << 25), "c")));
+        Assert.assertNull(updated.get(new Key(7, "e")));
+    }
+
+    @Test
+    public void testUnionFind() {
+        PersistentUnionFind<String> groups = PersistentUnionFind.<String> empty()
+                .union("a", "b")
+                .union("c", "d");
+        PersistentUnionFind<String> joined = groups.union("b", "d");
+
+        Assert.assertEquals(groups.find("a"), groups.find("b"));
+        Assert.assertNotEquals(groups.find("a"), groups.find("c"));
+        Assert.assertEquals(joined.find("a"), joined.find("c"));
+        Assert.assertFalse(joined.contains("e"));
+    }
+}
@@ -110,4 +110,23 @@ public class Z3ScalarSizeGroupInformationTests extends SizeGroupInformationTestB
 	}
     }
 
+    @Test
+    public void testCopyIsolation() {
+	NumericFactory numerics = getNumerics();
+
+	Map<String, VariableType> types = new HashMap<>();
+	types.put("$zero", numerics.newInt(0));
+	types.put("$1", numerics.newInt());
+	types.put("$2", numerics.newInt());
+	try (SizeGroupInformation info = new SizeGroupInformation(fromTypes(types), this.scalarValueBuilder);
+		SizeGroupInformation copy = new SizeGroupInformation(info)) {
+
+	    copy.addInstructionInformation(
+		    new UntypedFunctionCallInstruction("plus", Arrays.asList("$2"), Arrays.asList("$1", "$zero")));
+
+	    Assert.assertTrue(copy.areSameValue("$1", "$2"));
+	    Assert.assertFalse(info.areSameValue("$1", "$2"));
+	    Assert.assertTrue(copy.areSameValue("$1", "$2"));
+	}
+    }
 }
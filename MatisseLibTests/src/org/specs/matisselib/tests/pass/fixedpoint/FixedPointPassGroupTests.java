@@ -0,0 +1,160 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.tests.pass.fixedpoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.MatlabIR.MatlabNodePass.FunctionIdentification;
+import org.specs.matisselib.ProjectPassServices;
+import org.specs.matisselib.passes.posttype.FixedPointPassGroup;
+import org.specs.matisselib.services.DefaultDataProviderService;
+import org.specs.matisselib.services.PassProfiler;
+import org.specs.matisselib.services.PassScheduler;
+import org.specs.matisselib.ssa.FunctionBody;
+import org.specs.matisselib.ssa.SsaBlock;
+import org.specs.matisselib.ssa.instructions.AssignmentInstruction;
+import org.specs.matisselib.typeinference.PostTypeInferencePass;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+
+import pt.up.fe.specs.util.SpecsIo;
+
+public class FixedPointPassGroupTests {
+
+    /**
+     * Adds an assignment while the entry block has less than the given number of instructions.
+     */
+    private static class GrowPass implements PostTypeInferencePass {
+        private final String name;
+        private final int maxInstructions;
+        private int applications;
+
+        GrowPass(String name, int maxInstructions) {
+            this.name = name;
+            this.maxInstructions = maxInstructions;
+        }
+
+        @Override
+        public void apply(TypedInstance instance, DataStore passData) {
+            ++applications;
+
+            SsaBlock block = instance.getBlock(0);
+            if (block.getInstructions().size() < maxInstructions) {
+                block.addInstruction(AssignmentInstruction.fromInteger("x$" + block.getInstructions().size(), 0));
+            }
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Does nothing, but declares itself as idempotent.
+     */
+    private static class IdempotentPass implements PostTypeInferencePass {
+        private int applications;
+
+        @Override
+        public void apply(TypedInstance instance, DataStore passData) {
+            ++applications;
+        }
+
+        @Override
+        public boolean isIdempotent() {
+            return true;
+        }
+    }
+
+    @Test
+    public void testSingleIterationWithoutScheduler() {
+        TypedInstance instance = newInstance();
+        DataStore passData = newPassData(instance);
+
+        GrowPass grow = new GrowPass("grow", 5);
+        new FixedPointPassGroup(grow).apply(instance, passData);
+
+        Assert.assertEquals(1, grow.applications);
+        Assert.assertEquals(2, instance.getBlock(0).getInstructions().size());
+    }
+
+    @Test
+    public void testStopsAtFixedPoint() {
+        TypedInstance instance = newInstance();
+        DataStore passData = newPassData(instance);
+        PassScheduler scheduler = new PassScheduler(10);
+        passData.set(ProjectPassServices.PASS_SCHEDULER, scheduler);
+
+        GrowPass grow = new GrowPass("grow", 3);
+        IdempotentPass idempotent = new IdempotentPass();
+        new FixedPointPassGroup(grow, idempotent).apply(instance, passData);
+
+        // Two iterations add an instruction, the third one changes nothing
+        Assert.assertEquals(3, grow.applications);
+        Assert.assertEquals(3, instance.getBlock(0).getInstructions().size());
+
+        // The inner passes go through the scheduler: the idempotent pass is skipped in the last iteration
+        Assert.assertEquals(2, idempotent.applications);
+        Assert.assertEquals(1, scheduler.getSkippedExecutions());
+        Assert.assertEquals(5, scheduler.getExecutions());
+    }
+
+    @Test
+    public void testInnerPassesAreProfiled() throws IOException {
+        TypedInstance instance = newInstance();
+        DataStore passData = newPassData(instance);
+        PassProfiler profiler = new PassProfiler();
+        passData.set(ProjectPassServices.PASS_PROFILER, profiler);
+
+        new FixedPointPassGroup(new GrowPass("first_grow", 5), new GrowPass("second_grow", 5))
+                .apply(instance, passData);
+
+        File jsonFile = File.createTempFile("profile", ".json");
+        try {
+            profiler.writeJson(jsonFile);
+            String json = SpecsIo.read(jsonFile);
+
+            Assert.assertTrue(json, json.contains("\"pass\": \"first_grow\""));
+            Assert.assertTrue(json, json.contains("\"pass\": \"second_grow\""));
+        } finally {
+            jsonFile.delete();
+        }
+    }
+
+    private static DataStore newPassData(TypedInstance instance) {
+        DataStore passData = DataStore.newInstance("fixed-point-tests");
+        passData.set(ProjectPassServices.DATA_PROVIDER, new DefaultDataProviderService(instance, passData));
+
+        return passData;
+    }
+
+    private static TypedInstance newInstance() {
+        FunctionBody body = new FunctionBody();
+        SsaBlock block = new SsaBlock();
+        block.addInstruction(AssignmentInstruction.fromInteger("a$1", 1));
+        body.addBlock(block);
+
+        return new TypedInstance(new FunctionIdentification("test.m"),
+                Collections.emptyList(),
+                body,
+                () -> "",
+                ProviderData.newInstance("test"));
+    }
+}
@@ -15,14 +15,20 @@ package org.specs.matisselib.tests.passmanager;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.specs.CIR.CirKeys;
 import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.CIRTypes.Types.Numeric.NumericFactory;
 import org.specs.MatlabIR.MatlabNode.nodes.root.FileNode;
 import org.specs.MatlabIR.MatlabNodePass.FunctionIdentification;
 import org.specs.MatlabProcessor.MatlabParser.MatlabParser;
+import org.specs.MatlabToC.MatlabToCUtils;
+import org.specs.matisselib.DefaultRecipes;
 import org.specs.matisselib.MatlabRecipe;
 import org.specs.matisselib.MatlabRecipeBuilder;
 import org.specs.matisselib.ProjectPassCompilationManager;
@@ -30,7 +36,16 @@ import org.specs.matisselib.ProjectPassCompilationOptions;
 import org.specs.matisselib.passes.ast.CommentInserterPass;
 import org.specs.matisselib.passes.ast.CommentRemoverPass;
 import org.specs.matisselib.passes.ast.FunctionReferencerPass;
+import org.specs.matisselib.passes.posttype.ConstantBranchEliminationPass;
+import org.specs.matisselib.passes.posttype.DuplicatedReadEliminationPass;
+import org.specs.matisselib.passes.posttype.LoopAccumulatorExtractorPass;
+import org.specs.matisselib.passes.posttype.LoopFusionPass;
+import org.specs.matisselib.passes.posttype.LoopInvariantCodeMotionPass;
+import org.specs.matisselib.passes.posttype.LoopMatrixCopyEliminationPass;
+import org.specs.matisselib.passes.posttype.ShapePropagationPass;
+import org.specs.matisselib.passes.ssa.BlockReorderingPass;
 import org.specs.matisselib.passes.ssa.ConvertToCssaPass;
+import org.specs.matisselib.passes.ssa.DeadCodeEliminationPass;
 import org.specs.matisselib.passes.ssa.SsaCommentInserterPass;
 import org.specs.matisselib.providers.MatlabFunctionTable;
 import org.specs.matisselib.ssa.SsaRecipe;
@@ -213,4 +228,162 @@ public class ProjectPassCompilationManagerTests {
             // If the subfunction isn't loaded, then getInstanceFromResource will throw an exception.
         }
     }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        PostTypeInferenceRecipeBuilder recipeBuilder = new PostTypeInferenceRecipeBuilder();
+        recipeBuilder.addPass(new SsaCommentInserterPass("Added by recipe"));
+        recipeBuilder.addPass(new DeadCodeEliminationPass());
+        recipeBuilder.addPass(new BlockReorderingPass());
+        recipeBuilder.addPass(new ConvertToCssaPass());
+        PostTypeInferenceRecipe postTypeInferenceRecipe = recipeBuilder.getRecipe();
+
+        HashMap<String, StringProvider> availableFiles = new HashMap<>();
+        availableFiles.put("foo.m", () -> "function foo()\nend");
+
+        String sequentialResult = compileResource(buildOptions(postTypeInferenceRecipe, availableFiles));
+        String parallelResult = compileResource(buildOptions(postTypeInferenceRecipe, availableFiles)
+                .withPostTypeInferenceThreads(4));
+
+        Assert.assertEquals(sequentialResult, parallelResult);
+    }
+
+    @Test
+    public void testParallelMatchesSequentialWithSeveralInstances() {
+        PostTypeInferenceRecipeBuilder recipeBuilder = new PostTypeInferenceRecipeBuilder();
+        recipeBuilder.addPass(new ConstantBranchEliminationPass());
+        recipeBuilder.addPass(new LoopInvariantCodeMotionPass());
+        recipeBuilder.addPass(new LoopAccumulatorExtractorPass());
+        recipeBuilder.addPass(new DeadCodeEliminationPass());
+        recipeBuilder.addPass(new ShapePropagationPass());
+        recipeBuilder.addPass(new LoopFusionPass());
+        recipeBuilder.addPass(new DuplicatedReadEliminationPass());
+        // Not instance-local, so the parallel passes are interrupted by a sequential one
+        recipeBuilder.addPass(new SsaCommentInserterPass("Added by recipe"));
+        recipeBuilder.addPass(new LoopMatrixCopyEliminationPass());
+        recipeBuilder.addPass(new BlockReorderingPass());
+        recipeBuilder.addPass(new ConvertToCssaPass());
+        PostTypeInferenceRecipe postTypeInferenceRecipe = recipeBuilder.getRecipe();
+
+        HashMap<String, StringProvider> availableFiles = new HashMap<>();
+        availableFiles.put("main.m", () -> "function y = main()\n"
+                + "y = accumulate(10) + accumulate(20.5) + scale(3);\n"
+                + "end");
+        availableFiles.put("accumulate.m", () -> "function s = accumulate(n)\n"
+                + "s = 0;\n"
+                + "for i = 1:n\n"
+                + "   s = s + i * 2;\n"
+                + "end\n"
+                + "end");
+        availableFiles.put("scale.m", () -> "function y = scale(x)\n"
+                + "y = accumulate(x) * x;\n"
+                + "end");
+
+        List<String> sequentialResult = compileProject(buildFullOptions(postTypeInferenceRecipe, availableFiles));
+        List<String> parallelResult = compileProject(buildFullOptions(postTypeInferenceRecipe, availableFiles)
+                .withPostTypeInferenceThreads(4));
+
+        // main, scale and several specializations of accumulate
+        Assert.assertTrue(sequentialResult.size() >= 4);
+        Assert.assertEquals(sequentialResult, parallelResult);
+    }
+
+    @Test
+    public void testSpecializationReuse() {
+        HashMap<String, StringProvider> availableFiles = new HashMap<>();
+        availableFiles.put("foo.m", () -> "function foo()\nend");
+
+        try (ProjectPassCompilationManager passManager = new ProjectPassCompilationManager(
+                buildOptions(PostTypeInferenceRecipe.empty(), availableFiles))) {
+            passManager.applyPreTypeInferencePasses("foo.m");
+            passManager.applyTypeInference(DataStore.newInstance("setup"));
+            passManager.applyPostTypeInferencePasses();
+
+            int hits = passManager.getSpecializationHits();
+            int misses = passManager.getSpecializationMisses();
+
+            ProviderData providerData = ProviderData.newInstance(Arrays.asList(), DataStore.newInstance("setup"));
+            TypedInstance first = passManager.getInstanceFromResource("bar", "function bar()\nend", providerData);
+
+            Assert.assertEquals(hits, passManager.getSpecializationHits());
+            Assert.assertEquals(misses + 1, passManager.getSpecializationMisses());
+
+            TypedInstance second = passManager.getInstanceFromResource("bar", "function bar()\nend", providerData);
+
+            Assert.assertSame(first, second);
+            Assert.assertEquals(hits + 1, passManager.getSpecializationHits());
+            Assert.assertEquals(misses + 1, passManager.getSpecializationMisses());
+            Assert.assertNotNull(passManager.getPassData(second));
+        }
+    }
+
+    @Test
+    public void testMultipleEntryPoints() {
+        HashMap<String, StringProvider> availableFiles = new HashMap<>();
+        availableFiles.put("foo.m", () -> "function foo()\nshared();\nend");
+        availableFiles.put("bar.m", () -> "function bar()\nshared();\nend");
+        availableFiles.put("shared.m", () -> "function shared()\nend");
+
+        try (ProjectPassCompilationManager passManager = new ProjectPassCompilationManager(
+                buildOptions(PostTypeInferenceRecipe.empty(), availableFiles))) {
+            passManager.applyPreTypeInferencePasses(Arrays.asList("foo.m", "bar.m", "foo.m"));
+
+            List<TypedInstance> entryPoints = passManager
+                    .applyTypeInferenceToEntryPoints(DataStore.newInstance("setup"));
+            passManager.applyPostTypeInferencePasses();
+
+            Assert.assertEquals(2, entryPoints.size());
+            Assert.assertEquals("foo", entryPoints.get(0).getFunctionIdentification().getName());
+            Assert.assertEquals("bar", entryPoints.get(1).getFunctionIdentification().getName());
+
+            // The specialization of shared is inferred once, and reused by the second entry point
+            Assert.assertEquals(3, passManager.getInferredInstances().size());
+            Assert.assertTrue(passManager.getSpecializationHits() > 0);
+        }
+    }
+
+    private static ProjectPassCompilationOptions buildFullOptions(PostTypeInferenceRecipe postTypeInferenceRecipe,
+            HashMap<String, StringProvider> availableFiles) {
+        return new ProjectPassCompilationOptions()
+                .withPreTypeInferenceRecipe(DefaultRecipes.DefaultMatlabASTTypeInferenceRecipe)
+                .withSsaRecipe(DefaultRecipes.getTestPreTypeInferenceRecipe())
+                .withPostTypeInferenceRecipe(postTypeInferenceRecipe)
+                .withAvailableFiles(availableFiles)
+                .withSystemFunctions(MatlabToCUtils.buildMatissePrototypeTable());
+    }
+
+    /**
+     * Compiles main.m, applying the post-type-inference passes to all instances at once.
+     * 
+     * @return the code of every inferred instance, in inference order
+     */
+    private static List<String> compileProject(ProjectPassCompilationOptions options) {
+        try (ProjectPassCompilationManager passManager = new ProjectPassCompilationManager(options)) {
+            passManager.applyPreTypeInferencePasses("main.m");
+
+            DataStore setupTable = DataStore.newInstance("setup");
+            setupTable.set(CirKeys.DEFAULT_REAL, new NumericFactory().newDouble());
+            passManager.applyTypeInference(setupTable);
+            passManager.applyPostTypeInferencePasses();
+
+            return passManager.getInferredInstances()
+                    .stream()
+                    .map(TypedInstance::toString)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static String compileResource(ProjectPassCompilationOptions options) {
+        try (ProjectPassCompilationManager passManager = new ProjectPassCompilationManager(options)) {
+            passManager.applyPreTypeInferencePasses("foo.m");
+            passManager.applyTypeInference(DataStore.newInstance("setup"));
+            passManager.applyPostTypeInferencePasses();
+
+            ProviderData providerData = ProviderData.newInstance(Arrays.asList(), DataStore.newInstance("setup"));
+            TypedInstance instance = passManager.getInstanceFromResource(
+                    ProjectPassCompilationManagerSourceResources.RESOURCE_SUBFUNCTIONS, providerData);
+
+            return instance.toString();
+        }
+    }
 }
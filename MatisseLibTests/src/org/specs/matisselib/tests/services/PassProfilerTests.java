@@ -0,0 +1,120 @@
+/**
+ * Copyright 2026 SPeCS.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.tests.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.specs.matisselib.ProjectPassServices;
+import org.specs.matisselib.services.DataService;
+import org.specs.matisselib.services.DefaultDataProviderService;
+import org.specs.matisselib.services.PassProfiler;
+import org.specs.matisselib.services.PassProfiler.DataServiceEvent;
+import org.specs.matisselib.typeinference.PostTypeInferencePass;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+
+import pt.up.fe.specs.util.SpecsIo;
+
+public class PassProfilerTests {
+    @Test
+    public void testNestedPasses() throws IOException {
+        PassProfiler profiler = new PassProfiler();
+
+        try (PassProfiler.Measurement outer = profiler.start("post-type", "outer", "f")) {
+            Assert.assertEquals("outer", profiler.getCurrentPass());
+
+            try (PassProfiler.Measurement inner = profiler.start("ast", "inner", "g")) {
+                Assert.assertEquals("inner", profiler.getCurrentPass());
+            }
+
+            Assert.assertEquals("outer", profiler.getCurrentPass());
+        }
+
+        File collapsedFile = File.createTempFile("profile", ".collapsed");
+        File jsonFile = File.createTempFile("profile", ".json");
+        try {
+            profiler.writeCollapsedStacks(collapsedFile);
+            String[] lines = SpecsIo.read(collapsedFile).trim().split("\n");
+
+            Assert.assertEquals(2, lines.length);
+            Assert.assertTrue(lines[0], lines[0].startsWith("post-type:outer_f;ast:inner_g "));
+            Assert.assertTrue(lines[1], lines[1].startsWith("post-type:outer_f "));
+
+            profiler.writeJson(jsonFile);
+            String json = SpecsIo.read(jsonFile);
+            Assert.assertTrue(json,
+                    json.contains("{\"phase\": \"post-type\", \"pass\": \"outer\", \"function\": \"f\""));
+            Assert.assertTrue(json, json.contains("{\"phase\": \"ast\", \"pass\": \"inner\", \"function\": \"g\""));
+        } finally {
+            collapsedFile.delete();
+            jsonFile.delete();
+        }
+    }
+
+    @Test
+    public void testDataServiceEvents() {
+        PassProfiler profiler = new PassProfiler();
+        DataStore passData = DataStore.newInstance("test");
+        passData.add(ProjectPassServices.PASS_PROFILER, profiler);
+
+        List<String> disposed = new ArrayList<>();
+        DataService<String> first = new DataService<>("first", (instance, data) -> "a", disposed::add);
+        DataService<String> second = new DataService<>("second", (instance, data) -> "b", disposed::add);
+        PostTypeInferencePass pass = new PostTypeInferencePass() {
+            @Override
+            public void apply(TypedInstance instance, DataStore passData) {
+            }
+
+            @Override
+            public String getName() {
+                return "pass";
+            }
+
+            @Override
+            public boolean preserveData(DataService<?> key) {
+                return key == second;
+            }
+        };
+
+        DefaultDataProviderService provider = new DefaultDataProviderService(null, passData);
+        try (PassProfiler.Measurement measurement = profiler.start("post-type", "pass", "f")) {
+            provider.buildData(first);
+            provider.buildData(first);
+            provider.buildData(second);
+            provider.update(pass);
+        }
+        provider.close();
+
+        Assert.assertEquals(1, profiler.getDataServiceEventCount(DataServiceEvent.BUILD, first, "pass"));
+        Assert.assertEquals(1, profiler.getDataServiceEventCount(DataServiceEvent.BUILD, second, "pass"));
+
+        // The first value is invalidated by the pass, the second is only released when the provider is closed
+        Assert.assertEquals(1, profiler.getDataServiceEventCount(DataServiceEvent.INVALIDATION, first, "pass"));
+        Assert.assertEquals(0, profiler.getDataServiceEventCount(DataServiceEvent.INVALIDATION, second, "pass"));
+        Assert.assertEquals(1, profiler.getDataServiceEventCount(DataServiceEvent.DISPOSAL, first, "pass"));
+        Assert.assertEquals(0, profiler.getDataServiceEventCount(DataServiceEvent.DISPOSAL, second, "pass"));
+        Assert.assertEquals(1, profiler.getDataServiceEventCount(DataServiceEvent.DISPOSAL, second, "<none>"));
+
+        Assert.assertEquals(2, disposed.size());
+
+        // Closing again disposes nothing
+        provider.close();
+        Assert.assertEquals(2, disposed.size());
+    }
+}
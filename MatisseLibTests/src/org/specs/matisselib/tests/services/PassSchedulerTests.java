@@ -0,0 +1,210 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.tests.services;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.specs.CIR.FunctionInstance.FunctionTypeBuilder;
+import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.CIR.Types.VariableType;
+import org.specs.CIRTypes.Types.Numeric.NumericFactory;
+import org.specs.MatlabIR.MatlabNodePass.FunctionIdentification;
+import org.specs.matisselib.functionproperties.DisableOptimizationProperty;
+import org.specs.matisselib.passes.ssa.DeadCodeEliminationPass;
+import org.specs.matisselib.services.PassScheduler;
+import org.specs.matisselib.ssa.FunctionBody;
+import org.specs.matisselib.ssa.SsaBlock;
+import org.specs.matisselib.ssa.instructions.AssignmentInstruction;
+import org.specs.matisselib.ssa.instructions.ForInstruction;
+import org.specs.matisselib.ssa.instructions.SsaInstruction;
+import org.specs.matisselib.typeinference.PostTypeInferencePass;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+
+public class PassSchedulerTests {
+    @Test
+    public void testSkipWithoutRelevantInstructions() {
+        TypedInstance instance = newInstance();
+        PostTypeInferencePass loopPass = new PostTypeInferencePass() {
+            @Override
+            public void apply(TypedInstance instance, DataStore passData) {
+                Assert.fail("Pass should have been skipped");
+            }
+
+            @Override
+            public Set<Class<? extends SsaInstruction>> getRelevantInstructionTypes() {
+                return Collections.singleton(ForInstruction.class);
+            }
+        };
+
+        PassScheduler scheduler = new PassScheduler();
+        Assert.assertTrue(scheduler.shouldSkip(loopPass, instance));
+        Assert.assertEquals(1, scheduler.getSkippedExecutions());
+        Assert.assertEquals(0, scheduler.getExecutions());
+    }
+
+    @Test
+    public void testSkipUnchangedIdempotentPass() {
+        TypedInstance instance = newInstance();
+        PostTypeInferencePass pass = new DeadCodeEliminationPass();
+
+        PassScheduler scheduler = new PassScheduler();
+        Assert.assertFalse(scheduler.shouldSkip(pass, instance));
+        scheduler.recordExecution(pass, instance);
+
+        // A different object of the same pass class
+        Assert.assertTrue(scheduler.shouldSkip(new DeadCodeEliminationPass(), instance));
+
+        instance.getBlock(0).addInstruction(AssignmentInstruction.fromInteger("b$1", 2));
+        Assert.assertFalse(scheduler.shouldSkip(pass, instance));
+
+        Assert.assertEquals(1, scheduler.getSkippedExecutions());
+        Assert.assertEquals(2, scheduler.getExecutions());
+    }
+
+    @Test
+    public void testNonIdempotentPassIsNotSkipped() {
+        TypedInstance instance = newInstance();
+        PostTypeInferencePass pass = (typedInstance, passData) -> {
+        };
+
+        PassScheduler scheduler = new PassScheduler();
+        scheduler.recordExecution(pass, instance);
+        Assert.assertFalse(scheduler.shouldSkip(pass, instance));
+    }
+
+    @Test
+    public void testChangeByFollowingPass() {
+        TypedInstance instance = newInstance();
+        PostTypeInferencePass pass = new DeadCodeEliminationPass();
+        PostTypeInferencePass changingPass = (typedInstance, passData) -> typedInstance.getBlock(0)
+                .addInstruction(AssignmentInstruction.fromInteger("b$1", 2));
+
+        PassScheduler scheduler = new PassScheduler();
+        Assert.assertFalse(scheduler.shouldSkip(pass, instance));
+        scheduler.recordExecution(pass, instance);
+
+        Assert.assertFalse(scheduler.shouldSkip(changingPass, instance));
+        changingPass.apply(instance, null);
+        scheduler.recordExecution(changingPass, instance);
+
+        Assert.assertFalse(scheduler.shouldSkip(pass, instance));
+    }
+
+    @Test
+    public void testUnscheduledChange() {
+        TypedInstance instance = newInstance();
+        PostTypeInferencePass pass = new DeadCodeEliminationPass();
+
+        PassScheduler scheduler = new PassScheduler();
+        Assert.assertFalse(scheduler.shouldSkip(pass, instance));
+        scheduler.recordExecution(pass, instance);
+
+        scheduler.beforeUnscheduledChange(instance);
+        instance.getBlock(0).addInstruction(AssignmentInstruction.fromInteger("b$1", 2));
+
+        Assert.assertFalse(scheduler.shouldSkip(pass, instance));
+    }
+
+    @Test
+    public void testNonIdempotentPassIsNotFingerprinted() {
+        TypedInstance instance = newInstance();
+        PostTypeInferencePass pass = (typedInstance, passData) -> {
+        };
+
+        PassScheduler scheduler = new PassScheduler();
+        Assert.assertFalse(scheduler.shouldSkip(pass, instance));
+        scheduler.recordExecution(pass, instance);
+        instance.getBlock(0).addInstruction(AssignmentInstruction.fromInteger("b$1", 2));
+
+        // First fingerprint of the instance, so the change is not counted
+        Assert.assertTrue(instance.updateChangeTracking());
+        Assert.assertEquals(0, instance.getModificationCount());
+    }
+
+    @Test
+    public void testUnchangedInstance() {
+        TypedInstance instance = newInstance();
+
+        Assert.assertTrue(instance.updateChangeTracking());
+        Assert.assertFalse(instance.updateChangeTracking());
+        Assert.assertEquals(0, instance.getModificationCount());
+    }
+
+    @Test
+    public void testInPlaceInstructionChange() {
+        TypedInstance instance = newInstance();
+        instance.updateChangeTracking();
+
+        instance.getBlock(0).getInstructions().get(0).renameVariables(Collections.singletonMap("a$1", "a$2"));
+
+        Assert.assertTrue(instance.updateChangeTracking());
+        Assert.assertEquals(1, instance.getModificationCount());
+    }
+
+    @Test
+    public void testReplacedInstruction() {
+        TypedInstance instance = newInstance();
+        instance.updateChangeTracking();
+
+        // Same text, different object
+        instance.getBlock(0).getInstructions().set(0, AssignmentInstruction.fromInteger("a$1", 1));
+
+        Assert.assertTrue(instance.updateChangeTracking());
+    }
+
+    @Test
+    public void testPropertyChange() {
+        TypedInstance instance = newInstance();
+        instance.updateChangeTracking();
+
+        instance.getFunctionBody().addProperty(new DisableOptimizationProperty("a"));
+        Assert.assertTrue(instance.updateChangeTracking());
+        Assert.assertFalse(instance.updateChangeTracking());
+    }
+
+    @Test
+    public void testTypeChanges() {
+        TypedInstance instance = newInstance();
+        VariableType intType = NumericFactory.defaultFactory().newInt();
+        instance.addOrOverwriteVariable("a$1", intType);
+        instance.updateChangeTracking();
+
+        instance.addOrOverwriteVariable("a$1", intType);
+        Assert.assertFalse(instance.updateChangeTracking());
+
+        instance.addOrOverwriteVariable("a$1", NumericFactory.defaultFactory().newDouble());
+        Assert.assertTrue(instance.updateChangeTracking());
+
+        instance.setFunctionType(FunctionTypeBuilder.newSimple().returning(intType).build());
+        Assert.assertTrue(instance.updateChangeTracking());
+        Assert.assertEquals(2, instance.getModificationCount());
+    }
+
+    private static TypedInstance newInstance() {
+        FunctionBody body = new FunctionBody();
+        SsaBlock block = new SsaBlock();
+        block.addInstruction(AssignmentInstruction.fromInteger("a$1", 1));
+        body.addBlock(block);
+
+        return new TypedInstance(new FunctionIdentification("test.m"),
+                Collections.emptyList(),
+                body,
+                () -> "",
+                ProviderData.newInstance("test"));
+    }
+}
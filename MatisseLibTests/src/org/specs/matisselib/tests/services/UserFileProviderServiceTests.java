@@ -0,0 +1,77 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.tests.services;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.specs.MatlabIR.MatlabLanguage.LanguageMode;
+import org.specs.MatlabIR.MatlabNode.nodes.root.FileNode;
+import org.specs.matisselib.services.UserFileProviderService;
+
+import pt.up.fe.specs.util.providers.StringProvider;
+
+public class UserFileProviderServiceTests {
+    @Test
+    public void testMainUnitsWithoutParsing() {
+        UserFileProviderService files = newService();
+        try {
+            files.enableParallelParsing(2);
+
+            Assert.assertTrue(files.hasMainUnit("foo.m", "foo"));
+            Assert.assertFalse(files.hasMainUnit("foo.m", "helper"));
+            Assert.assertTrue(files.hasMainUnit("bar.m", "bar"));
+            Assert.assertTrue(files.hasMainUnit("script.m", "script"));
+            Assert.assertFalse(files.hasMainUnit("missing.m", "missing"));
+        } finally {
+            files.close();
+        }
+    }
+
+    @Test
+    public void testPrefetchedFileMatchesSequentialParse() {
+        UserFileProviderService parallelFiles = newService();
+        try {
+            parallelFiles.enableParallelParsing(2);
+
+            // Parsing foo.m prefetches bar.m, which it calls
+            FileNode foo = parallelFiles.getFileNodeSafe("foo.m");
+            FileNode bar = parallelFiles.getFileNodeSafe("bar.m");
+
+            UserFileProviderService sequentialFiles = newService();
+            Assert.assertEquals(sequentialFiles.getFileNodeSafe("foo.m").getCode(), foo.getCode());
+            Assert.assertEquals(sequentialFiles.getFileNodeSafe("bar.m").getCode(), bar.getCode());
+            Assert.assertSame(bar, parallelFiles.getFileNodeSafe("bar.m"));
+        } finally {
+            parallelFiles.close();
+        }
+    }
+
+    @Test
+    public void testHasMainUnitRequiresParallelParsing() {
+        Assert.assertFalse(newService().hasMainUnit("foo.m", "foo"));
+    }
+
+    private static UserFileProviderService newService() {
+        Map<String, StringProvider> availableFiles = new HashMap<>();
+        availableFiles.put("foo.m", StringProvider.newInstance(
+                "function y = foo(x)\n    y = bar(x) + helper(x);\nend\nfunction y = helper(x)\n    y = x;\nend\n"));
+        availableFiles.put("bar.m", StringProvider.newInstance("function y = bar(x)\n    y = x * 2;\nend\n"));
+        availableFiles.put("script.m", StringProvider.newInstance("a = bar(1);\n"));
+
+        return new UserFileProviderService(LanguageMode.MATLAB, availableFiles);
+    }
+}
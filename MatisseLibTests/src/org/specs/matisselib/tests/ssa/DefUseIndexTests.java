@@ -0,0 +1,133 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.tests.ssa;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.MatlabIR.MatlabNodePass.FunctionIdentification;
+import org.specs.matisselib.CompilerDataProviders;
+import org.specs.matisselib.services.DefaultDataProviderService;
+import org.specs.matisselib.ssa.DefUseIndex;
+import org.specs.matisselib.ssa.FunctionBody;
+import org.specs.matisselib.ssa.SsaBlock;
+import org.specs.matisselib.ssa.instructions.AssignmentInstruction;
+import org.specs.matisselib.ssa.instructions.SsaInstruction;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+
+public class DefUseIndexTests {
+
+    private static FunctionBody buildBody() {
+        FunctionBody body = new FunctionBody("test", 1);
+
+        SsaBlock block = new SsaBlock();
+        block.addAssignment("a$1", 1);
+        block.addAssignment("b$1", "a$1");
+        block.addAssignment("c$ret", "a$1");
+        body.addBlock(block);
+
+        return body;
+    }
+
+    @Test
+    public void testBuild() {
+        FunctionBody body = buildBody();
+        DefUseIndex index = body.getDefUseIndex();
+
+        Assert.assertSame(body.getBlock(0).getInstructions().get(0), index.getDefinition("a$1").get());
+        Assert.assertEquals(2, index.getUseCount("a$1"));
+        Assert.assertEquals(0, index.getUseCount("b$1"));
+        Assert.assertEquals(1, index.getUseCount("c$ret"));
+        Assert.assertFalse(index.getDefinition("d$1").isPresent());
+    }
+
+    @Test
+    public void testBlockMutators() {
+        FunctionBody body = buildBody();
+        DefUseIndex index = body.getDefUseIndex();
+        SsaBlock block = body.getBlock(0);
+
+        SsaInstruction use = AssignmentInstruction.fromVariable("d$1", "b$1");
+        block.insertInstruction(2, use);
+        Assert.assertEquals(1, index.getUseCount("b$1"));
+        Assert.assertSame(use, index.getUses("b$1").get(0));
+        Assert.assertSame(block, index.getBlock(use).get());
+
+        block.removeInstructionsIf(instruction -> instruction == use);
+        Assert.assertEquals(0, index.getUseCount("b$1"));
+        Assert.assertFalse(index.getDefinition("d$1").isPresent());
+
+        Map<String, String> newNames = new HashMap<>();
+        newNames.put("a$1", "x$1");
+        body.renameVariables(newNames);
+        Assert.assertEquals(0, index.getUseCount("a$1"));
+        Assert.assertEquals(2, index.getUseCount("x$1"));
+
+        SsaBlock newBlock = new SsaBlock();
+        newBlock.addAssignment("e$1", "x$1");
+        body.addBlock(newBlock);
+        Assert.assertEquals(3, index.getUseCount("x$1"));
+    }
+
+    @Test
+    public void testDiscard() {
+        FunctionBody body = buildBody();
+        DefUseIndex index = body.getDefUseIndex();
+
+        body.discardDefUseIndex();
+        body.getBlock(0).addAssignment("d$1", "b$1");
+
+        Assert.assertFalse(body.hasDefUseIndex());
+        Assert.assertEquals(0, index.getUseCount("b$1"));
+        Assert.assertEquals(1, body.getDefUseIndex().getUseCount("b$1"));
+    }
+
+    @Test
+    public void testProviderRebuildsAfterSetBlocks() {
+        FunctionBody body = buildBody();
+        TypedInstance instance = new TypedInstance(new FunctionIdentification("test.m"),
+                Collections.emptyList(),
+                body,
+                () -> "",
+                ProviderData.newInstance("test"));
+        DefaultDataProviderService provider = new DefaultDataProviderService(instance, DataStore.newInstance("test"));
+
+        DefUseIndex index = provider.buildData(CompilerDataProviders.DEF_USE_INDEX);
+        Assert.assertSame(index, provider.buildData(CompilerDataProviders.DEF_USE_INDEX));
+        Assert.assertEquals(0, index.getUseCount("b$1"));
+
+        SsaBlock newBlock = new SsaBlock();
+        newBlock.addAssignment("d$1", "b$1");
+        body.setBlocks(Arrays.asList(body.getBlock(0), newBlock));
+
+        Assert.assertTrue(index.isDetached());
+
+        // Discarding the stale index must not discard the index the body built afterwards
+        DefUseIndex bodyIndex = body.getDefUseIndex();
+        DefUseIndex newIndex = provider.buildData(CompilerDataProviders.DEF_USE_INDEX);
+        Assert.assertSame(bodyIndex, newIndex);
+        Assert.assertFalse(newIndex.isDetached());
+        Assert.assertEquals(1, newIndex.getUseCount("b$1"));
+        Assert.assertSame(newBlock, newIndex.getBlock(newBlock.getInstructions().get(0)).get());
+
+        body.setBlocks(Collections.singletonList(newBlock));
+        Assert.assertFalse(provider.tryGet(CompilerDataProviders.DEF_USE_INDEX).isPresent());
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.tests.ssa;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.specs.matisselib.ssa.FunctionBody;
+import org.specs.matisselib.ssa.VariableSymbol;
+
+public class VariableSymbolTests {
+    @Test
+    public void testInterning() {
+        FunctionBody body = new FunctionBody("test", 1);
+
+        VariableSymbol a = body.getSymbol("a$1");
+        VariableSymbol b = body.getSymbol("b$1");
+
+        Assert.assertSame(a, body.getSymbol("a$1"));
+        Assert.assertNotSame(a, b);
+        Assert.assertEquals(0, a.getId());
+        Assert.assertEquals(1, b.getId());
+        Assert.assertSame(b, body.getSymbolTable().get(1));
+        Assert.assertEquals("a$1", a.toString());
+        Assert.assertFalse(body.getSymbolTable().tryGet("c$1").isPresent());
+    }
+
+    @Test
+    public void testFlags() {
+        FunctionBody body = new FunctionBody("test", 1);
+
+        VariableSymbol output = body.getSymbol("y$ret");
+        Assert.assertTrue(output.isReturn());
+        Assert.assertFalse(output.isGlobal());
+        Assert.assertFalse(output.isTemporary());
+
+        VariableSymbol global = body.getSymbol("^x");
+        Assert.assertTrue(global.isGlobal());
+        Assert.assertFalse(global.isReturn());
+
+        VariableSymbol temporary = body.getSymbol(body.makeTemporary("size"));
+        Assert.assertTrue(temporary.isTemporary());
+        Assert.assertFalse(temporary.isReturn());
+    }
+}
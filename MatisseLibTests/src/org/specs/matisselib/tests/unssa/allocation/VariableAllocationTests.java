@@ -0,0 +1,60 @@
+/**
+ * Copyright 2026 SPeCS.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matisselib.tests.unssa.allocation;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.specs.matisselib.unssa.VariableAllocation;
+
+public class VariableAllocationTests {
+    @Test
+    public void testGroupIds() {
+        VariableAllocation allocation = new VariableAllocation();
+        allocation.addVariableGroup(Arrays.asList("a$1", "a$2"));
+        allocation.addIsolatedVariable("b$1");
+
+        Assert.assertEquals(0, allocation.getGroupIdForVariable("a$2"));
+        Assert.assertEquals(1, allocation.getGroupIdForVariable("b$1"));
+        Assert.assertEquals(-1, allocation.getGroupIdForVariable("c$1"));
+    }
+
+    @Test
+    public void testMerge() {
+        VariableAllocation allocation = new VariableAllocation();
+        for (int i = 0; i < 40; ++i) {
+            allocation.addIsolatedVariable("x$" + i);
+        }
+
+        Assert.assertEquals(2, allocation.merge(2, 5));
+        Assert.assertEquals(Arrays.asList("x$2", "x$5"), allocation.getVariableGroups().get(2));
+        Assert.assertEquals(2, allocation.getGroupIdForVariable("x$5"));
+        Assert.assertEquals(5, allocation.getGroupIdForVariable("x$6"));
+
+        // Merging into a later group shifts its ID
+        Assert.assertEquals(9, allocation.merge(10, 0));
+        Assert.assertEquals(Arrays.asList("x$11", "x$0"), allocation.getVariableGroups().get(9));
+        Assert.assertEquals(9, allocation.getGroupIdForVariable("x$0"));
+        Assert.assertEquals(1, allocation.getGroupIdForVariable("x$2"));
+        Assert.assertEquals(1, allocation.getGroupIdForVariable("x$5"));
+        Assert.assertEquals(37, allocation.getGroupIdForVariable("x$39"));
+
+        for (int groupId = 0; groupId < allocation.getVariableGroups().size(); ++groupId) {
+            for (String variable : allocation.getVariableGroups().get(groupId)) {
+                Assert.assertEquals(groupId, allocation.getGroupIdForVariable(variable));
+            }
+        }
+    }
+}
@@ -0,0 +1,366 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatlabIR.MatlabNode.utils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.specs.MatlabIR.StatementData;
+import org.specs.MatlabIR.MatlabNode.MatlabNode;
+import org.specs.MatlabIR.MatlabNode.StatementNode;
+import org.specs.MatlabIR.MatlabNode.nodes.core.ClassWordNode;
+import org.specs.MatlabIR.MatlabNode.nodes.core.CommentNode;
+import org.specs.MatlabIR.MatlabNode.nodes.core.FunctionHandleNode;
+import org.specs.MatlabIR.MatlabNode.nodes.core.IdentifierNode;
+import org.specs.MatlabIR.MatlabNode.nodes.core.InvokeNode;
+import org.specs.MatlabIR.MatlabNode.nodes.core.MatlabCharArrayNode;
+import org.specs.MatlabIR.MatlabNode.nodes.core.MatlabNumberNode;
+import org.specs.MatlabIR.MatlabNode.nodes.core.MatlabStringNode;
+import org.specs.MatlabIR.MatlabNode.nodes.core.MetaClassNode;
+import org.specs.MatlabIR.MatlabNode.nodes.core.OperatorNode;
+import org.specs.MatlabIR.MatlabNode.nodes.core.ReservedWordNode;
+import org.specs.MatlabIR.MatlabNode.nodes.root.FileNode;
+import org.specs.MatlabIR.MatlabNode.nodes.root.FunctionNode;
+import org.specs.MatlabIR.MatlabNode.nodes.root.MatlabUnitNode;
+import org.specs.MatlabIR.MatlabNode.nodes.root.RootNodeFactory;
+import org.specs.MatlabIR.MatlabNode.nodes.statements.CommentBlockSt;
+import org.specs.MatlabIR.MatlabNode.nodes.statements.NestedFunctionSt;
+
+import pt.up.fe.specs.util.SpecsCollections;
+import pt.up.fe.specs.util.providers.StringProvider;
+
+/**
+ * Compact binary representation of parsed MATLAB-IR trees.
+ *
+ * <p>
+ * Each node is written as a class index (class names are written once, on first use), the information the node keeps
+ * outside of its children, and its children. Nodes are rebuilt with the same constructors used by the generic node
+ * creation path, i.e. <code>(StatementData, Collection)</code> for statements and
+ * <code>(Object content, Collection)</code> for the remaining nodes.
+ *
+ * <p>
+ * The filename and original code of the FileNode are not stored, and must be provided when reading.
+ */
+public class MatlabNodeSerializer {
+
+    private static final int MAGIC = 0x4D415354; // "MAST"
+
+    /**
+     * Must be incremented whenever the binary format or the information kept by nodes changes.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final Map<Class<?>, Function<MatlabNode, String>> CONTENT_GETTERS;
+
+    static {
+        CONTENT_GETTERS = new HashMap<>();
+
+        CONTENT_GETTERS.put(IdentifierNode.class, node -> ((IdentifierNode) node).getName());
+        CONTENT_GETTERS.put(MatlabNumberNode.class, node -> ((MatlabNumberNode) node).getNumberString());
+        CONTENT_GETTERS.put(MatlabCharArrayNode.class, node -> ((MatlabCharArrayNode) node).getString());
+        CONTENT_GETTERS.put(MatlabStringNode.class, node -> ((MatlabStringNode) node).getString());
+        CONTENT_GETTERS.put(CommentNode.class, node -> ((CommentNode) node).getString());
+        CONTENT_GETTERS.put(MetaClassNode.class, node -> ((MetaClassNode) node).getName());
+        CONTENT_GETTERS.put(FunctionHandleNode.class, node -> ((FunctionHandleNode) node).getName());
+        CONTENT_GETTERS.put(InvokeNode.class, node -> ((InvokeNode) node).getCommand());
+        CONTENT_GETTERS.put(OperatorNode.class, node -> ((OperatorNode) node).getOp().getLiteral());
+        CONTENT_GETTERS.put(ReservedWordNode.class, node -> ((ReservedWordNode) node).getWord().getLiteral());
+        CONTENT_GETTERS.put(ClassWordNode.class, node -> ((ClassWordNode) node).getWord().getLiteral());
+    }
+
+    private MatlabNodeSerializer() {
+    }
+
+    /**
+     * Writes the given tree to the stream.
+     *
+     * @param fileNode
+     * @param output
+     * @throws IOException
+     * @throws IllegalArgumentException
+     *             if the tree contains temporary nodes
+     */
+    public static void write(FileNode fileNode, DataOutputStream output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+
+        new Writer(output).writeNode(fileNode);
+    }
+
+    /**
+     * Reads a tree previously written with {@link #write(FileNode, DataOutputStream)}.
+     *
+     * @param input
+     * @param filename
+     *            the name of the file the tree belongs to
+     * @param originalCode
+     *            the code the tree was parsed from
+     * @return
+     * @throws IOException
+     *             if the stream is not in the expected format
+     */
+    public static FileNode read(DataInputStream input, String filename, StringProvider originalCode)
+            throws IOException {
+
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a serialized MATLAB tree");
+        }
+
+        int version = input.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported format version " + version + ", expected " + FORMAT_VERSION);
+        }
+
+        MatlabNode node = new Reader(input, filename, originalCode).readNode();
+        if (!(node instanceof FileNode)) {
+            throw new IOException("Expected FileNode, found " + node.getNodeName());
+        }
+
+        return (FileNode) node;
+    }
+
+    private static class Writer {
+        private final DataOutputStream output;
+        private final Map<Class<?>, Integer> classIndexes = new HashMap<>();
+
+        Writer(DataOutputStream output) {
+            this.output = output;
+        }
+
+        void writeNode(MatlabNode node) throws IOException {
+            Class<?> nodeClass = node.getClass();
+            if (node.isTemporary()) {
+                throw new IllegalArgumentException("Cannot serialize temporary node " + node.getNodeName());
+            }
+
+            Integer classIndex = classIndexes.get(nodeClass);
+            if (classIndex == null) {
+                classIndex = classIndexes.size();
+                classIndexes.put(nodeClass, classIndex);
+
+                writeVarInt(classIndex);
+                writeString(nodeClass.getName());
+            } else {
+                writeVarInt(classIndex);
+            }
+
+            if (node instanceof StatementNode) {
+                StatementData data = ((StatementNode) node).getData();
+                writeVarInt(data.getLine());
+                output.writeBoolean(data.isDisplay());
+
+                if (node instanceof CommentBlockSt) {
+                    output.writeBoolean(((CommentBlockSt) node).isCommentBlock());
+                }
+            } else if (node instanceof FunctionNode) {
+                writeVarInt(((FunctionNode) node).getEndLine());
+            } else {
+                Function<MatlabNode, String> contentGetter = CONTENT_GETTERS.get(nodeClass);
+                if (contentGetter != null) {
+                    writeString(contentGetter.apply(node));
+                }
+            }
+
+            writeVarInt(node.getNumChildren());
+            for (MatlabNode child : node.getChildren()) {
+                writeNode(child);
+            }
+        }
+
+        private void writeString(String string) throws IOException {
+            // DataOutputStream.writeUTF is limited to 64K bytes
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            output.write(bytes);
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            // Zig-zag encoding, so that small negative values (e.g., -1 as 'no line') stay small
+            int encoded = (value << 1) ^ (value >> 31);
+            while ((encoded & ~0x7F) != 0) {
+                output.writeByte((encoded & 0x7F) | 0x80);
+                encoded >>>= 7;
+            }
+            output.writeByte(encoded);
+        }
+    }
+
+    private static class Reader {
+        private final DataInputStream input;
+        private final String filename;
+        private final StringProvider originalCode;
+        private final List<Class<?>> classes = new ArrayList<>();
+
+        Reader(DataInputStream input, String filename, StringProvider originalCode) {
+            this.input = input;
+            this.filename = filename;
+            this.originalCode = originalCode;
+        }
+
+        MatlabNode readNode() throws IOException {
+            Class<?> nodeClass = readClass();
+
+            if (StatementNode.class.isAssignableFrom(nodeClass)) {
+                int line = readVarInt();
+                boolean display = input.readBoolean();
+                Boolean isCommentBlock = CommentBlockSt.class.equals(nodeClass) ? input.readBoolean() : null;
+
+                List<MatlabNode> children = readChildren();
+                StatementNode statement = newStatement(nodeClass, new StatementData(line, display), children);
+                if (isCommentBlock != null) {
+                    ((CommentBlockSt) statement).setCommentBlock(isCommentBlock);
+                }
+
+                return statement;
+            }
+
+            if (FunctionNode.class.equals(nodeClass)) {
+                int endLine = readVarInt();
+                List<MatlabNode> children = readChildren();
+
+                return RootNodeFactory.newFunction(endLine, SpecsCollections.cast(children, StatementNode.class));
+            }
+
+            if (FileNode.class.isAssignableFrom(nodeClass)) {
+                List<MatlabNode> children = readChildren();
+
+                return RootNodeFactory.newFile(SpecsCollections.cast(children, MatlabUnitNode.class), filename,
+                        originalCode);
+            }
+
+            String content = CONTENT_GETTERS.containsKey(nodeClass) ? readString() : null;
+            List<MatlabNode> children = readChildren();
+
+            return newNode(nodeClass, content, children);
+        }
+
+        private List<MatlabNode> readChildren() throws IOException {
+            int numChildren = readVarInt();
+            List<MatlabNode> children = new ArrayList<>(numChildren);
+            for (int i = 0; i < numChildren; ++i) {
+                children.add(readNode());
+            }
+
+            return children;
+        }
+
+        private Class<?> readClass() throws IOException {
+            int classIndex = readVarInt();
+            if (classIndex < classes.size()) {
+                return classes.get(classIndex);
+            }
+
+            if (classIndex != classes.size()) {
+                throw new IOException("Invalid class index " + classIndex);
+            }
+
+            String className = readString();
+            try {
+                Class<?> nodeClass = Class.forName(className);
+                if (!MatlabNode.class.isAssignableFrom(nodeClass)) {
+                    throw new IOException("Not a MatlabNode: " + className);
+                }
+
+                classes.add(nodeClass);
+                return nodeClass;
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Unknown node class " + className, e);
+            }
+        }
+
+        private String readString() throws IOException {
+            byte[] bytes = new byte[readVarInt()];
+            input.readFully(bytes);
+
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int readVarInt() throws IOException {
+            int encoded = 0;
+            int shift = 0;
+            int currentByte;
+            do {
+                if (shift > 28) {
+                    throw new IOException("Malformed variable-length integer");
+                }
+
+                currentByte = input.readUnsignedByte();
+                encoded |= (currentByte & 0x7F) << shift;
+                shift += 7;
+            } while ((currentByte & 0x80) != 0);
+
+            return (encoded >>> 1) ^ -(encoded & 1);
+        }
+    }
+
+    private static StatementNode newStatement(Class<?> nodeClass, StatementData data, List<MatlabNode> children)
+            throws IOException {
+
+        if (NestedFunctionSt.class.equals(nodeClass)) {
+            return (StatementNode) newInstance(nodeClass, new Class<?>[] { int.class, Collection.class },
+                    data.getLine(), children);
+        }
+
+        Class<?> childrenType = hasConstructor(nodeClass, StatementData.class, Collection.class) ? Collection.class
+                : List.class;
+
+        return (StatementNode) newInstance(nodeClass, new Class<?>[] { StatementData.class, childrenType },
+                data, children);
+    }
+
+    private static MatlabNode newNode(Class<?> nodeClass, String content, List<MatlabNode> children)
+            throws IOException {
+
+        if (hasConstructor(nodeClass, Object.class, Collection.class)) {
+            return (MatlabNode) newInstance(nodeClass, new Class<?>[] { Object.class, Collection.class },
+                    content, children);
+        }
+
+        return (MatlabNode) newInstance(nodeClass, new Class<?>[] { Collection.class }, children);
+    }
+
+    private static boolean hasConstructor(Class<?> nodeClass, Class<?>... parameterTypes) {
+        try {
+            nodeClass.getDeclaredConstructor(parameterTypes);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static Object newInstance(Class<?> nodeClass, Class<?>[] parameterTypes, Object... arguments)
+            throws IOException {
+
+        try {
+            Constructor<?> constructor = nodeClass.getDeclaredConstructor(parameterTypes);
+            constructor.setAccessible(true);
+
+            return constructor.newInstance(arguments);
+        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException e) {
+            throw new IOException("Could not rebuild node of class " + nodeClass.getName(), e);
+        } catch (InvocationTargetException e) {
+            throw new IOException("Could not rebuild node of class " + nodeClass.getName(), e.getCause());
+        }
+    }
+}
@@ -39,6 +39,12 @@ import pt.up.fe.specs.util.utilities.LineStream;
  */
 public class MatlabParser {
 
+    /**
+     * Identifies the behavior of the parser. Must be incremented whenever a change to the tokenizer or the parsing
+     * rules can produce a different tree for the same code, so that previously cached trees are discarded.
+     */
+    public static final int PARSER_VERSION = 1;
+
     // private final ParserMode parserMode;
     private int totalLines;
     private int nonEmptyLines;
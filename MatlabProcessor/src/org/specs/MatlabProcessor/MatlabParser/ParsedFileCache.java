@@ -0,0 +1,153 @@
+/**
+ * Copyright 2026 SPeCS.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatlabProcessor.MatlabParser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.specs.MatlabIR.MatlabLanguage.LanguageMode;
+import org.specs.MatlabIR.MatlabNode.nodes.root.FileNode;
+import org.specs.MatlabIR.MatlabNode.utils.MatlabNodeSerializer;
+
+import pt.up.fe.specs.util.SpecsLogs;
+import pt.up.fe.specs.util.io.SimpleFile;
+import pt.up.fe.specs.util.providers.StringProvider;
+
+/**
+ * On-disk cache of parsed M-files.
+ * 
+ * <p>
+ * Trees are stored in the binary format of {@link MatlabNodeSerializer}, one file per entry, named after a hash of the
+ * code, the language mode, the parser version and the serialization format version. Entries that cannot be read are
+ * ignored and the file is parsed again.
+ * 
+ * <p>
+ * Several compilations may share the same folder, since entries are written to a temporary file and then moved.
+ */
+public class ParsedFileCache {
+
+    private static final String EXTENSION = ".mast";
+
+    private final File cacheFolder;
+    // Atomic, since files may be parsed in parallel
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    public ParsedFileCache(File cacheFolder) {
+        this.cacheFolder = Objects.requireNonNull(cacheFolder);
+    }
+
+    /**
+     * Returns the tree of the given file, reading it from the cache if available, and parsing and adding it to the
+     * cache otherwise.
+     * 
+     * @param file
+     * @param languageMode
+     * @return
+     */
+    public FileNode parse(SimpleFile file, LanguageMode languageMode) {
+        String code = file.getContents();
+        File cacheFile = new File(cacheFolder, getKey(code, languageMode) + EXTENSION);
+
+        if (cacheFile.isFile()) {
+            try (DataInputStream input = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(cacheFile)))) {
+
+                FileNode node = MatlabNodeSerializer.read(input, file.getFilename(), StringProvider.newInstance(code));
+                hits.incrementAndGet();
+                return node;
+            } catch (IOException | RuntimeException e) {
+                SpecsLogs.msgInfo("Ignoring invalid cached tree for '" + file.getFilename() + "': " + e.getMessage());
+            }
+        }
+
+        misses.incrementAndGet();
+        FileNode node = new MatlabParser(languageMode).parse(file);
+        store(node, cacheFile);
+
+        return node;
+    }
+
+    private void store(FileNode node, File cacheFile) {
+        if (!cacheFolder.isDirectory() && !cacheFolder.mkdirs()) {
+            SpecsLogs.msgInfo("Could not create AST cache folder '" + cacheFolder + "'");
+            return;
+        }
+
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile("ast", ".tmp", cacheFolder);
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+
+                MatlabNodeSerializer.write(node, output);
+            }
+
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | IllegalArgumentException e) {
+            SpecsLogs.msgInfo("Could not cache tree of '" + node.getFilename() + "': " + e.getMessage());
+
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    private static String getKey(String code, LanguageMode languageMode) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(code.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(languageMode.name().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(Integer.toString(MatlabParser.PARSER_VERSION).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(Integer.toString(MatlabNodeSerializer.FORMAT_VERSION).getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public File getCacheFolder() {
+        return cacheFolder;
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+}
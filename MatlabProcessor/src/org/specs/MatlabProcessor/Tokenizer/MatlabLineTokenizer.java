@@ -15,7 +15,6 @@ package org.specs.MatlabProcessor.Tokenizer;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.specs.MatlabIR.MatlabLanguage.LanguageMode;
 import org.specs.MatlabIR.MatlabNode.MatlabNode;
@@ -24,7 +23,6 @@ import org.specs.MatlabIR.MatlabNode.nodes.statements.StatementFactory;
 import org.specs.MatlabIR.MatlabNode.nodes.temporary.CommentBlockStartSt;
 import org.specs.MatlabIR.MatlabNode.nodes.temporary.TempNodeFactory;
 import org.specs.MatlabIR.Processor.TreeTransformException;
-import org.specs.MatlabProcessor.Tokenizer.Rules.GeneralRules;
 import org.specs.MatlabProcessor.Tokenizer.TokenizerState.TokenizerState;
 
 import pt.up.fe.specs.util.SpecsCollections;
@@ -40,9 +38,7 @@ public class MatlabLineTokenizer {
 
     private final Reporter reportService;
     private TokenizerState state;
-    // Rules whose test is the first character of the current line
-    private final Map<Character, TokenizerRule> charRules;
-    private final List<TokenizerRule> rules;
+    private final TokenizerRuleTable rules;
     private StringBuilder sourceMatlab;
     private TokenizerResult previousResult;
 
@@ -54,8 +50,7 @@ public class MatlabLineTokenizer {
     public MatlabLineTokenizer(LanguageMode languageMode, Reporter reportService) {
         this.reportService = reportService;
 
-        rules = GeneralRules.getRuleSet(languageMode);
-        charRules = GeneralRules.getCharRuleset(languageMode);
+        rules = TokenizerRuleTable.get(languageMode);
         reset();
         // verbose = false;
     }
@@ -331,14 +326,14 @@ public class MatlabLineTokenizer {
         }
 
         // Try to apply a rule based on the first character
-        TokenizerRule charRule = charRules.get(state.getCurrentLine().getFirstChar());
+        TokenizerRule charRule = rules.getRule(state.getCurrentLine().getFirstChar());
         if (charRule != null) {
             charRule.apply(state);
             return;
         }
 
-        // Iterate over the remaining rules
-        for (TokenizerRule rule : rules) {
+        // Not an ASCII character, iterate over the rules
+        for (TokenizerRule rule : rules.getFallbackRules()) {
             if (rule.isAppliable(state)) {
                 /*
                 System.out.println("Applying rule '"
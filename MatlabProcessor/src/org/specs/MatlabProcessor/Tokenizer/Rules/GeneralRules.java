@@ -49,6 +49,9 @@ import pt.up.fe.specs.util.utilities.StringSlice;
  */
 public class GeneralRules {
 
+    // Stateless, can be shared
+    private static final TokenizerRule NUMBER_RULE = NumberRules.numberRule();
+
     public static List<TokenizerRule> getRuleSet(LanguageMode languageMode) {
         List<TokenizerRule> ruleset = new ArrayList<>();
 
@@ -639,42 +642,19 @@ public class GeneralRules {
 
             @Override
             public void apply(TokenizerState state) throws TreeTransformException {
-                StringSlice workline = null;
-
                 // ["a"-"z","A"-"Z"](["_","a"-"z","A"-"Z","0"-"9"])*>
-                workline = state.getCurrentLine();
-                StringBuilder builder = new StringBuilder();
-                int charIndex = 0;
+                StringSlice workline = state.getCurrentLine();
 
-                // try {
-                char currentChar = workline.charAt(charIndex);
+                assert Character.isLetter(workline.charAt(0)) : "Expected a letter";
 
-                assert Character.isLetter(currentChar) : "Expected a letter";
-                // if (!Character.isLetter(currentChar)) {
-                // throw new ParserErrorException("Expected a letter, got a '" + currentChar + "'");
-                // }
-                builder.append(currentChar);
-                charIndex += 1;
+                // Find the end of the identifier, and copy it only once
+                int idLength = 1;
                 int worklineChars = workline.length();
-                if (charIndex < worklineChars) {
-                    currentChar = workline.charAt(charIndex);
-                    while (MatlabParsingUtils.isIdentifierChar(currentChar)) {
-                        builder.append(currentChar);
-                        charIndex += 1;
-
-                        // Break if no more chars
-                        if (charIndex >= worklineChars) {
-                            break;
-                        }
-
-                        currentChar = workline.charAt(charIndex);
-                    }
+                while (idLength < worklineChars && MatlabParsingUtils.isIdentifierChar(workline.charAt(idLength))) {
+                    idLength += 1;
                 }
-                // } catch (IndexOutOfBoundsException e) {
-                // Just continue, the id will be stored in the builder
-                // }
 
-                String id = builder.toString();
+                String id = workline.substring(0, idLength).toString();
 
                 MatlabNode lastNode = state.getLastNonSpaceNode();
 
@@ -801,7 +781,7 @@ public class GeneralRules {
                 char aChar = workline.charAt(0);
 
                 if (Character.isDigit(aChar)) {
-                    NumberRules.numberRule().apply(state);
+                    NUMBER_RULE.apply(state);
                     return;
                 }
 
@@ -863,20 +843,18 @@ public class GeneralRules {
             public void apply(TokenizerState state) throws TreeTransformException {
 
                 // Create undefined token with symbol
-                String symbol = state.getCurrentLine().substring(0, 1).toString();
-
-                MatlabNode node = getSymbol(symbol);
+                MatlabNode node = getSymbol(state.getCurrentLine().charAt(0));
 
                 // Push token
-                state.pushProducedToken(node, symbol);
+                state.pushProducedToken(node, 1);
             }
 
-            private MatlabNode getSymbol(String symbol) {
-                if (symbol.equals("@")) {
+            private MatlabNode getSymbol(char symbol) {
+                if (symbol == '@') {
                     return TempNodeFactory.newFunctionHandlerSymbol();
                 }
 
-                return TempNodeFactory.newUnknownSymbol(symbol);
+                return TempNodeFactory.newUnknownSymbol(String.valueOf(symbol));
             }
 
             @Override
@@ -63,14 +63,7 @@ public class OperatorRules {
             public void apply(TokenizerState state)
                     throws TreeTransformException {
 
-                // '~='
-                if (state.getCurrentLine().startsWith("~=")) {
-                    RulesUtils.applyOperatorRule("~=", state);
-                    return;
-                }
-
-                // Assume '~'
-                RulesUtils.applyOperatorRule("~", state);
+                applyNotRule(state);
             }
 
             @Override
@@ -82,6 +75,26 @@ public class OperatorRules {
         return rule;
     }
 
+    /**
+     * Produces a '~=' operator if the line continues with '=', or a '~' operator otherwise. The first character of the
+     * line is either '~' or, in Octave, '!'.
+     * 
+     * @param state
+     * @throws TreeTransformException
+     */
+    private static void applyNotRule(TokenizerState state) throws TreeTransformException {
+        StringSlice line = state.getCurrentLine();
+
+        // '~='
+        if (line.length() > 1 && line.charAt(1) == '=') {
+            RulesUtils.applyOperatorRule("~=", 2, state);
+            return;
+        }
+
+        // Assume '~'
+        RulesUtils.applyOperatorRule("~", 1, state);
+    }
+
     /**
      * Octave !.
      * 
@@ -97,9 +110,8 @@ public class OperatorRules {
             public void apply(TokenizerState state)
                     throws TreeTransformException {
 
-                state.setCurrentLine(new StringSlice("~" + state.getCurrentLine().substring(1)));
-
-                tildeRule().apply(state);
+                // Same as '~', without rewriting the line
+                applyNotRule(state);
             }
 
             @Override
@@ -261,11 +273,7 @@ public class OperatorRules {
                     throws TreeTransformException {
 
                 // Check if it is single or double &
-                String advance = "";
-                if (state.getCurrentLine().startsWith("&&")) {
-                    advance += "&";
-                }
-                advance += "&";
+                String advance = state.getCurrentLine().startsWith("&&") ? "&&" : "&";
 
                 RulesUtils.applyOperatorRule(advance, state);
             }
@@ -294,14 +302,8 @@ public class OperatorRules {
             public void apply(TokenizerState state)
                     throws TreeTransformException {
 
-                // Check if it is single or double &
-                // boolean isDouble = false;
-                // TokenType type = TokenType.orSingle;
-                String advance = "";
-                if (state.getCurrentLine().startsWith("||")) {
-                    advance += "|";
-                }
-                advance += "|";
+                // Check if it is single or double |
+                String advance = state.getCurrentLine().startsWith("||") ? "||" : "|";
 
                 RulesUtils.applyOperatorRule(advance, state);
             }
@@ -330,7 +332,7 @@ public class OperatorRules {
             public void apply(TokenizerState state)
                     throws TreeTransformException {
 
-                StringSlice signal = state.getCurrentLine().substring(0, 1);
+                String signal = state.getCurrentLine().charAt(0) == '+' ? "+" : "-";
 
                 // Check if inside square brackets
                 boolean parseAsExpression = TokenizerUtils
@@ -340,19 +342,18 @@ public class OperatorRules {
                     boolean previousTokenIsSpace = state.getLastNode() instanceof SpaceNode;
                     boolean previousTokenIsSeparator = state.getLastNode() instanceof SubscriptSeparatorNode;
 
+                    StringSlice afterSignal = state.getCurrentLine().substring(1);
+
                     // Check if there is a number of an identifier next
-                    MatlabNumber number = MatlabNumber.getMatlabNumber(state
-                            .getCurrentLine().substring(1)).number;
+                    MatlabNumber number = MatlabNumber.getMatlabNumber(afterSignal).number;
 
                     boolean nextIsNumber = number != null;
 
-                    StringSlice id = MatlabParsingUtils.getPrefixWord(state
-                            .getCurrentLine().substring(1));
+                    StringSlice id = MatlabParsingUtils.getPrefixWord(afterSignal);
                     boolean nextIsId = id != null;
 
                     // Check if after the signal there is a space
-                    boolean nextIsSpace = state.getCurrentLine().substring(1)
-                            .startsWith(" ");
+                    boolean nextIsSpace = afterSignal.startsWith(" ");
 
                     // If a number or id next to signal inside square brackets,
                     // and there is a space or separator before
@@ -377,7 +378,7 @@ public class OperatorRules {
                         */
 
                         // Parse signal as unitary operator
-                        RulesUtils.applyUnitarySignalRule(signal.toString(), state);
+                        RulesUtils.applyUnitarySignalRule(signal, state);
                         return;
                     }
                 }
@@ -392,11 +393,11 @@ public class OperatorRules {
 
                 // If null, assume unary
                 if (!lastToken.isPresent()) {
-                    RulesUtils.applyUnitarySignalRule(signal.toString(), state);
+                    RulesUtils.applyUnitarySignalRule(signal, state);
                 } else if (!MatlabOperator.isValidLeftOperand(lastToken.get(), state.isInsideIfCondition())) {
-                    RulesUtils.applyUnitarySignalRule(signal.toString(), state);
+                    RulesUtils.applyUnitarySignalRule(signal, state);
                 } else {
-                    RulesUtils.applyOperatorRule(signal.toString(), state);
+                    RulesUtils.applyOperatorRule(signal, state);
                 }
 
             }
@@ -427,8 +428,8 @@ public class OperatorRules {
                     throws TreeTransformException {
 
                 // Assume '*' or '/' operation
-                char op = state.getCurrentLine().charAt(0);
-                RulesUtils.applyOperatorRule(Character.toString(op), state);
+                String op = state.getCurrentLine().charAt(0) == '*' ? "*" : "/";
+                RulesUtils.applyOperatorRule(op, state);
             }
 
             @Override
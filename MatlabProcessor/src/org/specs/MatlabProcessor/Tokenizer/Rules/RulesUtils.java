@@ -22,6 +22,7 @@ import org.specs.MatlabIR.MatlabNode.nodes.core.MatlabNumberNode;
 import org.specs.MatlabIR.MatlabNode.nodes.temporary.SpaceNode;
 import org.specs.MatlabIR.MatlabNode.nodes.temporary.TempNodeFactory;
 import org.specs.MatlabIR.Processor.TreeTransformException;
+import org.specs.MatlabProcessor.Tokenizer.TokenizerRule;
 import org.specs.MatlabProcessor.Tokenizer.TokenizerState.TokenizerState;
 
 import pt.up.fe.specs.util.SpecsLogs;
@@ -33,6 +34,10 @@ import pt.up.fe.specs.util.utilities.StringSlice;
  */
 public class RulesUtils {
 
+    // Stateless, can be shared
+    private static final TokenizerRule COMMA_RULE = GeneralRules.commaRule();
+    private static final TokenizerRule SEMICOLON_RULE = GeneralRules.semicolonRule();
+
     /**
      * Produces a token of the given type which has a literal representation.
      * 
@@ -99,8 +104,22 @@ public class RulesUtils {
      */
     public static void applyOperatorRule(String operatorString, TokenizerState state)
 	    throws TreeTransformException {
+	applyOperatorRule(operatorString, operatorString.length(), state);
+    }
+
+    /**
+     * Produces an Operator token, consuming the given number of characters. Used when the characters in the line are
+     * not the same as the operator string (e.g., '!=' in Octave).
+     * 
+     * @param operatorString
+     * @param numChars
+     * @param state
+     * @throws TreeTransformException
+     */
+    public static void applyOperatorRule(String operatorString, int numChars, TokenizerState state)
+	    throws TreeTransformException {
 	MatlabNode token = MatlabNodeFactory.newOperator(operatorString);
-	state.pushProducedToken(token, operatorString);
+	state.pushProducedToken(token, numChars);
     }
 
     /**
@@ -174,10 +193,10 @@ public class RulesUtils {
      */
     public static void finishStatement(TokenizerState state) throws TreeTransformException {
 	// Apply comma and semicolon rules
-	if (GeneralRules.commaRule().isAppliable(state)) {
-	    GeneralRules.commaRule().apply(state);
-	} else if (GeneralRules.semicolonRule().isAppliable(state)) {
-	    GeneralRules.semicolonRule().apply(state);
+	if (COMMA_RULE.isAppliable(state)) {
+	    COMMA_RULE.apply(state);
+	} else if (SEMICOLON_RULE.isAppliable(state)) {
+	    SEMICOLON_RULE.apply(state);
 	} else {
 	    // If no comma nor semicolon, display results
 	    state.finishStatement(true);
@@ -0,0 +1,102 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatlabProcessor.Tokenizer;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.specs.MatlabIR.MatlabLanguage.LanguageMode;
+import org.specs.MatlabProcessor.Tokenizer.Rules.GeneralRules;
+import org.specs.MatlabProcessor.Tokenizer.Rules.NumberRules;
+
+/**
+ * Selects the tokenizer rule to apply based on the first character of the current line.
+ *
+ * <p>
+ * The rule of each ASCII character is computed once per language mode, so selecting a rule is an array access. Other
+ * characters are rare, and are tested against the rules of {@link GeneralRules#getRuleSet(LanguageMode)} in order.
+ *
+ * <p>
+ * The rules are stateless, so tables are shared between tokenizers (and threads).
+ */
+public final class TokenizerRuleTable {
+
+    private static final int TABLE_SIZE = 128;
+
+    private static final Map<LanguageMode, TokenizerRuleTable> TABLES;
+
+    static {
+        Map<LanguageMode, TokenizerRuleTable> tables = new EnumMap<>(LanguageMode.class);
+        for (LanguageMode languageMode : LanguageMode.values()) {
+            tables.put(languageMode, new TokenizerRuleTable(languageMode));
+        }
+
+        TABLES = Collections.unmodifiableMap(tables);
+    }
+
+    private final TokenizerRule[] asciiRules;
+    private final List<TokenizerRule> rules;
+
+    private TokenizerRuleTable(LanguageMode languageMode) {
+        rules = Collections.unmodifiableList(GeneralRules.getRuleSet(languageMode));
+
+        Map<Character, TokenizerRule> charRules = GeneralRules.getCharRuleset(languageMode);
+        TokenizerRule identifierRule = GeneralRules.identifierRule(languageMode);
+        TokenizerRule numberRule = NumberRules.numberRule();
+        TokenizerRule defaultRule = GeneralRules.defaultRule();
+
+        asciiRules = new TokenizerRule[TABLE_SIZE];
+        for (char ch = 0; ch < TABLE_SIZE; ++ch) {
+            TokenizerRule charRule = charRules.get(ch);
+
+            if (charRule != null) {
+                asciiRules[ch] = charRule;
+            } else if (Character.isLetter(ch)) {
+                asciiRules[ch] = identifierRule;
+            } else if (Character.isDigit(ch)) {
+                asciiRules[ch] = numberRule;
+            } else {
+                asciiRules[ch] = defaultRule;
+            }
+        }
+    }
+
+    public static TokenizerRuleTable get(LanguageMode languageMode) {
+        return TABLES.get(languageMode);
+    }
+
+    /**
+     *
+     * @param firstChar
+     *            the first character of the current line
+     * @return the rule for the given character, or null if the rules of {@link #getFallbackRules()} must be tested
+     */
+    public TokenizerRule getRule(char firstChar) {
+        if (firstChar < TABLE_SIZE) {
+            return asciiRules[firstChar];
+        }
+
+        return null;
+    }
+
+    /**
+     *
+     * @return the rules to test, in order, for characters outside the table
+     */
+    public List<TokenizerRule> getFallbackRules() {
+        return rules;
+    }
+}
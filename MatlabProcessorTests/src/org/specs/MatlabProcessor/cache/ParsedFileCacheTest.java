@@ -0,0 +1,153 @@
+/**
+ * Copyright 2026 SPeCS.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatlabProcessor.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.specs.MatlabIR.MatlabLanguage.LanguageMode;
+import org.specs.MatlabIR.MatlabNode.nodes.root.FileNode;
+import org.specs.MatlabIR.MatlabNode.utils.MatlabNodeSerializer;
+import org.specs.MatlabProcessor.MatlabParser.MatlabParser;
+import org.specs.MatlabProcessor.MatlabParser.ParsedFileCache;
+import org.specs.MatlabProcessor.blockComment.BlockCommentTestResource;
+import org.specs.MatlabProcessor.cell.CellArrayResource;
+import org.specs.MatlabProcessor.cell.CellArrayValidParseResource;
+import org.specs.MatlabProcessor.classdef.ClassdefTestResource;
+import org.specs.MatlabProcessor.commands.CommandsNegationTestResource;
+import org.specs.MatlabProcessor.commands.CommandsTestResource;
+import org.specs.MatlabProcessor.dynamicFields.DynamicAccessTestResource;
+import org.specs.MatlabProcessor.expressions.ExpressionTestResource;
+import org.specs.MatlabProcessor.fors.ForTestResource;
+import org.specs.MatlabProcessor.functionDeclarations.FunctionDeclarationTestResource;
+import org.specs.MatlabProcessor.functionHandle.AnonymousHandleTestResource;
+import org.specs.MatlabProcessor.functionHandle.FunctionHandleAnonymousResource;
+import org.specs.MatlabProcessor.functionHandle.FunctionHandleTestResource;
+import org.specs.MatlabProcessor.ifs.IfStatementTestResource;
+import org.specs.MatlabProcessor.invoke.InvokeTestResource;
+import org.specs.MatlabProcessor.matrix.MatrixResource;
+import org.specs.MatlabProcessor.mclass.MClassOneLiners;
+import org.specs.MatlabProcessor.octave.OctaveTestResource;
+import org.specs.MatlabProcessor.oneliners.OneLinersResource;
+import org.specs.MatlabProcessor.outputs.OutputsTestResource;
+import org.specs.MatlabProcessor.parenthesis.ParenthesisTestResource;
+import org.specs.MatlabProcessor.precedences.PrecedencesTestResource;
+import org.specs.MatlabProcessor.statements.StatementTestResource;
+import org.specs.MatlabProcessor.strings.StringTestResource;
+import org.specs.MatlabProcessor.whiles.WhileStatementTestResource;
+
+import pt.up.fe.specs.util.SpecsIo;
+import pt.up.fe.specs.util.io.SimpleFile;
+import pt.up.fe.specs.util.providers.ResourceProvider;
+import pt.up.fe.specs.util.providers.StringProvider;
+
+public class ParsedFileCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Every resource that the parser tests expect to parse successfully must survive a serialization round trip.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        testRoundTrip(AnonymousHandleTestResource.class, LanguageMode.MATLAB);
+        testRoundTrip(BlockCommentTestResource.class, LanguageMode.MATLAB);
+        testRoundTrip(CellArrayResource.class, LanguageMode.MATLAB);
+        testRoundTrip(CellArrayValidParseResource.class, LanguageMode.MATLAB);
+        testRoundTrip(ClassdefTestResource.class, LanguageMode.MATLAB);
+        testRoundTrip(CommandsNegationTestResource.class, LanguageMode.MATLAB);
+        testRoundTrip(CommandsTestResource.class, LanguageMode.MATLAB);
+        testRoundTrip(DynamicAccessTestResource.class, LanguageMode.MATLAB);
+        testRoundTrip(ExpressionTestResource.class, LanguageMode.MATLAB);
+        testRoundTrip(ForTestResource.class, LanguageMode.MATLAB);
+        testRoundTrip(FunctionDeclarationTestResource.class, LanguageMode.MATLAB);
+        testRoundTrip(FunctionHandleAnonymousResource.class, LanguageMode.MATLAB);
+        testRoundTrip(FunctionHandleTestResource.class, LanguageMode.MATLAB);
+        testRoundTrip(IfStatementTestResource.class, LanguageMode.MATLAB);
+        testRoundTrip(InvokeTestResource.class, LanguageMode.MATLAB);
+        testRoundTrip(MatrixResource.class, LanguageMode.MATLAB);
+        testRoundTrip(OctaveTestResource.class, LanguageMode.OCTAVE);
+        testRoundTrip(OutputsTestResource.class, LanguageMode.MATLAB);
+        testRoundTrip(ParenthesisTestResource.class, LanguageMode.MATLAB);
+        testRoundTrip(PrecedencesTestResource.class, LanguageMode.MATLAB);
+        testRoundTrip(StatementTestResource.class, LanguageMode.MATLAB);
+        testRoundTrip(StringTestResource.class, LanguageMode.MATLAB);
+        testRoundTrip(WhileStatementTestResource.class, LanguageMode.MATLAB);
+
+        for (OneLinersResource resource : OneLinersResource.values()) {
+            testRoundTrip(resource.name(), resource.getInput(), LanguageMode.MATLAB);
+        }
+
+        for (MClassOneLiners resource : MClassOneLiners.values()) {
+            testRoundTrip(resource.name(), resource.getInput(), LanguageMode.MATLAB);
+        }
+    }
+
+    @Test
+    public void testCacheHit() {
+        File cacheFolder = new File(temporaryFolder.getRoot(), "ast");
+        SimpleFile file = SimpleFile.newInstance("simple.m", SpecsIo.getResource(ForTestResource.SIMPLE));
+
+        ParsedFileCache cache = new ParsedFileCache(cacheFolder);
+        FileNode parsed = cache.parse(file, LanguageMode.MATLAB);
+        Assert.assertEquals(0, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+
+        ParsedFileCache newCache = new ParsedFileCache(cacheFolder);
+        FileNode cached = newCache.parse(file, LanguageMode.MATLAB);
+        Assert.assertEquals(1, newCache.getHits());
+        Assert.assertEquals(0, newCache.getMisses());
+
+        Assert.assertEquals(parsed.toString(), cached.toString());
+        Assert.assertEquals(parsed.getCode(), cached.getCode());
+
+        // Different language mode must not reuse the entry
+        newCache.parse(file, LanguageMode.OCTAVE);
+        Assert.assertEquals(1, newCache.getMisses());
+    }
+
+    private static <T extends Enum<T> & ResourceProvider> void testRoundTrip(Class<T> resources,
+            LanguageMode languageMode) throws IOException {
+
+        for (T resource : resources.getEnumConstants()) {
+            testRoundTrip(resource.getResource(), SpecsIo.getResource(resource), languageMode);
+        }
+    }
+
+    private static void testRoundTrip(String name, String code, LanguageMode languageMode) throws IOException {
+        FileNode node = new MatlabParser(languageMode).parse(SimpleFile.newInstance("test.m", code));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            MatlabNodeSerializer.write(node, output);
+        }
+
+        FileNode readNode = MatlabNodeSerializer.read(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+                "test.m",
+                StringProvider.newInstance(code));
+
+        Assert.assertEquals(name, node.toString(), readNode.toString());
+        Assert.assertEquals(name, node.getCode(), readNode.getCode());
+    }
+}
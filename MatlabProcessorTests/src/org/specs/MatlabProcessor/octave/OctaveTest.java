@@ -13,9 +13,15 @@
 
 package org.specs.MatlabProcessor.octave;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.specs.MatlabIR.MatlabLanguage.LanguageMode;
+import org.specs.MatlabIR.MatlabLanguage.MatlabOperator;
+import org.specs.MatlabIR.MatlabNode.nodes.core.OperatorNode;
 import org.specs.MatlabProcessor.TestUtils;
 import org.specs.MatlabProcessor.MatlabParser.MatlabParser;
 
@@ -41,4 +47,14 @@ public class OctaveTest extends TestCase {
                 TestUtils.clean(code));
     }
 
+    @Test
+    public void testExclamationNegation() {
+        List<MatlabOperator> operators = new MatlabParser(LanguageMode.OCTAVE).parse("a = !b;\nc = x != y;")
+                .getDescendantsStream()
+                .filter(OperatorNode.class::isInstance)
+                .map(node -> ((OperatorNode) node).getOp())
+                .collect(Collectors.toList());
+
+        Assert.assertEquals(Arrays.asList(MatlabOperator.LogicalNegation, MatlabOperator.NotEqual), operators);
+    }
 }
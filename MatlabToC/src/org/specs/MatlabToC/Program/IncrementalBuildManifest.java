@@ -0,0 +1,430 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatlabToC.Program;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.specs.MatlabIR.MatlabNodePass.FunctionIdentification;
+import org.specs.matisselib.ssa.instructions.TypedFunctionCallInstruction;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+import org.suikasoft.jOptions.persistence.XmlPersistence;
+
+import pt.up.fe.specs.util.SpecsIo;
+import pt.up.fe.specs.util.SpecsLogs;
+
+/**
+ * Records what a compilation depended on, so that a later compilation can reuse what did not change.
+ *
+ * <p>
+ * The manifest stores a hash of the compilation configuration (settings, recipes, type definitions, entry points and
+ * the names of available files), the hash of every M-file that contributed a specialized function, the hash of every
+ * generated file and, for each C file generated from an M-file, the hash of the typed functions it was generated from
+ * (see {@link CFileDependencies}).
+ *
+ * <p>
+ * When nothing changed, the compilation is skipped. Otherwise, the C files whose typed functions did not change are
+ * reused: the post-type-inference passes are not applied to their functions, and their files are not written again.
+ */
+public class IncrementalBuildManifest {
+
+    public static final String MANIFEST_FILENAME = ".matisse-incremental";
+
+    private static final String CONFIGURATION_KEY = "configuration";
+    private static final String SOURCE_PREFIX = "source.";
+    private static final String OUTPUT_PREFIX = "output.";
+    private static final String INSTANCE_PREFIX = "instance.";
+    private static final String CFILE_PREFIX = "cfile.";
+
+    private final String configurationHash;
+    private final Map<String, String> sourceHashes = new TreeMap<>();
+    private final Map<String, String> outputHashes = new TreeMap<>();
+    private final List<String> instances = new ArrayList<>();
+    private final Map<String, String> cFileHashes = new TreeMap<>();
+    private final Set<File> ignoredOutputs = new HashSet<>();
+
+    public IncrementalBuildManifest(String configurationHash) {
+        this.configurationHash = configurationHash;
+    }
+
+    /**
+     * Records the M-files used by the given specializations.
+     *
+     * @param typedInstances
+     * @param availableFiles
+     *            maps the names of M-files to their location
+     */
+    public void addInstances(Collection<TypedInstance> typedInstances, Map<String, File> availableFiles) {
+        for (TypedInstance instance : typedInstances) {
+            FunctionIdentification functionId = instance.getFunctionIdentification();
+
+            instances.add(getKey(instance));
+
+            File sourceFile = availableFiles.get(functionId.getFile());
+            if (sourceFile != null) {
+                addSource(sourceFile);
+            }
+        }
+    }
+
+    /**
+     * Records the hashes of the C files whose typed functions are the same now as when the dependencies were
+     * collected. C files that gained functions afterwards (e.g., specializations requested by passes) are not
+     * recorded, so they are never reused.
+     *
+     * @param dependencies
+     *            the dependencies collected after type inference
+     * @param finalInstances
+     *            all the specializations of the compilation
+     * @param availableFiles
+     *            maps the names of M-files to their location
+     */
+    public void addCFiles(CFileDependencies dependencies, Collection<TypedInstance> finalInstances,
+            Map<String, File> availableFiles) {
+
+        Map<String, Set<String>> finalKeys = CFileDependencies.getInstanceKeys(finalInstances, availableFiles);
+
+        dependencies.hashes.forEach((cFile, hash) -> {
+            if (dependencies.instanceKeys.get(cFile).equals(finalKeys.get(cFile))) {
+                cFileHashes.put(cFile, hash);
+            }
+        });
+    }
+
+    /**
+     * Records an M-file the compilation depended on.
+     *
+     * @param sourceFile
+     */
+    public void addSource(File sourceFile) {
+        sourceHashes.put(sourceFile.getAbsolutePath(), hashFile(sourceFile));
+    }
+
+    /**
+     * Excludes the given files from the outputs, for files that are expected to change across compilations (e.g.,
+     * profiling reports).
+     *
+     * @param files
+     */
+    public void ignoreOutputs(File... files) {
+        for (File file : files) {
+            ignoredOutputs.add(file.getAbsoluteFile());
+        }
+    }
+
+    /**
+     * Records the contents of every file inside the given folders, except the manifest itself and ignored files.
+     *
+     * @param folders
+     */
+    public void addOutputs(File... folders) {
+        for (File folder : folders) {
+            if (folder == null || !folder.isDirectory()) {
+                continue;
+            }
+
+            for (File file : SpecsIo.getFilesRecursive(folder)) {
+                if (file.getName().equals(MANIFEST_FILENAME) || ignoredOutputs.contains(file.getAbsoluteFile())) {
+                    continue;
+                }
+
+                outputHashes.put(file.getAbsolutePath(), hashFile(file));
+            }
+        }
+    }
+
+    public void save(File outputFolder) {
+        Properties properties = new Properties();
+        properties.setProperty(CONFIGURATION_KEY, configurationHash);
+        sourceHashes.forEach((file, hash) -> properties.setProperty(SOURCE_PREFIX + file, hash));
+        outputHashes.forEach((file, hash) -> properties.setProperty(OUTPUT_PREFIX + file, hash));
+        cFileHashes.forEach((cFile, hash) -> properties.setProperty(CFILE_PREFIX + cFile, hash));
+        for (int i = 0; i < instances.size(); ++i) {
+            properties.setProperty(INSTANCE_PREFIX + i, instances.get(i));
+        }
+
+        try (OutputStream output = new FileOutputStream(new File(outputFolder, MANIFEST_FILENAME))) {
+            properties.store(output, "MATISSE incremental build manifest");
+        } catch (IOException e) {
+            SpecsLogs.msgInfo("Could not save incremental build manifest: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Checks if the compilation recorded in the output folder used the same configuration and if none of its sources
+     * and outputs changed since then.
+     *
+     * @param outputFolder
+     * @param configurationHash
+     * @return
+     */
+    public static boolean isUpToDate(File outputFolder, String configurationHash) {
+        Properties properties = load(outputFolder, configurationHash);
+        if (properties == null) {
+            return false;
+        }
+
+        return checkFiles(properties, SOURCE_PREFIX) & checkFiles(properties, OUTPUT_PREFIX);
+    }
+
+    /**
+     * Finds the C files of the compilation recorded in the output folder that can be reused, because they were
+     * generated from the same typed functions, with the same configuration. If any generated file changed since, no
+     * file is reused, since the reused files may depend on it.
+     *
+     * @param outputFolder
+     * @param configurationHash
+     * @param dependencies
+     *            the dependencies of the current compilation, collected after type inference
+     * @return the names of the reusable C files, without extension
+     */
+    public static Set<String> getReusableCFiles(File outputFolder, String configurationHash,
+            CFileDependencies dependencies) {
+
+        Set<String> reusableCFiles = new TreeSet<>();
+
+        Properties properties = load(outputFolder, configurationHash);
+        if (properties == null || !checkFiles(properties, OUTPUT_PREFIX)) {
+            return reusableCFiles;
+        }
+
+        dependencies.hashes.forEach((cFile, hash) -> {
+            if (hash.equals(properties.getProperty(CFILE_PREFIX + cFile))) {
+                reusableCFiles.add(cFile);
+            }
+        });
+
+        return reusableCFiles;
+    }
+
+    private static Properties load(File outputFolder, String configurationHash) {
+        File manifestFile = new File(outputFolder, MANIFEST_FILENAME);
+        if (!manifestFile.isFile()) {
+            return null;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream input = new FileInputStream(manifestFile)) {
+            properties.load(input);
+        } catch (IOException e) {
+            SpecsLogs.msgInfo("Could not read incremental build manifest: " + e.getMessage());
+            return null;
+        }
+
+        if (!configurationHash.equals(properties.getProperty(CONFIGURATION_KEY))) {
+            SpecsLogs.msgInfo("Incremental build: configuration changed, recompiling");
+            return null;
+        }
+
+        return properties;
+    }
+
+    /**
+     * 
+     * @return true if all recorded files with the given prefix still have the same contents
+     */
+    private static boolean checkFiles(Properties properties, String prefix) {
+        boolean unchanged = true;
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.startsWith(prefix)) {
+                continue;
+            }
+
+            String path = key.substring(prefix.length());
+            File file = new File(path);
+            if (!file.isFile() || !hashFile(file).equals(properties.getProperty(key))) {
+                SpecsLogs.msgInfo("Incremental build: '" + path + "' changed");
+                unchanged = false;
+            }
+        }
+
+        return unchanged;
+    }
+
+    private static String getKey(TypedInstance instance) {
+        return instance.getFunctionIdentification() + String.valueOf(instance.getProviderData().getInputTypes());
+    }
+
+    /**
+     * What the C file generated from each M-file depends on, collected after type inference and before the
+     * post-type-inference passes.
+     *
+     * <p>
+     * The code of a specialization depends on its typed SSA (which reflects its source and the types it was inferred
+     * with, including the output types of the functions it calls) and on the signatures of the user functions it
+     * calls. A C file holds all specializations of the functions of an M-file, so it can only be reused if all of
+     * them are unchanged, and no specialization was added or removed.
+     */
+    public static class CFileDependencies {
+        private final Map<String, String> hashes = new TreeMap<>();
+        private final Map<String, Set<String>> instanceKeys;
+
+        public CFileDependencies(Collection<TypedInstance> typedInstances, Map<String, File> availableFiles) {
+            instanceKeys = getInstanceKeys(typedInstances, availableFiles);
+
+            Map<String, List<String>> signatures = new HashMap<>();
+            for (TypedInstance instance : typedInstances) {
+                signatures.computeIfAbsent(instance.getFunctionIdentification().getName(), name -> new ArrayList<>())
+                        .add(instance.getFunctionType().toString());
+            }
+
+            Map<String, List<String>> descriptions = new TreeMap<>();
+            for (TypedInstance instance : typedInstances) {
+                if (isUserInstance(instance, availableFiles)) {
+                    descriptions.computeIfAbsent(getCFile(instance), cFile -> new ArrayList<>())
+                            .add(describe(instance, signatures));
+                }
+            }
+
+            descriptions.forEach((cFile, cFileDescriptions) -> {
+                ConfigurationHasher hasher = new ConfigurationHasher();
+                cFileDescriptions.stream().sorted().forEach(hasher::add);
+                hashes.put(cFile, hasher.getHash());
+            });
+        }
+
+        /**
+         * 
+         * @return the name, without extension, of the C file the code of the given specialization is written to
+         */
+        public static String getCFile(TypedInstance instance) {
+            return instance.getFunctionIdentification().getFileNoExtension();
+        }
+
+        public Set<String> getCFiles() {
+            return hashes.keySet();
+        }
+
+        private static boolean isUserInstance(TypedInstance instance, Map<String, File> availableFiles) {
+            return availableFiles.containsKey(instance.getFunctionIdentification().getFile());
+        }
+
+        private static Map<String, Set<String>> getInstanceKeys(Collection<TypedInstance> typedInstances,
+                Map<String, File> availableFiles) {
+
+            Map<String, Set<String>> keys = new HashMap<>();
+            for (TypedInstance instance : typedInstances) {
+                if (isUserInstance(instance, availableFiles)) {
+                    keys.computeIfAbsent(getCFile(instance), cFile -> new TreeSet<>()).add(getKey(instance));
+                }
+            }
+
+            return keys;
+        }
+
+        private static String describe(TypedInstance instance, Map<String, List<String>> signatures) {
+            StringBuilder description = new StringBuilder();
+            description.append(getKey(instance));
+            description.append("\n");
+            description.append(instance.getFunctionType());
+            description.append("\n");
+            description.append(instance);
+
+            Set<String> calledFunctions = new TreeSet<>();
+            instance.getFlattenedInstructionsOfTypeStream(TypedFunctionCallInstruction.class)
+                    .map(TypedFunctionCallInstruction::getFunctionName)
+                    .forEach(calledFunctions::add);
+            for (String calledFunction : calledFunctions) {
+                List<String> calledSignatures = signatures.get(calledFunction);
+                if (calledSignatures != null) {
+                    description.append("\ncalls ");
+                    description.append(calledFunction);
+                    calledSignatures.stream().sorted().forEach(description::append);
+                }
+            }
+
+            return description.toString();
+        }
+    }
+
+    /**
+     * Helper class to build the hash of the configuration of a compilation.
+     */
+    public static class ConfigurationHasher {
+        private final MessageDigest digest = newDigest();
+
+        public ConfigurationHasher add(String value) {
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+
+            return this;
+        }
+
+        public ConfigurationHasher addFile(File file) {
+            return add(file == null || !file.isFile() ? "<none>" : hashFile(file));
+        }
+
+        public ConfigurationHasher addSettings(DataStore settings) {
+            try {
+                File settingsFile = File.createTempFile("matisse-settings", ".xml");
+                new XmlPersistence().saveData(settingsFile, settings);
+                addFile(settingsFile);
+                settingsFile.delete();
+            } catch (IOException e) {
+                SpecsLogs.msgInfo("Could not save settings for the incremental build: " + e.getMessage());
+                add(settings.toString());
+            }
+
+            return this;
+        }
+
+        public String getHash() {
+            return toHex(digest.digest());
+        }
+    }
+
+    private static String hashFile(File file) {
+        try {
+            return toHex(newDigest().digest(Files.readAllBytes(file.toPath())));
+        } catch (IOException e) {
+            return "<unreadable>";
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : bytes) {
+            builder.append(String.format("%02x", b));
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatlabToC.Program;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import pt.up.fe.specs.util.SpecsIo;
+import pt.up.fe.specs.util.SpecsLogs;
+import pt.up.fe.specs.util.SpecsSystem;
+
+/**
+ * Long-lived MatlabToC process, which avoids paying the start-up of the JVM and of the compiler (class loading, JIT
+ * warm-up, recipe class scanning) for each compilation.
+ *
+ * <p>
+ * Each job is a line with the path of a configuration file, as accepted by MatlabToCLauncher. The daemon answers each
+ * job with a line "&lt;exit code&gt; &lt;configuration file&gt;". Independent jobs run concurrently, each in its own
+ * thread. The line "quit" stops the daemon after the running jobs finish.
+ *
+ * <p>
+ * Usage: MatlabToCDaemon [--port &lt;port&gt;] [--threads &lt;threads&gt;]. Without a port, jobs are read from the
+ * standard input. With a port, the daemon only accepts connections from the local machine, and the answers are
+ * written to the connection of the job.
+ */
+public class MatlabToCDaemon {
+
+    public static final String QUIT_COMMAND = "quit";
+
+    private static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+
+    private final ExecutorService jobs;
+
+    public MatlabToCDaemon(int threads) {
+        jobs = Executors.newFixedThreadPool(threads);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        SpecsSystem.programStandardInit();
+
+        SpecsIo.resourceCopy(MatlabToCLauncher.getResources());
+
+        Integer port = null;
+        int threads = DEFAULT_THREADS;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+            case "--port":
+                port = Integer.parseInt(args[i + 1]);
+                break;
+            case "--threads":
+                threads = Integer.parseInt(args[i + 1]);
+                break;
+            default:
+                SpecsLogs.msgInfo("Unknown option: " + args[i]);
+                return;
+            }
+        }
+
+        MatlabToCDaemon daemon = new MatlabToCDaemon(threads);
+        if (port == null) {
+            daemon.serve(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)),
+                    new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), true));
+        } else {
+            daemon.serve(port);
+        }
+
+        daemon.shutdown();
+    }
+
+    /**
+     * Runs the jobs read from the given reader, until the end of the input or a "quit" line, and waits for them to
+     * finish.
+     *
+     * @param jobReader
+     * @param answerWriter
+     * @return true if the daemon was asked to quit
+     * @throws IOException
+     */
+    public boolean serve(BufferedReader jobReader, PrintWriter answerWriter) throws IOException {
+        List<Future<?>> submittedJobs = new ArrayList<>();
+
+        boolean quit = false;
+        String line;
+        while (!quit && (line = jobReader.readLine()) != null) {
+            String job = line.trim();
+            if (job.isEmpty()) {
+                continue;
+            }
+
+            if (job.equals(QUIT_COMMAND)) {
+                quit = true;
+                continue;
+            }
+
+            submittedJobs.add(jobs.submit(() -> {
+                int exitCode = runJob(new File(job));
+
+                synchronized (answerWriter) {
+                    answerWriter.println(exitCode + " " + job);
+                    answerWriter.flush();
+                }
+            }));
+        }
+
+        for (Future<?> submittedJob : submittedJobs) {
+            try {
+                submittedJob.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                SpecsLogs.warn("Error while running a job:\n", e);
+            }
+        }
+
+        return quit;
+    }
+
+    /**
+     * Accepts connections on the loopback interface, each served by its own thread, until a connection sends "quit".
+     *
+     * @param port
+     * @throws IOException
+     */
+    public void serve(int port) throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+            SpecsLogs.msgInfo("MatlabToC daemon listening on port " + serverSocket.getLocalPort());
+
+            while (!serverSocket.isClosed()) {
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (SocketException e) {
+                    // Closed by a "quit" command
+                    break;
+                }
+
+                Thread connectionThread = new Thread(() -> serveConnection(socket, serverSocket),
+                        "matlabtoc-daemon-connection");
+                connectionThread.start();
+            }
+        }
+    }
+
+    private void serveConnection(Socket socket, ServerSocket serverSocket) {
+        try (Socket connection = socket;
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+                PrintWriter writer = new PrintWriter(
+                        new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8), true)) {
+
+            if (serve(reader, writer)) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            SpecsLogs.warn("Error while serving a connection:\n", e);
+        }
+    }
+
+    private static int runJob(File setupFile) {
+        if (!setupFile.isFile()) {
+            SpecsLogs.msgInfo("Configuration file not found: " + setupFile);
+            return -1;
+        }
+
+        try {
+            return new MatlabToCLauncher().execute(setupFile);
+        } catch (Exception e) {
+            SpecsLogs.warn("Error while compiling " + setupFile + ":\n", e);
+            return 1;
+        }
+    }
+
+    public void shutdown() throws InterruptedException {
+        jobs.shutdown();
+        jobs.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+    }
+}
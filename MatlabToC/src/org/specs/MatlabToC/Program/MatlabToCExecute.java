@@ -17,6 +17,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -24,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.specs.CIR.CFile;
 import org.specs.CIR.CProject;
@@ -49,6 +51,8 @@ import org.specs.MatlabToC.CodeBuilder.SsaToCRules.SsaToCRuleList;
 import org.specs.MatlabToC.MFileInstance.MFileProvider;
 import org.specs.MatlabToC.MFileInstance.PassAwareMatlabToCEngine;
 import org.specs.MatlabToC.MFunctions.MFunctionPrototype;
+import org.specs.MatlabToC.Program.IncrementalBuildManifest.CFileDependencies;
+import org.specs.MatlabToC.Program.IncrementalBuildManifest.ConfigurationHasher;
 import org.specs.MatlabToC.SystemInfo.ImplementationData;
 import org.specs.MatlabToC.VariableStorage.CPersistenceUtils;
 import org.specs.MatlabToC.jOptions.MatlabToCKeys;
@@ -58,10 +62,14 @@ import org.specs.matisselib.MatisseLibOption;
 import org.specs.matisselib.MatlabRecipe;
 import org.specs.matisselib.ProjectPassCompilationManager;
 import org.specs.matisselib.ProjectPassCompilationOptions;
+import org.specs.matisselib.ProjectPassServices;
 import org.specs.matisselib.io.PostTypeInferenceRecipeReader;
 import org.specs.matisselib.io.PostTypeInferenceRecipeWriter;
 import org.specs.matisselib.io.PreTypeInferenceSsaRecipeReader;
 import org.specs.matisselib.providers.MatlabFunctionTable;
+import org.specs.matisselib.services.PassProfiler;
+import org.specs.matisselib.services.PassScheduler;
+import org.specs.matisselib.ssa.SsaPass;
 import org.specs.matisselib.ssa.SsaRecipe;
 import org.specs.matisselib.typeinference.InferenceRuleList;
 import org.specs.matisselib.typeinference.PostTypeInferenceRecipe;
@@ -80,13 +88,16 @@ import com.jmatio.types.MLArray;
 import pt.up.fe.specs.util.SpecsIo;
 import pt.up.fe.specs.util.SpecsLogs;
 import pt.up.fe.specs.util.collections.ScopedMap;
-import pt.up.fe.specs.util.exceptions.NotImplementedException;
 import pt.up.fe.specs.util.providers.StringProvider;
 import pt.up.fe.specs.util.utilities.StringList;
 
 public class MatlabToCExecute {
 
     public static final String MAIN_FUNCTION_FILE = "main_test";
+    public static final String PASS_PROFILE_FILENAME = "pass-profile.json";
+    public static final String PASS_PROFILE_COLLAPSED_FILENAME = "pass-profile.collapsed";
+
+    private static final int REUSE_CONFLICT = -1;
 
     private final MatlabToCData data;
     private final TypesMap varTypeDefinition;
@@ -107,6 +118,23 @@ public class MatlabToCExecute {
     }
 
     public int execute() {
+        int result = execute(true);
+        if (result == REUSE_CONFLICT) {
+            SpecsLogs.msgInfo("Incremental build: a reused C file needs new specializations, recompiling all files");
+            result = execute(false);
+        }
+
+        return result;
+    }
+
+    /**
+     * 
+     * @param reuseCFiles
+     *            if true, and the incremental build is enabled, the C files of the previous compilation that are still
+     *            up-to-date are reused
+     * @return the exit code, or REUSE_CONFLICT if the compilation must be repeated without reusing C files
+     */
+    private int execute(boolean reuseCFiles) {
 
         // Prepare data
 
@@ -166,9 +194,11 @@ public class MatlabToCExecute {
         MatlabFunctionTable systemFunctions = implementationData.getBuiltInPrototypes();
 
         Map<String, StringProvider> availableFiles = new HashMap<>();
+        Map<String, File> userFiles = new HashMap<>();
         for (File file : data.matlabFiles) {
             implementationData.getProjectMFiles().addUserFile(file);
             availableFiles.put(file.getName(), StringProvider.newInstance(file));
+            userFiles.put(file.getName(), file);
         }
 
         try {
@@ -180,6 +210,18 @@ public class MatlabToCExecute {
             return 1;
         }
 
+        String incrementalConfiguration = null;
+        if (data.getSettings().get(MatlabToCKeys.INCREMENTAL_BUILD)) {
+            incrementalConfiguration = getIncrementalConfigurationHash(ssaRecipe,
+                    new File(data.outputFolder, "used-recipe.recipe"),
+                    availableFiles.keySet());
+
+            if (IncrementalBuildManifest.isUpToDate(data.outputFolder, incrementalConfiguration)) {
+                SpecsLogs.msgInfo("Incremental build: output is up-to-date, skipping compilation");
+                return 0;
+            }
+        }
+
         InferenceRuleList typeInferenceRules = data.getSettings().get(MatlabToCKeys.TYPE_INFERENCE_RULES);
         DataView additionalServices = data.getSettings().get(MatlabToCKeys.ADDITIONAL_SERVICES);
         DataStore newSettings = new SimpleDataStore("additional-services");
@@ -187,8 +229,25 @@ public class MatlabToCExecute {
         if (data.getSettings().get(MatisseLibOption.SUPPRESS_PRINTING)) {
             newSettings.add(MatisseLibOption.SUPPRESS_PRINTING, true);
         }
+        if (data.getSettings().hasValue(MatisseLibOption.AST_CACHE_FOLDER)) {
+            newSettings.add(MatisseLibOption.AST_CACHE_FOLDER,
+                    data.getSettings().get(MatisseLibOption.AST_CACHE_FOLDER));
+        }
+        PassProfiler profiler = null;
+        if (data.getSettings().get(MatlabToCKeys.PASS_PROFILE)) {
+            profiler = new PassProfiler();
+            newSettings.add(ProjectPassServices.PASS_PROFILER, profiler);
+        }
+        PassScheduler scheduler = null;
+        if (data.getSettings().get(MatlabToCKeys.ENABLE_PASS_SCHEDULER)) {
+            scheduler = new PassScheduler(data.getSettings().get(MatlabToCKeys.FIXED_POINT_ITERATIONS));
+            newSettings.add(ProjectPassServices.PASS_SCHEDULER, scheduler);
+        }
         additionalServices = DataView.newInstance(newSettings);
         boolean enableZ3 = data.getSettings().get(MatlabToCKeys.ENABLE_Z3);
+        boolean enableDifferenceBounds = data.getSettings().get(MatlabToCKeys.ENABLE_DIFFERENCE_BOUNDS);
+        int postTypeInferenceThreads = data.getSettings().get(MatlabToCKeys.POST_TYPE_INFERENCE_THREADS);
+        int parsingThreads = data.getSettings().get(MatlabToCKeys.PARSING_THREADS);
 
         ProjectPassCompilationOptions options = new ProjectPassCompilationOptions()
                 .withPreTypeInferenceRecipe(preTypeInferenceRecipe)
@@ -199,7 +258,10 @@ public class MatlabToCExecute {
                 .withSystemFunctions(systemFunctions)
                 .withAdditionalServices(additionalServices)
                 .withLanguageMode(data.languageMode)
-                .withZ3Enabled(enableZ3);
+                .withZ3Enabled(enableZ3)
+                .withDifferenceBoundsEnabled(enableDifferenceBounds)
+                .withPostTypeInferenceThreads(postTypeInferenceThreads)
+                .withParsingThreads(parsingThreads);
 
         try (ProjectPassCompilationManager manager = new ProjectPassCompilationManager(options)) {
 
@@ -208,16 +270,8 @@ public class MatlabToCExecute {
                     ssaToCRules);
             MFileProvider.setEngine(engine);
 
-            if (data.topLevelMFiles.equals(Arrays.asList("*"))) {
-                throw new NotImplementedException("Wildcard top level m files");
-            }
-
             if (data.functionToPutMain.isEmpty()) {
-                if (data.topLevelMFiles.size() != 1) {
-                    throw new NotImplementedException(data.topLevelMFiles.size() + " top level M files");
-                }
-
-                manager.applyPreTypeInferencePasses(data.topLevelMFiles.get(0) + ".m");
+                manager.applyPreTypeInferencePasses(getEntryPointFiles(userFiles.keySet()));
             } else {
                 manager.applyPreTypeInferencePasses(data.functionToPutMain + ".m");
             }
@@ -228,25 +282,39 @@ public class MatlabToCExecute {
 
             DataStore setupTable = data.getSettings();
 
-            TypedInstance topLevelInstance;
+            CFileDependencies cFileDependencies = null;
+            Set<String> reusedCFiles = Collections.emptySet();
+
             if (data.functionToPutMain.isEmpty()) {
                 TypesMap types = MatlabToCOldExecute.getUserTypes(data.getSettings(), data.aspectFiles);
                 manager.setDefaultTypes(types);
-                topLevelInstance = manager.applyTypeInference(setupTable);
+
+                // Entry points share the specializations of the functions they call
+                List<TypedInstance> entryPoints = manager.applyTypeInferenceToEntryPoints(setupTable);
+
+                if (incrementalConfiguration != null) {
+                    cFileDependencies = new CFileDependencies(manager.getInferredInstances(), userFiles);
+                    reusedCFiles = reuseUnchangedCFiles(manager, incrementalConfiguration, cFileDependencies,
+                            reuseCFiles);
+                }
 
                 manager.applyPostTypeInferencePasses();
 
-                if (buildAndAddImplementation(manager,
-                        topLevelInstance,
-                        systemFunctions,
-                        variableAllocator,
-                        ssaToCRules,
-                        cproject) == null) {
+                for (TypedInstance entryPoint : entryPoints) {
+                    if (buildAndAddImplementation(manager,
+                            entryPoint,
+                            systemFunctions,
+                            variableAllocator,
+                            ssaToCRules,
+                            cproject) == null) {
 
-                    System.err.println("Could not build implementation for function");
-                    return 1;
+                        System.err.println("Could not build implementation for function");
+                        return 1;
+                    }
                 }
             } else {
+                TypedInstance topLevelInstance;
+
                 // Check if there are input vectors.
                 if (inputVectors == null) {
                     throw new UnsupportedOperationException();
@@ -365,6 +433,12 @@ public class MatlabToCExecute {
                     manager.setDefaultTypes(types);
                     topLevelInstance = manager.applyTypeInference(setupTable);
 
+                    if (incrementalConfiguration != null) {
+                        cFileDependencies = new CFileDependencies(manager.getInferredInstances(), userFiles);
+                        reusedCFiles = reuseUnchangedCFiles(manager, incrementalConfiguration, cFileDependencies,
+                                reuseCFiles);
+                    }
+
                     manager.applyPostTypeInferencePasses();
                 } catch (Exception e) {
                     e.printStackTrace();
@@ -406,14 +480,19 @@ public class MatlabToCExecute {
 
             }
 
-            // Delete files in output folder
-            if (data.deleteOutputFolderContents) {
+            if (hasNewInstancesInReusedCFiles(manager, reusedCFiles)) {
+                return REUSE_CONFLICT;
+            }
+
+            // Delete files in output folder, unless they hold reused C files
+            if (data.deleteOutputFolderContents && reusedCFiles.isEmpty()) {
                 SpecsIo.deleteFolderContents(data.outputFolder);
             }
 
             // Write CProject files
             if (data.generateSingleFile.isEmpty()) {
-                CirUtils.writeProject(cproject, data.outputFolder);
+                CirUtils.writeProject(cproject, data.outputFolder,
+                        data.getSettings().get(MatlabToCKeys.CODE_WRITER_THREADS));
             } else {
                 CirUtils.writeProjectUniqueFile(cproject, data.generateSingleFile, data.outputFolder);
             }
@@ -428,8 +507,133 @@ public class MatlabToCExecute {
             // Save data before returning
             DataUtils.saveData(data.outputFolder, data.getSettings());
 
+            File profileFile = new File(data.outputFolder, PASS_PROFILE_FILENAME);
+            File collapsedProfileFile = new File(data.outputFolder, PASS_PROFILE_COLLAPSED_FILENAME);
+
+            if (incrementalConfiguration != null) {
+                IncrementalBuildManifest manifest = new IncrementalBuildManifest(incrementalConfiguration);
+                manifest.addInstances(manager.getInferredInstances(), userFiles);
+                manifest.addCFiles(cFileDependencies, manager.getInferredInstances(), userFiles);
+                manifest.ignoreOutputs(profileFile, collapsedProfileFile);
+                manifest.addOutputs(data.outputFolder, data.dataFolder);
+                manifest.save(data.outputFolder);
+            }
+
+            if (profiler != null) {
+                profiler.writeJson(profileFile);
+                profiler.writeCollapsedStacks(collapsedProfileFile);
+                SpecsLogs.msgInfo("Pass profile written to " + profileFile.getAbsolutePath());
+            }
+
+            if (scheduler != null) {
+                SpecsLogs.msgInfo(scheduler.getReport());
+            }
+
             return 0;
+        } finally {
+            // The thread may be reused by another compilation (e.g., in the daemon)
+            MFileProvider.clearEngine();
+        }
+    }
+
+    /**
+     * 
+     * @param userFileNames
+     * @return the files of the top-level M-files, or all user files if the top-level M-files are the wildcard "*"
+     */
+    private List<String> getEntryPointFiles(Set<String> userFileNames) {
+        if (data.topLevelMFiles.equals(Arrays.asList("*"))) {
+            return new ArrayList<>(new TreeSet<>(userFileNames));
+        }
+
+        if (data.topLevelMFiles.isEmpty()) {
+            throw new IllegalArgumentException("No top level M-files were specified");
+        }
+
+        List<String> files = new ArrayList<>();
+        for (String topLevelMFile : data.topLevelMFiles) {
+            files.add(topLevelMFile + ".m");
+        }
+
+        return files;
+    }
+
+    private String getIncrementalConfigurationHash(SsaRecipe ssaRecipe, File recipeFile,
+            Collection<String> availableFileNames) {
+
+        ConfigurationHasher hasher = new ConfigurationHasher()
+                .addSettings(data.getSettings())
+                .addFile(recipeFile);
+        for (SsaPass pass : ssaRecipe.getPasses()) {
+            hasher.add(pass.getClass().getName());
+        }
+
+        hasher.add(data.languageMode.name())
+                .add(data.topLevelMFiles.toString())
+                .add(data.functionToPutMain)
+                .add(data.generateSingleFile)
+                .add(Boolean.toString(data.mainOptions.generateMainForCoder))
+                .add(Boolean.toString(data.generateDataFiles))
+                .add(varTypeDefinition.toString())
+                .addFile(data.mInputVectors);
+
+        for (File aspectFile : data.aspectFiles) {
+            hasher.addFile(aspectFile);
+        }
+
+        // New files may shadow functions that were previously resolved elsewhere
+        hasher.add(new TreeSet<>(availableFileNames).toString());
+
+        return hasher.getHash();
+    }
+
+    /**
+     * Marks the instances of the C files that did not change since the previous compilation as reused.
+     * 
+     * @return the names of the reused C files
+     */
+    private Set<String> reuseUnchangedCFiles(ProjectPassCompilationManager manager,
+            String incrementalConfiguration,
+            CFileDependencies cFileDependencies,
+            boolean reuseCFiles) {
+
+        // With a single output file, nothing can be reused without generating the whole file
+        if (!reuseCFiles || !data.generateSingleFile.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        Set<String> reusedCFiles = IncrementalBuildManifest.getReusableCFiles(data.outputFolder,
+                incrementalConfiguration,
+                cFileDependencies);
+
+        List<TypedInstance> reusedInstances = new ArrayList<>();
+        for (TypedInstance instance : manager.getInferredInstances()) {
+            if (reusedCFiles.contains(CFileDependencies.getCFile(instance))) {
+                reusedInstances.add(instance);
+            }
         }
+        manager.reuseInstances(reusedInstances);
+
+        SpecsLogs.msgInfo("Incremental build: reusing " + reusedCFiles.size() + " of "
+                + cFileDependencies.getCFiles().size() + " C files");
+
+        return reusedCFiles;
+    }
+
+    /**
+     * Passes and code generation may request specializations that did not exist after type inference. If one of them
+     * belongs to a reused C file, that file would have to be generated again, including its reused instances.
+     */
+    private static boolean hasNewInstancesInReusedCFiles(ProjectPassCompilationManager manager,
+            Set<String> reusedCFiles) {
+
+        for (TypedInstance instance : manager.getInferredInstances()) {
+            if (!manager.isReused(instance) && reusedCFiles.contains(CFileDependencies.getCFile(instance))) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
     private static void overrideTypes(TypesMap types, String functionName) {
@@ -630,7 +834,7 @@ public class MatlabToCExecute {
             VariableAllocator variableAllocator,
             SsaToCRuleList ssaToCRules) {
 
-        return SsaToCBuilder.buildImplementation(manager, topLevelInstance, systemFunctions,
+        return SsaToCBuilder.buildOrReuseImplementation(manager, topLevelInstance, systemFunctions,
                 variableAllocator,
                 ssaToCRules);
     }
@@ -0,0 +1,313 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatlabToC.Program;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.specs.CIR.FunctionInstance.FunctionType;
+import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.CIR.Types.VariableType;
+import org.specs.CIRTypes.Types.Numeric.NumericFactory;
+import org.specs.MatlabIR.MatlabNodePass.FunctionIdentification;
+import org.specs.MatlabToC.Program.IncrementalBuildManifest.CFileDependencies;
+import org.specs.MatlabToC.Program.IncrementalBuildManifest.ConfigurationHasher;
+import org.specs.MatlabToC.jOptions.MatlabToCKeys;
+import org.specs.MatlabToC.jOptions.MatlabToCOptionUtils;
+import org.specs.matisselib.ssa.FunctionBody;
+import org.specs.matisselib.ssa.SsaBlock;
+import org.specs.matisselib.ssa.instructions.AssignmentInstruction;
+import org.specs.matisselib.ssa.instructions.TypedFunctionCallInstruction;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+
+import pt.up.fe.specs.util.SpecsIo;
+
+public class IncrementalBuildManifestTest {
+
+    private static final NumericFactory NUMERICS = new NumericFactory();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File sourceFolder;
+    private File outputFolder;
+    private File entryFile;
+    private File calleeFile;
+    private File outputFile;
+
+    private void createProject() throws Exception {
+        sourceFolder = temporaryFolder.newFolder("src");
+        outputFolder = temporaryFolder.newFolder("out");
+
+        entryFile = new File(sourceFolder, "entry.m");
+        SpecsIo.write(entryFile, "function y = entry(x)\n   y = callee(x) + 1;\nend\n");
+        calleeFile = new File(sourceFolder, "callee.m");
+        SpecsIo.write(calleeFile, "function y = callee(x)\n   y = x * 2;\nend\n");
+
+        outputFile = new File(outputFolder, "entry.c");
+        SpecsIo.write(outputFile, "double entry(double x) { return callee(x) + 1; }\n");
+    }
+
+    private static String getConfigurationHash(DataStore settings) {
+        return new ConfigurationHasher()
+                .addSettings(settings)
+                .add("entry")
+                .getHash();
+    }
+
+    private void saveManifest(String configurationHash) {
+        IncrementalBuildManifest manifest = new IncrementalBuildManifest(configurationHash);
+        manifest.addSource(entryFile);
+        manifest.addSource(calleeFile);
+        manifest.addOutputs(outputFolder);
+        manifest.save(outputFolder);
+    }
+
+    @Test
+    public void testNoManifest() throws Exception {
+        createProject();
+
+        Assert.assertFalse(IncrementalBuildManifest.isUpToDate(outputFolder,
+                getConfigurationHash(MatlabToCOptionUtils.newDefaultSettings())));
+    }
+
+    @Test
+    public void testUnchanged() throws Exception {
+        createProject();
+
+        String configurationHash = getConfigurationHash(MatlabToCOptionUtils.newDefaultSettings());
+        saveManifest(configurationHash);
+
+        Assert.assertTrue(IncrementalBuildManifest.isUpToDate(outputFolder, configurationHash));
+        // Same settings built again must give the same hash
+        Assert.assertTrue(IncrementalBuildManifest.isUpToDate(outputFolder,
+                getConfigurationHash(MatlabToCOptionUtils.newDefaultSettings())));
+    }
+
+    @Test
+    public void testChangedCallee() throws Exception {
+        createProject();
+
+        String configurationHash = getConfigurationHash(MatlabToCOptionUtils.newDefaultSettings());
+        saveManifest(configurationHash);
+
+        SpecsIo.write(calleeFile, "function y = callee(x)\n   y = x * 3;\nend\n");
+
+        Assert.assertFalse(IncrementalBuildManifest.isUpToDate(outputFolder, configurationHash));
+    }
+
+    @Test
+    public void testChangedSetting() throws Exception {
+        createProject();
+
+        DataStore settings = MatlabToCOptionUtils.newDefaultSettings();
+        saveManifest(getConfigurationHash(settings));
+
+        settings.set(MatlabToCKeys.ENABLE_Z3, false);
+
+        Assert.assertFalse(IncrementalBuildManifest.isUpToDate(outputFolder, getConfigurationHash(settings)));
+    }
+
+    @Test
+    public void testDeletedOutput() throws Exception {
+        createProject();
+
+        String configurationHash = getConfigurationHash(MatlabToCOptionUtils.newDefaultSettings());
+        saveManifest(configurationHash);
+
+        Assert.assertTrue(outputFile.delete());
+
+        Assert.assertFalse(IncrementalBuildManifest.isUpToDate(outputFolder, configurationHash));
+    }
+
+    @Test
+    public void testChangedOutput() throws Exception {
+        createProject();
+
+        String configurationHash = getConfigurationHash(MatlabToCOptionUtils.newDefaultSettings());
+        saveManifest(configurationHash);
+
+        SpecsIo.write(outputFile, "/* edited by hand */\n");
+
+        Assert.assertFalse(IncrementalBuildManifest.isUpToDate(outputFolder, configurationHash));
+    }
+
+    @Test
+    public void testUnchangedCFilesAreReused() throws Exception {
+        createProject();
+
+        String configurationHash = getConfigurationHash(MatlabToCOptionUtils.newDefaultSettings());
+        FunctionType calleeType = newFunctionType(NUMERICS.newDouble());
+        saveManifest(configurationHash, newEntry(calleeType), newCallee(2, calleeType));
+
+        Set<String> reusable = IncrementalBuildManifest.getReusableCFiles(outputFolder, configurationHash,
+                getDependencies(newEntry(calleeType), newCallee(2, calleeType)));
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("entry", "callee")), reusable);
+    }
+
+    @Test
+    public void testChangedCalleeBody() throws Exception {
+        createProject();
+
+        String configurationHash = getConfigurationHash(MatlabToCOptionUtils.newDefaultSettings());
+        FunctionType calleeType = newFunctionType(NUMERICS.newDouble());
+        saveManifest(configurationHash, newEntry(calleeType), newCallee(2, calleeType));
+
+        // The signature of the callee is the same, so the code of the caller does not change
+        Set<String> reusable = IncrementalBuildManifest.getReusableCFiles(outputFolder, configurationHash,
+                getDependencies(newEntry(calleeType), newCallee(3, calleeType)));
+
+        Assert.assertEquals(Collections.singleton("entry"), reusable);
+    }
+
+    @Test
+    public void testChangedCalleeSignature() throws Exception {
+        createProject();
+
+        String configurationHash = getConfigurationHash(MatlabToCOptionUtils.newDefaultSettings());
+        FunctionType calleeType = newFunctionType(NUMERICS.newDouble());
+        saveManifest(configurationHash, newEntry(calleeType), newCallee(2, calleeType));
+
+        FunctionType newCalleeType = newFunctionType(NUMERICS.newInt());
+        Set<String> reusable = IncrementalBuildManifest.getReusableCFiles(outputFolder, configurationHash,
+                getDependencies(newEntry(newCalleeType), newCallee(2, newCalleeType)));
+
+        Assert.assertEquals(Collections.emptySet(), reusable);
+    }
+
+    @Test
+    public void testChangedOutputPreventsReuse() throws Exception {
+        createProject();
+
+        String configurationHash = getConfigurationHash(MatlabToCOptionUtils.newDefaultSettings());
+        FunctionType calleeType = newFunctionType(NUMERICS.newDouble());
+        saveManifest(configurationHash, newEntry(calleeType), newCallee(2, calleeType));
+
+        // The reused files might depend on the edited file
+        SpecsIo.write(outputFile, "/* edited by hand */\n");
+
+        Set<String> reusable = IncrementalBuildManifest.getReusableCFiles(outputFolder, configurationHash,
+                getDependencies(newEntry(calleeType), newCallee(2, calleeType)));
+
+        Assert.assertEquals(Collections.emptySet(), reusable);
+    }
+
+    @Test
+    public void testCFileWithLaterSpecializationIsNotReused() throws Exception {
+        createProject();
+
+        String configurationHash = getConfigurationHash(MatlabToCOptionUtils.newDefaultSettings());
+        FunctionType calleeType = newFunctionType(NUMERICS.newDouble());
+        TypedInstance entry = newEntry(calleeType);
+        TypedInstance callee = newCallee(2, calleeType);
+
+        // A specialization of callee is requested after type inference (e.g., by a pass)
+        TypedInstance laterCallee = newSpecialization(newCallee(2, calleeType));
+        IncrementalBuildManifest manifest = new IncrementalBuildManifest(configurationHash);
+        manifest.addCFiles(getDependencies(entry, callee), Arrays.asList(entry, callee, laterCallee),
+                getAvailableFiles());
+        manifest.addOutputs(outputFolder);
+        manifest.save(outputFolder);
+
+        Set<String> reusable = IncrementalBuildManifest.getReusableCFiles(outputFolder, configurationHash,
+                getDependencies(newEntry(calleeType), newCallee(2, calleeType)));
+
+        Assert.assertEquals(Collections.singleton("entry"), reusable);
+    }
+
+    private void saveManifest(String configurationHash, TypedInstance... instances) {
+        List<TypedInstance> instanceList = Arrays.asList(instances);
+
+        IncrementalBuildManifest manifest = new IncrementalBuildManifest(configurationHash);
+        manifest.addInstances(instanceList, getAvailableFiles());
+        manifest.addCFiles(getDependencies(instances), instanceList, getAvailableFiles());
+        manifest.addOutputs(outputFolder);
+        manifest.save(outputFolder);
+    }
+
+    private CFileDependencies getDependencies(TypedInstance... instances) {
+        return new CFileDependencies(Arrays.asList(instances), getAvailableFiles());
+    }
+
+    private Map<String, File> getAvailableFiles() {
+        Map<String, File> availableFiles = new HashMap<>();
+        availableFiles.put(entryFile.getName(), entryFile);
+        availableFiles.put(calleeFile.getName(), calleeFile);
+
+        return availableFiles;
+    }
+
+    private static FunctionType newFunctionType(VariableType outputType) {
+        return FunctionType.newInstance(Arrays.asList("x"), Arrays.<VariableType> asList(NUMERICS.newDouble()), "y",
+                outputType);
+    }
+
+    private static TypedInstance newEntry(FunctionType calleeType) {
+        FunctionBody body = new FunctionBody();
+        SsaBlock block = new SsaBlock();
+        block.addInstruction(AssignmentInstruction.fromInteger("x$1", 1));
+        block.addInstruction(new TypedFunctionCallInstruction("callee", calleeType, "y$1", "x$1"));
+        body.addBlock(block);
+
+        return newInstance("entry", body, newFunctionType(NUMERICS.newDouble()));
+    }
+
+    private static TypedInstance newCallee(int factor, FunctionType type) {
+        FunctionBody body = new FunctionBody();
+        SsaBlock block = new SsaBlock();
+        block.addInstruction(AssignmentInstruction.fromInteger("y$1", factor));
+        body.addBlock(block);
+
+        return newInstance("callee", body, type);
+    }
+
+    /**
+     * 
+     * @return an instance of the same function, with a different specialization key
+     */
+    private static TypedInstance newSpecialization(TypedInstance instance) {
+        TypedInstance specialization = new TypedInstance(instance.getFunctionIdentification(),
+                Collections.emptyList(),
+                instance.getFunctionBody(),
+                () -> "",
+                ProviderData.newInstance(Arrays.<VariableType> asList(NUMERICS.newInt()),
+                        DataStore.newInstance("test")));
+        specialization.setFunctionType(instance.getFunctionType());
+
+        return specialization;
+    }
+
+    private static TypedInstance newInstance(String name, FunctionBody body, FunctionType type) {
+        TypedInstance instance = new TypedInstance(new FunctionIdentification(name + ".m", name),
+                Collections.emptyList(),
+                body,
+                () -> "",
+                ProviderData.newInstance(Collections.emptyList(), DataStore.newInstance("test")));
+        instance.setFunctionType(type);
+
+        return instance;
+    }
+}
@@ -210,6 +210,8 @@ static cl_command_queue create_command_queue(cl_context context, cl_device_id de
 	return queue;
 }
 
+<PROGRAM_CACHE_CODE>
+
 static cl_program create_program_from_file(cl_context context, cl_device_id device, const char* filename, const char* options) {
 	const char* actual_filename = filename; // TODO
 	
@@ -240,6 +242,18 @@ static cl_program create_program_from_file(cl_context context, cl_device_id devi
 		abort();
 	}
 	
+#if <USE_PROGRAM_CACHE>
+	char* cached_program_path = alloc_cached_program_path(device, content, length, options);
+	if (cached_program_path != NULL) {
+		cl_program cached_program = load_cached_program(context, device, cached_program_path, options);
+		if (cached_program != NULL) {
+			free(cached_program_path);
+			free(content);
+			return cached_program;
+		}
+	}
+#endif
+	
 <PROGRAM_LOADER_CODE>
 	
 	printf("Building\n");
@@ -262,6 +276,13 @@ static cl_program create_program_from_file(cl_context context, cl_device_id devi
 	
 	CHECK_CODE(clBuildProgram, errcode);
 	
+#if <USE_PROGRAM_CACHE>
+	if (cached_program_path != NULL) {
+		store_cached_program(program, cached_program_path);
+		free(cached_program_path);
+	}
+#endif
+	
 	return program;
 }
 
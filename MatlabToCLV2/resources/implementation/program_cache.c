@@ -0,0 +1,191 @@
+#include <string.h>
+#ifdef _WIN32
+#include <process.h>
+#define MATISSE_CL_GETPID _getpid
+#else
+#include <unistd.h>
+#define MATISSE_CL_GETPID getpid
+#endif
+
+#define MATISSE_CL_PROGRAM_CACHE_ENV "MATISSE_CL_PROGRAM_CACHE"
+
+static unsigned long long hash_bytes(unsigned long long hash, const void* data, size_t length) {
+	// 64-bit FNV-1a
+	const unsigned char* bytes = (const unsigned char*) data;
+	size_t i;
+	for (i = 0; i < length; ++i) {
+		hash ^= bytes[i];
+		hash *= 1099511628211ULL;
+	}
+	
+	// Separator, so that ("ab", "c") and ("a", "bc") have different hashes
+	hash ^= 0xFF;
+	hash *= 1099511628211ULL;
+	
+	return hash;
+}
+
+static unsigned long long hash_platform_info(unsigned long long hash, cl_platform_id platform, cl_platform_info param) {
+	size_t size;
+	CHECK(clGetPlatformInfo, platform, param, 0, NULL, &size);
+	
+	char* info = malloc(size);
+	CHECK(clGetPlatformInfo, platform, param, size, info, NULL);
+	hash = hash_bytes(hash, info, size);
+	free(info);
+	
+	return hash;
+}
+
+static unsigned long long hash_device_info(unsigned long long hash, cl_device_id device, cl_device_info param) {
+	size_t size;
+	CHECK(clGetDeviceInfo, device, param, 0, NULL, &size);
+	
+	char* info = malloc(size);
+	CHECK(clGetDeviceInfo, device, param, size, info, NULL);
+	hash = hash_bytes(hash, info, size);
+	free(info);
+	
+	return hash;
+}
+
+/**
+ * Returns the path of the cached binary for the given program, or NULL if the cache is disabled.
+ * The key covers the platform, the device, the driver version, the build options and the program source.
+ */
+static char* alloc_cached_program_path(cl_device_id device, const char* content, size_t length, const char* options) {
+	const char* directory = getenv(MATISSE_CL_PROGRAM_CACHE_ENV);
+	if (directory == NULL) {
+		directory = "<PROGRAM_CACHE_DIRECTORY>";
+	}
+	if (directory[0] == '\0') {
+		return NULL;
+	}
+	
+	cl_platform_id platform;
+	CHECK(clGetDeviceInfo, device, CL_DEVICE_PLATFORM, sizeof(cl_platform_id), &platform, NULL);
+	
+	unsigned long long hash = 14695981039346656037ULL;
+	hash = hash_platform_info(hash, platform, CL_PLATFORM_NAME);
+	hash = hash_platform_info(hash, platform, CL_PLATFORM_VERSION);
+	hash = hash_device_info(hash, device, CL_DEVICE_NAME);
+	hash = hash_device_info(hash, device, CL_DEVICE_VERSION);
+	hash = hash_device_info(hash, device, CL_DRIVER_VERSION);
+	hash = hash_bytes(hash, options, strlen(options));
+	hash = hash_bytes(hash, content, length);
+	
+	size_t path_size = strlen(directory) + 64;
+	char* path = malloc(path_size);
+	if (!path) {
+		fprintf(stderr, "Could not allocate memory.\n");
+		abort();
+	}
+	snprintf(path, path_size, "%s/matisse-cl-%016llx.bin", directory, hash);
+	
+	return path;
+}
+
+/**
+ * Returns the cached program, already built, or NULL if there is no cached binary or it was rejected.
+ */
+static cl_program load_cached_program(cl_context context, cl_device_id device, const char* path, const char* options) {
+	FILE* f = fopen(path, "rb");
+	if (!f) {
+		return NULL;
+	}
+	fseek(f, 0, SEEK_END);
+	long file_length = ftell(f);
+	fseek(f, 0, SEEK_SET);
+	if (file_length <= 0) {
+		fclose(f);
+		return NULL;
+	}
+	
+	size_t length = (size_t) file_length;
+	unsigned char* binary = malloc(length);
+	if (!binary) {
+		fprintf(stderr, "Could not allocate memory.\n");
+		abort();
+	}
+	if (fread(binary, 1, length, f) != length) {
+		fclose(f);
+		free(binary);
+		return NULL;
+	}
+	fclose(f);
+	
+	cl_int binary_errcode;
+	cl_int errcode;
+	cl_program program = clCreateProgramWithBinary(context, 1, &device, &length, (const unsigned char**) &binary, &binary_errcode, &errcode);
+	free(binary);
+	
+	if (errcode != CL_SUCCESS || binary_errcode != CL_SUCCESS) {
+		if (errcode == CL_SUCCESS) {
+			clReleaseProgram(program);
+		}
+		fprintf(stderr, "Cached program at %s was rejected, building from source.\n", path);
+		return NULL;
+	}
+	
+	if (clBuildProgram(program, 1, &device, options, NULL, NULL) != CL_SUCCESS) {
+		clReleaseProgram(program);
+		fprintf(stderr, "Cached program at %s failed to build, building from source.\n", path);
+		return NULL;
+	}
+	
+	printf("Loaded cached program from: %s\n", path);
+	
+	return program;
+}
+
+/**
+ * Saves the binary of a built program. Failures are reported, but are not fatal.
+ * The binary is written to a temporary file first, so that other processes never see partial binaries.
+ * The temporary file name includes the process id, so that processes storing the same program at the same time
+ * do not write to the same file. The last rename wins, and every renamed file is complete.
+ */
+static void store_cached_program(cl_program program, const char* path) {
+	static unsigned int store_count = 0;
+	
+	size_t binary_size;
+	CHECK(clGetProgramInfo, program, CL_PROGRAM_BINARY_SIZES, sizeof(size_t), &binary_size, NULL);
+	if (binary_size == 0) {
+		return;
+	}
+	
+	unsigned char* binary = malloc(binary_size);
+	if (!binary) {
+		fprintf(stderr, "Could not allocate memory.\n");
+		abort();
+	}
+	CHECK(clGetProgramInfo, program, CL_PROGRAM_BINARIES, sizeof(unsigned char*), &binary, NULL);
+	
+	size_t temporary_path_size = strlen(path) + 64;
+	char* temporary_path = malloc(temporary_path_size);
+	if (!temporary_path) {
+		fprintf(stderr, "Could not allocate memory.\n");
+		abort();
+	}
+	snprintf(temporary_path, temporary_path_size, "%s.%ld.%u.tmp", path, (long) MATISSE_CL_GETPID(), store_count++);
+	
+	FILE* f = fopen(temporary_path, "wb");
+	if (!f) {
+		fprintf(stderr, "Could not write cached program to %s.\n", temporary_path);
+	} else {
+		int written = fwrite(binary, 1, binary_size, f) == binary_size;
+		written = fclose(f) == 0 && written;
+		
+		if (written) {
+			// rename does not replace existing files on all platforms
+			remove(path);
+			written = rename(temporary_path, path) == 0;
+		}
+		if (!written) {
+			fprintf(stderr, "Could not write cached program to %s.\n", path);
+			remove(temporary_path);
+		}
+	}
+	
+	free(temporary_path);
+	free(binary);
+}
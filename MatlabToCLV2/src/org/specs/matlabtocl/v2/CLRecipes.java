@@ -63,6 +63,7 @@ import org.specs.matlabtocl.v2.services.informationbuilders.ParallelBlockInforma
 import org.specs.matlabtocl.v2.ssa.CLRecipe;
 import org.specs.matlabtocl.v2.ssa.CLRecipeBuilder;
 import org.specs.matlabtocl.v2.ssa.ParallelDirectiveParser;
+import org.specs.matlabtocl.v2.ssa.passes.AutomaticParallelLoopDetectionPass;
 import org.specs.matlabtocl.v2.ssa.passes.ConstantBufferOptimizerPass;
 import org.specs.matlabtocl.v2.ssa.passes.CopyAndOverwriteEliminationPass;
 import org.specs.matlabtocl.v2.ssa.passes.DelayReductionCopyOptimizationPass;
@@ -123,6 +124,8 @@ public class CLRecipes {
         finalPasses.removeIf(LoopIterationSimplificationPass.class::isInstance);
 
         postBuilder.addRecipe(new PostTypeInferenceRecipe(finalPasses));
+        postBuilder.addPass(new AutomaticParallelLoopDetectionPass());
+        postBuilder.addPass(new ParallelBlockBuilderPass());
         postBuilder.addPass(new ParallelBlockExtractorPass());
         postBuilder.addPass(new InvokeParallelFunctionImplementationPass());
         postBuilder.addPass(new SetReductionBufferOptimizerPass());
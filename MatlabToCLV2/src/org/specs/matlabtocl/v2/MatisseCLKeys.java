@@ -53,11 +53,23 @@ public interface MatisseCLKeys {
 
     DataKey<Integer> MAX_WORK_ITEM_DIMENSIONS = KeyFactory.integer("max_work_item_dimensions", 3);
     DataKey<Boolean> RANGE_SET_INSTRUCTION_ENABLED = KeyFactory.bool("range_set_instruction_enabled");
+    DataKey<Boolean> ASYNC_HOST_CODE = KeyFactory.bool("async_host_code");
     DataKey<Boolean> SVM_RESTRICT_COALESCED = KeyFactory.bool("svm_restrict_coalesced");
     DataKey<Boolean> SVM_RESTRICT_SEQUENTIAL = KeyFactory.bool("svm_restrict_sequential");
     DataKey<Boolean> SVM_SET_RANGE_FORBIDDEN = KeyFactory.bool("svm_set_range_forbidden");
     DataKey<Boolean> TRY_USE_SCHEDULE_COOPERATIVE = KeyFactory.bool("try_use_schedule_cooperative");
     DataKey<Boolean> PREFER_SUBGROUP_COOPERATIVE = KeyFactory.bool("prefer_subgroup_cooperative");
+    /**
+     * Adds parallel directives to loops that the compiler can prove to be parallel, in addition to the ones given by
+     * the user.
+     */
+    DataKey<Boolean> AUTOMATIC_PARALLELIZATION = KeyFactory.bool("automatic_parallelization");
+    /**
+     * Loops whose trip count is known to be smaller than this value are not automatically parallelized, as the
+     * parallelization overhead would likely outweigh the gains.
+     */
+    DataKey<Integer> AUTOMATIC_PARALLELIZATION_MIN_TRIP_COUNT = KeyFactory
+            .integer("automatic_parallelization_min_trip_count", 1024);
     DataKey<GpuSVMEliminationMode> SVM_ELIMINATION_MODE = KeyFactory
             .enumeration("svm_elimination_mode", GpuSVMEliminationMode.class);
     DataKey<ScheduleDecisionTree> SCHEDULE_DECISION_TREE = KeyFactory
@@ -68,4 +80,10 @@ public interface MatisseCLKeys {
     DataKey<Boolean> LOAD_PROGRAM_FROM_SOURCE = KeyFactory
             .bool("program_from_source")
             .setDefault(() -> true);
+    /**
+     * Directory where the generated runtime caches the program binaries it builds from source. Empty to disable the
+     * cache. Can be overridden at run time with the MATISSE_CL_PROGRAM_CACHE environment variable.
+     */
+    DataKey<String> PROGRAM_CACHE_DIRECTORY = KeyFactory
+            .string("program_cache_directory", "");
 }
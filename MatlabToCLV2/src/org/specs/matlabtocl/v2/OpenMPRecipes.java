@@ -0,0 +1,111 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matlabtocl.v2;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.specs.MatlabToC.CodeBuilder.SsaToCRules.SsaToCRule;
+import org.specs.MatlabToC.CodeBuilder.SsaToCRules.SsaToCRuleList;
+import org.specs.matisselib.DefaultRecipes;
+import org.specs.matisselib.ProjectPassServices;
+import org.specs.matisselib.helpers.sizeinfo.InstructionInformationBuilder;
+import org.specs.matisselib.passes.posttype.LoopIterationSimplificationPass;
+import org.specs.matisselib.passes.ssa.DeadCodeEliminationPass;
+import org.specs.matisselib.passes.ssa.SsaValidatorPass;
+import org.specs.matisselib.passmanager.PassManager;
+import org.specs.matisselib.services.AdditionalInformationBuildersService;
+import org.specs.matisselib.ssa.SsaRecipe;
+import org.specs.matisselib.ssa.SsaRecipeBuilder;
+import org.specs.matisselib.typeinference.PostTypeInferencePass;
+import org.specs.matisselib.typeinference.PostTypeInferenceRecipe;
+import org.specs.matisselib.typeinference.PostTypeInferenceRecipeBuilder;
+import org.specs.matlabtocl.v2.codegen.reductionstrategies.CommonCodeGenerationStrategyProvider;
+import org.specs.matlabtocl.v2.codegen.ssatocrules.ParallelBlockProcessor;
+import org.specs.matlabtocl.v2.services.informationbuilders.ParallelBlockInformationBuilder;
+import org.specs.matlabtocl.v2.ssa.ParallelDirectiveParser;
+import org.specs.matlabtocl.v2.ssa.passes.AutomaticParallelLoopDetectionPass;
+import org.specs.matlabtocl.v2.ssa.passes.OpenMPParallelLoopPass;
+import org.specs.matlabtocl.v2.ssa.passes.ParallelBlockBuilderPass;
+import org.suikasoft.jOptions.DataStore.SimpleDataStore;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+import org.suikasoft.jOptions.Interfaces.DataView;
+
+/**
+ * Recipes to generate C code with OpenMP from the same parallel regions used to generate OpenCL code.
+ *
+ * <p>
+ * The loops of each region that pass the parallelization analyses are annotated with <code>omp parallel for</code>
+ * pragmas, and the remaining code is sequential. Compiling the generated code without OpenMP support results in the
+ * sequential version of the program.
+ */
+public class OpenMPRecipes {
+    public final SsaRecipe preSsaRecipe;
+    public final PostTypeInferenceRecipe postTypeInferenceRecipe;
+    public final SsaToCRuleList additionalSsaToCRules;
+    public final DataView services;
+
+    /**
+     * The flags that enable OpenMP in GCC and Clang, both when compiling and when linking.
+     */
+    public static final List<String> COMPILER_FLAGS = Arrays.asList("-fopenmp");
+
+    private static final List<InstructionInformationBuilder> ADDITIONAL_INFORMATION_BUILDERS = Arrays
+            .asList(new ParallelBlockInformationBuilder());
+
+    /**
+     *
+     * @param outputFilesDirectory
+     *            The output folder of the compilation
+     * @param relativeWeaverFilePath
+     *            The path of the weaver settings (used to parse the parallel directives), relative to the output folder
+     */
+    public OpenMPRecipes(File outputFilesDirectory, String relativeWeaverFilePath) {
+        SsaRecipeBuilder builder = new SsaRecipeBuilder();
+        builder.addPass(new ParallelBlockBuilderPass());
+        builder.addPass(new SsaValidatorPass("after-openmp-transformations"));
+        this.preSsaRecipe = builder.getRecipe();
+
+        PostTypeInferenceRecipeBuilder postBuilder = new PostTypeInferenceRecipeBuilder();
+        postBuilder.addRecipe(
+                DefaultRecipes.getOptimizingBasePostTypeInferenceRecipe());
+
+        List<PostTypeInferencePass> finalPasses = new ArrayList<>(DefaultRecipes.getFinalPasses(false).getPasses());
+        finalPasses.removeIf(LoopIterationSimplificationPass.class::isInstance);
+
+        postBuilder.addRecipe(new PostTypeInferenceRecipe(finalPasses));
+        postBuilder.addPass(new AutomaticParallelLoopDetectionPass());
+        postBuilder.addPass(new ParallelBlockBuilderPass());
+        postBuilder.addPass(new DeadCodeEliminationPass());
+        postBuilder.addPass(new SsaValidatorPass("after-openmp-optimizations"));
+        // Refers to SSA names, so it must be the last pass
+        postBuilder.addPass(new OpenMPParallelLoopPass());
+        this.postTypeInferenceRecipe = postBuilder.getRecipe();
+
+        List<SsaToCRule> rules = new ArrayList<>();
+        rules.add(new ParallelBlockProcessor());
+        this.additionalSsaToCRules = new SsaToCRuleList(rules);
+
+        DataStore additionalServices = new SimpleDataStore("openmp-additional-services");
+        additionalServices.add(ProjectPassServices.ADDITIONAL_INFORMATION_BUILDERS,
+                new AdditionalInformationBuildersService(ADDITIONAL_INFORMATION_BUILDERS));
+        additionalServices.add(CLServices.CODE_GENERATION_STRATEGY_PROVIDER,
+                new CommonCodeGenerationStrategyProvider(new File(outputFilesDirectory, relativeWeaverFilePath)));
+        additionalServices.add(PassManager.DIRECTIVE_PARSER, new ParallelDirectiveParser());
+
+        this.services = DataView.newInstance(additionalServices);
+    }
+}
@@ -68,8 +68,14 @@ public final class HelperCodeGenerator implements PostCodeGenAction {
         String programFileName = codeStrategyProvider.getProgramFileName();
 
         String programLoaderCode;
+        String programCacheCode = "";
+        boolean useProgramCache = false;
         if (codeStrategyProvider.loadProgramFromSource()) {
             programLoaderCode = SpecsIo.getResource(ImplementationResources.LOAD_PROGRAM_FROM_SOURCE);
+
+            // The cache is always included, so it can be enabled at run time even when no directory is set
+            programCacheCode = SpecsIo.getResource(ImplementationResources.PROGRAM_CACHE);
+            useProgramCache = true;
         } else {
             programLoaderCode = SpecsIo.getResource(ImplementationResources.LOAD_PROGRAM_FROM_BINARY);
         }
@@ -78,7 +84,11 @@ public final class HelperCodeGenerator implements PostCodeGenAction {
             boolean enableProfiling = profilingOptions.isKernelProfilingEnabled()
                     || profilingOptions.isDataTransferProfilingEnabled();
 
-            outputWriter.write(generalTemplate.replace("<PROGRAM_FILE_NAME>", programFileName)
+            outputWriter.write(generalTemplate
+                    .replace("<PROGRAM_CACHE_CODE>", programCacheCode)
+                    .replace("<USE_PROGRAM_CACHE>", useProgramCache ? "1" : "0")
+                    .replace("<PROGRAM_CACHE_DIRECTORY>", escapeString(codeStrategyProvider.getProgramCacheDirectory()))
+                    .replace("<PROGRAM_FILE_NAME>", programFileName)
                     .replace("<LOAD_PROGRAM>", generatedInstances.isEmpty() ? "0" : "1")
                     .replace("<ENABLE_PROFILING>", enableProfiling ? "1" : "0")
                     .replace("<PRINT_KERNEL_TIME>", profilingOptions.isKernelProfilingEnabled() ? "1" : "0")
@@ -93,4 +103,8 @@ public final class HelperCodeGenerator implements PostCodeGenAction {
             throw new RuntimeException(e);
         }
     }
+
+    private static String escapeString(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
 }
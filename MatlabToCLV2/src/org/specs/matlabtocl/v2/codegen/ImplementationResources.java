@@ -21,7 +21,8 @@ public enum ImplementationResources implements ResourceProvider {
     MATISSE_CL,
     LOAD_KERNEL,
     LOAD_PROGRAM_FROM_SOURCE,
-    LOAD_PROGRAM_FROM_BINARY;
+    LOAD_PROGRAM_FROM_BINARY,
+    PROGRAM_CACHE;
 
     @Override
     public String getResource() {
@@ -51,6 +51,8 @@ public interface CodeGenerationStrategyProvider {
 
     boolean isRangeSetInstructionEnabled();
 
+    boolean isAsyncHostCodeEnabled();
+
     boolean isSvmRestrictedToSequentialAccesses();
 
     boolean isSvmRestrictedToCoalescedAccesses();
@@ -63,6 +65,8 @@ public interface CodeGenerationStrategyProvider {
 
     boolean loadProgramFromSource();
 
+    String getProgramCacheDirectory();
+
     ScheduleDecisionTree getScheduleDecisionTree();
 
     boolean getTryUseScheduleCooperative();
@@ -70,4 +74,8 @@ public interface CodeGenerationStrategyProvider {
     boolean getPreferSubGroupCooperativeSchedule();
 
     boolean getNvidiaSubgroupAsWarpFallback();
+
+    boolean isAutomaticParallelizationEnabled();
+
+    int getAutomaticParallelizationMinTripCount();
 }
@@ -108,6 +108,11 @@ public class CommonCodeGenerationStrategyProvider implements CodeGenerationStrat
         return getDataStore().get(MatisseCLKeys.RANGE_SET_INSTRUCTION_ENABLED);
     }
 
+    @Override
+    public boolean isAsyncHostCodeEnabled() {
+        return getDataStore().get(MatisseCLKeys.ASYNC_HOST_CODE);
+    }
+
     @Override
     public boolean isSvmRestrictedToCoalescedAccesses() {
         return getDataStore().get(MatisseCLKeys.SVM_RESTRICT_COALESCED);
@@ -143,6 +148,11 @@ public class CommonCodeGenerationStrategyProvider implements CodeGenerationStrat
         return getDataStore().get(MatisseCLKeys.LOAD_PROGRAM_FROM_SOURCE);
     }
 
+    @Override
+    public String getProgramCacheDirectory() {
+        return getDataStore().get(MatisseCLKeys.PROGRAM_CACHE_DIRECTORY);
+    }
+
     @Override
     public boolean getTryUseScheduleCooperative() {
         return getDataStore().get(MatisseCLKeys.TRY_USE_SCHEDULE_COOPERATIVE);
@@ -158,6 +168,16 @@ public class CommonCodeGenerationStrategyProvider implements CodeGenerationStrat
         return getDataStore().get(MatisseCLKeys.SUBGROUP_AS_WARP_FALLBACK);
     }
 
+    @Override
+    public boolean isAutomaticParallelizationEnabled() {
+        return getDataStore().get(MatisseCLKeys.AUTOMATIC_PARALLELIZATION);
+    }
+
+    @Override
+    public int getAutomaticParallelizationMinTripCount() {
+        return getDataStore().get(MatisseCLKeys.AUTOMATIC_PARALLELIZATION_MIN_TRIP_COUNT);
+    }
+
     public DataStore getDataStore() {
         if (this.dataStore == null) {
             if (weaverFilePath.isFile()) {
@@ -0,0 +1,151 @@
+/**
+ * Copyright 2026 SPeCS.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matlabtocl.v2.codegen.ssatocrules;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.specs.CIR.Tree.CNodes.VariableNode;
+import org.specs.MatlabToC.CodeBuilder.SsaToCBuilderService;
+import org.specs.matisselib.CompilerDataProviders;
+import org.specs.matisselib.ProjectPassServices;
+import org.specs.matisselib.ssa.FunctionBody;
+import org.specs.matisselib.ssa.SsaBlock;
+import org.specs.matisselib.ssa.instructions.SsaInstruction;
+import org.specs.matlabtocl.v2.CLServices;
+import org.specs.matlabtocl.v2.functions.memory.ReleaseEvent;
+import org.specs.matlabtocl.v2.ssa.instructions.CompleteReductionInstruction;
+import org.specs.matlabtocl.v2.types.api.BufferEventType;
+
+/**
+ * Code shared by the processors that emit OpenCL commands when asynchronous host code is enabled.
+ * 
+ * <p>
+ * Each GPU buffer has an event variable with the last command that wrote to it. Commands wait for the events of the
+ * buffers they access, instead of blocking the host or adding barriers. The host only blocks when it reads device data.
+ * 
+ * @see org.specs.matlabtocl.v2.codegen.reductionstrategies.CodeGenerationStrategyProvider#isAsyncHostCodeEnabled()
+ */
+final class BufferEvents {
+    private BufferEvents() {
+    }
+
+    static boolean isEnabled(SsaToCBuilderService builder) {
+        return builder.getPassData()
+                .get(CLServices.CODE_GENERATION_STRATEGY_PROVIDER)
+                .isAsyncHostCodeEnabled();
+    }
+
+    /**
+     * 
+     * @return the variable with the last event that wrote to the buffer. All SSA versions of a buffer share it.
+     */
+    static VariableNode getEvent(SsaToCBuilderService builder, String buffer) {
+        String finalName = builder.convertSsaToFinalName(buffer);
+        VariableNode eventNode = builder.makeNamedTemporary(finalName + "_evt", new BufferEventType());
+
+        builder.addDependencies(new ReleaseEvent()
+                .newCInstance(builder.getCurrentProvider().createFromNodes(eventNode))
+                .getImplementationInstances());
+
+        return eventNode;
+    }
+
+    /**
+     * Builds the code of an enqueue command that waits for the given events.
+     * 
+     * @param arguments
+     *            The arguments of the command, except the wait list and the output event
+     * @param event
+     *            The code of the output event argument (e.g., "&amp;evt" or "NULL")
+     */
+    static String buildEnqueue(String functionName, String arguments, List<VariableNode> waitEvents,
+            String event) {
+        if (waitEvents.isEmpty()) {
+            return "CHECK(" + functionName + ", " + arguments + ", 0, NULL, " + event + ");";
+        }
+
+        StringBuilder code = new StringBuilder();
+        code.append("{\n");
+        code.append("   cl_event wait_list[" + waitEvents.size() + "];\n");
+        code.append("   cl_uint wait_list_size = 0;\n");
+        for (VariableNode waitEvent : waitEvents) {
+            code.append("   if (" + waitEvent.getCode() + " != NULL) {\n");
+            code.append("      wait_list[wait_list_size++] = " + waitEvent.getCode() + ";\n");
+            code.append("   }\n");
+        }
+        code.append("   CHECK(" + functionName + ", " + arguments
+                + ", wait_list_size, wait_list_size == 0 ? NULL : wait_list, " + event + ");\n");
+        code.append("}");
+
+        return code.toString();
+    }
+
+    /**
+     * Builds the code that makes the buffer event refer to the given event. The buffer event keeps its own reference.
+     */
+    static String buildRecord(VariableNode bufferEvent, String event) {
+        String bufferEventCode = bufferEvent.getCode();
+
+        return "if (" + bufferEventCode + " != NULL) {\n"
+                + "   clReleaseEvent(" + bufferEventCode + ");\n"
+                + "}\n"
+                + bufferEventCode + " = " + event + ";\n"
+                + "CHECK(clRetainEvent, " + bufferEventCode + ");";
+    }
+
+    static String buildRelease(String event) {
+        return "CHECK(clReleaseEvent, " + event + ");";
+    }
+
+    /**
+     * Checks whether a non-blocking write may read from the matrix. That is the case when a blocking read (which, in
+     * an in-order queue, waits for the write) happens in the same block before the matrix can be modified or freed.
+     */
+    static boolean isSourceStableUntilRead(SsaToCBuilderService builder, SsaInstruction write, String matrix) {
+        FunctionBody body = builder.getInstance().getFunctionBody();
+        Optional<SsaBlock> block = builder.getPassData()
+                .getTry(ProjectPassServices.DATA_PROVIDER)
+                .map(provider -> provider.buildData(CompilerDataProviders.DEF_USE_INDEX))
+                .orElseGet(body::getDefUseIndex)
+                .getBlock(write);
+        if (!block.isPresent()) {
+            return false;
+        }
+
+        String matrixName = builder.convertSsaToFinalName(matrix);
+
+        boolean foundWrite = false;
+        for (SsaInstruction instruction : block.get().getInstructions()) {
+            if (!foundWrite) {
+                foundWrite = instruction == write;
+                continue;
+            }
+
+            if (instruction instanceof CompleteReductionInstruction) {
+                return true;
+            }
+            if (instruction.isEndingInstruction() || !instruction.getOwnedBlocks().isEmpty()) {
+                return false;
+            }
+            for (String output : instruction.getOutputs()) {
+                if (builder.convertSsaToFinalName(output).equals(matrixName)) {
+                    return false;
+                }
+            }
+        }
+
+        return false;
+    }
+}
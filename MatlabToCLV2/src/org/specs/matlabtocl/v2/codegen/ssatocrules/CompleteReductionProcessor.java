@@ -15,6 +15,7 @@ package org.specs.matlabtocl.v2.codegen.ssatocrules;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.specs.CIR.FunctionInstance.InstanceProvider;
@@ -93,28 +94,28 @@ public final class CompleteReductionProcessor implements SsaToCRule {
                 .isDataTransferProfilingEnabled();
         Variable evtVariable = null;
 
-        StringBuilder code = new StringBuilder();
-        code.append("CHECK(clEnqueueReadBuffer, MATISSE_cl.command_queue, ");
-        code.append(bufferNode.getCode());
-        code.append(", CL_TRUE, 0, sizeof(");
-        code.append(completeReduction.getUnderlyingType().code().getSimpleType());
-        code.append(") * ");
-        code.append(numGroups.getCodeForRightSideOf(PrecedenceLevel.Multiplication));
-        code.append(", ");
-        code.append(bufferVariable.getCode());
-        code.append(", 0, NULL, ");
+        StringBuilder arguments = new StringBuilder();
+        arguments.append("MATISSE_cl.command_queue, ");
+        arguments.append(bufferNode.getCode());
+        arguments.append(", CL_TRUE, 0, sizeof(");
+        arguments.append(completeReduction.getUnderlyingType().code().getSimpleType());
+        arguments.append(") * ");
+        arguments.append(numGroups.getCodeForRightSideOf(PrecedenceLevel.Multiplication));
+        arguments.append(", ");
+        arguments.append(bufferVariable.getCode());
+
+        String eventCode;
         if (profile) {
             evtVariable = builder.generateTemporary("evt", new EventType());
             builder.addLiteralVariable(evtVariable);
 
-            code.append("&");
-            code.append(evtVariable.getName());
+            eventCode = "&" + evtVariable.getName();
         } else {
-            code.append("NULL");
+            eventCode = "NULL";
         }
-        code.append(");");
 
-        currentBlock.addLiteralInstruction(code.toString());
+        currentBlock.addLiteralInstruction(BufferEvents.buildEnqueue("clEnqueueReadBuffer", arguments.toString(),
+                getWaitEvents(builder, buffer), eventCode));
 
         if (profile) {
             assert evtVariable != null;
@@ -179,43 +180,42 @@ public final class CompleteReductionProcessor implements SsaToCRule {
             currentBlock.addInstruction(functionCall);
         }
 
-        StringBuilder copyCode = new StringBuilder("CHECK(clEnqueueReadBuffer, MATISSE_cl.command_queue, ");
-        copyCode.append(bufferNode.getCode());
-        copyCode.append(", CL_TRUE, 0, sizeof(");
-        copyCode.append(outputNodeType.matrix().getElementType().code().getSimpleType());
-        copyCode.append(") * ");
+        StringBuilder copyArguments = new StringBuilder("MATISSE_cl.command_queue, ");
+        copyArguments.append(bufferNode.getCode());
+        copyArguments.append(", CL_TRUE, 0, sizeof(");
+        copyArguments.append(outputNodeType.matrix().getElementType().code().getSimpleType());
+        copyArguments.append(") * ");
 
         InstanceProvider numel = outputNodeType.functions().numel();
         List<CNode> numelArgs = Arrays.asList(outputNode);
         CNode numelNode = numel.getCheckedInstance(builder.getCurrentProvider().createFromNodes(numelArgs))
                 .newFunctionCall(numelArgs);
 
-        copyCode.append(numelNode.getCodeForRightSideOf(PrecedenceLevel.Multiplication));
-        copyCode.append(", ");
+        copyArguments.append(numelNode.getCodeForRightSideOf(PrecedenceLevel.Multiplication));
+        copyArguments.append(", ");
 
         InstanceProvider data = outputNodeType.functions().data();
         List<CNode> dataArgs = Arrays.asList(outputNode);
         CNode dataNode = data.getCheckedInstance(builder.getCurrentProvider().createFromNodes(dataArgs))
                 .newFunctionCall(dataArgs);
 
-        copyCode.append(dataNode.getCode());
-        copyCode.append(", 0, NULL, ");
+        copyArguments.append(dataNode.getCode());
 
         boolean profile = builder.getPassData()
                 .get(CLServices.PROFILING_OPTIONS)
                 .isDataTransferProfilingEnabled();
         Variable evtVariable = null;
+        String eventCode;
         if (profile) {
             evtVariable = builder.generateTemporary("evt", new EventType());
             builder.addLiteralVariable(evtVariable);
 
-            copyCode.append("&");
-            copyCode.append(evtVariable.getName());
+            eventCode = "&" + evtVariable.getName();
         } else {
-            copyCode.append("NULL");
+            eventCode = "NULL";
         }
-        copyCode.append(");");
-        currentBlock.addLiteralInstruction(copyCode.toString());
+        currentBlock.addLiteralInstruction(BufferEvents.buildEnqueue("clEnqueueReadBuffer", copyArguments.toString(),
+                getWaitEvents(builder, buffer), eventCode));
 
         if (profile) {
             assert evtVariable != null;
@@ -225,4 +225,13 @@ public final class CompleteReductionProcessor implements SsaToCRule {
                             "MATISSE_cl_register_device_to_host_data_transfer_event(" + evtVariable.getName() + ");");
         }
     }
+
+    private static List<VariableNode> getWaitEvents(SsaToCBuilderService builder, String buffer) {
+        if (!BufferEvents.isEnabled(builder)) {
+            return Collections.emptyList();
+        }
+
+        // The read is blocking, so the host only resumes once the buffer is ready
+        return Arrays.asList(BufferEvents.getEvent(builder, buffer));
+    }
 }
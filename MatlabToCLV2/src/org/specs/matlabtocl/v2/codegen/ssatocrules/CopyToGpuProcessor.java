@@ -78,9 +78,13 @@ public final class CopyToGpuProcessor implements SsaToCRule {
         ProfilingOptions profilingOptions = builder.getPassData()
                 .get(CLServices.PROFILING_OPTIONS);
 
+        // The copy only overlaps with the host if nothing can modify the matrix before the transfer completes
+        boolean async = BufferEvents.isEnabled(builder)
+                && BufferEvents.isSourceStableUntilRead(builder, instruction, input);
+
         boolean createAndCopy = false;
         boolean separateEnqueueCommand = false;
-        if (profilingOptions.isDataTransferProfilingEnabled()) {
+        if (async || profilingOptions.isDataTransferProfilingEnabled()) {
             separateEnqueueCommand = true;
         } else {
             if (matrixCopyStrategy == MatrixCopyToGpuStrategy.CREATE_BUFFER_COPY_HOST_PTR) {
@@ -128,14 +132,14 @@ public final class CopyToGpuProcessor implements SsaToCRule {
             StringBuilder copyDataCode = new StringBuilder();
             copyDataCode.append("CHECK(clEnqueueWriteBuffer, MATISSE_cl.command_queue, ");
             copyDataCode.append(outputNode.getCode());
-            copyDataCode.append(", CL_TRUE, 0, ");
+            copyDataCode.append(async ? ", CL_FALSE, 0, " : ", CL_TRUE, 0, ");
             copyDataCode.append(size);
             copyDataCode.append(", ");
 
             copyDataCode.append(dataCode);
 
             copyDataCode.append(", 0, NULL, ");
-            if (profilingOptions.isDataTransferProfilingEnabled()) {
+            if (async || profilingOptions.isDataTransferProfilingEnabled()) {
                 evtVariable = builder.generateTemporary("evt", new EventType());
                 builder.addLiteralVariable(evtVariable);
 
@@ -156,6 +160,16 @@ public final class CopyToGpuProcessor implements SsaToCRule {
                             "MATISSE_cl_register_host_to_device_data_transfer_event(" + evtVariable.getName() + ");");
         }
 
+        if (async) {
+            assert evtVariable != null;
+
+            VariableNode bufferEvent = BufferEvents.getEvent(builder, output);
+            currentBlock.addLiteralInstruction(BufferEvents.buildRecord(bufferEvent, evtVariable.getName()));
+            if (!profilingOptions.isDataTransferProfilingEnabled()) {
+                currentBlock.addLiteralInstruction(BufferEvents.buildRelease(evtVariable.getName()));
+            }
+        }
+
         builder.addDependency(numelInstance);
         builder.addDependency(dataInstance);
         builder.addDependencies(
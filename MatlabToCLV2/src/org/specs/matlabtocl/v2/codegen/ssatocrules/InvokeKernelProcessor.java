@@ -15,7 +15,9 @@ package org.specs.matlabtocl.v2.codegen.ssatocrules;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.specs.CIR.FunctionInstance.FunctionInstanceUtils;
 import org.specs.CIR.FunctionInstance.InstanceProvider;
@@ -66,6 +68,11 @@ public final class InvokeKernelProcessor implements SsaToCRule {
 
         boolean usesSharedMemory = false;
 
+        boolean eventChains = BufferEvents.isEnabled(builder);
+        // Events of the buffers the kernel accesses, and of the buffers it writes to, by final name
+        Map<String, VariableNode> waitEvents = new LinkedHashMap<>();
+        Map<String, VariableNode> writtenBufferEvents = new LinkedHashMap<>();
+
         for (int i = 0; i < invoke.getArguments().size(); ++i) {
             String variable = invoke.getArguments().get(i);
             VariableNode variableNode = builder.generateVariableNodeForSsaName(variable);
@@ -110,6 +117,14 @@ public final class InvokeKernelProcessor implements SsaToCRule {
                 if (variableType instanceof GpuGlobalBufferType) {
                     argSizeCode = "sizeof(cl_mem)";
                     argValueCode = variableNode.getCodeAsPointer();
+
+                    if (eventChains) {
+                        VariableNode bufferEvent = BufferEvents.getEvent(builder, variable);
+                        waitEvents.put(bufferEvent.getCode(), bufferEvent);
+                        if (!kernelArgument.isReadOnly) {
+                            writtenBufferEvents.put(bufferEvent.getCode(), bufferEvent);
+                        }
+                    }
                 } else if (variableType instanceof GpuLocalBufferType) {
                     argSizeCode = variableNode.getCode();
                     argValueCode = "NULL";
@@ -171,18 +186,19 @@ public final class InvokeKernelProcessor implements SsaToCRule {
         }
 
         Variable evtVariable = null;
-        if (profile || usesSharedMemory) {
+        if (profile || usesSharedMemory || eventChains) {
             evtVariable = builder.generateTemporary("evt", new EventType());
             builder.addLiteralVariable(evtVariable);
         }
 
         List<CNode> runKernelCommands = new ArrayList<>();
         runKernelCommands
-                .add(CNodeFactory.newLiteral("CHECK(clEnqueueNDRangeKernel, MATISSE_cl.command_queue, MATISSE_cl."
-                        + kernel.getInstanceName() + ", " + numDims + ", NULL, " + globalSizes.getCode() + ", "
-                        + localSizes.getCode() + ", 0, NULL, "
-                        + (evtVariable != null ? "&" + evtVariable.getName() : "NULL")
-                        + ");"));
+                .add(CNodeFactory.newLiteral(BufferEvents.buildEnqueue("clEnqueueNDRangeKernel",
+                        "MATISSE_cl.command_queue, MATISSE_cl."
+                                + kernel.getInstanceName() + ", " + numDims + ", NULL, " + globalSizes.getCode() + ", "
+                                + localSizes.getCode(),
+                        new ArrayList<>(waitEvents.values()),
+                        evtVariable != null ? "&" + evtVariable.getName() : "NULL")));
 
         if (profile) {
             assert evtVariable != null;
@@ -194,10 +210,22 @@ public final class InvokeKernelProcessor implements SsaToCRule {
         if (usesSharedMemory) {
             runKernelCommands
                     .add(CNodeFactory.newLiteral("CHECK(clWaitForEvents, 1, &" + evtVariable.getName() + ");"));
-        } else {
+        } else if (!eventChains) {
             runKernelCommands.add(CNodeFactory.newLiteral("CHECK(clEnqueueBarrier, MATISSE_cl.command_queue);"));
         }
 
+        if (eventChains) {
+            assert evtVariable != null;
+
+            for (VariableNode bufferEvent : writtenBufferEvents.values()) {
+                runKernelCommands
+                        .add(CNodeFactory.newLiteral(BufferEvents.buildRecord(bufferEvent, evtVariable.getName())));
+            }
+            if (!profile) {
+                runKernelCommands.add(CNodeFactory.newLiteral(BufferEvents.buildRelease(evtVariable.getName())));
+            }
+        }
+
         StringBuilder notEmptySizeConditionString = null;
         for (int i = 0; i < numDims; ++i) {
             CNode numThreadsInDim = builder.generateVariableExpressionForSsaName(currentBlock,
@@ -13,6 +13,9 @@
 
 package org.specs.matlabtocl.v2.codegen.ssatocrules;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.specs.CIR.FunctionInstance.FunctionInstance;
 import org.specs.CIR.FunctionInstance.InstanceProvider;
 import org.specs.CIR.FunctionInstance.ProviderData;
@@ -69,28 +72,35 @@ public final class OverrideGpuBufferContentsProcessor implements SsaToCRule {
         ProfilingOptions profilingOptions = builder.getPassData()
                 .get(CLServices.PROFILING_OPTIONS);
 
+        boolean eventChains = BufferEvents.isEnabled(builder);
+        boolean async = eventChains && BufferEvents.isSourceStableUntilRead(builder, instruction, matrix);
+
+        List<VariableNode> waitEvents = new ArrayList<>();
+        if (eventChains) {
+            waitEvents.add(BufferEvents.getEvent(builder, buffer));
+        }
+
         Variable evtVariable = null;
-        StringBuilder copyDataCode = new StringBuilder();
-        copyDataCode.append("CHECK(clEnqueueWriteBuffer, MATISSE_cl.command_queue, ");
-        copyDataCode.append(bufferNode.getCode());
-        copyDataCode.append(", CL_TRUE, 0, ");
-        copyDataCode.append(size);
-        copyDataCode.append(", ");
+        StringBuilder copyDataArguments = new StringBuilder();
+        copyDataArguments.append("MATISSE_cl.command_queue, ");
+        copyDataArguments.append(bufferNode.getCode());
+        copyDataArguments.append(async ? ", CL_FALSE, 0, " : ", CL_TRUE, 0, ");
+        copyDataArguments.append(size);
+        copyDataArguments.append(", ");
 
-        copyDataCode.append(dataCode);
+        copyDataArguments.append(dataCode);
 
-        copyDataCode.append(", 0, NULL, ");
-        if (profilingOptions.isDataTransferProfilingEnabled()) {
+        String eventCode;
+        if (async || profilingOptions.isDataTransferProfilingEnabled()) {
             evtVariable = builder.generateTemporary("evt", new EventType());
             builder.addLiteralVariable(evtVariable);
 
-            copyDataCode.append("&");
-            copyDataCode.append(evtVariable.getName());
+            eventCode = "&" + evtVariable.getName();
         } else {
-            copyDataCode.append("NULL");
+            eventCode = "NULL";
         }
-        copyDataCode.append(");");
-        currentBlock.addLiteralInstruction(copyDataCode.toString());
+        currentBlock.addLiteralInstruction(BufferEvents.buildEnqueue("clEnqueueWriteBuffer",
+                copyDataArguments.toString(), waitEvents, eventCode));
 
         if (profilingOptions.isDataTransferProfilingEnabled()) {
             assert evtVariable != null;
@@ -100,6 +110,15 @@ public final class OverrideGpuBufferContentsProcessor implements SsaToCRule {
                             "MATISSE_cl_register_host_to_device_data_transfer_event(" + evtVariable.getName() + ");");
         }
 
+        if (async) {
+            assert evtVariable != null;
+
+            currentBlock.addLiteralInstruction(BufferEvents.buildRecord(waitEvents.get(0), evtVariable.getName()));
+            if (!profilingOptions.isDataTransferProfilingEnabled()) {
+                currentBlock.addLiteralInstruction(BufferEvents.buildRelease(evtVariable.getName()));
+            }
+        }
+
         builder.addDependency(numelInstance);
         builder.addDependency(dataInstance);
         builder.addDependencies(
@@ -0,0 +1,38 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matlabtocl.v2.codegen.ssatocrules;
+
+import org.specs.CIR.Tree.CInstructionList;
+import org.specs.MatlabToC.CodeBuilder.SsaToCBuilderService;
+import org.specs.MatlabToC.CodeBuilder.SsaToCRules.SsaToCRule;
+import org.specs.matisselib.ssa.instructions.SsaInstruction;
+import org.specs.matlabtocl.v2.ssa.instructions.ParallelBlockInstruction;
+
+/**
+ * Generates the code of parallel regions that were not outlined (e.g., when targeting OpenMP), in place.
+ */
+public class ParallelBlockProcessor implements SsaToCRule {
+    @Override
+    public boolean accepts(SsaToCBuilderService builder, SsaInstruction instruction) {
+        return instruction instanceof ParallelBlockInstruction;
+    }
+
+    @Override
+    public void apply(SsaToCBuilderService builder, CInstructionList currentBlock, SsaInstruction instruction) {
+        ParallelBlockInstruction parallelBlock = (ParallelBlockInstruction) instruction;
+
+        builder.generateCodeForBlock(parallelBlock.getContentBlock(), currentBlock);
+        builder.generateCodeForBlock(parallelBlock.getEndBlock(), currentBlock);
+    }
+}
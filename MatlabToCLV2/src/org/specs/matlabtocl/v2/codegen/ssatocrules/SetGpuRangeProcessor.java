@@ -13,6 +13,10 @@
 
 package org.specs.matlabtocl.v2.codegen.ssatocrules;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import org.specs.CIR.FunctionInstance.FunctionInstanceUtils;
 import org.specs.CIR.Tree.CInstructionList;
 import org.specs.CIR.Tree.CNode;
@@ -60,6 +64,7 @@ public class SetGpuRangeProcessor implements SsaToCRule {
         String functionName;
         String inputCode;
         String startCode = "";
+        VariableNode bufferEvent = null;
         if (setRange.getOutput().isPresent()) {
             functionName = "clEnqueueSVMMemFill";
 
@@ -79,15 +84,22 @@ public class SetGpuRangeProcessor implements SsaToCRule {
             functionName = "clEnqueueFillBuffer";
             inputCode = inputNode.getCode();
             startCode = startNode.getCode() + ", ";
+
+            if (BufferEvents.isEnabled(builder)) {
+                bufferEvent = BufferEvents.getEvent(builder, setRange.getBuffer());
+            }
         }
 
+        List<VariableNode> waitEvents = bufferEvent == null ? Collections.emptyList()
+                : Arrays.asList(bufferEvent);
         currentBlock
-                .addLiteralInstruction(
-                        "CHECK(" + functionName + ", MATISSE_cl.command_queue, " + inputCode
+                .addLiteralInstruction(BufferEvents.buildEnqueue(functionName,
+                        "MATISSE_cl.command_queue, " + inputCode
                                 + ", &" + patternNode.getCode() + ", sizeof(" + patternNode.getCode() + "), "
                                 + startCode
                                 + lengthNode.getCodeForLeftSideOf(PrecedenceLevel.Multiplication) + " * sizeof("
-                                + patternNode.getCode() + "), 0, NULL, &" + evtVariable.getName() + ");");
+                                + patternNode.getCode() + ")",
+                        waitEvents, "&" + evtVariable.getName()));
 
         if (profile) {
             assert evtVariable != null;
@@ -97,7 +109,15 @@ public class SetGpuRangeProcessor implements SsaToCRule {
                             "MATISSE_cl_register_host_to_device_data_transfer_event(" + evtVariable.getName() + ");");
         }
 
-        currentBlock.addLiteralInstruction("CHECK(clEnqueueBarrier, MATISSE_cl.command_queue);");
+        if (bufferEvent != null) {
+            // Commands that use the buffer wait for its event, so no barrier is needed
+            currentBlock.addLiteralInstruction(BufferEvents.buildRecord(bufferEvent, evtVariable.getName()));
+            if (!profile) {
+                currentBlock.addLiteralInstruction(BufferEvents.buildRelease(evtVariable.getName()));
+            }
+        } else {
+            currentBlock.addLiteralInstruction("CHECK(clEnqueueBarrier, MATISSE_cl.command_queue);");
+        }
     }
 
 }
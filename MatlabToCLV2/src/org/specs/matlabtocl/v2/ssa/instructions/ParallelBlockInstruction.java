@@ -109,4 +109,10 @@ public final class ParallelBlockInstruction extends InOrderBlockTraversalInstruc
     public String toString() {
         return "parallel_block" + settings + " #" + this.contentBlock + ", #" + this.endBlock;
     }
+
+    @Override
+    public int getStateHash() {
+        // The settings are modified in place
+        return 31 * super.getStateHash() + settings.toString().hashCode();
+    }
 }
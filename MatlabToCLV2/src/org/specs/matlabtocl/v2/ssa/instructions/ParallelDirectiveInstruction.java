@@ -63,4 +63,10 @@ public final class ParallelDirectiveInstruction extends ControlFlowIndependentIn
         return "parallel_directive";
     }
 
+    @Override
+    public int getStateHash() {
+        // The settings are modified in place
+        return 31 * super.getStateHash() + settings.toString().hashCode();
+    }
+
 }
@@ -0,0 +1,396 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matlabtocl.v2.ssa.passes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.CIR.Types.VariableType;
+import org.specs.CIR.Types.ATypes.Scalar.ScalarUtils;
+import org.specs.matisselib.CompilerDataProviders;
+import org.specs.matisselib.PassMessage;
+import org.specs.matisselib.PassUtils;
+import org.specs.matisselib.PreTypeInferenceServices;
+import org.specs.matisselib.ProjectPassServices;
+import org.specs.matisselib.helpers.ForLoopHierarchy;
+import org.specs.matisselib.helpers.ForLoopHierarchy.BlockData;
+import org.specs.matisselib.helpers.sizeinfo.SizeGroupInformation;
+import org.specs.matisselib.services.InstructionReportingService;
+import org.specs.matisselib.services.Logger;
+import org.specs.matisselib.services.ScalarValueInformationBuilderService;
+import org.specs.matisselib.services.TypedInstanceProviderService;
+import org.specs.matisselib.services.WideScopeService;
+import org.specs.matisselib.ssa.FunctionBody;
+import org.specs.matisselib.ssa.SsaBlock;
+import org.specs.matisselib.ssa.instructions.ForInstruction;
+import org.specs.matisselib.ssa.instructions.PhiInstruction;
+import org.specs.matisselib.ssa.instructions.SsaInstruction;
+import org.specs.matisselib.typeinference.PostTypeInferencePass;
+import org.specs.matisselib.typeinference.TypeInferencePass;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.specs.matlabtocl.v2.CLServices;
+import org.specs.matlabtocl.v2.MatisseCLKeys;
+import org.specs.matlabtocl.v2.codegen.ParallelLoopInformation;
+import org.specs.matlabtocl.v2.codegen.reductionstrategies.CodeGenerationStrategyProvider;
+import org.specs.matlabtocl.v2.ssa.ParallelRegionInstance;
+import org.specs.matlabtocl.v2.ssa.ParallelRegionSettings;
+import org.specs.matlabtocl.v2.ssa.instructions.EndDirectiveInstruction;
+import org.specs.matlabtocl.v2.ssa.instructions.ParallelBlockInstruction;
+import org.specs.matlabtocl.v2.ssa.instructions.ParallelDirectiveInstruction;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+
+import com.google.common.base.Preconditions;
+
+import pt.up.fe.specs.util.SpecsCollections;
+
+/**
+ * Surrounds the loops that can be proven to be parallel with parallel directives, as if the user had written
+ * <code>%!parallel</code> before the loop and <code>%!end</code> after it. {@link ParallelBlockBuilderPass} must be
+ * applied afterwards to build the regions.
+ *
+ * <p>
+ * A loop is accepted when the analyses used to generate kernels ({@link InvokeParallelFunctionImplementationPass})
+ * show that its iterations write disjoint matrix positions, and that every value carried between iterations is a
+ * recognized reduction. Loops whose trip count is known to be below
+ * {@link MatisseCLKeys#AUTOMATIC_PARALLELIZATION_MIN_TRIP_COUNT}, either from constant loop ends or from the scalar
+ * value information of the function, are not accepted. Loops whose trip count is unknown are accepted, and their report
+ * says so. Each decision is reported with {@link PassMessage#PARALLELIZATION_REPORT}.
+ *
+ * <p>
+ * Only applied when {@link MatisseCLKeys#AUTOMATIC_PARALLELIZATION} is enabled.
+ */
+public class AutomaticParallelLoopDetectionPass implements PostTypeInferencePass {
+
+    public static final String PASS_NAME = "automatic_parallel_loop_detection";
+
+    private static final String ATTEMPT_MESSAGE_PREFIX = "Attempting to parallelize";
+
+    private enum TripCountBound {
+        BELOW_MINIMUM,
+        AT_LEAST_MINIMUM,
+        UNKNOWN
+    }
+
+    @Override
+    public void apply(TypedInstance instance, DataStore passData) {
+        Preconditions.checkArgument(instance != null);
+        Preconditions.checkArgument(passData != null);
+
+        Logger logger = PassUtils.getLogger(passData, PASS_NAME);
+
+        CodeGenerationStrategyProvider codeGenStrategy = passData
+                .get(CLServices.CODE_GENERATION_STRATEGY_PROVIDER);
+
+        if (PassUtils.skipPass(instance, PASS_NAME) || !codeGenStrategy.isAutomaticParallelizationEnabled()) {
+            logger.log("Skipping " + instance.getFunctionIdentification().getName());
+            return;
+        }
+
+        logger.log("Starting " + instance.getFunctionIdentification().getName());
+
+        TypedInstanceProviderService instanceProviderService = passData
+                .get(ProjectPassServices.TYPED_INSTANCE_PROVIDER);
+        WideScopeService wideScopeService = passData
+                .get(PreTypeInferenceServices.WIDE_SCOPE);
+        ScalarValueInformationBuilderService scalarBuilderService = passData
+                .get(ProjectPassServices.SCALAR_VALUE_INFO_BUILDER_PROVIDER);
+        InstructionReportingService reportService = passData.get(TypeInferencePass.INSTRUCTION_REPORT_SERVICE);
+        SizeGroupInformation sizeInfo = PassUtils.getData(passData, CompilerDataProviders.SIZE_GROUP_INFORMATION);
+
+        ProviderData providerData = instance.getProviderData();
+        int minTripCount = codeGenStrategy.getAutomaticParallelizationMinTripCount();
+        FunctionBody body = instance.getFunctionBody();
+
+        // The loops are analyzed in place, so there are no region inputs or outputs.
+        ParallelRegionInstance functionView = new ParallelRegionInstance(new ParallelRegionSettings(),
+                body,
+                Collections.emptyList(),
+                Collections.emptyList(),
+                instance.getVariableTypes());
+
+        // Loops in regions given by the user keep the settings of those regions
+        Set<Integer> userRegionBlocks = new HashSet<>();
+        for (ParallelBlockInstruction parallelBlock : instance
+                .getFlattenedInstructionsOfTypeIterable(ParallelBlockInstruction.class)) {
+            userRegionBlocks.addAll(getReachableBlocks(body, parallelBlock.getContentBlock()));
+        }
+
+        ForLoopHierarchy forLoops = ForLoopHierarchy.identifyLoops(body);
+        logger.log("Blocks ending in fors: " + forLoops);
+
+        // Outer loops first
+        List<BlockData> candidates = new ArrayList<>(forLoops.getForLoops());
+        candidates.sort(Comparator.comparingInt(loop -> loop.getNesting().size()));
+
+        List<Integer> acceptedLoops = new ArrayList<>();
+        Set<Integer> acceptedLoopBlocks = new HashSet<>();
+        for (BlockData candidate : candidates) {
+            int blockId = candidate.getBlockId();
+            ForInstruction xfor = getForInstruction(body, blockId);
+
+            if (userRegionBlocks.contains(blockId)) {
+                logger.log("Loop at " + blockId + " is already in a parallel region.");
+                continue;
+            }
+            if (acceptedLoopBlocks.contains(blockId)) {
+                logger.log("Loop at " + blockId + " is inside a parallelized loop.");
+                continue;
+            }
+
+            Set<Integer> loopBlocks = getReachableBlocks(body, xfor.getLoopBlock());
+            if (!Collections.disjoint(loopBlocks, userRegionBlocks)) {
+                reportService.emitMessage(instance, xfor, PassMessage.PARALLELIZATION_REPORT,
+                        "Loop not parallelized: It contains a parallel region.");
+                continue;
+            }
+
+            // Perfectly nested loops may only be valid together (e.g., when building a matrix in place).
+            List<Integer> blocks = new ArrayList<>();
+            blocks.add(blockId);
+            String rejectionReason = null;
+            Optional<ParallelLoopInformation> information;
+            while (true) {
+                List<String> analysisMessages = new ArrayList<>();
+                Logger analysisLogger = message -> {
+                    logger.log(message);
+                    analysisMessages.add(message.toString());
+                };
+
+                information = InvokeParallelFunctionImplementationPass
+                        .getParallelLoopInformation(functionView,
+                                providerData,
+                                wideScopeService,
+                                instanceProviderService,
+                                forLoops,
+                                blocks,
+                                scalarBuilderService,
+                                analysisLogger);
+
+                if (information.isPresent()) {
+                    break;
+                }
+                if (rejectionReason == null) {
+                    rejectionReason = getRejectionReason(analysisMessages);
+                }
+
+                List<Integer> childLoops = forLoops.getDirectChildLoops(SpecsCollections.last(blocks));
+                if (childLoops.size() != 1) {
+                    break;
+                }
+                blocks.add(childLoops.get(0));
+            }
+
+            if (!information.isPresent()) {
+                reportService.emitMessage(instance, xfor, PassMessage.PARALLELIZATION_REPORT,
+                        "Loop not parallelized: " + rejectionReason);
+                continue;
+            }
+
+            Optional<Long> tripCount = estimateTripCount(instance, body, blocks);
+            TripCountBound tripCountBound = tripCount
+                    .map(count -> count < minTripCount ? TripCountBound.BELOW_MINIMUM : TripCountBound.AT_LEAST_MINIMUM)
+                    .orElseGet(() -> boundTripCount(sizeInfo, body, blocks, minTripCount));
+            if (tripCountBound == TripCountBound.BELOW_MINIMUM) {
+                String reason = tripCount
+                        .map(count -> "Estimated trip count (" + count + ") is below the minimum of ")
+                        .orElse("Trip count is known to be below the minimum of ");
+                reportService.emitMessage(instance, xfor, PassMessage.PARALLELIZATION_REPORT,
+                        "Loop not parallelized: " + reason + minTripCount + ".");
+                continue;
+            }
+
+            logger.log("Parallelizing loop at " + blockId + ": " + information.get());
+            reportService.emitMessage(instance, xfor, PassMessage.PARALLELIZATION_REPORT,
+                    buildAcceptanceMessage(blocks, information.get(), tripCount, tripCountBound, minTripCount));
+
+            acceptedLoops.add(blockId);
+            acceptedLoopBlocks.addAll(loopBlocks);
+        }
+
+        for (int blockId : acceptedLoops) {
+            insertDirectives(body, blockId, buildSettings(codeGenStrategy));
+        }
+    }
+
+    private static void insertDirectives(FunctionBody body, int blockId, ParallelRegionSettings settings) {
+        SsaBlock block = body.getBlock(blockId);
+        ForInstruction xfor = getForInstruction(body, blockId);
+
+        block.insertInstruction(block.getInstructions().size() - 1, new ParallelDirectiveInstruction(settings));
+
+        // The phis that merge the values of the loop belong to the region
+        SsaBlock endBlock = body.getBlock(xfor.getEndBlock());
+        int endIndex = 0;
+        while (endIndex < endBlock.getInstructions().size()
+                && endBlock.getInstructions().get(endIndex) instanceof PhiInstruction) {
+            ++endIndex;
+        }
+        endBlock.insertInstruction(endIndex, new EndDirectiveInstruction());
+    }
+
+    private static ParallelRegionSettings buildSettings(CodeGenerationStrategyProvider codeGenStrategy) {
+        // Same defaults as a directive without parameters
+        ParallelRegionSettings settings = new ParallelRegionSettings();
+        settings.reductionStrategies = new HashMap<>(codeGenStrategy.getReductionStrategies());
+        settings.localReductionStrategies = new HashMap<>(codeGenStrategy.getLocalReductionStrategies());
+        settings.subgroupReductionStrategies = new HashMap<>(codeGenStrategy.getSubgroupReductionStrategies());
+
+        return settings;
+    }
+
+    private static String getRejectionReason(List<String> analysisMessages) {
+        if (analysisMessages.isEmpty()) {
+            return "Unknown reason.";
+        }
+
+        String lastMessage = SpecsCollections.last(analysisMessages);
+        if (lastMessage.startsWith(ATTEMPT_MESSAGE_PREFIX)) {
+            // The reduction format validation does not log its failures
+            return "A value carried between iterations is not a recognized reduction.";
+        }
+
+        return lastMessage;
+    }
+
+    private static String buildAcceptanceMessage(List<Integer> blocks,
+            ParallelLoopInformation information,
+            Optional<Long> tripCount,
+            TripCountBound tripCountBound,
+            int minTripCount) {
+
+        StringBuilder message = new StringBuilder("Loop automatically parallelized");
+        if (blocks.size() > 1) {
+            message.append(" (with ");
+            message.append(blocks.size() - 1);
+            message.append(" nested loop(s))");
+        }
+        if (!information.reductions.isEmpty()) {
+            message.append(", with reductions: ");
+            message.append(information.reductions.stream()
+                    .map(reduction -> reduction.getReductionType() + " of " + reduction.getFinalName())
+                    .collect(Collectors.joining(", ")));
+        }
+        if (tripCount.isPresent()) {
+            message.append(". Estimated trip count: " + tripCount.get() + ".");
+        } else if (tripCountBound == TripCountBound.AT_LEAST_MINIMUM) {
+            message.append(". Trip count unknown at compile time, but at least " + minTripCount + ".");
+        } else {
+            message.append(". Trip count unknown at compile time, so the minimum of " + minTripCount
+                    + " was not checked.");
+        }
+
+        return message.toString();
+    }
+
+    /**
+     * Parallel loops start at 1 and have an interval of 1, so the trip count of each loop is its end value.
+     * 
+     * @return The total number of iterations of the nest, or empty if it is not known at compile time
+     */
+    private static Optional<Long> estimateTripCount(TypedInstance instance, FunctionBody body, List<Integer> blocks) {
+        long tripCount = 1;
+
+        for (int blockId : blocks) {
+            ForInstruction xfor = getForInstruction(body, blockId);
+            Optional<VariableType> endType = instance.getVariableType(xfor.getEnd());
+            if (!ScalarUtils.hasConstant(endType)) {
+                return Optional.empty();
+            }
+
+            long end = (long) Math.floor(ScalarUtils.getConstant(endType.get()).doubleValue());
+            tripCount *= Math.max(end, 0);
+        }
+
+        return Optional.of(tripCount);
+    }
+
+    /**
+     * Compares the trip count of the nest with the minimum when the loop ends are not constants (e.g.,
+     * <code>numel(A)</code>, or a value bounded by an assumption), using what the scalar value information knows about
+     * them.
+     * 
+     * <p>
+     * The nest reaches the minimum if one of its loops does and all others run at least once. It is known to stay
+     * below the minimum if one of its loops never runs, or if it is a single loop known to stay below it. The bounds of
+     * the products of several loops are not computed.
+     */
+    private static TripCountBound boundTripCount(SizeGroupInformation sizeInfo,
+            FunctionBody body,
+            List<Integer> blocks,
+            int minTripCount) {
+
+        List<String> ends = blocks.stream()
+                .map(blockId -> getForInstruction(body, blockId).getEnd())
+                .collect(Collectors.toList());
+
+        if (minTripCount > 0 && ends.stream().anyMatch(end -> sizeInfo.isKnownLessThan(end, 1))) {
+            return TripCountBound.BELOW_MINIMUM;
+        }
+        if (ends.size() == 1 && sizeInfo.isKnownLessThan(ends.get(0), minTripCount)) {
+            return TripCountBound.BELOW_MINIMUM;
+        }
+
+        for (int i = 0; i < ends.size(); ++i) {
+            if (!sizeInfo.isKnownAtLeast(ends.get(i), minTripCount)) {
+                continue;
+            }
+
+            boolean othersRun = true;
+            for (int j = 0; j < ends.size(); ++j) {
+                if (j != i && !sizeInfo.isKnownAtLeast(ends.get(j), 1)) {
+                    othersRun = false;
+                    break;
+                }
+            }
+            if (othersRun) {
+                return TripCountBound.AT_LEAST_MINIMUM;
+            }
+        }
+
+        return TripCountBound.UNKNOWN;
+    }
+
+    private static ForInstruction getForInstruction(FunctionBody body, int blockId) {
+        return (ForInstruction) body.getBlock(blockId).getEndingInstruction().get();
+    }
+
+    private static Set<Integer> getReachableBlocks(FunctionBody body, int startBlockId) {
+        Set<Integer> blocks = new HashSet<>();
+
+        Queue<Integer> pendingBlocks = new LinkedList<>();
+        pendingBlocks.add(startBlockId);
+        while (!pendingBlocks.isEmpty()) {
+            int blockId = pendingBlocks.poll();
+            if (!blocks.add(blockId)) {
+                continue;
+            }
+
+            for (SsaInstruction instruction : body.getBlock(blockId).getInstructions()) {
+                pendingBlocks.addAll(instruction.getTargetBlocks());
+            }
+        }
+
+        return blocks;
+    }
+}
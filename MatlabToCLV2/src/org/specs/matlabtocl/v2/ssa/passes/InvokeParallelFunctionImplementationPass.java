@@ -1018,7 +1018,7 @@ public class InvokeParallelFunctionImplementationPass
         String finalName;
     }
 
-    private static Optional<ParallelLoopInformation> getParallelLoopInformation(ParallelRegionInstance parallelInstance,
+    static Optional<ParallelLoopInformation> getParallelLoopInformation(ParallelRegionInstance parallelInstance,
             ProviderData providerData,
             WideScopeService wideScopeService,
             TypedInstanceProviderService instanceProviderService,
@@ -0,0 +1,241 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matlabtocl.v2.ssa.passes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.CIR.Types.VariableType;
+import org.specs.CIR.Types.ATypes.Scalar.ScalarUtils;
+import org.specs.MatlabToC.jOptions.MatlabToCKeys;
+import org.specs.matisselib.PassUtils;
+import org.specs.matisselib.PreTypeInferenceServices;
+import org.specs.matisselib.ProjectPassServices;
+import org.specs.matisselib.helpers.ConstantUtils;
+import org.specs.matisselib.helpers.ForLoopHierarchy;
+import org.specs.matisselib.helpers.ForLoopHierarchy.BlockData;
+import org.specs.matisselib.helpers.LoopVariable;
+import org.specs.matisselib.loopproperties.OpenMPParallelForProperty;
+import org.specs.matisselib.services.DataService;
+import org.specs.matisselib.services.Logger;
+import org.specs.matisselib.services.ScalarValueInformationBuilderService;
+import org.specs.matisselib.services.TypedInstanceProviderService;
+import org.specs.matisselib.services.WideScopeService;
+import org.specs.matisselib.ssa.FunctionBody;
+import org.specs.matisselib.ssa.instructions.ForInstruction;
+import org.specs.matisselib.typeinference.PostTypeInferencePass;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.specs.matlabtocl.v2.codegen.ParallelLoopInformation;
+import org.specs.matlabtocl.v2.codegen.Reduction;
+import org.specs.matlabtocl.v2.ssa.ParallelRegionInstance;
+import org.specs.matlabtocl.v2.ssa.ParallelRegionSettings;
+import org.specs.matlabtocl.v2.ssa.instructions.ParallelBlockInstruction;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+
+import com.google.common.base.Preconditions;
+
+import pt.up.fe.specs.util.SpecsCollections;
+import pt.up.fe.specs.util.exceptions.NotImplementedException;
+
+/**
+ * Marks the loops of parallel regions that can be distributed among CPU threads with an
+ * {@link OpenMPParallelForProperty}.
+ *
+ * <p>
+ * The loops are validated with the same analyses used to generate OpenCL kernels, but the regions are not outlined.
+ * Only the outermost loop of each parallelizable nest is marked. The property refers to SSA names, so this pass must be
+ * the last post-type inference pass to be applied.
+ */
+public class OpenMPParallelLoopPass implements PostTypeInferencePass {
+
+    public static final String PASS_NAME = "openmp_parallel_loop";
+
+    @Override
+    public void apply(TypedInstance instance, DataStore passData) {
+        Preconditions.checkArgument(instance != null);
+        Preconditions.checkArgument(passData != null);
+
+        Logger logger = PassUtils.getLogger(passData, PASS_NAME);
+
+        if (PassUtils.skipPass(instance, PASS_NAME)) {
+            logger.log("Skipping " + instance.getFunctionIdentification().getName());
+            return;
+        }
+
+        logger.log("Starting " + instance.getFunctionIdentification().getName());
+
+        for (ParallelBlockInstruction parallelBlock : instance
+                .getFlattenedInstructionsOfTypeIterable(ParallelBlockInstruction.class)) {
+
+            markParallelLoops(instance, parallelBlock, passData, logger);
+        }
+    }
+
+    private static void markParallelLoops(TypedInstance instance,
+            ParallelBlockInstruction parallelBlock,
+            DataStore passData,
+            Logger logger) {
+
+        TypedInstanceProviderService instanceProviderService = passData
+                .get(ProjectPassServices.TYPED_INSTANCE_PROVIDER);
+        WideScopeService wideScopeService = passData
+                .get(PreTypeInferenceServices.WIDE_SCOPE);
+        ScalarValueInformationBuilderService scalarBuilderService = passData
+                .get(ProjectPassServices.SCALAR_VALUE_INFO_BUILDER_PROVIDER);
+
+        ProviderData providerData = instance.getProviderData();
+        FunctionBody body = instance.getFunctionBody();
+        ParallelRegionSettings settings = parallelBlock.getSettings();
+
+        // The region is analyzed in place, so there are no region inputs or outputs.
+        ParallelRegionInstance regionView = new ParallelRegionInstance(settings,
+                body,
+                Collections.emptyList(),
+                Collections.emptyList(),
+                instance.getVariableTypes());
+
+        String schedule = getScheduleClause(settings,
+                instance::getVariableType,
+                providerData.getSettings().get(MatlabToCKeys.OPENMP_DEFAULT_SCHEDULE));
+
+        ForLoopHierarchy forLoops = ForLoopHierarchy.identifyLoops(body, parallelBlock.getContentBlock());
+        logger.log("Blocks ending in fors: " + forLoops);
+
+        // Outer loops first
+        List<BlockData> candidates = new ArrayList<>(forLoops.getForLoops());
+        candidates.sort(Comparator.comparingInt(loop -> loop.getNesting().size()));
+
+        Set<Integer> parallelLoops = new HashSet<>();
+        for (BlockData candidate : candidates) {
+            int blockId = candidate.getBlockId();
+
+            if (forLoops.anyParentIn(blockId, parallelLoops)) {
+                logger.log("Not parallelizing loop at " + blockId + " because a parent loop is already parallel.");
+                continue;
+            }
+
+            // Perfectly nested loops may only be valid together (e.g., when building a matrix in place),
+            // but only the outermost one is distributed.
+            List<Integer> blocks = new ArrayList<>();
+            blocks.add(blockId);
+            while (true) {
+                Optional<ParallelLoopInformation> information = InvokeParallelFunctionImplementationPass
+                        .getParallelLoopInformation(regionView,
+                                providerData,
+                                wideScopeService,
+                                instanceProviderService,
+                                forLoops,
+                                blocks,
+                                scalarBuilderService,
+                                logger);
+
+                if (information.isPresent()) {
+                    ForInstruction xfor = (ForInstruction) body.getBlock(blockId).getEndingInstruction().get();
+                    OpenMPParallelForProperty property = buildProperty(schedule, information.get());
+
+                    logger.log("Parallelizing loop at " + blockId + ": " + property);
+                    xfor.addLoopProperty(property);
+                    parallelLoops.add(blockId);
+                    break;
+                }
+
+                List<Integer> childLoops = forLoops.getDirectChildLoops(SpecsCollections.last(blocks));
+                if (childLoops.size() != 1) {
+                    break;
+                }
+                blocks.add(childLoops.get(0));
+            }
+        }
+    }
+
+    private static OpenMPParallelForProperty buildProperty(String schedule, ParallelLoopInformation information) {
+        List<OpenMPParallelForProperty.ReductionVariable> reductions = new ArrayList<>();
+        List<List<String>> sharedVariables = new ArrayList<>();
+
+        for (Reduction reduction : information.reductions) {
+            List<String> names = new ArrayList<>();
+            for (LoopVariable loopVariable : reduction.getLoopVariables()) {
+                names.add(loopVariable.loopStart);
+                names.add(loopVariable.loopEnd);
+            }
+            names.addAll(reduction.getNames());
+
+            switch (reduction.getReductionType()) {
+            case SUM:
+                reductions.add(new OpenMPParallelForProperty.ReductionVariable("+", names));
+                break;
+            case MATRIX_SET:
+                // Each iteration writes distinct positions of the same matrix
+                sharedVariables.add(names);
+                break;
+            default:
+                throw new NotImplementedException(reduction.getReductionType());
+            }
+        }
+
+        return new OpenMPParallelForProperty(schedule, reductions, sharedVariables);
+    }
+
+    /**
+     * Maps the schedule of a parallel region to the closest OpenMP schedule.
+     *
+     * <p>
+     * Schedules that assign consecutive iterations to each thread are mapped to static blocks, and schedules that rotate
+     * iterations among threads are mapped to static chunks of one iteration.
+     *
+     * @param defaultSchedule
+     *            The schedule to use when the region does not specify one
+     * @return The content of the schedule clause, or an empty string to omit it
+     */
+    public static String getScheduleClause(ParallelRegionSettings settings,
+            Function<String, Optional<VariableType>> typeGetter,
+            String defaultSchedule) {
+
+        switch (settings.schedule) {
+        case AUTO:
+            return defaultSchedule;
+        case COOPERATIVE:
+        case SUBGROUP_COOPERATIVE:
+        case FIXED_WORK_GROUPS_SEQUENTIAL:
+            return "static";
+        case DIRECT:
+        case COARSE_GLOBAL_ROTATION:
+        case FIXED_WORK_GROUPS_GLOBAL_ROTATION:
+            return "static, 1";
+        case COARSE_SEQUENTIAL:
+            if (settings.scheduleNames.size() == 1) {
+                Optional<VariableType> coarseFactorType = typeGetter.apply(settings.scheduleNames.get(0));
+                if (ConstantUtils.isKnownPositiveInteger(coarseFactorType)) {
+                    return "static, " + ScalarUtils.getConstant(coarseFactorType.get()).intValue();
+                }
+            }
+            return "static";
+        default:
+            throw new NotImplementedException(settings.schedule);
+        }
+    }
+
+    @Override
+    public boolean preserveData(DataService<?> key) {
+        // Only adds loop properties
+        return true;
+    }
+}
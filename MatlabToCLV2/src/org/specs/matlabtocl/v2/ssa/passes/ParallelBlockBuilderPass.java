@@ -141,7 +141,8 @@ public class ParallelBlockBuilderPass extends TypeNeutralSsaPass {
             } else if (instruction.isEndingInstruction()) {
                 endBlockId = instruction.tryGetEndBlock().get();
                 block = source.getBlock(endBlockId);
-                endInstructionId = 0;
+                // Incremented by the loop, so the first instruction of the new block is also checked
+                endInstructionId = -1;
             }
         }
 
@@ -1,5 +1,5 @@
 /**
- * Copyright 2015 SPeCS.
+ * Copyright 2026 SPeCS.
  * 
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -11,25 +11,15 @@
  * specific language governing permissions and limitations under the License. under the License.
  */
 
-package org.specs.matisselib.unssa;
+package org.specs.matlabtocl.v2.types.api;
 
-import java.util.List;
+import org.specs.CIR.FunctionInstance.InstanceProvider;
+import org.specs.CIR.Types.CommonFunctions;
+import org.specs.matlabtocl.v2.functions.memory.ReleaseEvent;
 
-public class Bitmap {
-    private final boolean[][] data;
-
-    public Bitmap(int rows, List<Integer> columns) {
-	data = new boolean[rows][];
-	for (int i = 0; i < columns.size(); ++i) {
-	    data[i] = new boolean[columns.get(i)];
-	}
-    }
-
-    public boolean getElementAt(int row, int column) {
-	return data[row][column];
-    }
-
-    public void setElementAt(int row, int column, boolean value) {
-	data[row][column] = value;
+public class BufferEventFunctions implements CommonFunctions {
+    @Override
+    public InstanceProvider free() {
+        return new ReleaseEvent();
     }
 }
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2026 SPeCS.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matlabtocl.v2.types.api;
+
+import org.specs.CIR.Types.AVariableType;
+import org.specs.CIR.Types.CommonFunctions;
+import org.specs.CIR.Types.VariableType;
+import org.specs.CIR.Types.Views.Code.Code;
+
+/**
+ * The last event that writes to a GPU buffer, used to chain commands when asynchronous host code is enabled.
+ * 
+ * <p>
+ * Unlike {@link EventType}, variables of this type start as NULL and hold a reference to the event, which is released
+ * when the variable is overwritten or goes out of scope.
+ */
+public class BufferEventType extends AVariableType {
+    public BufferEventType() {
+    }
+
+    @Override
+    public String getSmallId() {
+        return "be";
+    }
+
+    @Override
+    public Code code() {
+        return new BufferEventCode(this);
+    }
+
+    @Override
+    public boolean strictEquals(VariableType type) {
+        return type instanceof BufferEventType;
+    }
+
+    @Override
+    public boolean usesDynamicAllocation() {
+        return true;
+    }
+
+    @Override
+    public CommonFunctions functions() {
+        return new BufferEventFunctions();
+    }
+}
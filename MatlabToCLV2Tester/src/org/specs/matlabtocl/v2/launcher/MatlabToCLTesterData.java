@@ -38,6 +38,7 @@ public class MatlabToCLTesterData {
     public final File outputFilesDirectory;
     public final String runOnlyOneTest;
     public final boolean disableParallelism;
+    public final boolean useOpenMP;
     public final boolean warmup;
     public final TargetResource target;
     public final String compiler;
@@ -68,6 +69,7 @@ public class MatlabToCLTesterData {
             File outputFilesDirectory,
             String runOnlyOneTest,
             boolean disableParallelism,
+            boolean useOpenMP,
             boolean warmup,
             TargetResource target,
             TesterState stopAfter,
@@ -95,6 +97,7 @@ public class MatlabToCLTesterData {
         this.outputFilesDirectory = outputFilesDirectory;
         this.runOnlyOneTest = runOnlyOneTest;
         this.disableParallelism = disableParallelism;
+        this.useOpenMP = useOpenMP;
         this.warmup = warmup;
         this.target = target;
         this.stopAfter = stopAfter;
@@ -36,6 +36,7 @@ import org.specs.matisselib.typeinference.PostTypeInferenceRecipe;
 import org.specs.matisselib.typeinference.TypeInferencePass;
 import org.specs.matisselib.typeinference.TypeInferenceRule;
 import org.specs.matlabtocl.v2.CLRecipes;
+import org.specs.matlabtocl.v2.OpenMPRecipes;
 import org.specs.matlabtocl.v2.codegen.CLCodeGenUtils;
 import org.specs.matlabtocl.v2.ssa.typeinference.ParallelBlockTypeInferenceRule;
 import org.specs.matlabtocl.v2.targets.TargetAspectGenerator;
@@ -139,6 +140,10 @@ public class MatlabToCLTesterLauncher implements App, AppSource, AppUsesGlobalOp
         InferenceRuleList inferenceRuleList = new InferenceRuleList(rules);
         CLRecipes clRecipes = new CLRecipes(data.outputFilesDirectory, data.profilingOptions,
                 "output/matlabWeaver/mweaver_output/mweaver.aspectdata");
+        OpenMPRecipes openMPRecipes = new OpenMPRecipes(data.outputFilesDirectory,
+                "output/matlabWeaver/mweaver_output/mweaver.aspectdata");
+        boolean useOpenMP = data.useOpenMP && !data.disableParallelism;
+        boolean useOpenCL = !data.useOpenMP && !data.disableParallelism;
         List<String> customRecipePathsList = Arrays.asList(CLRecipes.PASS_PACKAGE);
         StringList customRecipePaths = new StringList(customRecipePathsList);
 
@@ -147,7 +152,12 @@ public class MatlabToCLTesterLauncher implements App, AppSource, AppUsesGlobalOp
         clData.set(MatlabToCKeys.CUSTOM_PRE_TYPE_SSA_RECIPE_PATHS, customRecipePaths);
         clData.set(MatlabToCKeys.CUSTOM_POST_TYPE_RECIPE_PATHS, customRecipePaths);
 
-        if (!data.disableParallelism) {
+        if (useOpenMP) {
+            clData.set(MatlabToCKeys.TYPE_INFERENCE_RULES, inferenceRuleList);
+            clData.set(MatlabToCKeys.ADDITIONAL_SERVICES, openMPRecipes.services);
+            clData.set(MatlabToCKeys.ADDITIONAL_SSA_TO_C_RULES, openMPRecipes.additionalSsaToCRules);
+        }
+        if (useOpenCL) {
             List<PostCodeGenAction> actions = clRecipes.postCodeGenActions;
 
             clData.set(MatlabToCKeys.CUSTOM_VARIABLE_ALLOCATOR, CLRecipes.PREFERRED_VARIABLE_ALLOCATOR);
@@ -167,7 +177,7 @@ public class MatlabToCLTesterLauncher implements App, AppSource, AppUsesGlobalOp
 
         SetupData optionsForMainFunction = SetupData.create(TestMainSetup.class);
         optionsForMainFunction.put(TestMainSetup.Target, MainFunctionTarget.MultiTarget);
-        if (!data.disableParallelism) {
+        if (useOpenCL) {
             optionsForMainFunction.put(TestMainSetup.ExtraMainPreparationCode,
                     "MATISSE_cl_initialize(argc, argv);\n\n");
             optionsForMainFunction.put(TestMainSetup.ExtraMainFinalizationCode, "MATISSE_cl_print_times();");
@@ -207,7 +217,10 @@ public class MatlabToCLTesterLauncher implements App, AppSource, AppUsesGlobalOp
         cSetupData.put(MatlabToCTesterSetup.StopAfter, data.stopAfter);
         cSetupData.put(MatlabToCTesterSetup.GenerateDataFiles, data.generateDataFiles);
         List<String> compilerOptions = new ArrayList<>();
-        if (!data.disableParallelism) {
+        if (useOpenMP) {
+            compilerOptions.addAll(OpenMPRecipes.COMPILER_FLAGS);
+        }
+        if (useOpenCL) {
             compilerOptions.add("-isystem\"" + data.clSdk.getIncludeDirectory() + "\"");
 
             String compileTimeFixedPlatform = data.configurationSettings.compileTimeFixedPlatform;
@@ -226,7 +239,10 @@ public class MatlabToCLTesterLauncher implements App, AppSource, AppUsesGlobalOp
         cSetupData.put(MatlabToCTesterSetup.CompilerOptions, new StringList(compilerOptions));
         cSetupData.put(MatlabToCTesterSetup.CompilerOptimization, data.optimizationLevel);
         List<String> linkerOptions = new ArrayList<>();
-        if (!data.disableParallelism) {
+        if (useOpenMP) {
+            linkerOptions.addAll(OpenMPRecipes.COMPILER_FLAGS);
+        }
+        if (useOpenCL) {
             linkerOptions.add("-L\"" + data.clSdk.getLibraryDirectory() + "\"");
             linkerOptions.add("-l" + data.clSdk.getLibraryName());
         }
@@ -244,7 +260,8 @@ public class MatlabToCLTesterLauncher implements App, AppSource, AppUsesGlobalOp
         MatlabToCTesterData cData = MatlabToCTesterSetup.newData(cSetupData, cGlobalData);
 
         try {
-            PreTypeInferenceSsaRecipeWriter.write(clRecipes.preSsaRecipe, preTypeSsaRecipeFile);
+            PreTypeInferenceSsaRecipeWriter.write(useOpenMP ? openMPRecipes.preSsaRecipe : clRecipes.preSsaRecipe,
+                    preTypeSsaRecipeFile);
         } catch (IOException e) {
             e.printStackTrace();
 
@@ -260,6 +277,8 @@ public class MatlabToCLTesterLauncher implements App, AppSource, AppUsesGlobalOp
                         customRecipePathsList);
             } else if (data.disableParallelism) {
                 postTypeInferenceRecipe = DefaultRecipes.getOptimizingBasePostTypeInferenceRecipe();
+            } else if (useOpenMP) {
+                postTypeInferenceRecipe = openMPRecipes.postTypeInferenceRecipe;
             } else {
                 postTypeInferenceRecipe = clRecipes.postTypeInferenceRecipe;
             }
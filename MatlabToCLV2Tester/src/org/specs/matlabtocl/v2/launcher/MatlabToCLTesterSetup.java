@@ -51,6 +51,7 @@ public enum MatlabToCLTesterSetup implements SetupFieldEnum, DefaultValue, Multi
     RunOnlyOneTest(FieldType.string),
     TargetSpecialization(FieldType.multipleChoice),
     DisableParallelism(FieldType.bool),
+    UseOpenMP(FieldType.bool),
     Warmup(FieldType.bool),
 
     Compiler(FieldType.string),
@@ -116,6 +117,7 @@ public enum MatlabToCLTesterSetup implements SetupFieldEnum, DefaultValue, Multi
 
         String runOnlyOneTest = setup.getString(RunOnlyOneTest).trim();
         boolean disableParallelism = setup.getBoolean(DisableParallelism);
+        boolean useOpenMP = setup.getBoolean(UseOpenMP);
         boolean warmup = setup.getBoolean(Warmup);
 
         String targetName = setup.getString(TargetSpecialization);
@@ -181,6 +183,7 @@ public enum MatlabToCLTesterSetup implements SetupFieldEnum, DefaultValue, Multi
                 outputFilesDirectory,
                 runOnlyOneTest,
                 disableParallelism,
+                useOpenMP,
                 warmup,
                 target,
                 stopAfter,
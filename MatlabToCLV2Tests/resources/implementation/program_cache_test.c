@@ -0,0 +1,168 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+
+/* Minimal OpenCL stand-ins, so that the cache can be tested without an OpenCL implementation */
+
+typedef int cl_int;
+typedef unsigned int cl_uint;
+typedef unsigned int cl_platform_info;
+typedef unsigned int cl_device_info;
+typedef unsigned int cl_program_info;
+typedef struct fake_platform* cl_platform_id;
+typedef struct fake_device* cl_device_id;
+typedef struct fake_context* cl_context;
+typedef struct fake_program* cl_program;
+
+#define CL_SUCCESS 0
+#define CL_INVALID_BINARY -42
+#define CL_PLATFORM_NAME 1
+#define CL_PLATFORM_VERSION 2
+#define CL_DEVICE_NAME 3
+#define CL_DEVICE_VERSION 4
+#define CL_DRIVER_VERSION 5
+#define CL_DEVICE_PLATFORM 6
+#define CL_PROGRAM_BINARY_SIZES 7
+#define CL_PROGRAM_BINARIES 8
+
+struct fake_program {
+	unsigned char* binary;
+	size_t size;
+};
+
+static void validate(const char* filename, int line, const char* functionName, cl_int errCode) {
+	if (errCode != CL_SUCCESS) {
+		printf("%s:%d: %s failed with %d\n", filename, line, functionName, errCode);
+		exit(1);
+	}
+}
+
+#define CHECK(functionName, ...) validate(__FILE__, __LINE__, #functionName, functionName(__VA_ARGS__))
+
+static cl_int get_info_string(const char* info, size_t size, void* value, size_t* size_ret) {
+	if (size_ret != NULL) {
+		*size_ret = strlen(info) + 1;
+	}
+	if (value != NULL) {
+		memcpy(value, info, size);
+	}
+	return CL_SUCCESS;
+}
+
+static cl_int clGetPlatformInfo(cl_platform_id platform, cl_platform_info param, size_t size, void* value, size_t* size_ret) {
+	return get_info_string(param == CL_PLATFORM_NAME ? "Fake Platform" : "OpenCL 1.2", size, value, size_ret);
+}
+
+static cl_int clGetDeviceInfo(cl_device_id device, cl_device_info param, size_t size, void* value, size_t* size_ret) {
+	if (param == CL_DEVICE_PLATFORM) {
+		*(cl_platform_id*) value = NULL;
+		return CL_SUCCESS;
+	}
+	return get_info_string(param == CL_DEVICE_NAME ? "Fake Device" : "1.0", size, value, size_ret);
+}
+
+static cl_int clGetProgramInfo(cl_program program, cl_program_info param, size_t size, void* value, size_t* size_ret) {
+	if (param == CL_PROGRAM_BINARY_SIZES) {
+		*(size_t*) value = program->size;
+	} else {
+		memcpy(((unsigned char**) value)[0], program->binary, program->size);
+	}
+	return CL_SUCCESS;
+}
+
+static cl_program clCreateProgramWithBinary(cl_context context, cl_uint num_devices, const cl_device_id* devices,
+		const size_t* lengths, const unsigned char** binaries, cl_int* binary_status, cl_int* errcode_ret) {
+	if (lengths[0] >= 3 && memcmp(binaries[0], "bad", 3) == 0) {
+		*binary_status = CL_INVALID_BINARY;
+		*errcode_ret = CL_INVALID_BINARY;
+		return NULL;
+	}
+
+	cl_program program = malloc(sizeof(struct fake_program));
+	program->binary = malloc(lengths[0]);
+	memcpy(program->binary, binaries[0], lengths[0]);
+	program->size = lengths[0];
+
+	*binary_status = CL_SUCCESS;
+	*errcode_ret = CL_SUCCESS;
+	return program;
+}
+
+static cl_int clBuildProgram(cl_program program, cl_uint num_devices, const cl_device_id* devices, const char* options,
+		void (*notify)(cl_program, void*), void* user_data) {
+	return CL_SUCCESS;
+}
+
+static cl_int clReleaseProgram(cl_program program) {
+	free(program->binary);
+	free(program);
+	return CL_SUCCESS;
+}
+
+<PROGRAM_CACHE_CODE>
+
+static int fail(const char* message) {
+	printf("FAIL: %s\n", message);
+	return 1;
+}
+
+static int is_loaded(cl_program program, struct fake_program* expected) {
+	int matches = program != NULL
+			&& program->size == expected->size
+			&& memcmp(program->binary, expected->binary, expected->size) == 0;
+	if (program != NULL) {
+		clReleaseProgram(program);
+	}
+	return matches;
+}
+
+int main(void) {
+	cl_context context = NULL;
+	cl_device_id device = NULL;
+	const char* source = "kernel void k(global int* x) { x[0] = 1; }";
+	const char* options = "-cl-std=CL1.2";
+
+	struct fake_program compiled = { (unsigned char*) "compiled binary", 15 };
+	struct fake_program recompiled = { (unsigned char*) "recompiled binary", 17 };
+	struct fake_program corrupted = { (unsigned char*) "bad binary", 10 };
+
+	char* path = alloc_cached_program_path(device, source, strlen(source), options);
+	char* other_path = alloc_cached_program_path(device, source, strlen(source), "");
+	if (path == NULL || other_path == NULL) {
+		return fail("cache disabled");
+	}
+	if (strcmp(path, other_path) == 0) {
+		return fail("build options are not part of the key");
+	}
+
+	if (load_cached_program(context, device, path, options) != NULL) {
+		return fail("loaded a missing binary");
+	}
+
+	store_cached_program(&compiled, path);
+	if (!is_loaded(load_cached_program(context, device, path, options), &compiled)) {
+		return fail("stored binary did not round-trip");
+	}
+
+	// Existing binaries are replaced
+	store_cached_program(&recompiled, path);
+	if (!is_loaded(load_cached_program(context, device, path, options), &recompiled)) {
+		return fail("stored binary did not replace the existing one");
+	}
+
+	// Rejected binaries are not loaded, and the next store replaces them
+	store_cached_program(&corrupted, path);
+	if (load_cached_program(context, device, path, options) != NULL) {
+		return fail("loaded a rejected binary");
+	}
+	store_cached_program(&compiled, path);
+	if (!is_loaded(load_cached_program(context, device, path, options), &compiled)) {
+		return fail("rejected binary was not replaced");
+	}
+
+	free(path);
+	free(other_path);
+
+	printf("OK\n");
+	return 0;
+}
@@ -0,0 +1,351 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matlabtocl.v2.tests;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.specs.CIR.FunctionInstance.InstanceProvider;
+import org.specs.CIR.Types.VariableType;
+import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixType;
+import org.specs.MatlabIR.MatlabNode.MatlabNode;
+import org.specs.MatlabIR.MatlabNodePass.FunctionIdentification;
+import org.specs.MatlabToC.Functions.MatlabOp;
+import org.specs.MatlabToC.jOptions.MatlabToCKeys;
+import org.specs.matisselib.PreTypeInferenceServices;
+import org.specs.matisselib.ProjectPassServices;
+import org.specs.matisselib.helpers.BlockEditorHelper;
+import org.specs.matisselib.helpers.ForLoopBuilderResult;
+import org.specs.matisselib.loopproperties.OpenMPParallelForProperty;
+import org.specs.matisselib.services.AdditionalInformationBuildersService;
+import org.specs.matisselib.services.TypedInstanceProviderService;
+import org.specs.matisselib.services.WideScopeService;
+import org.specs.matisselib.ssa.instructions.ArgumentInstruction;
+import org.specs.matisselib.ssa.instructions.AssignmentInstruction;
+import org.specs.matisselib.ssa.instructions.ForInstruction;
+import org.specs.matisselib.ssa.instructions.PhiInstruction;
+import org.specs.matisselib.ssa.instructions.SimpleSetInstruction;
+import org.specs.matisselib.tests.FunctionComposer;
+import org.specs.matisselib.tests.TestUtils;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.specs.matlabtocl.v2.services.informationbuilders.CompleteReductionInformationBuilder;
+import org.specs.matlabtocl.v2.services.informationbuilders.ParallelBlockInformationBuilder;
+import org.specs.matlabtocl.v2.ssa.ParallelRegionSettings;
+import org.specs.matlabtocl.v2.ssa.instructions.EndDirectiveInstruction;
+import org.specs.matlabtocl.v2.ssa.instructions.ParallelDirectiveInstruction;
+import org.specs.matlabtocl.v2.ssa.passes.OpenMPParallelLoopPass;
+import org.specs.matlabtocl.v2.ssa.passes.ParallelBlockBuilderPass;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+
+/**
+ * Builds the SSA of simple loops, as type inference would, to test the detection of parallel loops.
+ * 
+ * <p>
+ * The loops go from 1 to n, and read A(i). When region settings are given, the loop is surrounded by the directives of
+ * a region, as if the user had written <code>%!parallel</code> before the loop and <code>%!end</code> after it.
+ */
+public class ParallelLoopTestUtils {
+    /**
+     * s = 0; for i = 1:n, s = s + A(i) * A(i); end; y = s;
+     * 
+     * @param tripCount
+     *            The constant value of n, or null if n is an argument
+     */
+    public static TypedInstance buildSumLoop(ParallelRegionSettings settings, Integer tripCount) {
+        return buildSumLoopWithEnd(settings, numIterations(tripCount));
+    }
+
+    /**
+     * s = 0; for i = 1:n, s = s + A(i) * A(i); end; y = s;
+     * 
+     * @param numIterationsBuilder
+     *            Adds the instructions that compute n, and returns its variable. Arguments after the first (A) are
+     *            free to use.
+     */
+    public static TypedInstance buildSumLoopWithEnd(ParallelRegionSettings settings,
+            Function<BlockEditorHelper, String> numIterationsBuilder) {
+
+        return FunctionComposer.create(getFunctions(), editor -> {
+            VariableType doubleType = editor.getNumerics().newDouble();
+            LoopBuilder loop = new LoopBuilder(editor, settings, numIterationsBuilder, "s", doubleType);
+
+            String value = loop.body.addSimpleGet(loop.matrix, loop.iter, doubleType);
+            String squared = loop.body.addSimpleCallToOutputWithSemantics("times", "sq", value, value);
+            loop.body.addCallWithExistentOutputs("plus", Arrays.asList(loop.loopEnd), true,
+                    loop.loopStart, squared);
+
+            loop.finish("y");
+        });
+    }
+
+    /**
+     * for i = 1:n, B(i) = A(i) + A(i); end; C = B;
+     */
+    public static TypedInstance buildMatrixSetLoop(ParallelRegionSettings settings) {
+        return FunctionComposer.create(getFunctions(), editor -> {
+            VariableType doubleType = editor.getNumerics().newDouble();
+            VariableType matrixType = DynamicMatrixType.newInstance(doubleType);
+            LoopBuilder loop = new LoopBuilder(editor, settings, numIterations(null), "B", matrixType);
+
+            String value = loop.body.addSimpleGet(loop.matrix, loop.iter, doubleType);
+            String doubled = loop.body.addSimpleCallToOutputWithSemantics("plus", "doubled", value, value);
+            loop.body.addInstruction(new SimpleSetInstruction(loop.loopEnd,
+                    loop.loopStart, Arrays.asList(loop.iter), doubled));
+
+            loop.finish("C");
+        });
+    }
+
+    /**
+     * s = 0; for i = 1:n, s = s + s * A(i); end; y = s;
+     * 
+     * <p>
+     * Each iteration depends on the value of s computed by the previous one, so the loop is not a reduction.
+     */
+    public static TypedInstance buildCarriedLoop(ParallelRegionSettings settings) {
+        return FunctionComposer.create(getFunctions(), editor -> {
+            VariableType doubleType = editor.getNumerics().newDouble();
+            LoopBuilder loop = new LoopBuilder(editor, settings, numIterations(null), "s", doubleType);
+
+            String value = loop.body.addSimpleGet(loop.matrix, loop.iter, doubleType);
+            String product = loop.body.addSimpleCallToOutputWithSemantics("times", "t", loop.loopStart, value);
+            loop.body.addCallWithExistentOutputs("plus", Arrays.asList(loop.loopEnd), true,
+                    loop.loopStart, product);
+
+            loop.finish("y");
+        });
+    }
+
+    /**
+     * s = 0; for i = 1:n, for j = 1:n, s = s + A(j); end; end; y = s;
+     */
+    public static TypedInstance buildNestedSumLoop() {
+        return FunctionComposer.create(getFunctions(), editor -> {
+            VariableType doubleType = editor.getNumerics().newDouble();
+            VariableType matrixType = DynamicMatrixType.newInstance(doubleType);
+
+            String matrix = editor.makeTemporary("A", matrixType);
+            editor.addInstruction(new ArgumentInstruction(matrix, 0));
+            String numIterations = editor.makeIntegerTemporary("n");
+            editor.addInstruction(new ArgumentInstruction(numIterations, 1));
+            String initialValue = editor.makeTemporary("s", doubleType);
+            editor.addInstruction(AssignmentInstruction.fromInteger(initialValue, 0));
+            String one = editor.addMakeIntegerInstruction("one", 1);
+
+            ForLoopBuilderResult outerLoop = editor.makeForLoop(one, one, numIterations);
+            BlockEditorHelper outerBody = outerLoop.getLoopBuilder();
+            String outerStart = outerBody.makeTemporary("s", doubleType);
+            String outerEnd = outerBody.makeTemporary("s", doubleType);
+
+            ForLoopBuilderResult innerLoop = outerBody.makeForLoop(one, one, numIterations);
+            BlockEditorHelper innerBody = innerLoop.getLoopBuilder();
+            BlockEditorHelper innerEndBlock = innerLoop.getEndBuilder();
+            String innerStart = innerBody.makeTemporary("s", doubleType);
+            String innerEnd = innerBody.makeTemporary("s", doubleType);
+
+            // The values of the outer loop come back from the block after the inner loop
+            outerBody.prependInstruction(new PhiInstruction(outerStart,
+                    Arrays.asList(initialValue, outerEnd),
+                    Arrays.asList(0, innerEndBlock.getBlockId())));
+
+            innerBody.addInstruction(new PhiInstruction(innerStart,
+                    Arrays.asList(outerStart, innerEnd),
+                    Arrays.asList(outerBody.getBlockId(), innerBody.getBlockId())));
+            String iter = innerBody.addIntItersInstruction("j");
+            String value = innerBody.addSimpleGet(matrix, iter, doubleType);
+            innerBody.addCallWithExistentOutputs("plus", Arrays.asList(innerEnd), true, innerStart, value);
+
+            innerEndBlock.addInstruction(new PhiInstruction(outerEnd,
+                    Arrays.asList(outerStart, innerEnd),
+                    Arrays.asList(outerBody.getBlockId(), innerBody.getBlockId())));
+
+            BlockEditorHelper end = outerLoop.getEndBuilder();
+            String afterLoop = end.makeTemporary("s", doubleType);
+            end.addInstruction(new PhiInstruction(afterLoop,
+                    Arrays.asList(initialValue, outerEnd),
+                    Arrays.asList(0, innerEndBlock.getBlockId())));
+            String output = end.makeTemporary("y", doubleType);
+            end.addAssignment(output, afterLoop);
+        });
+    }
+
+    public static ForInstruction getForInstruction(TypedInstance instance) {
+        List<ForInstruction> fors = instance.getFunctionBody().getFlattenedInstructionsOfType(ForInstruction.class);
+        if (fors.size() != 1) {
+            throw new RuntimeException("Expected a single loop, got " + fors.size() + " in:\n" + instance);
+        }
+
+        return fors.get(0);
+    }
+
+    /**
+     * Builds the regions of the directives and marks the loops that OpenMP can distribute.
+     * 
+     * @param defaultSchedule
+     *            The schedule of regions that do not specify one
+     */
+    public static void markOpenMPLoops(TypedInstance instance, String defaultSchedule) {
+        instance.getProviderData().getSettings().set(MatlabToCKeys.OPENMP_DEFAULT_SCHEDULE, defaultSchedule);
+        DataStore passData = buildPassData(instance);
+
+        new ParallelBlockBuilderPass().apply(instance.getFunctionBody(), passData);
+        new OpenMPParallelLoopPass().apply(instance, passData);
+    }
+
+    public static Optional<OpenMPParallelForProperty> getOpenMPProperty(TypedInstance instance) {
+        return getForInstruction(instance)
+                .getLoopProperties()
+                .stream()
+                .filter(OpenMPParallelForProperty.class::isInstance)
+                .map(OpenMPParallelForProperty.class::cast)
+                .findFirst();
+    }
+
+    /**
+     * Builds the services needed to analyze the loops. Calls are not to user functions.
+     */
+    public static DataStore buildPassData(TypedInstance instance) {
+        DataStore passData = TestUtils.buildPassData(getFunctions(), instance);
+
+        FunctionIdentification currentContext = instance.getFunctionIdentification();
+        passData.add(PreTypeInferenceServices.WIDE_SCOPE, new WideScopeService() {
+            @Override
+            public Optional<FunctionIdentification> getUserFunction(FunctionIdentification context, String name) {
+                return Optional.empty();
+            }
+
+            @Override
+            public FunctionIdentification getCurrentContext() {
+                return currentContext;
+            }
+
+            @Override
+            public Optional<MatlabNode> getFunctionNode(FunctionIdentification functionIdentification) {
+                return Optional.empty();
+            }
+
+            @Override
+            public WideScopeService withFunctionIdentification(FunctionIdentification functionIdentification) {
+                return this;
+            }
+        });
+        TypedInstanceProviderService instanceProvider = (function, providerData) -> {
+            throw new UnsupportedOperationException();
+        };
+        passData.add(ProjectPassServices.TYPED_INSTANCE_PROVIDER, instanceProvider);
+        passData.add(ProjectPassServices.ADDITIONAL_INFORMATION_BUILDERS,
+                new AdditionalInformationBuildersService(Arrays.asList(new ParallelBlockInformationBuilder(),
+                        new CompleteReductionInformationBuilder())));
+
+        return passData;
+    }
+
+    private static Function<BlockEditorHelper, String> numIterations(Integer tripCount) {
+        if (tripCount != null) {
+            return editor -> editor.addMakeIntegerInstruction("n", tripCount);
+        }
+
+        return editor -> {
+            String numIterations = editor.makeIntegerTemporary("n");
+            editor.addInstruction(new ArgumentInstruction(numIterations, 1));
+
+            return numIterations;
+        };
+    }
+
+    private static Map<String, InstanceProvider> getFunctions() {
+        Map<String, InstanceProvider> functions = new HashMap<>();
+
+        for (MatlabOp function : MatlabOp.values()) {
+            functions.put(function.getName(), function.getMatlabFunction());
+        }
+
+        return functions;
+    }
+
+    /**
+     * Builds the parts common to all loops: the arguments, the phis of the loop variable, and the directives.
+     */
+    private static class LoopBuilder {
+        final BlockEditorHelper body;
+        final BlockEditorHelper end;
+        final String variable;
+        final String matrix;
+        final String iter;
+        final String initialValue;
+        final String loopStart;
+        final String loopEnd;
+        final VariableType variableType;
+        final ParallelRegionSettings settings;
+
+        LoopBuilder(BlockEditorHelper editor,
+                ParallelRegionSettings settings,
+                Function<BlockEditorHelper, String> numIterationsBuilder,
+                String variable,
+                VariableType variableType) {
+
+            this.settings = settings;
+            this.variable = variable;
+            this.variableType = variableType;
+
+            VariableType matrixType = DynamicMatrixType.newInstance(editor.getNumerics().newDouble());
+            matrix = editor.makeTemporary("A", matrixType);
+            editor.addInstruction(new ArgumentInstruction(matrix, 0));
+
+            String numIterations = numIterationsBuilder.apply(editor);
+
+            initialValue = editor.makeTemporary(variable, variableType);
+            if (variableType instanceof DynamicMatrixType) {
+                editor.addInstruction(new ArgumentInstruction(initialValue, 2));
+            } else {
+                editor.addInstruction(AssignmentInstruction.fromInteger(initialValue, 0));
+            }
+
+            String one = editor.addMakeIntegerInstruction("one", 1);
+
+            if (settings != null) {
+                editor.addInstruction(new ParallelDirectiveInstruction(settings));
+            }
+
+            ForLoopBuilderResult loop = editor.makeForLoop(one, one, numIterations);
+            body = loop.getLoopBuilder();
+            end = loop.getEndBuilder();
+
+            loopStart = editor.makeTemporary(variable, variableType);
+            loopEnd = editor.makeTemporary(variable, variableType);
+            body.addInstruction(new PhiInstruction(loopStart,
+                    Arrays.asList(initialValue, loopEnd),
+                    Arrays.asList(0, body.getBlockId())));
+            iter = body.addIntItersInstruction("i");
+        }
+
+        void finish(String result) {
+            String afterLoop = end.makeTemporary(variable, variableType);
+            end.addInstruction(new PhiInstruction(afterLoop,
+                    Arrays.asList(initialValue, loopEnd),
+                    Arrays.asList(0, body.getBlockId())));
+
+            if (settings != null) {
+                end.addInstruction(new EndDirectiveInstruction());
+            }
+
+            String output = end.makeTemporary(result, variableType);
+            end.addAssignment(output, afterLoop);
+        }
+    }
+}
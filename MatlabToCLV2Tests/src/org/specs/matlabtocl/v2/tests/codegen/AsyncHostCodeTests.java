@@ -0,0 +1,330 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matlabtocl.v2.tests.codegen;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.specs.CIR.FunctionInstance.FunctionInstance;
+import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.CIR.FunctionInstance.Instances.LiteralInstance;
+import org.specs.CIR.Tree.CInstructionList;
+import org.specs.CIR.Tree.CNodes.CNodeFactory;
+import org.specs.CIR.Tree.CNodes.VariableNode;
+import org.specs.CIR.Types.Variable;
+import org.specs.CIR.Types.VariableType;
+import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixType;
+import org.specs.MatlabToC.CodeBuilder.VariableManager;
+import org.specs.MatlabToC.CodeBuilder.SsaToC.MockSsaToCBuilderService;
+import org.specs.MatlabToC.CodeBuilder.SsaToC.MockVariableManager;
+import org.specs.MatlabToC.CodeBuilder.SsaToCRules.SsaToCRule;
+import org.specs.matisselib.ssa.instructions.ArgumentInstruction;
+import org.specs.matisselib.ssa.instructions.AssignmentInstruction;
+import org.specs.matisselib.ssa.instructions.SsaInstruction;
+import org.specs.matisselib.tests.FunctionComposer;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.specs.matlabtocl.v2.CLServices;
+import org.specs.matlabtocl.v2.MatisseCLKeys;
+import org.specs.matlabtocl.v2.codegen.CLVersion;
+import org.specs.matlabtocl.v2.codegen.GeneratedKernel;
+import org.specs.matlabtocl.v2.codegen.KernelArgument;
+import org.specs.matlabtocl.v2.codegen.ReductionType;
+import org.specs.matlabtocl.v2.codegen.reductionstrategies.CommonCodeGenerationStrategyProvider;
+import org.specs.matlabtocl.v2.codegen.ssatocrules.CompleteReductionProcessor;
+import org.specs.matlabtocl.v2.codegen.ssatocrules.CopyToGpuProcessor;
+import org.specs.matlabtocl.v2.codegen.ssatocrules.InvokeKernelProcessor;
+import org.specs.matlabtocl.v2.services.ProfileBeginMode;
+import org.specs.matlabtocl.v2.services.ProfilingOptions;
+import org.specs.matlabtocl.v2.ssa.ParallelRegionSettings;
+import org.specs.matlabtocl.v2.ssa.instructions.CompleteReductionInstruction;
+import org.specs.matlabtocl.v2.ssa.instructions.CopyToGpuInstruction;
+import org.specs.matlabtocl.v2.ssa.instructions.InvokeKernelInstruction;
+import org.specs.matlabtocl.v2.tests.CLTestUtils;
+import org.specs.matlabtocl.v2.types.api.GpuGlobalBufferType;
+import org.specs.matlabtocl.v2.types.kernel.CLNativeType;
+import org.suikasoft.jOptions.DataStore.SimpleDataStore;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+
+/**
+ * Checks the host code of a copy &rarr; kernel &rarr; reduction &rarr; read chain, with and without asynchronous host
+ * code.
+ */
+public class AsyncHostCodeTests {
+    private static final List<SsaToCRule> RULES = Arrays.asList(
+            new CopyToGpuProcessor(),
+            new InvokeKernelProcessor(),
+            new CompleteReductionProcessor());
+
+    @Test
+    public void testEventChain() {
+        String code = generateCode(buildChain(false, false), true);
+
+        // The copy records its event in the buffer event and releases its own reference
+        assertInOrder(code,
+                "CHECK(clEnqueueWriteBuffer, MATISSE_cl.command_queue, A_gpu, CL_FALSE, 0, ",
+                ", 0, NULL, &evt1);",
+                "if (A_gpu_evt != NULL) {",
+                "clReleaseEvent(A_gpu_evt);",
+                "A_gpu_evt = evt1;",
+                "CHECK(clRetainEvent, A_gpu_evt);",
+                "CHECK(clReleaseEvent, evt1);",
+
+                // The kernel waits for both buffers and only records on the one it writes
+                "cl_event wait_list[2];",
+                "wait_list[wait_list_size++] = A_gpu_evt;",
+                "wait_list[wait_list_size++] = partial_evt;",
+                "CHECK(clEnqueueNDRangeKernel, MATISSE_cl.command_queue, MATISSE_cl.kernel1, 1, NULL, ",
+                ", wait_list_size, wait_list_size == 0 ? NULL : wait_list, &evt2);",
+                "partial_evt = evt2;",
+                "CHECK(clRetainEvent, partial_evt);",
+                "CHECK(clReleaseEvent, evt2);",
+
+                // The blocking read of the reduction buffer waits for the kernel
+                "cl_event wait_list[1];",
+                "wait_list[wait_list_size++] = partial_evt;",
+                "CHECK(clEnqueueReadBuffer, MATISSE_cl.command_queue, partial, CL_TRUE, 0, ",
+                ", wait_list_size, wait_list_size == 0 ? NULL : wait_list, NULL);");
+
+        Assert.assertFalse(code.contains("A_gpu_evt = evt2;"));
+        Assert.assertFalse(code.contains("clEnqueueBarrier"));
+        Assert.assertFalse(code.contains("clWaitForEvents"));
+    }
+
+    @Test
+    public void testSourceModifiedBeforeRead() {
+        String code = generateCode(buildChain(true, false), true);
+
+        // The host may change the matrix before the transfer completes, so the data is copied on creation
+        Assert.assertTrue(code.contains("clCreateBuffer(MATISSE_cl.context, CL_MEM_COPY_HOST_PTR, "));
+        Assert.assertFalse(code.contains("clEnqueueWriteBuffer"));
+        Assert.assertFalse(code.contains("A_gpu_evt = "));
+
+        // Buffers are still chained through events
+        assertInOrder(code,
+                "partial_evt = evt1;",
+                "CHECK(clReleaseEvent, evt1);",
+                "wait_list[wait_list_size++] = partial_evt;",
+                "CHECK(clEnqueueReadBuffer, ");
+    }
+
+    @Test
+    public void testSharedMemoryKernelWaits() {
+        String code = generateCode(buildChain(false, true), true);
+
+        // SVM pointers are read by the host directly, so the host still waits for the kernel
+        assertInOrder(code,
+                "CHECK(clSetKernelArgSVMPointer, MATISSE_cl.kernel1, 2, ",
+                "CHECK(clEnqueueNDRangeKernel, ",
+                "CHECK(clWaitForEvents, 1, &evt2);",
+                "partial_evt = evt2;",
+                "CHECK(clReleaseEvent, evt2);");
+        Assert.assertFalse(code.contains("clEnqueueBarrier"));
+    }
+
+    @Test
+    public void testSynchronousHostCode() {
+        String code = generateCode(buildChain(false, false), false);
+
+        assertInOrder(code,
+                "CHECK(clEnqueueNDRangeKernel, MATISSE_cl.command_queue, MATISSE_cl.kernel1, 1, NULL, ",
+                ", 0, NULL, NULL);",
+                "CHECK(clEnqueueBarrier, MATISSE_cl.command_queue);",
+                "CHECK(clEnqueueReadBuffer, MATISSE_cl.command_queue, partial, CL_TRUE, 0, ",
+                ", 0, NULL, NULL);");
+        Assert.assertFalse(code.contains("_evt"));
+        Assert.assertFalse(code.contains("wait_list"));
+        Assert.assertFalse(code.contains("clWaitForEvents"));
+    }
+
+    /**
+     * Builds A_gpu = copy(A); kernel1(A_gpu, partial); y = sum(partial).
+     * 
+     * @param modifySource
+     *            Whether A is reassigned between the copy and the read
+     * @param useSharedMemory
+     *            Whether the kernel also receives A as a SVM pointer
+     */
+    private static TypedInstance buildChain(boolean modifySource, boolean useSharedMemory) {
+        return FunctionComposer.create(Collections.emptyMap(), editor -> {
+            VariableType doubleType = editor.getNumerics().newDouble();
+            VariableType matrixType = DynamicMatrixType.newInstance(doubleType);
+
+            String matrix = editor.makeTemporary("A", matrixType);
+            editor.addInstruction(new ArgumentInstruction(matrix, 0));
+            String numTasks = editor.makeIntegerTemporary("n");
+            editor.addInstruction(new ArgumentInstruction(numTasks, 1));
+            String localSize = editor.makeIntegerTemporary("local_size");
+            editor.addInstruction(new ArgumentInstruction(localSize, 2));
+            String numGroups = editor.makeIntegerTemporary("num_groups");
+            editor.addInstruction(new ArgumentInstruction(numGroups, 3));
+            String initialValue = editor.makeTemporary("init", doubleType);
+            editor.addInstruction(new ArgumentInstruction(initialValue, 4));
+            String partial = editor.makeTemporary("partial", new GpuGlobalBufferType());
+            editor.addInstruction(new ArgumentInstruction(partial, 5));
+
+            String buffer = editor.makeTemporary("A_gpu", new GpuGlobalBufferType());
+            editor.addInstruction(new CopyToGpuInstruction(buffer, matrix));
+
+            if (modifySource) {
+                String newMatrix = editor.makeTemporary("A", matrixType);
+                editor.addInstruction(AssignmentInstruction.fromVariable(newMatrix, matrix));
+            }
+
+            ParallelRegionSettings settings = CLTestUtils.buildDummySettings();
+            settings.localSizes = Arrays.asList(localSize);
+
+            List<KernelArgument> kernelArguments = Arrays.asList(
+                    KernelArgument.importData("A", buffer),
+                    KernelArgument.importGlobalPerWorkGroupBuffer("partial", partial, "y", CLNativeType.DOUBLE));
+            List<String> arguments = Arrays.asList(buffer, partial);
+            if (useSharedMemory) {
+                kernelArguments = Arrays.asList(kernelArguments.get(0), kernelArguments.get(1),
+                        KernelArgument.importData("A_svm", matrix));
+                arguments = Arrays.asList(buffer, partial, matrix);
+            }
+
+            FunctionInstance kernelInstance = new LiteralInstance(null, "kernel1", "file.c", "<<>>");
+            GeneratedKernel kernel = new GeneratedKernel(kernelInstance,
+                    settings,
+                    kernelArguments,
+                    null,
+                    CLVersion.V1_2);
+            editor.addInstruction(new InvokeKernelInstruction(kernel,
+                    Arrays.asList(numTasks),
+                    arguments,
+                    Collections.emptyList(),
+                    Collections.emptyList()));
+
+            String output = editor.makeTemporary("y", doubleType);
+            editor.addInstruction(new CompleteReductionInstruction(output,
+                    ReductionType.SUM,
+                    partial,
+                    doubleType,
+                    numGroups,
+                    initialValue));
+        });
+    }
+
+    private static String generateCode(TypedInstance instance, boolean asyncHostCode) {
+        MockSsaToCBuilderService builder = makeBuilder(instance, asyncHostCode);
+
+        CInstructionList currentBlock = new CInstructionList();
+        for (SsaInstruction instruction : instance.getFunctionBody().getBlock(0).getInstructions()) {
+            for (SsaToCRule rule : RULES) {
+                if (rule.accepts(builder, instruction)) {
+                    rule.apply(builder, currentBlock, instruction);
+                }
+            }
+        }
+
+        return currentBlock.toCNode().getCode();
+    }
+
+    private static MockSsaToCBuilderService makeBuilder(TypedInstance instance, boolean asyncHostCode) {
+        Map<String, VariableType> types = new HashMap<>();
+        instance.getVariableTypes()
+                .forEach((name, type) -> types.put(toFinalName(name), type));
+
+        Map<String, Integer> temporaries = new HashMap<>();
+        VariableManager manager = new MockVariableManager() {
+            @Override
+            public String convertSsaToFinalName(String variableName) {
+                return toFinalName(variableName);
+            }
+
+            @Override
+            public Optional<VariableType> getVariableTypeFromFinalName(String finalName) {
+                return Optional.ofNullable(types.get(finalName));
+            }
+
+            @Override
+            public Variable generateTemporary(String proposedName, VariableType type) {
+                int id = temporaries.merge(proposedName, 1, Integer::sum);
+                return new Variable(proposedName + id, type);
+            }
+        };
+
+        DataStore settings = new SimpleDataStore("async-host-code-tests");
+        settings.add(MatisseCLKeys.ASYNC_HOST_CODE, asyncHostCode);
+
+        DataStore passData = new SimpleDataStore("async-host-code-tests");
+        passData.add(CLServices.CODE_GENERATION_STRATEGY_PROVIDER, new CommonCodeGenerationStrategyProvider(null) {
+            @Override
+            public DataStore getDataStore() {
+                return settings;
+            }
+        });
+        passData.add(CLServices.PROFILING_OPTIONS,
+                new ProfilingOptions(false, false, ProfileBeginMode.SINCE_START));
+
+        return new MockSsaToCBuilderService() {
+            @Override
+            public TypedInstance getInstance() {
+                return instance;
+            }
+
+            @Override
+            public VariableManager getVariableManager() {
+                return manager;
+            }
+
+            @Override
+            public ProviderData getCurrentProvider() {
+                return instance.getProviderData();
+            }
+
+            @Override
+            public DataStore getPassData() {
+                return passData;
+            }
+
+            @Override
+            public VariableNode makeNamedTemporary(String name, VariableType type) {
+                return CNodeFactory.newVariable(name, type);
+            }
+
+            @Override
+            public void addLiteralVariable(Variable variable) {
+            }
+
+            @Override
+            public void addLiteralVariableIfNotArgument(Variable variable) {
+            }
+
+            @Override
+            public void addDependency(FunctionInstance dependency) {
+            }
+        };
+    }
+
+    private static String toFinalName(String ssaName) {
+        return ssaName.replaceAll("^\\$|\\$\\d+$", "");
+    }
+
+    private static void assertInOrder(String code, String... fragments) {
+        int index = 0;
+        for (String fragment : fragments) {
+            int next = code.indexOf(fragment, index);
+            Assert.assertTrue("Expected '" + fragment + "' after position " + index + " in:\n" + code, next >= 0);
+
+            index = next + fragment.length();
+        }
+    }
+}
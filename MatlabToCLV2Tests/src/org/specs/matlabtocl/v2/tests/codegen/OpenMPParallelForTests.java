@@ -0,0 +1,422 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matlabtocl.v2.tests.codegen;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.specs.CIR.CirTestUtils;
+import org.specs.CIR.CompilerTestUtils;
+import org.specs.CIR.FunctionInstance.FunctionInstance;
+import org.specs.CIR.FunctionInstance.FunctionInstanceUtils;
+import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.CIR.Language.Operators.COperator;
+import org.specs.CIR.Tree.CInstructionList;
+import org.specs.CIR.Tree.CNode;
+import org.specs.CIR.Tree.CNodes.CNodeFactory;
+import org.specs.CIR.Tree.CNodes.VariableNode;
+import org.specs.CIR.Types.TypeShape;
+import org.specs.CIR.Types.Variable;
+import org.specs.CIR.Types.VariableType;
+import org.specs.CIR.Types.ATypes.Matrix.MatrixType;
+import org.specs.CIR.Types.Views.Code.CodeUtils;
+import org.specs.CIR.Utilities.AssignmentUtils;
+import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixType;
+import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixUtils;
+import org.specs.CIRTypes.Types.DynamicMatrix.Functions.LowLevel.CreateHelper;
+import org.specs.MatlabIR.MatlabNodePass.FunctionIdentification;
+import org.specs.MatlabToC.CodeBuilder.VariableManager;
+import org.specs.MatlabToC.CodeBuilder.SsaToC.MockSsaToCBuilderService;
+import org.specs.MatlabToC.CodeBuilder.SsaToC.MockVariableManager;
+import org.specs.MatlabToC.CodeBuilder.SsaToCRules.ForProcessor;
+import org.specs.MatlabToC.jOptions.IvdepType;
+import org.specs.MatlabToC.jOptions.MatlabToCKeys;
+import org.specs.matisselib.DefaultReportService;
+import org.specs.matisselib.ssa.SsaBlock;
+import org.specs.matisselib.ssa.instructions.AssignmentInstruction;
+import org.specs.matisselib.ssa.instructions.ForInstruction;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.specs.matisselib.types.DynamicCellType;
+import org.specs.matlabtocl.v2.ssa.ParallelRegionSettings;
+import org.specs.matlabtocl.v2.ssa.ScheduleStrategy;
+import org.specs.matlabtocl.v2.tests.ParallelLoopTestUtils;
+
+import pt.up.fe.specs.util.providers.StringProvider;
+
+/**
+ * Checks the OpenMP pragmas of the loops marked by the OpenMP passes.
+ * 
+ * <p>
+ * The code of the loop bodies is written by hand, as the rules of the body instructions would generate it.
+ */
+public class OpenMPParallelForTests {
+
+    private static final int NUM_ITERATIONS = 1000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testSumReduction() {
+        TypedInstance instance = ParallelLoopTestUtils.buildSumLoop(new ParallelRegionSettings(), null);
+        ParallelLoopTestUtils.markOpenMPLoops(instance, "dynamic, 4");
+
+        String code = generateCode(instance, body -> addSumLoopBody(instance, body), new ByteArrayOutputStream());
+
+        // The reduction variable is not private, and neither is the induction variable
+        assertInOrder(code,
+                "#pragma omp parallel for schedule(dynamic, 4) reduction(+:s) private(A_value, sq)\n",
+                "for");
+    }
+
+    @Test
+    public void testMatrixSet() {
+        ParallelRegionSettings settings = new ParallelRegionSettings();
+        settings.schedule = ScheduleStrategy.DIRECT;
+        TypedInstance instance = ParallelLoopTestUtils.buildMatrixSetLoop(settings);
+        ParallelLoopTestUtils.markOpenMPLoops(instance, "dynamic, 4");
+
+        String code = generateCode(instance, body -> {
+            VariableNode value = variable(instance, "A_value");
+            VariableNode doubled = variable(instance, "doubled");
+            VariableNode matrix = variable(instance, "B");
+
+            body.addAssignment(value, CNodeFactory.newLiteral("A[i - 1]", value.getVariableType()));
+            body.addAssignment(doubled, call(instance, COperator.Addition, value, value));
+            body.addInstruction(FunctionInstanceUtils.getFunctionCall(
+                    ((MatrixType) matrix.getVariableType()).matrix().functions().set(),
+                    instance.getProviderData(),
+                    matrix,
+                    call(instance, COperator.Subtraction, variable(instance, "i"), CNodeFactory.newCNumber(1)),
+                    doubled));
+        }, new ByteArrayOutputStream());
+
+        // Each iteration writes a different position of B, so B stays shared
+        assertInOrder(code,
+                "#pragma omp parallel for schedule(static, 1) private(A_value, doubled)\n",
+                "for");
+    }
+
+    @Test
+    public void testMatrixTemporary() {
+        TypedInstance instance = buildCopyLoop();
+        VariableType matrixType = instance.getVariableType("$A$1").get();
+
+        String code = generateCode(instance, body -> addCopyLoopBody(instance, body), new ByteArrayOutputStream());
+
+        // Each thread allocates and frees its own copy, in a region around the loop
+        ProviderData data = instance.getProviderData();
+        FunctionInstance free = matrixType.functions().free().newCInstance(data.create(matrixType));
+        assertInOrder(code,
+                "#pragma omp parallel\n",
+                "{\n",
+                CodeUtils.getDeclarationWithInputs(matrixType, "copy", Collections.emptyList()) + ";\n",
+                "#pragma omp for schedule(dynamic, 4) reduction(+:s) private(A_value, sq)\n",
+                "for",
+                free.getCName() + "(",
+                "}\n");
+        Assert.assertFalse(code, code.contains("omp parallel for"));
+    }
+
+    @Test
+    public void testUnsupportedNonScalarWrite() {
+        TypedInstance instance = ParallelLoopTestUtils.buildSumLoop(new ParallelRegionSettings(), null);
+
+        // cell = <undefined>; in the loop body
+        ForInstruction xfor = ParallelLoopTestUtils.getForInstruction(instance);
+        SsaBlock loopBlock = instance.getFunctionBody().getBlock(xfor.getLoopBlock());
+        VariableType cellType = new DynamicCellType(instance.getProviderData().getNumerics().newDouble(),
+                TypeShape.newUndefinedShape());
+        String cell = instance.makeTemporary("cell", cellType);
+        loopBlock.addInstruction(AssignmentInstruction.fromUndefinedValue(cell));
+
+        ParallelLoopTestUtils.markOpenMPLoops(instance, "dynamic, 4");
+        Assert.assertTrue(ParallelLoopTestUtils.getOpenMPProperty(instance).isPresent());
+
+        ByteArrayOutputStream messages = new ByteArrayOutputStream();
+        String code = generateCode(instance, body -> {
+            addSumLoopBody(instance, body);
+            body.addAssignment(variable(instance, "cell"), CNodeFactory.newLiteral("NULL", cellType));
+        }, messages);
+
+        // Only matrices get private copies
+        Assert.assertFalse(code, code.contains("#pragma omp"));
+        String output = new String(messages.toByteArray());
+        Assert.assertTrue(output, output.contains("Loop not parallelized with OpenMP: Variable cell of type "));
+        Assert.assertTrue(output,
+                output.contains(" is written by the loop, and only scalars and matrices can be private."));
+    }
+
+    @Test
+    public void testSameResultAsSerialBuild() throws IOException {
+        CompilerTestUtils.assumeCompilerAvailable();
+
+        TypedInstance instance = ParallelLoopTestUtils.buildSumLoop(new ParallelRegionSettings(), null);
+        ParallelLoopTestUtils.markOpenMPLoops(instance, "dynamic, 4");
+
+        String loopCode = generateCode(instance, body -> addSumLoopBody(instance, body),
+                new ByteArrayOutputStream());
+        Assert.assertTrue(loopCode, loopCode.contains("#pragma omp parallel for"));
+
+        double expected = 0;
+        for (int i = 0; i < NUM_ITERATIONS; ++i) {
+            expected += (i % 7) * (i % 7);
+        }
+
+        String testCode = "int one = 1;\n"
+                + "int n = " + NUM_ITERATIONS + ";\n"
+                + "int i;\n"
+                + "double s = 0;\n"
+                + "double A_value;\n"
+                + "double sq;\n"
+                + "double* A = malloc(n * sizeof(double));\n"
+                + "for (i = 0; i < n; ++i) {\n"
+                + "   A[i] = i % 7;\n"
+                + "}\n"
+                + loopCode
+                + "free(A);\n"
+                + "printf(\"%.1f\\n\", s);\n"
+                + "EXPECT(s == " + expected + ");\n"
+                + "return 0;\n";
+
+        File serialFolder = temporaryFolder.newFolder("serial");
+        CompilerTestUtils.writeHarness(serialFolder, CirTestUtils.newDefaultSettings(), testCode);
+        String serialOutput = CompilerTestUtils.compileAndRun(serialFolder);
+
+        File parallelFolder = temporaryFolder.newFolder("openmp");
+        CompilerTestUtils.writeHarness(parallelFolder, CirTestUtils.newDefaultSettings(), testCode);
+        String parallelOutput = CompilerTestUtils.compileAndRun(parallelFolder, "-fopenmp");
+
+        Assert.assertEquals(serialOutput, parallelOutput);
+    }
+
+    @Test
+    public void testMatrixTemporarySameResultAsSerialBuild() throws IOException {
+        CompilerTestUtils.assumeCompilerAvailable();
+
+        TypedInstance instance = buildCopyLoop();
+        DynamicMatrixType matrixType = (DynamicMatrixType) instance.getVariableType("$A$1").get();
+
+        String loopCode = generateCode(instance, body -> addCopyLoopBody(instance, body),
+                new ByteArrayOutputStream());
+        Assert.assertTrue(loopCode, loopCode.contains("#pragma omp parallel\n"));
+
+        ProviderData data = instance.getProviderData();
+        FunctionInstance create = CreateHelper.getProvider(matrixType.matrix().getElementType()).newCInstance(data);
+        FunctionInstance free = matrixType.functions().free().newCInstance(data.create(matrixType));
+        List<FunctionInstance> dependencies = new ArrayList<>();
+        dependencies.add(create);
+        dependencies.add(free);
+        dependencies.addAll(AssignmentUtils.getAssignmentInstances(matrixType, matrixType, data));
+
+        double expected = 0;
+        for (int i = 0; i < NUM_ITERATIONS; ++i) {
+            expected += (i % 7) * (i % 7);
+        }
+
+        String tensor = DynamicMatrixUtils.getStructInstance(matrixType).getCName();
+        String testCode = "int one = 1;\n"
+                + "int n = " + NUM_ITERATIONS + ";\n"
+                + "int i;\n"
+                + "int shape[2] = {1, " + NUM_ITERATIONS + "};\n"
+                + "double s = 0;\n"
+                + "double A_value;\n"
+                + "double sq;\n"
+                + tensor + "* A = NULL;\n"
+                + tensor + "* copy = NULL;\n"
+                + create.getCName() + "(shape, 2, &A);\n"
+                + "for (i = 0; i < n; ++i) {\n"
+                + "   A->data[i] = i % 7;\n"
+                + "}\n"
+                + loopCode
+                // The copies of the threads do not replace the variable of the function
+                + "EXPECT(copy == NULL);\n"
+                + free.getCName() + "(&A);\n"
+                + "printf(\"%.1f\\n\", s);\n"
+                + "EXPECT(s == " + expected + ");\n"
+                + "return 0;\n";
+        FunctionInstance[] dependencyArray = dependencies.toArray(new FunctionInstance[0]);
+
+        File serialFolder = temporaryFolder.newFolder("serial");
+        CompilerTestUtils.writeHarness(serialFolder, CirTestUtils.newDefaultSettings(), testCode, dependencyArray);
+        String serialOutput = CompilerTestUtils.compileAndRun(serialFolder);
+
+        File parallelFolder = temporaryFolder.newFolder("openmp");
+        CompilerTestUtils.writeHarness(parallelFolder, CirTestUtils.newDefaultSettings(), testCode, dependencyArray);
+        String parallelOutput = CompilerTestUtils.compileAndRun(parallelFolder, "-fopenmp");
+
+        Assert.assertEquals(serialOutput, parallelOutput);
+    }
+
+    /**
+     * The sum loop, with a copy of A in each iteration.
+     */
+    private static TypedInstance buildCopyLoop() {
+        TypedInstance instance = ParallelLoopTestUtils.buildSumLoop(new ParallelRegionSettings(), null);
+
+        // copy = A; in the loop body
+        ForInstruction xfor = ParallelLoopTestUtils.getForInstruction(instance);
+        SsaBlock loopBlock = instance.getFunctionBody().getBlock(xfor.getLoopBlock());
+        String copy = instance.makeTemporary("copy", instance.getVariableType("$A$1").get());
+        loopBlock.addInstruction(AssignmentInstruction.fromVariable(copy, "$A$1"));
+
+        ParallelLoopTestUtils.markOpenMPLoops(instance, "dynamic, 4");
+        Assert.assertTrue(ParallelLoopTestUtils.getOpenMPProperty(instance).isPresent());
+
+        return instance;
+    }
+
+    /**
+     * copy = A; A_value = copy->data[i - 1]; sq = A_value * A_value; s = s + sq;
+     */
+    private static void addCopyLoopBody(TypedInstance instance, CInstructionList body) {
+        VariableNode copy = variable(instance, "copy");
+        VariableNode value = variable(instance, "A_value");
+        VariableNode squared = variable(instance, "sq");
+        VariableNode sum = variable(instance, "s");
+
+        body.addInstruction(AssignmentUtils.buildAssignmentNode(copy, variable(instance, "A"),
+                instance.getProviderData()));
+        body.addAssignment(value, CNodeFactory.newLiteral("copy->data[i - 1]", value.getVariableType()));
+        body.addAssignment(squared, call(instance, COperator.Multiplication, value, value));
+        body.addAssignment(sum, call(instance, COperator.Addition, sum, squared));
+    }
+
+    /**
+     * A_value = A[i - 1]; sq = A_value * A_value; s = s + sq;
+     */
+    private static void addSumLoopBody(TypedInstance instance, CInstructionList body) {
+        VariableNode value = variable(instance, "A_value");
+        VariableNode squared = variable(instance, "sq");
+        VariableNode sum = variable(instance, "s");
+
+        body.addAssignment(value, CNodeFactory.newLiteral("A[i - 1]", value.getVariableType()));
+        body.addAssignment(squared, call(instance, COperator.Multiplication, value, value));
+        body.addAssignment(sum, call(instance, COperator.Addition, sum, squared));
+    }
+
+    private static String generateCode(TypedInstance instance,
+            Consumer<CInstructionList> loopBodyBuilder,
+            ByteArrayOutputStream messages) {
+
+        instance.getProviderData().getSettings().set(MatlabToCKeys.IVDEP_TYPE, IvdepType.NONE);
+
+        ForInstruction xfor = ParallelLoopTestUtils.getForInstruction(instance);
+        MockSsaToCBuilderService builder = makeBuilder(instance, xfor.getLoopBlock(), loopBodyBuilder);
+        builder.reporter = new DefaultReportService(null,
+                new PrintStream(messages),
+                false,
+                new FunctionIdentification("f.m"),
+                StringProvider.newInstance("<code>"));
+
+        CInstructionList currentBlock = new CInstructionList();
+        new ForProcessor().apply(builder, currentBlock, xfor);
+
+        return currentBlock.toCNode().getCode();
+    }
+
+    private static MockSsaToCBuilderService makeBuilder(TypedInstance instance,
+            int loopBlockId,
+            Consumer<CInstructionList> loopBodyBuilder) {
+
+        Map<String, VariableType> types = getTypesByFinalName(instance);
+
+        Map<String, Integer> temporaries = new HashMap<>();
+        VariableManager manager = new MockVariableManager() {
+            @Override
+            public String convertSsaToFinalName(String variableName) {
+                return toFinalName(variableName);
+            }
+
+            @Override
+            public Optional<VariableType> getVariableTypeFromFinalName(String finalName) {
+                return Optional.ofNullable(types.get(finalName));
+            }
+
+            @Override
+            public Variable generateTemporary(String proposedName, VariableType type) {
+                int id = temporaries.merge(proposedName, 1, Integer::sum);
+                return new Variable(proposedName + id, type);
+            }
+        };
+
+        return new MockSsaToCBuilderService() {
+            @Override
+            public TypedInstance getInstance() {
+                return instance;
+            }
+
+            @Override
+            public VariableManager getVariableManager() {
+                return manager;
+            }
+
+            @Override
+            public ProviderData getCurrentProvider() {
+                return instance.getProviderData();
+            }
+
+            @Override
+            public void generateCodeForBlock(int blockId, CInstructionList currentBlock) {
+                // The code after the loop is not needed
+                if (blockId == loopBlockId) {
+                    loopBodyBuilder.accept(currentBlock);
+                }
+            }
+        };
+    }
+
+    private static VariableNode variable(TypedInstance instance, String finalName) {
+        return CNodeFactory.newVariable(finalName, getTypesByFinalName(instance).get(finalName));
+    }
+
+    private static CNode call(TypedInstance instance, COperator operator, CNode... inputs) {
+        return FunctionInstanceUtils.getFunctionCall(operator, instance.getProviderData(), inputs);
+    }
+
+    private static Map<String, VariableType> getTypesByFinalName(TypedInstance instance) {
+        Map<String, VariableType> types = new HashMap<>();
+        instance.getVariableTypes()
+                .forEach((name, type) -> types.put(toFinalName(name), type));
+
+        return types;
+    }
+
+    private static String toFinalName(String ssaName) {
+        return ssaName.replaceAll("^\\$|\\$\\d+$", "");
+    }
+
+    private static void assertInOrder(String code, String... fragments) {
+        int index = 0;
+        for (String fragment : fragments) {
+            int next = code.indexOf(fragment, index);
+            Assert.assertTrue("Expected '" + fragment + "' after position " + index + " in:\n" + code, next >= 0);
+
+            index = next + fragment.length();
+        }
+    }
+}
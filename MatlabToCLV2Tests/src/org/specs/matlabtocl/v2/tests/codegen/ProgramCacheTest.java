@@ -0,0 +1,57 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matlabtocl.v2.tests.codegen;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.specs.CIR.CompilerTestUtils;
+import org.specs.matlabtocl.v2.codegen.ImplementationResources;
+
+import pt.up.fe.specs.util.SpecsIo;
+
+/**
+ * Stores and loads binaries with the program cache of the generated host code, using OpenCL stand-ins.
+ */
+public class ProgramCacheTest {
+    private static final String HARNESS_RESOURCE = "implementation/program_cache_test.c";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testStoreAndLoad() throws IOException {
+        File sourceFolder = temporaryFolder.newFolder("src");
+        File cacheFolder = temporaryFolder.newFolder("cache");
+
+        String cacheCode = SpecsIo.getResource(ImplementationResources.PROGRAM_CACHE)
+                .replace("<PROGRAM_CACHE_DIRECTORY>", cacheFolder.getAbsolutePath().replace("\\", "\\\\"));
+        SpecsIo.write(new File(sourceFolder, "program_cache_test.c"),
+                SpecsIo.getResource(HARNESS_RESOURCE).replace("<PROGRAM_CACHE_CODE>", cacheCode));
+
+        String output = CompilerTestUtils.compileAndRun(sourceFolder);
+
+        Assert.assertTrue(output, output.endsWith("OK"));
+
+        // Only the final binary is left, with no temporary files
+        String[] cachedFiles = cacheFolder.list();
+        Assert.assertEquals(Arrays.toString(cachedFiles), 1, cachedFiles.length);
+        Assert.assertTrue(cachedFiles[0], cachedFiles[0].matches("matisse-cl-[0-9a-f]{16}\\.bin"));
+    }
+}
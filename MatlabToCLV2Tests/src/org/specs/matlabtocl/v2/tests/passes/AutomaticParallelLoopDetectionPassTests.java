@@ -0,0 +1,251 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matlabtocl.v2.tests.passes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.specs.matisselib.PassMessage;
+import org.specs.matisselib.loopproperties.OpenMPParallelForProperty;
+import org.specs.matisselib.services.InstructionReportingService;
+import org.specs.matisselib.ssa.SsaBlock;
+import org.specs.matisselib.ssa.instructions.ArgumentInstruction;
+import org.specs.matisselib.ssa.instructions.AssumeInstruction;
+import org.specs.matisselib.ssa.instructions.ForInstruction;
+import org.specs.matisselib.ssa.instructions.PhiInstruction;
+import org.specs.matisselib.ssa.instructions.SsaInstruction;
+import org.specs.matisselib.typeinference.TypeInferencePass;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.specs.matlabtocl.v2.CLServices;
+import org.specs.matlabtocl.v2.MatisseCLKeys;
+import org.specs.matlabtocl.v2.codegen.ReductionType;
+import org.specs.matlabtocl.v2.codegen.reductionstrategies.CommonCodeGenerationStrategyProvider;
+import org.specs.matlabtocl.v2.ssa.ParallelRegionSettings;
+import org.specs.matlabtocl.v2.ssa.instructions.EndDirectiveInstruction;
+import org.specs.matlabtocl.v2.ssa.instructions.ParallelBlockInstruction;
+import org.specs.matlabtocl.v2.ssa.instructions.ParallelDirectiveInstruction;
+import org.specs.matlabtocl.v2.ssa.passes.AutomaticParallelLoopDetectionPass;
+import org.specs.matlabtocl.v2.ssa.passes.ParallelBlockBuilderPass;
+import org.specs.matlabtocl.v2.tests.ParallelLoopTestUtils;
+import org.suikasoft.jOptions.DataStore.SimpleDataStore;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+
+public class AutomaticParallelLoopDetectionPassTests {
+
+    private static final int MIN_TRIP_COUNT = 1000;
+
+    @Test
+    public void testSumReduction() {
+        TypedInstance instance = ParallelLoopTestUtils.buildSumLoop(null, null);
+
+        List<String> messages = applyPass(instance, true);
+
+        Assert.assertEquals(Arrays.asList("Loop automatically parallelized, with reductions: SUM of $s$4. "
+                + "Trip count unknown at compile time, so the minimum of " + MIN_TRIP_COUNT + " was not checked."),
+                messages);
+
+        // The directive is just before the loop
+        ForInstruction xfor = ParallelLoopTestUtils.getForInstruction(instance);
+        List<SsaInstruction> entryInstructions = instance.getFunctionBody().getBlock(0).getInstructions();
+        int forIndex = entryInstructions.indexOf(xfor);
+        Assert.assertTrue(entryInstructions.get(forIndex - 1) instanceof ParallelDirectiveInstruction);
+        ParallelDirectiveInstruction directive = (ParallelDirectiveInstruction) entryInstructions.get(forIndex - 1);
+        Assert.assertTrue(directive.getSettings().reductionStrategies.containsKey(ReductionType.SUM));
+
+        // The end directive is after the phis that merge the values of the loop
+        List<SsaInstruction> endInstructions = instance.getFunctionBody().getBlock(xfor.getEndBlock())
+                .getInstructions();
+        Assert.assertTrue(endInstructions.get(0) instanceof PhiInstruction);
+        Assert.assertTrue(endInstructions.get(1) instanceof EndDirectiveInstruction);
+        Assert.assertEquals(1, countInstructions(instance, EndDirectiveInstruction.class));
+
+        // The region can be built and the loop distributed, as with user directives
+        ParallelLoopTestUtils.markOpenMPLoops(instance, "static");
+        OpenMPParallelForProperty property = ParallelLoopTestUtils.getOpenMPProperty(instance)
+                .orElseThrow(() -> new AssertionError("Loop not marked:\n" + instance));
+        Assert.assertEquals(1, property.getReductions().size());
+        Assert.assertEquals("+", property.getReductions().get(0).getOperator());
+    }
+
+    @Test
+    public void testCarriedDependency() {
+        TypedInstance instance = ParallelLoopTestUtils.buildCarriedLoop(null);
+
+        List<String> messages = applyPass(instance, true);
+
+        Assert.assertEquals(Arrays.asList("Loop not parallelized: "
+                + "A value carried between iterations is not a recognized reduction."), messages);
+        assertNoDirectives(instance);
+    }
+
+    @Test
+    public void testSmallTripCount() {
+        TypedInstance instance = ParallelLoopTestUtils.buildSumLoop(null, 100);
+
+        List<String> messages = applyPass(instance, true);
+
+        Assert.assertEquals(Arrays.asList("Loop not parallelized: "
+                + "Estimated trip count (100) is below the minimum of " + MIN_TRIP_COUNT + "."), messages);
+        assertNoDirectives(instance);
+    }
+
+    @Test
+    public void testMinimumTripCount() {
+        TypedInstance instance = ParallelLoopTestUtils.buildSumLoop(null, MIN_TRIP_COUNT);
+
+        List<String> messages = applyPass(instance, true);
+
+        Assert.assertEquals(Arrays.asList("Loop automatically parallelized, with reductions: SUM of $s$4. "
+                + "Estimated trip count: " + MIN_TRIP_COUNT + "."), messages);
+        Assert.assertEquals(1, countInstructions(instance, ParallelDirectiveInstruction.class));
+    }
+
+    @Test
+    public void testTripCountAtLeastMinimum() {
+        // assume(2 * MIN_TRIP_COUNT <= m); n = m
+        TypedInstance instance = ParallelLoopTestUtils.buildSumLoopWithEnd(null, editor -> {
+            String m = editor.makeIntegerTemporary("m");
+            editor.addInstruction(new ArgumentInstruction(m, 1));
+            String bound = editor.addMakeIntegerInstruction("bound", 2 * MIN_TRIP_COUNT);
+            String condition = editor.addSimpleCallToOutputWithSemantics("le", "large", bound, m);
+            editor.addInstruction(new AssumeInstruction(condition));
+
+            String n = editor.makeIntegerTemporary("n");
+            editor.addAssignment(n, m);
+            return n;
+        });
+
+        List<String> messages = applyPass(instance, true);
+
+        Assert.assertEquals(Arrays.asList("Loop automatically parallelized, with reductions: SUM of $s$4. "
+                + "Trip count unknown at compile time, but at least " + MIN_TRIP_COUNT + "."), messages);
+        Assert.assertEquals(1, countInstructions(instance, ParallelDirectiveInstruction.class));
+    }
+
+    @Test
+    public void testTripCountBelowMinimum() {
+        // assume(m <= 100); n = m
+        TypedInstance instance = ParallelLoopTestUtils.buildSumLoopWithEnd(null, editor -> {
+            String m = editor.makeIntegerTemporary("m");
+            editor.addInstruction(new ArgumentInstruction(m, 1));
+            String bound = editor.addMakeIntegerInstruction("bound", 100);
+            String condition = editor.addSimpleCallToOutputWithSemantics("le", "small", m, bound);
+            editor.addInstruction(new AssumeInstruction(condition));
+
+            String n = editor.makeIntegerTemporary("n");
+            editor.addAssignment(n, m);
+            return n;
+        });
+
+        List<String> messages = applyPass(instance, true);
+
+        Assert.assertEquals(Arrays.asList("Loop not parallelized: "
+                + "Trip count is known to be below the minimum of " + MIN_TRIP_COUNT + "."), messages);
+        assertNoDirectives(instance);
+    }
+
+    @Test
+    public void testNestedLoop() {
+        TypedInstance instance = ParallelLoopTestUtils.buildNestedSumLoop();
+
+        List<String> messages = applyPass(instance, true);
+
+        // The inner loop belongs to the accepted outer loop, so it is neither reported nor given directives
+        Assert.assertEquals(messages.toString(), 1, messages.size());
+        Assert.assertTrue(messages.get(0), messages.get(0).startsWith("Loop automatically parallelized"));
+        Assert.assertEquals(1, countInstructions(instance, ParallelDirectiveInstruction.class));
+        Assert.assertEquals(1, countInstructions(instance, EndDirectiveInstruction.class));
+
+        // The directive is before the outer loop
+        List<SsaInstruction> entryInstructions = instance.getFunctionBody().getBlock(0).getInstructions();
+        int forIndex = entryInstructions.size() - 1;
+        Assert.assertTrue(entryInstructions.get(forIndex) instanceof ForInstruction);
+        Assert.assertTrue(entryInstructions.get(forIndex - 1) instanceof ParallelDirectiveInstruction);
+    }
+
+    @Test
+    public void testUserRegion() {
+        TypedInstance instance = ParallelLoopTestUtils.buildSumLoop(new ParallelRegionSettings(), null);
+        new ParallelBlockBuilderPass().apply(instance.getFunctionBody(), ParallelLoopTestUtils.buildPassData(instance));
+
+        List<String> messages = applyPass(instance, true);
+
+        // The loop keeps the settings of the region given by the user
+        Assert.assertEquals(Collections.emptyList(), messages);
+        Assert.assertEquals(1, countInstructions(instance, ParallelBlockInstruction.class));
+        assertNoDirectives(instance);
+    }
+
+    @Test
+    public void testDisabled() {
+        TypedInstance instance = ParallelLoopTestUtils.buildSumLoop(null, null);
+
+        List<String> messages = applyPass(instance, false);
+
+        Assert.assertEquals(Collections.emptyList(), messages);
+        assertNoDirectives(instance);
+    }
+
+    /**
+     * @return The parallelization reports of the pass
+     */
+    private static List<String> applyPass(TypedInstance instance, boolean enabled) {
+        DataStore settings = new SimpleDataStore("automatic-parallelization-tests");
+        settings.add(MatisseCLKeys.AUTOMATIC_PARALLELIZATION, enabled);
+        settings.add(MatisseCLKeys.AUTOMATIC_PARALLELIZATION_MIN_TRIP_COUNT, MIN_TRIP_COUNT);
+
+        List<String> messages = new ArrayList<>();
+        InstructionReportingService reportService = (body, source, type, message, internalException) -> {
+            Assert.assertEquals(PassMessage.PARALLELIZATION_REPORT, type);
+            Assert.assertTrue(source instanceof ForInstruction);
+
+            messages.add(message);
+        };
+
+        DataStore passData = ParallelLoopTestUtils.buildPassData(instance);
+        passData.add(CLServices.CODE_GENERATION_STRATEGY_PROVIDER, new CommonCodeGenerationStrategyProvider(null) {
+            @Override
+            public DataStore getDataStore() {
+                return settings;
+            }
+        });
+        passData.add(TypeInferencePass.INSTRUCTION_REPORT_SERVICE, reportService);
+
+        new AutomaticParallelLoopDetectionPass().apply(instance, passData);
+
+        return messages;
+    }
+
+    private static void assertNoDirectives(TypedInstance instance) {
+        Assert.assertEquals(0, countInstructions(instance, ParallelDirectiveInstruction.class));
+        Assert.assertEquals(0, countInstructions(instance, EndDirectiveInstruction.class));
+    }
+
+    private static int countInstructions(TypedInstance instance, Class<? extends SsaInstruction> instructionClass) {
+        int count = 0;
+        for (SsaBlock block : instance.getFunctionBody().getBlocks()) {
+            for (SsaInstruction instruction : block.getInstructions()) {
+                if (instructionClass.isInstance(instruction)) {
+                    ++count;
+                }
+            }
+        }
+
+        return count;
+    }
+}
@@ -137,6 +137,11 @@ public class GpuSVMEliminationTests {
                 throw new RuntimeException("Invalid");
             }
 
+            @Override
+            public String getProgramCacheDirectory() {
+                throw new RuntimeException("Invalid");
+            }
+
             @Override
             public boolean isSvmRestrictedToSequentialAccesses() {
                 throw new RuntimeException("Invalid");
@@ -152,6 +157,11 @@ public class GpuSVMEliminationTests {
                 throw new RuntimeException("Invalid");
             }
 
+            @Override
+            public boolean isAsyncHostCodeEnabled() {
+                throw new RuntimeException("Invalid");
+            }
+
             @Override
             public Map<ReductionType, List<ReductionStrategy>> getReductionStrategies() {
                 throw new RuntimeException("Invalid");
@@ -231,6 +241,16 @@ public class GpuSVMEliminationTests {
             public boolean getNvidiaSubgroupAsWarpFallback() {
                 throw new RuntimeException("Invalid");
             }
+
+            @Override
+            public boolean isAutomaticParallelizationEnabled() {
+                throw new RuntimeException("Invalid");
+            }
+
+            @Override
+            public int getAutomaticParallelizationMinTripCount() {
+                throw new RuntimeException("Invalid");
+            }
         });
         new GpuSVMBufferEliminationPass().apply(instance, passData);
 
@@ -0,0 +1,129 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.matlabtocl.v2.tests.passes;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.CIR.Types.VariableType;
+import org.specs.matisselib.loopproperties.OpenMPParallelForProperty;
+import org.specs.matisselib.typeinference.TypedInstance;
+import org.specs.matlabtocl.v2.ssa.ParallelRegionSettings;
+import org.specs.matlabtocl.v2.ssa.ScheduleStrategy;
+import org.specs.matlabtocl.v2.ssa.passes.OpenMPParallelLoopPass;
+import org.specs.matlabtocl.v2.tests.CLTestUtils;
+import org.specs.matlabtocl.v2.tests.ParallelLoopTestUtils;
+
+public class OpenMPParallelLoopPassTests {
+    @Test
+    public void testDefaultSchedule() {
+        ParallelRegionSettings settings = CLTestUtils.buildDummySettings();
+        settings.schedule = ScheduleStrategy.AUTO;
+
+        Assert.assertEquals("dynamic, 8", getScheduleClause(settings, new HashMap<>(), "dynamic, 8"));
+        Assert.assertEquals("", getScheduleClause(settings, new HashMap<>(), ""));
+    }
+
+    @Test
+    public void testRotationSchedules() {
+        ParallelRegionSettings settings = CLTestUtils.buildDummySettings();
+
+        settings.schedule = ScheduleStrategy.DIRECT;
+        Assert.assertEquals("static, 1", getScheduleClause(settings, new HashMap<>(), "static"));
+
+        settings.schedule = ScheduleStrategy.FIXED_WORK_GROUPS_GLOBAL_ROTATION;
+        Assert.assertEquals("static, 1", getScheduleClause(settings, new HashMap<>(), "static"));
+
+        settings.schedule = ScheduleStrategy.FIXED_WORK_GROUPS_SEQUENTIAL;
+        Assert.assertEquals("static", getScheduleClause(settings, new HashMap<>(), "static, 1"));
+    }
+
+    @Test
+    public void testCoarseSequentialSchedule() {
+        ProviderData providerData = ProviderData.newInstance("test-instance");
+
+        Map<String, VariableType> types = new HashMap<>();
+        types.put("$coarse$1", providerData.getNumerics().newInt(16));
+        types.put("$coarse$2", providerData.getNumerics().newInt());
+
+        ParallelRegionSettings settings = CLTestUtils.buildDummySettings();
+        settings.schedule = ScheduleStrategy.COARSE_SEQUENTIAL;
+
+        settings.scheduleNames = Arrays.asList("$coarse$1");
+        Assert.assertEquals("static, 16", getScheduleClause(settings, types, "dynamic"));
+
+        // Not known at compile time
+        settings.scheduleNames = Arrays.asList("$coarse$2");
+        Assert.assertEquals("static", getScheduleClause(settings, types, "dynamic"));
+    }
+
+    @Test
+    public void testSumReduction() {
+        TypedInstance instance = ParallelLoopTestUtils.buildSumLoop(new ParallelRegionSettings(), null);
+
+        OpenMPParallelForProperty property = markLoops(instance)
+                .orElseThrow(() -> new AssertionError("Loop not marked:\n" + instance));
+
+        Assert.assertEquals("dynamic, 4", property.getSchedule());
+        Assert.assertEquals(1, property.getReductions().size());
+        OpenMPParallelForProperty.ReductionVariable reduction = property.getReductions().get(0);
+        Assert.assertEquals("+", reduction.getOperator());
+        Assert.assertTrue(reduction.getNames().toString(),
+                reduction.getNames().containsAll(Arrays.asList("$s$1", "$s$2", "$s$3")));
+        Assert.assertTrue(property.getSharedVariables().isEmpty());
+    }
+
+    @Test
+    public void testMatrixSet() {
+        ParallelRegionSettings settings = new ParallelRegionSettings();
+        settings.schedule = ScheduleStrategy.DIRECT;
+        TypedInstance instance = ParallelLoopTestUtils.buildMatrixSetLoop(settings);
+
+        OpenMPParallelForProperty property = markLoops(instance)
+                .orElseThrow(() -> new AssertionError("Loop not marked:\n" + instance));
+
+        Assert.assertEquals("static, 1", property.getSchedule());
+        Assert.assertTrue(property.getReductions().isEmpty());
+        Assert.assertEquals(1, property.getSharedVariables().size());
+        Assert.assertTrue(property.getSharedVariables().get(0).toString(),
+                property.getSharedVariables().get(0).containsAll(Arrays.asList("$B$1", "$B$2", "$B$3")));
+    }
+
+    @Test
+    public void testCarriedDependency() {
+        TypedInstance instance = ParallelLoopTestUtils.buildCarriedLoop(new ParallelRegionSettings());
+
+        // s = s + s * A(i) is not a sum reduction, so the loop stays sequential
+        Assert.assertFalse(markLoops(instance).isPresent());
+    }
+
+    private static Optional<OpenMPParallelForProperty> markLoops(TypedInstance instance) {
+        ParallelLoopTestUtils.markOpenMPLoops(instance, "dynamic, 4");
+
+        return ParallelLoopTestUtils.getOpenMPProperty(instance);
+    }
+
+    private static String getScheduleClause(ParallelRegionSettings settings,
+            Map<String, VariableType> types,
+            String defaultSchedule) {
+        return OpenMPParallelLoopPass.getScheduleClause(settings,
+                name -> Optional.ofNullable(types.get(name)),
+                defaultSchedule);
+    }
+}
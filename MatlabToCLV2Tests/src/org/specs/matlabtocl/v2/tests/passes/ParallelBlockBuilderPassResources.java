@@ -22,6 +22,7 @@ public enum ParallelBlockBuilderPassResources implements ResourceProvider {
     FUNCTIONWIDE_PARAMETER,
     REGION,
     NESTEDREGION,
+    REGIONWITHFOR,
     FUNCTIONWIDEWITHBRANCH,
     FUNCTIONWIDEWITHFOR;
 
@@ -126,6 +126,28 @@ public class ParallelBlockBuilderPassTests {
         test(functionBody, ParallelBlockBuilderPassResources.NESTEDREGION);
     }
 
+    @Test
+    public void testRegionWithFor() {
+        FunctionBody functionBody = new FunctionBody("test", 2);
+
+        SsaBlock mainBlock = new SsaBlock();
+        mainBlock.addInstruction(new ArgumentInstruction("A$1", 0));
+        mainBlock.addInstruction(new ParallelDirectiveInstruction(CLTestUtils.buildDummySettings()));
+        mainBlock.addInstruction(new ForInstruction("A$1", "A$1", "A$1", 1, 2));
+        functionBody.addBlock(mainBlock);
+
+        SsaBlock forBlock = new SsaBlock();
+        forBlock.addInstruction(new CommentInstruction("For"));
+        functionBody.addBlock(forBlock);
+
+        SsaBlock endBlock = new SsaBlock();
+        endBlock.addInstruction(new EndDirectiveInstruction());
+        endBlock.addInstruction(AssignmentInstruction.fromVariable("A$3", "A$1"));
+        functionBody.addBlock(endBlock);
+
+        test(functionBody, ParallelBlockBuilderPassResources.REGIONWITHFOR);
+    }
+
     @Test
     public void testFunctionWideWithBranch() {
         FunctionBody functionBody = new FunctionBody("test", 2);
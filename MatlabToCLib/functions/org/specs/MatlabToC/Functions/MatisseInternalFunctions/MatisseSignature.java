@@ -48,7 +48,13 @@ public class MatisseSignature extends AInstanceBuilder {
         StringBuilder signatureBuilder = new StringBuilder("MATISSE, ");
         if (setup.get(MatlabToCKeys.USE_PASS_SYSTEM)) {
             signatureBuilder.append("with pass system, solver=");
-            signatureBuilder.append(setup.get(MatlabToCKeys.ENABLE_Z3) ? "z3" : "dummy");
+            if (setup.get(MatlabToCKeys.ENABLE_Z3)) {
+                signatureBuilder.append("z3");
+            } else if (setup.get(MatlabToCKeys.ENABLE_DIFFERENCE_BOUNDS)) {
+                signatureBuilder.append("difference-bounds");
+            } else {
+                signatureBuilder.append("dummy");
+            }
         } else {
             signatureBuilder.append("classic");
         }
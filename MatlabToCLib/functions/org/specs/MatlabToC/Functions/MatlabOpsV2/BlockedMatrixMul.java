@@ -0,0 +1,307 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatlabToC.Functions.MatlabOpsV2;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.specs.CIR.FunctionInstance.FunctionInstance;
+import org.specs.CIR.FunctionInstance.FunctionType;
+import org.specs.CIR.FunctionInstance.InstanceProvider;
+import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.CIR.FunctionInstance.Instances.LiteralInstance;
+import org.specs.CIR.Language.SystemInclude;
+import org.specs.CIR.Options.MemoryLayout;
+import org.specs.CIR.Tree.CNode;
+import org.specs.CIR.Tree.CNodes.CNodeFactory;
+import org.specs.CIR.Types.TypeShape;
+import org.specs.CIR.Types.Variable;
+import org.specs.CIR.Types.VariableType;
+import org.specs.CIR.Types.ATypes.Matrix.MatrixType;
+import org.specs.CIR.Types.ATypes.Matrix.MatrixUtils;
+import org.specs.CIR.Types.ATypes.Scalar.ScalarType;
+import org.specs.CIR.Utilities.CodeReplacer;
+import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixType;
+import org.specs.CIRTypes.Types.Numeric.NumericTypeV2;
+import org.specs.MatlabToC.MatlabCFilename;
+import org.specs.MatlabToC.jOptions.AMatlabInstanceBuilder;
+import org.specs.MatlabToC.jOptions.MatlabToCKeys;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Matrix multiplication with cache blocking, packed panels and register tiles, for when BLAS is not available.
+ *
+ * <p>
+ * Follows the loop structure of GotoBLAS: the operands are split in blocks that fit in the L2 (left operand) and L1
+ * (panels of the right operand) caches, which are packed into contiguous panels. The innermost kernel updates a tile of
+ * MR x NR elements of the result, which is kept in scalar variables so that the C compiler can assign them to
+ * registers.
+ *
+ * <p>
+ * The kernel works on column-major data. Row-major data holds the transposes of the matrices, so C = A * B is computed
+ * as C' = B' * A'.
+ */
+public class BlockedMatrixMul extends AMatlabInstanceBuilder {
+
+    private final static String INPUT_A = "A";
+    private final static String INPUT_B = "B";
+    private final static String OUTPUT_C = "C";
+
+    private final static String KERNEL_INDENT = "\t\t\t\t\t\t";
+
+    private final int minOperations;
+    private final int blockM;
+    private final int blockK;
+    private final int blockN;
+    private final int tileM;
+    private final int tileN;
+
+    public BlockedMatrixMul(ProviderData data) {
+        super(data);
+
+        tileM = getSettings().get(MatlabToCKeys.MATRIX_MUL_TILE_M);
+        tileN = getSettings().get(MatlabToCKeys.MATRIX_MUL_TILE_N);
+        Preconditions.checkArgument(tileM > 0 && tileN > 0, "Tile sizes must be positive: %s x %s", tileM, tileN);
+
+        int settingsBlockM = getSettings().get(MatlabToCKeys.MATRIX_MUL_BLOCK_M);
+        int settingsBlockN = getSettings().get(MatlabToCKeys.MATRIX_MUL_BLOCK_N);
+        blockK = getSettings().get(MatlabToCKeys.MATRIX_MUL_BLOCK_K);
+        Preconditions.checkArgument(settingsBlockM > 0 && blockK > 0 && settingsBlockN > 0,
+                "Block sizes must be positive: %s, %s, %s", settingsBlockM, blockK, settingsBlockN);
+
+        // Blocks are packed as whole tiles
+        blockM = roundUp(settingsBlockM, tileM);
+        blockN = roundUp(settingsBlockN, tileN);
+
+        minOperations = getSettings().get(MatlabToCKeys.BLOCKED_MATRIX_MUL_MIN_OPERATIONS);
+    }
+
+    private static int roundUp(int value, int multiple) {
+        return (value + multiple - 1) / multiple * multiple;
+    }
+
+    /**
+     * Currently, both inputs must be matrices of the same floating-point type.
+     */
+    @Override
+    public FunctionInstance create() {
+
+        FunctionType type = getType();
+
+        String functionName = getFunctionName("matrix_mul_blocked", type.getCInputTypes());
+
+        String filename = MatlabCFilename.MatrixMath.getCFilename();
+
+        CodeReplacer body = getBody(type);
+
+        LiteralInstance fInst = new LiteralInstance(type, functionName, filename, body);
+
+        fInst.setCustomImplementationIncludes(SystemInclude.Stdio, SystemInclude.Stdlib);
+
+        return fInst;
+    }
+
+    private FunctionType getType() {
+        ScalarType inferredElement = getInferredType(MatrixUtils.getElementTypes(getData().getInputTypes()),
+                Optional.empty());
+
+        TypeShape shape = MatrixUtils.getMultiplicationShape(getTypeAtIndex(MatrixType.class, 0),
+                getTypeAtIndex(MatrixType.class, 1));
+
+        MatrixType inferredType = DynamicMatrixType.newInstance(inferredElement, shape);
+
+        List<String> inputNames = Arrays.asList(INPUT_A, INPUT_B);
+        List<VariableType> inputTypes = Arrays.asList(inferredType, inferredType);
+
+        return FunctionType.newInstanceWithOutputsAsInputs(inputNames, inputTypes, OUTPUT_C, inferredType);
+    }
+
+    private CodeReplacer getBody(FunctionType type) {
+        CodeReplacer body = new CodeReplacer(MatrixMulResource.BLOCKED_MULT);
+
+        Variable matrixA = new Variable(INPUT_A, type.getInput(MatrixType.class, 0));
+        Variable matrixB = new Variable(INPUT_B, type.getInput(MatrixType.class, 1));
+        Variable matrixC = new Variable(OUTPUT_C, type.getOutput(MatrixType.class, 0));
+
+        body.replace("<GET_A_0>", getNodes().matrix().getDim(matrixA, 0));
+        body.replace("<GET_A_1>", getNodes().matrix().getDim(matrixA, 1));
+        body.replace("<GET_B_0>", getNodes().matrix().getDim(matrixB, 0));
+        body.replace("<GET_B_1>", getNodes().matrix().getDim(matrixB, 1));
+        body.replace("<GET_DIMS_A>", getNodes().matrix().numDims(matrixA));
+        body.replace("<GET_DIMS_B>", getNodes().matrix().numDims(matrixB));
+
+        // Mult naive for the cases the kernel does not handle, and for small products
+        FunctionInstance multInstance = MatrixMul.newNaiveProvider().newCInstance(getData());
+        CNode multCall = CNodeFactory.newFunctionCall(
+                multInstance,
+                Arrays.asList(CNodeFactory.newVariable(matrixA),
+                        CNodeFactory.newVariable(matrixB),
+                        CNodeFactory.newVariable(matrixC)));
+
+        body.replace("<MATRIX_MULT>", multCall);
+
+        // New array
+        NumericTypeV2 intType = getNumerics().newInt();
+        Variable nRowA = new Variable("nRowA", intType);
+        Variable nColB = new Variable("nColB", intType);
+
+        body.replace("<NEW_ARRAY_C>", getNodes().matrix().create(matrixC, nRowA, nColB));
+
+        // Operands of the column-major kernel
+        body.replace("<SET_OPERANDS>", getOperandsCode(getData().getMemoryLayout()));
+        body.replace("<DATA_A>", getNodes().matrix().data(matrixA));
+        body.replace("<DATA_B>", getNodes().matrix().data(matrixB));
+        body.replace("<DATA_C>", getNodes().matrix().data(matrixC));
+
+        // Kernel
+        body.replace("<MICRO_KERNEL>", getMicroKernelCode());
+
+        body.replace("<MIN_OPERATIONS>", Integer.toString(minOperations));
+        body.replace("<BLOCK_M>", Integer.toString(blockM));
+        body.replace("<BLOCK_K>", Integer.toString(blockK));
+        body.replace("<BLOCK_N>", Integer.toString(blockN));
+        body.replace("<TILE_M>", Integer.toString(tileM));
+        body.replace("<TILE_N>", Integer.toString(tileN));
+
+        ScalarType elementType = MatrixUtils.getElementType(type.getCReturnType());
+        body.replace("<ELEMENT_TYPE>", elementType.code().getSimpleType());
+
+        return body;
+    }
+
+    private static String getOperandsCode(MemoryLayout memoryLayout) {
+        switch (memoryLayout) {
+        case COLUMN_MAJOR:
+            return "m = nRowA;\n\tn = nColB;\n\tk = nColA;\n"
+                    + "\tx = <DATA_A>;\n\tldx = nRowA;\n"
+                    + "\ty = <DATA_B>;\n\tldy = nRowB;\n"
+                    + "\tz = <DATA_C>;\n\tldz = nRowA;\n";
+        case ROW_MAJOR:
+            return "/* Row-major data holds the transposes, compute C' = B' * A' */\n"
+                    + "\tm = nColB;\n\tn = nRowA;\n\tk = nColA;\n"
+                    + "\tx = <DATA_B>;\n\tldx = nColB;\n"
+                    + "\ty = <DATA_A>;\n\tldy = nColA;\n"
+                    + "\tz = <DATA_C>;\n\tldz = nColB;\n";
+        default:
+            throw new RuntimeException("Memory layout not supported: " + memoryLayout);
+        }
+    }
+
+    /**
+     * Builds the code that multiplies a packed panel of x (MR x kc) by a packed panel of y (kc x NR), and stores or
+     * accumulates the result in the tile of z. Partial tiles, at the borders of z, go through a temporary array.
+     * 
+     * @return
+     */
+    private String getMicroKernelCode() {
+        String type = "<ELEMENT_TYPE>";
+        String in1 = KERNEL_INDENT + "\t";
+        String in2 = in1 + "\t";
+        String in3 = in2 + "\t";
+
+        StringBuilder code = new StringBuilder();
+        code.append(KERNEL_INDENT).append("{\n");
+        code.append(in1).append("const ").append(type).append("* a = packed_x + ir * kc;\n");
+        code.append(in1).append("const ").append(type).append("* b = packed_y + jr * kc;\n");
+        code.append(in1).append(type).append("* tile = z + (ic + ir) + (jc + jr) * ldz;\n");
+        code.append(in1).append(type).append(" edge[").append(tileM * tileN).append("];\n");
+
+        for (int i = 0; i < tileM; i++) {
+            code.append(in1).append(type).append(" a").append(i).append(";\n");
+        }
+        for (int j = 0; j < tileN; j++) {
+            code.append(in1).append(type).append(" b").append(j).append(";\n");
+        }
+        for (int j = 0; j < tileN; j++) {
+            for (int i = 0; i < tileM; i++) {
+                code.append(in1).append(type).append(" ").append(acc(i, j)).append(" = 0;\n");
+            }
+        }
+
+        // Rank-1 updates of the tile
+        code.append("\n").append(in1).append("for(p = 0; p < kc; p++) {\n");
+        for (int i = 0; i < tileM; i++) {
+            code.append(in2).append("a").append(i).append(" = a[").append(i).append("];\n");
+        }
+        for (int j = 0; j < tileN; j++) {
+            code.append(in2).append("b").append(j).append(" = b[").append(j).append("];\n");
+        }
+        for (int j = 0; j < tileN; j++) {
+            for (int i = 0; i < tileM; i++) {
+                code.append(in2).append(acc(i, j)).append(" += a").append(i).append(" * b").append(j)
+                        .append(";\n");
+            }
+        }
+        code.append(in2).append("a += ").append(tileM).append(";\n");
+        code.append(in2).append("b += ").append(tileN).append(";\n");
+        code.append(in1).append("}\n\n");
+
+        // Whole tiles
+        code.append(in1).append("if(mr == ").append(tileM).append(" && nr == ").append(tileN).append(") {\n");
+        code.append(in2).append("if(pc == 0) {\n");
+        appendTileStores(code, in3, "=");
+        code.append(in2).append("} else {\n");
+        appendTileStores(code, in3, "+=");
+        code.append(in2).append("}\n");
+
+        // Partial tiles
+        code.append(in1).append("} else {\n");
+        for (int j = 0; j < tileN; j++) {
+            for (int i = 0; i < tileM; i++) {
+                code.append(in2).append("edge[").append(i + j * tileM).append("] = ").append(acc(i, j))
+                        .append(";\n");
+            }
+        }
+        code.append(in2).append("for(j = 0; j < nr; j++) {\n");
+        code.append(in3).append("for(i = 0; i < mr; i++) {\n");
+        code.append(in3).append("\ttile[i + j * ldz] = (pc == 0 ? 0 : tile[i + j * ldz]) + edge[i + j * ")
+                .append(tileM).append("];\n");
+        code.append(in3).append("}\n");
+        code.append(in2).append("}\n");
+        code.append(in1).append("}\n");
+        code.append(KERNEL_INDENT).append("}");
+
+        return code.toString();
+    }
+
+    private void appendTileStores(StringBuilder code, String indent, String operator) {
+        for (int j = 0; j < tileN; j++) {
+            for (int i = 0; i < tileM; i++) {
+                String offset = j == 0 ? Integer.toString(i) : i + " + " + j + " * ldz";
+                code.append(indent).append("tile[").append(offset).append("] ").append(operator).append(" ")
+                        .append(acc(i, j)).append(";\n");
+            }
+        }
+    }
+
+    private static String acc(int row, int col) {
+        return "c" + row + "_" + col;
+    }
+
+    public static InstanceProvider getProvider() {
+        return new InstanceProvider() {
+            @Override
+            public FunctionInstance newCInstance(ProviderData data) {
+                return new BlockedMatrixMul(data).create();
+            }
+
+            @Override
+            public FunctionType getType(ProviderData data) {
+                return new BlockedMatrixMul(data).getType();
+            }
+        };
+    }
+}
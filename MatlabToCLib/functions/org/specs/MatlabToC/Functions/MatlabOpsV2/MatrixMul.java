@@ -34,6 +34,7 @@ import org.specs.MatlabToC.MFileInstance.MFileProvider;
 import org.specs.MatlabToC.Utilities.MatisseChecker;
 import org.specs.MatlabToC.jOptions.MatisseOptimization;
 import org.specs.MatlabToC.jOptions.MatlabToCKeys;
+import org.suikasoft.jOptions.Datakey.DataKey;
 
 /**
  * @author Joao Bispo
@@ -63,6 +64,10 @@ public class MatrixMul {
                 if (useBlas(data)) {
                     return Optional.of(BlasMult.getProvider());
                 }
+
+                if (useBlocked(data)) {
+                    return Optional.of(BlockedMatrixMul.getProvider());
+                }
                 return Optional.of(MatrixMul.newNaiveProvider());
             }
 
@@ -165,6 +170,24 @@ public class MatrixMul {
             return false;
         }
 
+        return isFloatProduct(data) && isAboveThreshold(data, MatlabToCKeys.BLAS_THRESHOLD);
+    }
+
+    private static boolean useBlocked(ProviderData data) {
+
+        if (!MatlabToCUtils.isActive(data.getSettings(), MatisseOptimization.UseBlockedMatrixMul)) {
+            return false;
+        }
+
+        return isFloatProduct(data) && isAboveThreshold(data, MatlabToCKeys.BLOCKED_MATRIX_MUL_THRESHOLD);
+    }
+
+    /**
+     * 
+     * @param data
+     * @return true if both inputs have the same floating-point element type, and at most two dimensions
+     */
+    private static boolean isFloatProduct(ProviderData data) {
         // Get both matrices
         MatrixType m1 = data.getInputType(MatrixType.class, 0);
         MatrixType m2 = data.getInputType(MatrixType.class, 1);
@@ -188,14 +211,6 @@ public class MatrixMul {
             return false;
         }
 
-        // If both matrices are fully defined, check the maximum number of elements
-        if (m1Shape.isFullyDefined() && m2Shape.isFullyDefined()) {
-            int maxElements = Math.max(m1Shape.getNumElements(), m2Shape.getNumElements());
-            int blasThreshold = data.getSettings().get(MatlabToCKeys.BLAS_THRESHOLD);
-            if (maxElements < blasThreshold) {
-                return false;
-            }
-        }
         // LoggingUtils.msgInfo("TEMP: Not checking if matrix has 2 dimensions, due to example 'redes'.");
         /*
         // Matrices must have 2 dimensions
@@ -232,6 +247,27 @@ public class MatrixMul {
 
     }
 
+    /**
+     * 
+     * @param data
+     * @param threshold
+     * @return false if both matrices are fully defined, and have fewer elements than the given threshold
+     */
+    private static boolean isAboveThreshold(ProviderData data, DataKey<Integer> threshold) {
+        TypeShape m1Shape = data.getInputType(MatrixType.class, 0).matrix().getShape();
+        TypeShape m2Shape = data.getInputType(MatrixType.class, 1).matrix().getShape();
+
+        // If both matrices are fully defined, check the maximum number of elements
+        if (m1Shape.isFullyDefined() && m2Shape.isFullyDefined()) {
+            int maxElements = Math.max(m1Shape.getNumElements(), m2Shape.getNumElements());
+            if (maxElements < data.getSettings().get(threshold)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     public static InstanceProvider newRowTimesColumn() {
         Checker checker = new MatisseChecker()
                 .areMatrices()
@@ -0,0 +1,39 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatlabToC.Functions.MatlabOpsV2;
+
+import org.specs.MatlabToC.Utilities.MatlabResourceProvider;
+
+public enum MatrixMulResource implements MatlabResourceProvider {
+
+    BLOCKED_MULT("blocked_matrix_mul.c");
+
+    private final static String RESOURCE_FOLDER = "templates/matrix_mul/";
+
+    private final String resourceFilename;
+
+    private MatrixMulResource(String resource) {
+        this.resourceFilename = RESOURCE_FOLDER + resource;
+    }
+
+    @Override
+    public String getResource() {
+        return resourceFilename;
+    }
+
+    @Override
+    public String toString() {
+        return getResource();
+    }
+}
@@ -0,0 +1,119 @@
+	int nRowA;
+	int nColA;
+	int nRowB;
+	int nColB;
+
+	/* Column-major view of the operands: z (m x n) = x (m x k) * y (k x n) */
+	int m, n, k;
+	int ldx, ldy, ldz;
+	const <ELEMENT_TYPE>* x;
+	const <ELEMENT_TYPE>* y;
+	<ELEMENT_TYPE>* z;
+
+	<ELEMENT_TYPE>* packed_x;
+	<ELEMENT_TYPE>* packed_y;
+	<ELEMENT_TYPE>* panel;
+	int ic, jc, pc, ir, jr;
+	int mc, nc, kc, mr, nr;
+	int i, j, p;
+
+	nRowA = <GET_A_0>;
+	nColA = <GET_A_1>;
+	nRowB = <GET_B_0>;
+	nColB = <GET_B_1>;
+
+	/* The naive implementation handles (and reports) the remaining cases */
+	if(<GET_DIMS_A> > 2 || <GET_DIMS_B> > 2 || nColA != nRowB) {
+		return <MATRIX_MULT>;
+	}
+
+	/* Small products do not pay for packing the blocks */
+	if((double) nRowA * nColB * nColA < <MIN_OPERATIONS>) {
+		return <MATRIX_MULT>;
+	}
+
+	<NEW_ARRAY_C>;
+
+	<SET_OPERANDS>
+
+	if(m == 0 || n == 0) {
+		return *C;
+	}
+
+	if(k == 0) {
+		for(i = 0; i < m * n; i++) {
+			z[i] = 0;
+		}
+
+		return *C;
+	}
+
+	/* Packed blocks of x (mc x kc) and y (kc x nc), padded with zeros to whole tiles */
+	/* Blocks are never larger than the operands, so small operands only need small buffers */
+	mc = m < <BLOCK_M> ? m : <BLOCK_M>;
+	kc = k < <BLOCK_K> ? k : <BLOCK_K>;
+	nc = n < <BLOCK_N> ? n : <BLOCK_N>;
+	packed_x = (<ELEMENT_TYPE>*) malloc(sizeof(<ELEMENT_TYPE>) * ((mc + <TILE_M> - 1) / <TILE_M> * <TILE_M>) * kc);
+	packed_y = (<ELEMENT_TYPE>*) malloc(sizeof(<ELEMENT_TYPE>) * kc * ((nc + <TILE_N> - 1) / <TILE_N> * <TILE_N>));
+	if(packed_x == NULL || packed_y == NULL) {
+		printf("ERROR: Could not allocate memory for the blocks of the matrix multiplication\n");
+		exit(EXIT_FAILURE);
+	}
+
+	for(jc = 0; jc < n; jc += <BLOCK_N>) {
+		nc = n - jc < <BLOCK_N> ? n - jc : <BLOCK_N>;
+
+		for(pc = 0; pc < k; pc += <BLOCK_K>) {
+			kc = k - pc < <BLOCK_K> ? k - pc : <BLOCK_K>;
+
+			/* Pack the kc x nc block of y as row-major panels of NR columns */
+			for(jr = 0; jr < nc; jr += <TILE_N>) {
+				nr = nc - jr < <TILE_N> ? nc - jr : <TILE_N>;
+				panel = packed_y + jr * kc;
+
+				for(p = 0; p < kc; p++) {
+					for(j = 0; j < nr; j++) {
+						panel[p * <TILE_N> + j] = y[(pc + p) + (jc + jr + j) * ldy];
+					}
+					for(; j < <TILE_N>; j++) {
+						panel[p * <TILE_N> + j] = 0;
+					}
+				}
+			}
+
+			for(ic = 0; ic < m; ic += <BLOCK_M>) {
+				mc = m - ic < <BLOCK_M> ? m - ic : <BLOCK_M>;
+
+				/* Pack the mc x kc block of x as column-major panels of MR rows */
+				for(ir = 0; ir < mc; ir += <TILE_M>) {
+					mr = mc - ir < <TILE_M> ? mc - ir : <TILE_M>;
+					panel = packed_x + ir * kc;
+
+					for(p = 0; p < kc; p++) {
+						for(i = 0; i < mr; i++) {
+							panel[p * <TILE_M> + i] = x[(ic + ir + i) + (pc + p) * ldx];
+						}
+						for(; i < <TILE_M>; i++) {
+							panel[p * <TILE_M> + i] = 0;
+						}
+					}
+				}
+
+				/* Update each MR x NR tile of z, keeping the tile in registers */
+				for(jr = 0; jr < nc; jr += <TILE_N>) {
+					nr = nc - jr < <TILE_N> ? nc - jr : <TILE_N>;
+
+					for(ir = 0; ir < mc; ir += <TILE_M>) {
+						mr = mc - ir < <TILE_M> ? mc - ir : <TILE_M>;
+
+<MICRO_KERNEL>
+					}
+				}
+			}
+		}
+	}
+
+	free(packed_x);
+	free(packed_y);
+
+	return *C;
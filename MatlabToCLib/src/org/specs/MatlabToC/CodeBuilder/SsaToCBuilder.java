@@ -26,6 +26,7 @@ import org.specs.CIR.FunctionInstance.FunctionInstanceUtils;
 import org.specs.CIR.FunctionInstance.FunctionType;
 import org.specs.CIR.FunctionInstance.ProviderData;
 import org.specs.CIR.FunctionInstance.Instances.InstructionsInstance;
+import org.specs.CIR.FunctionInstance.Instances.PrebuiltInstance;
 import org.specs.CIR.Portability.MatisseExportDefinitionInstance;
 import org.specs.CIR.Tree.CInstructionList;
 import org.specs.CIR.Tree.CNode;
@@ -229,6 +230,25 @@ public class SsaToCBuilder extends SsaToCBuilderService {
                         .buildImplementation();
     }
 
+    /**
+     * Builds the implementation of an instance, unless the manager reuses the code a previous compilation generated for
+     * it, in which case the returned instance only refers to the existing files.
+     */
+    public static FunctionInstance buildOrReuseImplementation(ProjectPassCompilationManager manager,
+            TypedInstance instance,
+            MatlabFunctionTable systemFunctions,
+            VariableAllocator allocator,
+            SsaToCRuleList ssaToCRules) {
+
+        if (manager.isReused(instance)) {
+            return new PrebuiltInstance(instance.getFunctionType(),
+                    generateFunctionName(instance),
+                    instance.getFunctionIdentification().getFileNoExtension());
+        }
+
+        return buildImplementation(manager, instance, systemFunctions, allocator, ssaToCRules);
+    }
+
     private InstructionsInstance buildImplementation() {
         manager.log("Generating C code");
 
@@ -277,7 +297,7 @@ public class SsaToCBuilder extends SsaToCBuilderService {
             body.addReturn(generateVariableExpressionForSsaName(body, returnedVariable));
         }
 
-        final String instanceName = generateFunctionName();
+        final String instanceName = generateFunctionName(instance);
 
         if (instance.getPropertyStream(ExportProperty.class).anyMatch(x -> true)) {
             getVariableManager().addDependency(new MatisseExportDefinitionInstance());
@@ -292,7 +312,7 @@ public class SsaToCBuilder extends SsaToCBuilderService {
         return functionInstance;
     }
 
-    private String generateFunctionName() {
+    private static String generateFunctionName(TypedInstance instance) {
         final String functionName = instance.getFunctionIdentification().getName();
 
         Optional<ExportProperty> exportProperty = instance.getPropertyStream(ExportProperty.class).findAny();
@@ -457,7 +477,7 @@ public class SsaToCBuilder extends SsaToCBuilderService {
 
     @Override
     public FunctionInstance buildAuxiliaryImplementation(TypedInstance newInstance) {
-        return buildImplementation(manager, newInstance, systemFunctions, allocator, ssaToCRules);
+        return buildOrReuseImplementation(manager, newInstance, systemFunctions, allocator, ssaToCRules);
     }
 
     @Override
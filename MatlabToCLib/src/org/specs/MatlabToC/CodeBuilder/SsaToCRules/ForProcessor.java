@@ -15,13 +15,16 @@ package org.specs.MatlabToC.CodeBuilder.SsaToCRules;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import org.specs.CIR.FunctionInstance.FunctionInstanceUtils;
 import org.specs.CIR.FunctionInstance.ProviderData;
 import org.specs.CIR.Language.Operators.COperator;
 import org.specs.CIR.Tree.CInstructionList;
@@ -29,12 +32,16 @@ import org.specs.CIR.Tree.CNode;
 import org.specs.CIR.Tree.CNodes.AssignmentNode;
 import org.specs.CIR.Tree.CNodes.CNodeFactory;
 import org.specs.CIR.Tree.CNodes.FunctionCallNode;
+import org.specs.CIR.Tree.CNodes.VariableNode;
 import org.specs.CIR.Tree.Utils.ForNodes;
 import org.specs.CIR.Tree.Utils.IfNodes;
 import org.specs.CIR.Types.Variable;
 import org.specs.CIR.Types.VariableType;
+import org.specs.CIR.Types.ATypes.Matrix.MatrixUtils;
 import org.specs.CIR.Types.ATypes.Scalar.ScalarType;
 import org.specs.CIR.Types.ATypes.Scalar.ScalarUtils;
+import org.specs.CIR.Types.Views.Code.CodeUtils;
+import org.specs.CIR.Types.Views.Pointer.ReferenceUtils;
 import org.specs.CIRTypes.Types.Numeric.NumericTypeV2;
 import org.specs.MatlabToC.CodeBuilder.SsaToCBuilderService;
 import org.specs.MatlabToC.jOptions.IvdepType;
@@ -42,6 +49,7 @@ import org.specs.MatlabToC.jOptions.MatlabToCKeys;
 import org.specs.matisselib.PassMessage;
 import org.specs.matisselib.helpers.BlockUtils;
 import org.specs.matisselib.helpers.sizeinfo.ScalarValueInformation;
+import org.specs.matisselib.loopproperties.OpenMPParallelForProperty;
 import org.specs.matisselib.ssa.InstructionType;
 import org.specs.matisselib.ssa.SsaBlock;
 import org.specs.matisselib.ssa.instructions.ForInstruction;
@@ -126,8 +134,19 @@ public class ForProcessor implements SsaToCRule {
 
         List<CNode> annotations = new ArrayList<>();
 
+        Optional<ParallelLoop> parallelFor = forInstruction.getLoopProperties()
+                .stream()
+                .filter(OpenMPParallelForProperty.class::isInstance)
+                .map(OpenMPParallelForProperty.class::cast)
+                .findFirst()
+                .flatMap(property -> buildParallelForPragma(builder, forInstruction, property, inductionVar,
+                        loopInstructionList, intervalCanBeNegative || intervalCanBeZero));
+
         IvdepType ivdep = builder.getInstance().getProviderData().getSettings().get(MatlabToCKeys.IVDEP_TYPE);
-        if (ivdep != IvdepType.NONE && !hasLoopCarriedDependencies(builder, forInstruction)) {
+        if (parallelFor.isPresent()) {
+            // The parallel for pragma must immediately precede the loop, so it can't be combined with ivdep.
+            annotations.add(CNodeFactory.newPragma(parallelFor.get().pragma));
+        } else if (ivdep != IvdepType.NONE && !hasLoopCarriedDependencies(builder, forInstruction)) {
             annotations.add(CNodeFactory.newPragma(ivdep.getPragmaContent()));
         }
 
@@ -161,7 +180,11 @@ public class ForProcessor implements SsaToCRule {
                             .newComment("MATISSE: Sign of interval value unknown at compile time."));
             nodesToInsert.add(IfNodes.newIfThenElse(lessThanZeroCondition, thenInstructions, elseInstructions));
         }
-        nodesToInsert.add(forBlock);
+        if (parallelFor.isPresent() && !parallelFor.get().privateMatrices.isEmpty()) {
+            nodesToInsert.addAll(buildParallelRegion(builder, forBlock, parallelFor.get().privateMatrices));
+        } else {
+            nodesToInsert.add(forBlock);
+        }
 
         if (intervalCanBeZero) {
             if (!notifiedOptimizationIssue) {
@@ -354,6 +377,210 @@ public class ForProcessor implements SsaToCRule {
         // System.out.println(message);
     }
 
+    /**
+     * The OpenMP pragma that precedes a parallel loop, and the matrices that each thread must allocate for itself.
+     */
+    private static final class ParallelLoop {
+        private final String pragma;
+        private final List<Variable> privateMatrices;
+
+        private ParallelLoop(String pragma, List<Variable> privateMatrices) {
+            this.pragma = pragma;
+            this.privateMatrices = privateMatrices;
+        }
+    }
+
+    /**
+     * Builds the content of the OpenMP pragma that distributes the iterations of the loop among threads.
+     * 
+     * <p>
+     * OpenMP variables declared outside of the loop are shared by default, and MATISSE declares all variables at the
+     * start of the function, so every variable written by the loop body that is not a reduction or a shared variable
+     * of the property is privatized. Scalars and static matrices go in the private clause. The private clause does not
+     * work for dynamic matrices, as the copies would be uninitialized pointers, so those are instead returned as
+     * private matrices, to be declared in an enclosing parallel region (see {@link #buildParallelRegion}). In that
+     * case, the pragma is a plain "omp for".
+     * 
+     * @return The pragma and private matrices, or empty if the generated loop can not be distributed as is (e.g.,
+     *         because the variables of a reduction were not coalesced, or the loop is not in the canonical form of
+     *         OpenMP loops).
+     */
+    private static Optional<ParallelLoop> buildParallelForPragma(SsaToCBuilderService builder,
+            ForInstruction forInstruction,
+            OpenMPParallelForProperty property,
+            Variable inductionVar,
+            CInstructionList loopInstructionList,
+            boolean intervalSignUnknown) {
+
+        Reporter reporter = builder.getReporter();
+
+        if (intervalSignUnknown) {
+            reporter.emitMessage(PassMessage.OPTIMIZATION_OPPORTUNITY,
+                    "Loop not parallelized with OpenMP: Interval of the loop is not known to be positive.");
+            return Optional.empty();
+        }
+        if (!ScalarUtils.isScalar(inductionVar.getType()) || !ScalarUtils.isInteger(inductionVar.getType())) {
+            reporter.emitMessage(PassMessage.OPTIMIZATION_OPPORTUNITY,
+                    "Loop not parallelized with OpenMP: Induction variable " + inductionVar.getName()
+                            + " is not an integer.");
+            return Optional.empty();
+        }
+
+        Set<String> sharedNames = new HashSet<>();
+        List<String> reductionClauses = new ArrayList<>();
+        for (OpenMPParallelForProperty.ReductionVariable reduction : property.getReductions()) {
+            Optional<VariableNode> variable = getCoalescedVariable(builder, reduction.getNames());
+            if (!variable.isPresent() || !ScalarUtils.isScalar(variable.get().getVariableType())) {
+                reporter.emitMessage(PassMessage.OPTIMIZATION_OPPORTUNITY,
+                        "Loop not parallelized with OpenMP: Could not build reduction of " + reduction.getNames());
+                return Optional.empty();
+            }
+
+            String name = variable.get().getVariableName();
+            sharedNames.add(name);
+            reductionClauses.add(" reduction(" + reduction.getOperator() + ":" + name + ")");
+        }
+        for (List<String> shared : property.getSharedVariables()) {
+            Optional<VariableNode> variable = getCoalescedVariable(builder, shared);
+            if (!variable.isPresent()) {
+                reporter.emitMessage(PassMessage.OPTIMIZATION_OPPORTUNITY,
+                        "Loop not parallelized with OpenMP: Variables " + shared + " were not coalesced.");
+                return Optional.empty();
+            }
+
+            sharedNames.add(variable.get().getVariableName());
+        }
+
+        Set<String> writtenNames = new HashSet<>();
+        for (String ssaName : BlockUtils.getVariablesDeclaredInContainedBlocks(builder.getInstance(),
+                forInstruction.getLoopBlock())) {
+            builder.tryGenerateVariableNodeForSsaName(ssaName)
+                    .ifPresent(node -> writtenNames.add(node.getVariableName()));
+        }
+
+        // Includes the temporaries of the code generation (e.g., the induction variables of inner loops)
+        Map<String, VariableType> usedVariables = new LinkedHashMap<>();
+        for (CNode node : loopInstructionList.get()) {
+            node.getDescendantsAndSelfStream()
+                    .filter(AssignmentNode.class::isInstance)
+                    .map(assignment -> ((AssignmentNode) assignment).getLeftHand())
+                    .filter(VariableNode.class::isInstance)
+                    .forEach(variable -> writtenNames.add(((VariableNode) variable).getVariableName()));
+
+            node.getDescendantsAndSelfStream()
+                    .filter(VariableNode.class::isInstance)
+                    .map(VariableNode.class::cast)
+                    .forEach(variable -> usedVariables.put(variable.getVariableName(), variable.getVariableType()));
+        }
+
+        List<String> privateNames = new ArrayList<>();
+        List<Variable> privateMatrices = new ArrayList<>();
+        for (String name : usedVariables.keySet()) {
+            if (!writtenNames.contains(name)
+                    || sharedNames.contains(name)
+                    || name.equals(inductionVar.getName())
+                    || builder.getVariableManager().isGlobal(name)) {
+                continue;
+            }
+
+            VariableType type = usedVariables.get(name);
+            if (ScalarUtils.isScalar(type)) {
+                privateNames.add(name);
+                continue;
+            }
+            if (ReferenceUtils.isPointer(type)) {
+                reporter.emitMessage(PassMessage.OPTIMIZATION_OPPORTUNITY,
+                        "Loop not parallelized with OpenMP: Variable " + name
+                                + " is written by the loop through a pointer.");
+                return Optional.empty();
+            }
+            if (MatrixUtils.isStaticMatrix(type)) {
+                privateNames.add(name);
+                continue;
+            }
+            if (MatrixUtils.usesDynamicAllocation(type)) {
+                privateMatrices.add(new Variable(name, type));
+                continue;
+            }
+
+            reporter.emitMessage(PassMessage.OPTIMIZATION_OPPORTUNITY,
+                    "Loop not parallelized with OpenMP: Variable " + name + " of type " + type
+                            + " is written by the loop, and only scalars and matrices can be private.");
+            return Optional.empty();
+        }
+
+        StringBuilder pragma = new StringBuilder(privateMatrices.isEmpty() ? "omp parallel for" : "omp for");
+        if (!property.getSchedule().isEmpty()) {
+            pragma.append(" schedule(");
+            pragma.append(property.getSchedule());
+            pragma.append(")");
+        }
+        for (String reductionClause : reductionClauses) {
+            pragma.append(reductionClause);
+        }
+        if (!privateNames.isEmpty()) {
+            pragma.append(" private(");
+            pragma.append(String.join(", ", privateNames));
+            pragma.append(")");
+        }
+
+        return Optional.of(new ParallelLoop(pragma.toString(), privateMatrices));
+    }
+
+    /**
+     * Wraps the loop in an OpenMP parallel region, where each thread declares its own copy of the given matrices,
+     * starting as NULL, and frees it once it is done with its iterations. The declarations shadow the variables of
+     * the function, which keep their values.
+     */
+    private static List<CNode> buildParallelRegion(SsaToCBuilderService builder,
+            CNode forBlock,
+            List<Variable> privateMatrices) {
+
+        List<CNode> nodes = new ArrayList<>();
+        nodes.add(CNodeFactory.newPragma("omp parallel"));
+        nodes.add(newLiteralInstruction("{"));
+        for (Variable matrix : privateMatrices) {
+            nodes.add(newLiteralInstruction(CodeUtils.getDeclarationWithInputs(matrix.getType(), matrix.getName(),
+                    Collections.emptyList()) + ";"));
+        }
+        nodes.add(forBlock);
+        for (Variable matrix : privateMatrices) {
+            CNode freeCall = FunctionInstanceUtils.getFunctionCall(matrix.getType().functions().free(),
+                    builder.getCurrentProvider(),
+                    CNodeFactory.newVariable(matrix));
+            nodes.add(CNodeFactory.newInstruction(org.specs.CIR.Tree.Instructions.InstructionType.FunctionCall,
+                    freeCall));
+        }
+        nodes.add(newLiteralInstruction("}"));
+
+        return nodes;
+    }
+
+    private static CNode newLiteralInstruction(String code) {
+        return CNodeFactory.newInstruction(org.specs.CIR.Tree.Instructions.InstructionType.Literal,
+                CNodeFactory.newLiteral(code));
+    }
+
+    private static Optional<VariableNode> getCoalescedVariable(SsaToCBuilderService builder, List<String> ssaNames) {
+        VariableNode variable = null;
+
+        for (String ssaName : ssaNames) {
+            Optional<VariableNode> node = builder.tryGenerateVariableNodeForSsaName(ssaName);
+            if (!node.isPresent()) {
+                // Not in the generated code
+                continue;
+            }
+
+            if (variable == null) {
+                variable = node.get();
+            } else if (!variable.getVariableName().equals(node.get().getVariableName())) {
+                return Optional.empty();
+            }
+        }
+
+        return Optional.ofNullable(variable);
+    }
+
     private static CNode generateForHeader(SsaToCBuilderService builder,
             CNode startVariable, CNode intervalVariable, CNode endVariable,
             CNode signMultiplier,
@@ -36,6 +36,7 @@ import org.specs.CIR.Types.ATypes.Matrix.MatrixType;
 import org.specs.CIR.Types.ATypes.Matrix.MatrixUtils;
 import org.specs.CIR.Types.ATypes.Scalar.ScalarType;
 import org.specs.CIR.Types.ATypes.Scalar.ScalarUtils;
+import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixType;
 import org.specs.CIRTypes.Types.StaticMatrix.StaticMatrixType;
 import org.specs.MatlabToC.CodeBuilder.SsaToCBuilderService;
 import org.specs.MatlabToC.Functions.MatissePrimitive;
@@ -165,6 +166,24 @@ public class MatrixSetProcessor implements SsaToCRule {
             builder.getReporter().emitMessage(PassMessage.OPTIMIZATION_OPPORTUNITY,
                     "MATISSE could not prove that matrix set doesn't resize matrix.");
 
+            if (canUseGrowingSet(builder, ssaInputMatrix, matrixType, indices, valueType)) {
+                // Appending to a vector grows it in place, with amortized constant cost per element
+                CNode indexNode = FunctionInstanceUtils.getFunctionCall(COperator.Subtraction,
+                        builder.getCurrentProvider(), Arrays.asList(indices.get(0), one));
+                CNode valueNode = builder.generateVariableExpressionForSsaName(currentBlock, ssaValue);
+
+                List<CNode> setInputs = Arrays.asList(outputMatrixNode, indexNode, valueNode);
+                ProviderData setData = builder.getCurrentProvider().createFromNodes(setInputs);
+
+                FunctionCallNode setCall = ((DynamicMatrixType) matrixType).matrix().functions().setGrowing()
+                        .getCheckedInstance(setData)
+                        .newFunctionCall(indexNode, valueNode);
+                setCall.getFunctionInputs().setInput(2, outputMatrixNode);
+
+                currentBlock.addInstruction(setCall);
+                return;
+            }
+
             InstanceProvider reserveCapacityProvider = MatissePrimitive.RESERVE_CAPACITY.getMatlabFunction();
 
             List<CNode> reserveCapacityInputs = new ArrayList<>();
@@ -241,4 +260,19 @@ public class MatrixSetProcessor implements SsaToCRule {
                 inputs);
         currentBlock.addInstruction(functionCall);
     }
+
+    private static boolean canUseGrowingSet(SsaToCBuilderService builder, String ssaInputMatrix,
+            MatrixType matrixType, List<CNode> indices, VariableType valueType) {
+
+        if (indices.size() != 1 || !(valueType instanceof ScalarType)) {
+            return false;
+        }
+
+        if (!(matrixType instanceof DynamicMatrixType)
+                || !(builder.getVariableTypeFromSsaName(ssaInputMatrix).get() instanceof DynamicMatrixType)) {
+            return false;
+        }
+
+        return !matrixType.matrix().getElementType().code().requiresExplicitInitialization();
+    }
 }
@@ -49,7 +49,13 @@ public class MFileProvider {
 
     private static final String RESOURCE_TYPES = "mfiles/types.typedef";
     // private static final MatlabToCEngine ENGINE = buildEngine();
-    private static MatlabToCEngine ENGINE = null;
+
+    /**
+     * The engine of the compilation running in the current thread. Threads started by a compilation (e.g., the workers
+     * of the post-type-inference passes) inherit the engine, which allows independent compilations to run concurrently
+     * in the same JVM.
+     */
+    private static final InheritableThreadLocal<MatlabToCEngine> ENGINE = new InheritableThreadLocal<>();
 
     public static MatlabToCEngine buildEngine(DataStore setup, LanguageMode languageMode) {
         // Get types (including global variables)
@@ -171,19 +177,32 @@ public class MFileProvider {
         return engine.getFunctionType(template, data);
     }
 
+    /**
+     * Sets the engine used by the current thread, and by the threads it starts afterwards.
+     * 
+     * @param engine
+     */
     public static void setEngine(MatlabToCEngine engine) {
-        MFileProvider.ENGINE = engine;
+        MFileProvider.ENGINE.set(engine);
     }
 
     /**
-     * @return
+     * Removes the engine of the current thread, so that it can be reused by an unrelated compilation.
+     */
+    public static void clearEngine() {
+        MFileProvider.ENGINE.remove();
+    }
+
+    /**
+     * @return the engine of the current thread
      */
     public static MatlabToCEngine getEngine() {
-        if (MFileProvider.ENGINE == null) {
+        MatlabToCEngine engine = MFileProvider.ENGINE.get();
+        if (engine == null) {
             throw new IllegalStateException("Engine has not been initialized");
         }
 
-        return MFileProvider.ENGINE;
+        return engine;
     }
 
     /**
@@ -62,6 +62,10 @@ public class CPersistenceUtils {
     /**
      * Extracts big variables to data files.
      * 
+     * <p>
+     * When possible, variables are saved as {@link MappedMatrixFile}s, which the generated code maps into memory
+     * without copying. Otherwise, they are saved as raw data, which the generated code copies into a new matrix.
+     * 
      * @param variables
      *            The list of variables that may be extracted.
      * @param instructions
@@ -77,8 +81,13 @@ public class CPersistenceUtils {
 
         for (MLArray variable : variables) {
             if (isBigEnoughToExtract(variable)) {
-                buildVariableExtractionCode(pdata, variable, aspectDefinitions, instructions);
-                buildVariableFile(variable, outputFolder, generateFile);
+                if (canBeMapped(pdata, variable, aspectDefinitions)) {
+                    buildMappedVariableExtractionCode(pdata, variable, aspectDefinitions, instructions);
+                    buildMappedVariableFile(variable, outputFolder, generateFile);
+                } else {
+                    buildVariableExtractionCode(pdata, variable, aspectDefinitions, instructions);
+                    buildVariableFile(variable, outputFolder, generateFile);
+                }
             } else {
                 remainingVariables.add(variable);
             }
@@ -101,6 +110,63 @@ public class CPersistenceUtils {
         }
     }
 
+    public static void buildMappedVariableFile(MLArray variable, File outputFolder, boolean generateFile) {
+        File outputFile = new File(SpecsIo.mkdir(outputFolder), variable.getName() + "." + MappedMatrixFile.EXTENSION);
+        SpecsLogs.msgLib("Saving " + outputFile);
+        if (generateFile) {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outputFile));) {
+
+                MappedMatrixFile.write(variable, out);
+
+            } catch (IOException e) {
+                SpecsLogs.msgSevere(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Mapped matrices are views of the file contents, so the file must have the element type of the matrix, and the
+     * matrix must be dynamic.
+     */
+    private static boolean canBeMapped(ProviderData pdata, MLArray matrix, TypesMap aspectDefinitions) {
+        if (!pdata.getSettings().get(CirKeys.ALLOW_DYNAMIC_ALLOCATION) || !MappedMatrixFile.isSupported(matrix)) {
+            return false;
+        }
+
+        NumericClassName numericClass = CWriterUtils.getEquivalentNumericClass(matrix);
+
+        NumericFactory numerics = pdata.getNumerics();
+        VariableType varType = CWriterUtils.getType(matrix.name, numericClass, aspectDefinitions, numerics);
+        VariableType originalType = MatlabToCTypesUtils.getVariableType(numericClass, numerics);
+
+        return varType.equals(originalType);
+    }
+
+    private static void buildMappedVariableExtractionCode(ProviderData pdata, MLArray matrix,
+            TypesMap aspectDefinitions, CInstructionList instructions) {
+
+        NumericClassName numericClass = CWriterUtils.getEquivalentNumericClass(matrix);
+        VariableType varType = CWriterUtils.getType(matrix.name, numericClass, aspectDefinitions,
+                pdata.getNumerics());
+
+        List<Integer> shape = SpecsFactory.fromIntArray(matrix.getDimensions());
+        MatrixType matrixType = DynamicMatrixType.newInstance(varType, shape);
+
+        int charSize = pdata.getNumerics().getSizes().getCharSize();
+
+        List<CNode> inputNodes = new ArrayList<>();
+        inputNodes.add(CNodeFactory.newString(matrix.name, charSize));
+        inputNodes.addAll(getDimValues(pdata.getNumerics(), shape));
+
+        ProviderData loadData = pdata.create(CNodeUtils.getVariableTypes(inputNodes));
+        // Add output as input, otherwise it will create a temporary variable
+        inputNodes.add(CNodeFactory.newVariable(matrix.name, matrixType));
+
+        loadData.setOutputType(matrixType);
+
+        instructions.addFunctionCall(new LoadMappedMatrixVariable(loadData), inputNodes);
+    }
+
     private static void saveMatrix(MLArray variable, OutputStream out) throws IOException {
         for (int i = 0; i < variable.getSize(); ++i) {
             saveElement(variable, i, out);
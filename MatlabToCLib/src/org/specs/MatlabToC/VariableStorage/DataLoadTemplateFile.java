@@ -18,7 +18,10 @@ import pt.up.fe.specs.util.providers.ResourceProvider;
 public enum DataLoadTemplateFile implements ResourceProvider {
     LOAD_FROM_FILE("load_from_file.c"),
     GET_ABSOLUTE_FILENAME("get_absolute_filename.c"),
-    GET_ABSOLUTE_FILENAME_INCLUDES("get_absolute_filename_includes.c");
+    GET_ABSOLUTE_FILENAME_INCLUDES("get_absolute_filename_includes.c"),
+    LOAD_MAPPED_MATRIX("load_mapped_matrix.c"),
+    LOAD_MAPPED_MATRIX_INCLUDES("load_mapped_matrix_includes.c"),
+    RELEASE_MAPPED_MATRIX("release_mapped_matrix.c");
     private final String resource;
 
     private DataLoadTemplateFile(String resource) {
@@ -0,0 +1,140 @@
+/**
+ * Copyright 2026 SPeCS.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatlabToC.VariableStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.specs.CIR.FunctionInstance.FunctionInstance;
+import org.specs.CIR.FunctionInstance.FunctionType;
+import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.CIR.FunctionInstance.InstanceBuilder.AInstanceBuilder;
+import org.specs.CIR.FunctionInstance.Instances.LiteralInstance;
+import org.specs.CIR.FunctionInstance.Instances.StructInstance;
+import org.specs.CIR.Types.VariableType;
+import org.specs.CIR.Types.ATypes.Matrix.MatrixType;
+import org.specs.CIR.Types.ATypes.Matrix.MatrixUtils;
+import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixType;
+import org.specs.CIRTypes.Types.DynamicMatrix.Utils.DynamicMatrixStruct;
+import org.specs.CIRTypes.Types.String.StringType;
+import org.specs.CIRTypes.Types.Void.VoidType;
+import org.specs.MatlabToC.Utilities.MatisseChecker;
+
+import com.google.common.base.Preconditions;
+
+import pt.up.fe.specs.util.SpecsIo;
+import pt.up.fe.specs.util.utilities.Replacer;
+
+/**
+ * Loads a matrix from a {@link MappedMatrixFile}, by mapping the file into memory and returning a tensor that is a view
+ * of the mapped data. Unlike {@link LoadMatrixVariable}, the elements are not copied, so the file must have the element
+ * type of the output matrix. The file is unmapped when the tensor is freed, or when its data is replaced.
+ * 
+ * <p>
+ * The output type is given by ProviderData.getOutputType, and must be a dynamic matrix.
+ */
+public class LoadMappedMatrixVariable extends AInstanceBuilder {
+
+    private final static String INPUT_FILENAME = "varname";
+    private final static String INPUT_DIM_PREFIX = "dim_";
+    private final static String OUTPUT_MATRIX = "out";
+    private final static String FILENAME = "lib/load";
+
+    public LoadMappedMatrixVariable(ProviderData data) {
+        super(data);
+    }
+
+    @Override
+    protected MatisseChecker getCheckerPrivate() {
+        return LoadMatrixVariable.getChecker();
+    }
+
+    @Override
+    public FunctionInstance create() {
+        // Number of dimensions is number of inputs, minus 1 (the file name)
+        int numDims = getData().getInputTypes().size() - 1;
+
+        MatrixType matrixType = MatrixUtils.cast(getData().getOutputType());
+        Preconditions.checkArgument(matrixType instanceof DynamicMatrixType,
+                "Mapped matrices must be dynamic matrices, got " + matrixType);
+
+        List<String> inputNames = new ArrayList<>();
+        inputNames.add(LoadMappedMatrixVariable.INPUT_FILENAME);
+        List<String> dimNames = new ArrayList<>();
+        for (int i = 0; i < numDims; i++) {
+            dimNames.add(LoadMappedMatrixVariable.INPUT_DIM_PREFIX + i);
+        }
+        inputNames.addAll(dimNames);
+
+        String functionName = "load_mapped_matrix_variable_" + numDims + "_" + matrixType.getSmallId();
+
+        FunctionType functionType = FunctionType.newInstanceWithOutputsAsInputs(inputNames,
+                getData().getInputTypes(), LoadMappedMatrixVariable.OUTPUT_MATRIX, matrixType);
+
+        FunctionInstance freeInstance = matrixType.functions().free().newCInstance(getData().create(matrixType));
+        FunctionInstance releaseInstance = newReleaseInstance(matrixType, numDims);
+
+        Replacer body = new Replacer(SpecsIo.getResource(DataLoadTemplateFile.LOAD_MAPPED_MATRIX));
+        body.replace("<ELEMENT_TYPE>", matrixType.matrix().getElementType().code().getType());
+        body.replace("<NUM_DIMS>", Integer.toString(numDims));
+        body.replace("<SHAPE_INIT>", String.join(", ", dimNames));
+        body.replace("<EXTENSION>", MappedMatrixFile.EXTENSION);
+        body.replace("<VERSION>", Integer.toString(MappedMatrixFile.VERSION));
+        body.replace("<DATA_OFFSET>", Integer.toString(MappedMatrixFile.getDataOffset(numDims)));
+        body.replace("<CALL_FREE>", freeInstance.getCName());
+        body.replace("<CALL_RELEASE>", releaseInstance.getCName());
+        DynamicMatrixStruct.replaceFields(getData(), body);
+
+        LiteralInstance instance = new LiteralInstance(functionType, functionName, FILENAME, body.toString());
+
+        VariableType stringType = StringType.create(null, 8);
+        ProviderData absoluteFilenameData = ProviderData.newInstance(getData(), stringType);
+        instance.getCustomImplementationInstances().add(new GetAbsoluteFilename().newCInstance(absoluteFilenameData));
+        instance.getCustomImplementationInstances().add(freeInstance);
+        instance.getCustomImplementationInstances().add(releaseInstance);
+        instance.getCustomImplementationInstances().add(newIncludesInstance());
+        instance.setCustomImplementationIncludes("stdio.h", "stdlib.h", "string.h", "errno.h");
+
+        return instance;
+    }
+
+    /**
+     * The function that unmaps the file of a tensor created by this loader, which the tensor calls through its
+     * release_data field.
+     */
+    private FunctionInstance newReleaseInstance(MatrixType matrixType, int numDims) {
+        String functionName = "release_mapped_matrix_variable_" + numDims + "_" + matrixType.getSmallId();
+
+        FunctionType functionType = FunctionType.newInstance(Arrays.asList("t"), Arrays.asList(matrixType), null,
+                VoidType.newInstance());
+
+        Replacer body = new Replacer(SpecsIo.getResource(DataLoadTemplateFile.RELEASE_MAPPED_MATRIX));
+        body.replace("<ELEMENT_TYPE>", matrixType.matrix().getElementType().code().getType());
+        body.replace("<DATA_OFFSET>", Integer.toString(MappedMatrixFile.getDataOffset(numDims)));
+        DynamicMatrixStruct.replaceFields(getData(), body);
+
+        LiteralInstance instance = new LiteralInstance(functionType, functionName, FILENAME, body.toString());
+        instance.getCustomImplementationInstances().add(newIncludesInstance());
+        instance.setCustomImplementationIncludes("stdlib.h", "string.h");
+
+        return instance;
+    }
+
+    private static FunctionInstance newIncludesInstance() {
+        String includeCode = SpecsIo.getResource(DataLoadTemplateFile.LOAD_MAPPED_MATRIX_INCLUDES);
+
+        return new StructInstance("$conditional_load_mapped_matrix_includes", FILENAME, includeCode);
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright 2026 SPeCS.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatlabToC.VariableStorage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import com.jmatio.io.MLInt32;
+import com.jmatio.types.MLArray;
+import com.jmatio.types.MLDouble;
+import com.jmatio.types.MLInt16;
+import com.jmatio.types.MLInt64;
+import com.jmatio.types.MLInt8;
+import com.jmatio.types.MLSingle;
+import com.jmatio.types.MLUInt16;
+import com.jmatio.types.MLUInt32;
+import com.jmatio.types.MLUInt64;
+import com.jmatio.types.MLUInt8;
+
+/**
+ * Binary container for matrices that generated code maps into memory (see {@link LoadMappedMatrixVariable}).
+ * 
+ * <p>
+ * The file starts with a header, in little-endian:
+ * <ul>
+ * <li>8 bytes: the magic string "MATISSED";
+ * <li>uint32: the byte order mark 0x01020304, which the loader checks to detect hosts of a different endianness;
+ * <li>uint32: the format version;
+ * <li>uint32: the size of each element, in bytes;
+ * <li>uint32: the number of dimensions;
+ * <li>uint64: the number of elements;
+ * <li>uint64: the offset of the data, from the start of the file;
+ * <li>uint64 per dimension: the shape of the matrix.
+ * </ul>
+ * The elements follow, in column-major order, starting at an offset that is a multiple of {@link #DATA_ALIGNMENT}.
+ */
+public final class MappedMatrixFile {
+    public static final String EXTENSION = "mdat";
+    public static final int VERSION = 1;
+    public static final int DATA_ALIGNMENT = 64;
+
+    static final byte[] MAGIC = "MATISSED".getBytes(StandardCharsets.US_ASCII);
+    static final int BYTE_ORDER_MARK = 0x01020304;
+
+    private static final int FIXED_HEADER_SIZE = 40;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private MappedMatrixFile() {
+    }
+
+    public static int getDataOffset(int numDims) {
+        int headerSize = MappedMatrixFile.FIXED_HEADER_SIZE + 8 * numDims;
+
+        return (headerSize + MappedMatrixFile.DATA_ALIGNMENT - 1) / MappedMatrixFile.DATA_ALIGNMENT
+                * MappedMatrixFile.DATA_ALIGNMENT;
+    }
+
+    /**
+     * 
+     * @return the size of each element, in bytes, or -1 if the matrix can not be saved in this format
+     */
+    public static int getElementSize(MLArray variable) {
+        switch (variable.getType()) {
+        case MLArray.mxDOUBLE_CLASS:
+        case MLArray.mxINT64_CLASS:
+        case MLArray.mxUINT64_CLASS:
+            return 8;
+        case MLArray.mxSINGLE_CLASS:
+        case MLArray.mxINT32_CLASS:
+        case MLArray.mxUINT32_CLASS:
+            return 4;
+        case MLArray.mxINT16_CLASS:
+        case MLArray.mxUINT16_CLASS:
+            return 2;
+        case MLArray.mxINT8_CLASS:
+        case MLArray.mxUINT8_CLASS:
+            return 1;
+        default:
+            return -1;
+        }
+    }
+
+    public static boolean isSupported(MLArray variable) {
+        return !variable.isComplex() && getElementSize(variable) > 0;
+    }
+
+    public static void write(MLArray variable, OutputStream out) throws IOException {
+        if (!isSupported(variable)) {
+            throw new IllegalArgumentException("Matrix " + variable.getName() + " of type "
+                    + MLArray.typeToString(variable.getType()) + " is not supported");
+        }
+
+        int[] dims = variable.getDimensions();
+        int dataOffset = getDataOffset(dims.length);
+
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(MappedMatrixFile.BUFFER_SIZE, dataOffset))
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.put(MappedMatrixFile.MAGIC);
+        buffer.putInt(MappedMatrixFile.BYTE_ORDER_MARK);
+        buffer.putInt(MappedMatrixFile.VERSION);
+        buffer.putInt(getElementSize(variable));
+        buffer.putInt(dims.length);
+        buffer.putLong(variable.getSize());
+        buffer.putLong(dataOffset);
+        for (int dim : dims) {
+            buffer.putLong(dim);
+        }
+        while (buffer.position() < dataOffset) {
+            buffer.put((byte) 0);
+        }
+
+        int elementSize = getElementSize(variable);
+        for (int i = 0; i < variable.getSize(); ++i) {
+            if (buffer.remaining() < elementSize) {
+                flush(buffer, out);
+            }
+
+            putElement(variable, i, buffer);
+        }
+        flush(buffer, out);
+    }
+
+    private static void flush(ByteBuffer buffer, OutputStream out) throws IOException {
+        out.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+    }
+
+    private static void putElement(MLArray variable, int index, ByteBuffer buffer) {
+        switch (variable.getType()) {
+        case MLArray.mxDOUBLE_CLASS:
+            buffer.putDouble(((MLDouble) variable).get(index));
+            break;
+        case MLArray.mxSINGLE_CLASS:
+            buffer.putFloat(((MLSingle) variable).get(index));
+            break;
+        case MLArray.mxINT8_CLASS:
+            buffer.put(((MLInt8) variable).get(index));
+            break;
+        case MLArray.mxUINT8_CLASS:
+            buffer.put(((MLUInt8) variable).get(index));
+            break;
+        case MLArray.mxINT16_CLASS:
+            buffer.putShort(((MLInt16) variable).get(index));
+            break;
+        case MLArray.mxUINT16_CLASS:
+            buffer.putShort(((MLUInt16) variable).get(index));
+            break;
+        case MLArray.mxINT32_CLASS:
+            buffer.putInt(((MLInt32) variable).get(index));
+            break;
+        case MLArray.mxUINT32_CLASS:
+            buffer.putInt(((MLUInt32) variable).get(index));
+            break;
+        case MLArray.mxINT64_CLASS:
+            buffer.putLong(((MLInt64) variable).get(index));
+            break;
+        case MLArray.mxUINT64_CLASS:
+            buffer.putLong(((MLUInt64) variable).get(index));
+            break;
+        default:
+            throw new RuntimeException("Case not supported: '" + MLArray.typeToString(variable.getType()) + "', for "
+                    + variable.getName());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+// tensor* load_mapped_matrix_variable (const char* varname, int dim_0, ..., tensor** out)
+
+    int shape[<NUM_DIMS>] = {<SHAPE_INIT>};
+    int dims = <NUM_DIMS>;
+    int length = 1;
+    int i;
+    char* filename;
+    char* relative_filename;
+    unsigned char* mapped;
+    size_t mapped_size;
+    unsigned int header_values[4];
+    unsigned long long header_sizes[2];
+    unsigned long long file_dim;
+    
+    for (i = 0; i < dims; ++i) {
+        length *= shape[i];
+    }
+    
+    relative_filename = malloc(sizeof("data/.<EXTENSION>") + strlen(varname));
+    sprintf(relative_filename, "data/%s.<EXTENSION>", varname);
+    filename = get_absolute_filename(relative_filename);
+    free(relative_filename);
+    
+#if defined(MATISSE_MAP_POSIX)
+    int fd = open(filename, O_RDONLY);
+    struct stat file_stat;
+    if (fd < 0 || fstat(fd, &file_stat) != 0) {
+        fprintf(stderr, "Could not open file %s: %s\n", filename, strerror(errno));
+        exit(1);
+    }
+    mapped_size = (size_t) file_stat.st_size;
+    // Private mapping: pages are shared with the page cache until the program writes to them
+    mapped = mmap(NULL, mapped_size, PROT_READ | PROT_WRITE, MAP_PRIVATE, fd, 0);
+    close(fd);
+    if (mapped == MAP_FAILED) {
+        fprintf(stderr, "Could not map file %s: %s\n", filename, strerror(errno));
+        exit(1);
+    }
+#elif defined(MATISSE_MAP_WIN32)
+    HANDLE file = CreateFileA(filename, GENERIC_READ, FILE_SHARE_READ, NULL, OPEN_EXISTING, FILE_ATTRIBUTE_NORMAL, NULL);
+    LARGE_INTEGER file_size;
+    if (file == INVALID_HANDLE_VALUE || !GetFileSizeEx(file, &file_size)) {
+        fprintf(stderr, "Could not open file %s.\n", filename);
+        exit(1);
+    }
+    mapped_size = (size_t) file_size.QuadPart;
+    HANDLE mapping = CreateFileMappingA(file, NULL, PAGE_WRITECOPY, 0, 0, NULL);
+    mapped = mapping == NULL ? NULL : (unsigned char*) MapViewOfFile(mapping, FILE_MAP_COPY, 0, 0, 0);
+    if (mapping != NULL) {
+        CloseHandle(mapping);
+    }
+    CloseHandle(file);
+    if (mapped == NULL) {
+        fprintf(stderr, "Could not map file %s.\n", filename);
+        exit(1);
+    }
+#else
+    // No memory mapping available, read the whole file instead
+    FILE* file = fopen(filename, "rb");
+    if (file == NULL) {
+        fprintf(stderr, "Could not open file %s.\n", filename);
+        exit(1);
+    }
+    fseek(file, 0, SEEK_END);
+    mapped_size = (size_t) ftell(file);
+    fseek(file, 0, SEEK_SET);
+    mapped = malloc(mapped_size);
+    if (mapped == NULL || fread(mapped, 1, mapped_size, file) != mapped_size) {
+        fprintf(stderr, "Could not load file %s.\n", filename);
+        exit(1);
+    }
+    fclose(file);
+#endif
+    
+    if (mapped_size < <DATA_OFFSET> || memcmp(mapped, "MATISSED", 8) != 0) {
+        fprintf(stderr, "File %s is not a MATISSE data file.\n", filename);
+        exit(1);
+    }
+    memcpy(header_values, mapped + 8, sizeof(header_values));
+    memcpy(header_sizes, mapped + 24, sizeof(header_sizes));
+    if (header_values[0] != 0x01020304) {
+        fprintf(stderr, "File %s was written for a host with a different byte order.\n", filename);
+        exit(1);
+    }
+    if (header_values[1] != <VERSION>) {
+        fprintf(stderr, "File %s has version %u, expected <VERSION>.\n", filename, header_values[1]);
+        exit(1);
+    }
+    if (header_values[2] != sizeof(<ELEMENT_TYPE>) || header_values[3] != (unsigned int) dims
+            || header_sizes[0] != (unsigned long long) length || header_sizes[1] != <DATA_OFFSET>
+            || mapped_size - <DATA_OFFSET> != (size_t) length * sizeof(<ELEMENT_TYPE>)) {
+        fprintf(stderr, "File %s does not contain the expected matrix.\n", filename);
+        exit(1);
+    }
+    for (i = 0; i < dims; ++i) {
+        memcpy(&file_dim, mapped + 40 + 8 * i, sizeof(file_dim));
+        if (file_dim != (unsigned long long) shape[i]) {
+            fprintf(stderr, "File %s does not contain the expected matrix.\n", filename);
+            exit(1);
+        }
+    }
+    free(filename);
+    
+    <CALL_FREE>(out);
+    
+    *out = malloc(sizeof(**out));
+    if (*out == NULL) {
+        fprintf(stderr, "Could not allocate memory for the matrix structure\n");
+        exit(1);
+    }
+    
+    // The tensor is a view of the mapped data, which is unmapped when the tensor no longer uses it
+    (*out)-><TENSOR_DATA> = (<ELEMENT_TYPE>*) (mapped + <DATA_OFFSET>);
+    (*out)-><TENSOR_LENGTH> = length;
+    (*out)-><TENSOR_OWNS_DATA> = 0;
+    (*out)-><TENSOR_CAPACITY> = 0;
+    (*out)-><TENSOR_RELEASE_DATA> = <CALL_RELEASE>;
+    
+    (*out)-><TENSOR_SHAPE> = malloc(sizeof(int) * dims);
+    if ((*out)-><TENSOR_SHAPE> == NULL) {
+        fprintf(stderr, "Could not allocate memory for the matrix shape\n");
+        exit(1);
+    }
+    for (i = 0; i < dims; ++i) {
+        (*out)-><TENSOR_SHAPE>[i] = shape[i];
+    }
+    
+    while (dims > 2 && shape[dims - 1] == 1) {
+        --dims;
+    }
+    (*out)-><TENSOR_DIMS> = dims;
+    
+    return *out;
@@ -0,0 +1,10 @@
+#ifdef _WIN32
+#include <windows.h>
+#define MATISSE_MAP_WIN32
+#elif defined(__unix__) || defined(__APPLE__)
+#include <fcntl.h>
+#include <sys/mman.h>
+#include <sys/stat.h>
+#include <unistd.h>
+#define MATISSE_MAP_POSIX
+#endif
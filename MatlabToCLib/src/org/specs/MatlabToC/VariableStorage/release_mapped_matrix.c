@@ -0,0 +1,15 @@
+// void release_mapped_matrix_variable (tensor* t)
+
+    unsigned char* mapped = ((unsigned char*) t-><TENSOR_DATA>) - <DATA_OFFSET>;
+    
+#if defined(MATISSE_MAP_POSIX)
+    unsigned long long length;
+    
+    // The loader checked that the file ends with the last element
+    memcpy(&length, mapped + 24, sizeof(length));
+    munmap(mapped, <DATA_OFFSET> + (size_t) length * sizeof(<ELEMENT_TYPE>));
+#elif defined(MATISSE_MAP_WIN32)
+    UnmapViewOfFile(mapped);
+#else
+    free(mapped);
+#endif
@@ -38,7 +38,11 @@ public enum MatisseOptimization {
     /**
      * Creates C code that calls BLAS functions.
      */
-    UseBlas;
+    UseBlas,
+    /**
+     * Implements matrix multiplication with a cache-blocked kernel, when BLAS is not used.
+     */
+    UseBlockedMatrixMul;
 
     public String getName() {
 	return name();
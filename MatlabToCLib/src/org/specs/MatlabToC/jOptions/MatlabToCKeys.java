@@ -70,6 +70,14 @@ public interface MatlabToCKeys {
      * Pragma to use on loops with no carried dependencies.
      */
     public static final DataKey<IvdepType> IVDEP_TYPE = KeyFactory.enumeration("ivdep_type", IvdepType.class);
+
+    /**
+     * Content of the OpenMP schedule clause (e.g., "static", "dynamic, 16") of parallel loops whose directive does not
+     * specify a schedule. Empty to omit the clause.
+     */
+    public static final DataKey<String> OPENMP_DEFAULT_SCHEDULE = KeyFactory.string("openmp_default_schedule",
+            "static");
+
     /**
      * A file containing the optimizations to apply, when using the new pass system.
      */
@@ -121,6 +129,47 @@ public interface MatlabToCKeys {
      */
     public static final DataKey<String> BLAS_INCLUDE_FOLDER = KeyFactory.string("blas_include_folder");
 
+    /**
+     * An Integer indicating, from which number of elements should matrix multiplication use the blocked kernel, when
+     * BLAS is not used.
+     */
+    public static final DataKey<Integer> BLOCKED_MATRIX_MUL_THRESHOLD = KeyFactory
+            .integer("blocked_matrix_mul_threshold", 64);
+
+    /**
+     * An Integer indicating, from which number of multiply-adds (rows x inner dimension x columns) should the blocked
+     * kernel be used, when the sizes are only known at runtime. Smaller products use the naive implementation.
+     */
+    public static final DataKey<Integer> BLOCKED_MATRIX_MUL_MIN_OPERATIONS = KeyFactory
+            .integer("blocked_matrix_mul_min_operations", 32768);
+
+    /**
+     * Rows of the blocks of the left operand of the blocked matrix multiplication (MC). A block of MC x KC elements
+     * should fit in the L2 cache.
+     */
+    public static final DataKey<Integer> MATRIX_MUL_BLOCK_M = KeyFactory.integer("matrix_mul_block_m", 128);
+
+    /**
+     * Inner dimension of the blocks of the blocked matrix multiplication (KC). A panel of KC x NR elements should fit
+     * in the L1 cache.
+     */
+    public static final DataKey<Integer> MATRIX_MUL_BLOCK_K = KeyFactory.integer("matrix_mul_block_k", 256);
+
+    /**
+     * Columns of the blocks of the right operand of the blocked matrix multiplication (NC).
+     */
+    public static final DataKey<Integer> MATRIX_MUL_BLOCK_N = KeyFactory.integer("matrix_mul_block_n", 2048);
+
+    /**
+     * Rows of the tiles of the result kept in registers by the blocked matrix multiplication (MR).
+     */
+    public static final DataKey<Integer> MATRIX_MUL_TILE_M = KeyFactory.integer("matrix_mul_tile_m", 4);
+
+    /**
+     * Columns of the tiles of the result kept in registers by the blocked matrix multiplication (NR).
+     */
+    public static final DataKey<Integer> MATRIX_MUL_TILE_N = KeyFactory.integer("matrix_mul_tile_n", 4);
+
     public static final DataKey<InferenceRuleList> TYPE_INFERENCE_RULES = KeyFactory.object("type_inference_rules",
             InferenceRuleList.class)
             .setDefault(() -> new InferenceRuleList(TypeInferencePass.BASE_TYPE_INFERENCE_RULES));
@@ -139,6 +188,59 @@ public interface MatlabToCKeys {
 
     public static final DataKey<Boolean> ENABLE_Z3 = KeyFactory.bool("enable_z3");
 
+    /**
+     * When Z3 is disabled, proves bounds with intervals and difference constraints (x - y &lt;= c), without an external
+     * solver.
+     */
+    public static final DataKey<Boolean> ENABLE_DIFFERENCE_BOUNDS = KeyFactory.bool("enable_difference_bounds");
+
+    /**
+     * Number of threads used to apply instance-local post-type-inference passes. 1 means sequential.
+     */
+    public static final DataKey<Integer> POST_TYPE_INFERENCE_THREADS = KeyFactory
+            .integer("post_type_inference_threads", 1);
+
+    /**
+     * Number of threads used to parse M-files. With more than one thread, the function declarations of all files are
+     * scanned up front, and the files of called functions are parsed before they are requested. 1 means sequential.
+     */
+    public static final DataKey<Integer> PARSING_THREADS = KeyFactory
+            .integer("parsing_threads", 1);
+
+    /**
+     * Number of threads used to generate and write the C files. 1 means sequential.
+     */
+    public static final DataKey<Integer> CODE_WRITER_THREADS = KeyFactory
+            .integer("code_writer_threads", 1);
+
+    /**
+     * Skips compilation when the output folder holds the result of a compilation with the same configuration, and
+     * none of the M-files it used nor the files it generated changed since. When M-files changed, only the C files
+     * whose typed functions changed are generated again; the others are reused (see IncrementalBuildManifest).
+     */
+    public static final DataKey<Boolean> INCREMENTAL_BUILD = KeyFactory.bool("incremental_build");
+
+    /**
+     * Records the time, CPU time and allocations of each pass applied to each function, and the data services they
+     * caused to be built or invalidated. The results are written to the output folder, as JSON and as collapsed stacks
+     * for flame graphs.
+     */
+    public static final DataKey<Boolean> PASS_PROFILE = KeyFactory.bool("pass_profile");
+
+    /**
+     * Skips post-type-inference pass applications that would do nothing, because the function has none of the
+     * instructions the pass acts on, or because it did not change since the pass was last applied. The number of
+     * skipped applications is reported at the end of the compilation.
+     */
+    public static final DataKey<Boolean> ENABLE_PASS_SCHEDULER = KeyFactory.bool("enable_pass_scheduler");
+
+    /**
+     * Maximum number of times groups of passes that enable each other are applied, while the function keeps changing.
+     * Only used when the pass scheduler is enabled. 1 means that each group is applied once.
+     */
+    public static final DataKey<Integer> FIXED_POINT_ITERATIONS = KeyFactory
+            .integer("fixed_point_iterations", 1);
+
     public static final DataKey<VariableAllocator> CUSTOM_VARIABLE_ALLOCATOR = KeyFactory
             .object("custom_allocator", VariableAllocator.class)
             .setDefault(() -> new EfficientVariableAllocator());
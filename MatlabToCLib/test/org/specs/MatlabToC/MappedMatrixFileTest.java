@@ -0,0 +1,58 @@
+/**
+ * Copyright 2026 SPeCS.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatlabToC;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.specs.MatlabToC.VariableStorage.MappedMatrixFile;
+
+import com.jmatio.types.MLDouble;
+
+public class MappedMatrixFileTest {
+
+    @Test
+    public void testLayout() throws IOException {
+        MLDouble matrix = new MLDouble("A", new double[] { 1, 2, 3, 4, 5, 6 }, 2);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MappedMatrixFile.write(matrix, out);
+        ByteBuffer file = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+
+        int dataOffset = MappedMatrixFile.getDataOffset(2);
+        assertEquals(0, dataOffset % MappedMatrixFile.DATA_ALIGNMENT);
+        assertEquals(dataOffset + 6 * 8, file.limit());
+
+        assertArrayEquals("MATISSED".getBytes("US-ASCII"), Arrays.copyOf(file.array(), 8));
+        assertEquals(0x01020304, file.getInt(8));
+        assertEquals(MappedMatrixFile.VERSION, file.getInt(12));
+        assertEquals(8, file.getInt(16));
+        assertEquals(2, file.getInt(20));
+        assertEquals(6, file.getLong(24));
+        assertEquals(dataOffset, file.getLong(32));
+        assertEquals(2, file.getLong(40));
+        assertEquals(3, file.getLong(48));
+
+        for (int i = 0; i < 6; ++i) {
+            assertEquals(i + 1, file.getDouble(dataOffset + 8 * i), 0);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatlabToC.Functions.MatlabOpsV2;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.StringJoiner;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.specs.CIR.CirKeys;
+import org.specs.CIR.CompilerTestUtils;
+import org.specs.CIR.FunctionInstance.FunctionInstance;
+import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.CIR.Options.MemoryLayout;
+import org.specs.CIR.Types.ATypes.Scalar.ScalarType;
+import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixType;
+import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixUtils;
+import org.specs.CIRTypes.Types.DynamicMatrix.Functions.LowLevel.CreateHelper;
+import org.specs.CIRTypes.Types.Numeric.NumericFactory;
+import org.specs.MatlabIR.MatlabLanguage.LanguageMode;
+import org.specs.MatlabToC.MFileInstance.MFileProvider;
+import org.specs.MatlabToC.jOptions.MatlabToCKeys;
+import org.specs.MatlabToC.jOptions.MatlabToCOptionUtils;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+import org.suikasoft.jOptions.Options.MultipleChoice;
+
+import pt.up.fe.specs.util.SpecsEnums;
+import pt.up.fe.specs.util.utilities.Replacer;
+
+/**
+ * Compiles the blocked matrix multiplication and checks that it computes the same results as matrix_mulv3.
+ * 
+ * <p>
+ * Elements are small integers, so both implementations compute exact results, whatever the order of the sums.
+ */
+public class BlockedMatrixMulTest {
+
+    private static final ScalarType ELEMENT_TYPE = NumericFactory.defaultFactory().newDouble();
+
+    /**
+     * Sizes (rows of A, columns of A, columns of B) that are not multiples of the tiles nor of the small blocks, or
+     * that have an empty dimension.
+     */
+    private static final int[][] SMALL_BLOCK_SIZES = {
+            { 1, 1, 1 },
+            { 3, 5, 7 },
+            { 4, 8, 4 },
+            { 13, 17, 11 },
+            { 9, 20, 6 },
+            { 17, 3, 19 },
+            { 5, 0, 3 },
+            { 0, 3, 4 },
+            { 6, 4, 0 }
+    };
+
+    private static final String TEST_CODE = "<TENSOR>* A = NULL;\n"
+            + "<TENSOR>* B = NULL;\n"
+            + "<TENSOR>* blocked = NULL;\n"
+            + "<TENSOR>* naive = NULL;\n"
+            + "int sizes[][3] = { <SIZES> };\n"
+            + "int num_sizes = sizeof(sizes) / sizeof(sizes[0]);\n"
+            + "int shape[2];\n"
+            + "int m, k, n;\n"
+            + "int s, i;\n"
+            + "for (s = 0; s < num_sizes; ++s) {\n"
+            + "   m = sizes[s][0];\n"
+            + "   k = sizes[s][1];\n"
+            + "   n = sizes[s][2];\n"
+            + "   shape[0] = m;\n"
+            + "   shape[1] = k;\n"
+            + "   <NEW>(shape, 2, &A);\n"
+            + "   shape[0] = k;\n"
+            + "   shape[1] = n;\n"
+            + "   <NEW>(shape, 2, &B);\n"
+            + "   for (i = 0; i < A->length; ++i) {\n"
+            + "      A->data[i] = (i * 7) % 11 - 5;\n"
+            + "   }\n"
+            + "   for (i = 0; i < B->length; ++i) {\n"
+            + "      B->data[i] = (i * 5) % 13 - 6;\n"
+            + "   }\n"
+            // The results of the previous sizes are reused, so they must be overwritten
+            + "   <BLOCKED>(A, B, &blocked);\n"
+            + "   <NAIVE>(A, B, &naive);\n"
+            + "   EXPECT(blocked->shape[0] == m && blocked->shape[1] == n);\n"
+            + "   EXPECT(blocked->length == m * n && naive->length == m * n);\n"
+            + "   for (i = 0; i < m * n; ++i) {\n"
+            + "      EXPECT(blocked->data[i] == naive->data[i]);\n"
+            + "      EXPECT(k != 0 || blocked->data[i] == 0);\n"
+            + "   }\n"
+            + "}\n"
+            + "<FREE>(&A);\n"
+            + "<FREE>(&B);\n"
+            + "<FREE>(&blocked);\n"
+            + "<FREE>(&naive);\n"
+            + "return 0;\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        MFileProvider.setEngine(MFileProvider.buildEngine(DataStore.newInstance("dummy"), LanguageMode.MATLAB));
+    }
+
+    @Test
+    public void testSmallBlocksColumnMajor() throws IOException {
+        compileAndRun(newSmallBlockSettings(MemoryLayout.COLUMN_MAJOR), SMALL_BLOCK_SIZES);
+    }
+
+    @Test
+    public void testSmallBlocksRowMajor() throws IOException {
+        compileAndRun(newSmallBlockSettings(MemoryLayout.ROW_MAJOR), SMALL_BLOCK_SIZES);
+    }
+
+    @Test
+    public void testTilesNotSquare() throws IOException {
+        DataStore settings = newSmallBlockSettings(MemoryLayout.COLUMN_MAJOR);
+        // Blocks are rounded up to 9 x 8 x 6
+        settings.set(MatlabToCKeys.MATRIX_MUL_BLOCK_M, 7);
+        settings.set(MatlabToCKeys.MATRIX_MUL_BLOCK_N, 5);
+        settings.set(MatlabToCKeys.MATRIX_MUL_TILE_M, 3);
+        settings.set(MatlabToCKeys.MATRIX_MUL_TILE_N, 2);
+
+        compileAndRun(settings, SMALL_BLOCK_SIZES);
+    }
+
+    /**
+     * With the default settings, the smaller products use matrix_mulv3, and the others are smaller than a block in
+     * some dimensions and larger in others.
+     */
+    @Test
+    public void testDefaultSettings() throws IOException {
+        int[][] sizes = {
+                { 2, 3, 4 },
+                { 37, 29, 41 },
+                { 5, 300, 30 },
+                { 130, 7, 40 },
+                { 40, 0, 50 }
+        };
+
+        compileAndRun(MatlabToCOptionUtils.newDefaultSettings(), sizes);
+    }
+
+    private static DataStore newSmallBlockSettings(MemoryLayout memoryLayout) {
+        DataStore settings = MatlabToCOptionUtils.newDefaultSettings();
+
+        settings.set(MatlabToCKeys.BLOCKED_MATRIX_MUL_MIN_OPERATIONS, 0);
+        settings.set(MatlabToCKeys.MATRIX_MUL_BLOCK_M, 8);
+        settings.set(MatlabToCKeys.MATRIX_MUL_BLOCK_K, 8);
+        settings.set(MatlabToCKeys.MATRIX_MUL_BLOCK_N, 8);
+
+        MultipleChoice memoryLayoutChoice = MultipleChoice.newInstance(SpecsEnums.buildList(MemoryLayout.values()));
+        memoryLayoutChoice.setChoice(memoryLayout.name());
+        settings.set(CirKeys.MEMORY_LAYOUT, memoryLayoutChoice);
+
+        return settings;
+    }
+
+    private void compileAndRun(DataStore settings, int[][] sizes) throws IOException {
+        CompilerTestUtils.assumeCompilerAvailable();
+
+        ProviderData data = ProviderData.newInstance(settings);
+        DynamicMatrixType matrixType = DynamicMatrixType.newInstance(ELEMENT_TYPE);
+
+        FunctionInstance blocked = BlockedMatrixMul.getProvider().newCInstance(data.create(matrixType, matrixType));
+        FunctionInstance naive = MatrixMul.newNaiveProvider().newCInstance(data.create(matrixType, matrixType));
+        FunctionInstance create = CreateHelper.getProvider(ELEMENT_TYPE).newCInstance(data);
+        FunctionInstance free = matrixType.matrix().functions().free().newCInstance(data.create(matrixType));
+
+        StringJoiner sizesCode = new StringJoiner(", ");
+        for (int[] size : sizes) {
+            sizesCode.add("{" + size[0] + ", " + size[1] + ", " + size[2] + "}");
+        }
+
+        Replacer code = new Replacer(TEST_CODE);
+        code.replace("<SIZES>", sizesCode.toString());
+        code.replace("<TENSOR>", DynamicMatrixUtils.getStructInstance(matrixType).getCName());
+        code.replace("<BLOCKED>", blocked.getCName());
+        code.replace("<NAIVE>", naive.getCName());
+        code.replace("<NEW>", create.getCName());
+        code.replace("<FREE>", free.getCName());
+
+        File folder = temporaryFolder.newFolder();
+        CompilerTestUtils.writeHarness(folder, settings, code.toString(), blocked, naive, create, free);
+        CompilerTestUtils.compileAndRun(folder);
+    }
+}
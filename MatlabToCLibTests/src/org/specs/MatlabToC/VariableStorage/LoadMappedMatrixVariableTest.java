@@ -0,0 +1,211 @@
+/**
+ * Copyright 2026 SPeCS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License. under the License.
+ */
+
+package org.specs.MatlabToC.VariableStorage;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.specs.CIR.CirTestUtils;
+import org.specs.CIR.CompilerTestUtils;
+import org.specs.CIR.FunctionInstance.FunctionInstance;
+import org.specs.CIR.FunctionInstance.ProviderData;
+import org.specs.CIR.Types.VariableType;
+import org.specs.CIR.Types.ATypes.Scalar.ScalarType;
+import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixType;
+import org.specs.CIRTypes.Types.DynamicMatrix.DynamicMatrixUtils;
+import org.specs.CIRTypes.Types.Numeric.NumericFactory;
+import org.specs.CIRTypes.Types.String.StringType;
+import org.suikasoft.jOptions.Interfaces.DataStore;
+
+import com.jmatio.types.MLDouble;
+
+import pt.up.fe.specs.util.utilities.Replacer;
+
+/**
+ * Writes a {@link MappedMatrixFile}, and compiles and runs the code of {@link LoadMappedMatrixVariable} that maps it.
+ * 
+ * <p>
+ * Test code can use &lt;TENSOR&gt; (the matrix structure), &lt;LOAD&gt;(shape..., &amp;t), &lt;FREE&gt;(&amp;t) and
+ * &lt;COUNT_MAPPINGS&gt;, which sets the variable mappings to the number of mappings of the file (on Linux only, and
+ * to -1 otherwise).
+ */
+public class LoadMappedMatrixVariableTest {
+
+    private static final ScalarType ELEMENT_TYPE = NumericFactory.defaultFactory().newDouble();
+    private static final String VARIABLE = "A";
+
+    private static final String COUNT_MAPPINGS = "mappings = -1;\n"
+            + "#ifdef __linux__\n"
+            + "{\n"
+            + "   char line[4096];\n"
+            + "   FILE* maps = fopen(\"/proc/self/maps\", \"r\");\n"
+            + "   mappings = 0;\n"
+            + "   while (fgets(line, sizeof(line), maps) != NULL) {\n"
+            + "      if (strstr(line, \"data/" + VARIABLE + "." + MappedMatrixFile.EXTENSION + "\") != NULL) {\n"
+            + "         ++mappings;\n"
+            + "      }\n"
+            + "   }\n"
+            + "   fclose(maps);\n"
+            + "}\n"
+            + "#endif\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        File executable = compile("<TENSOR>* A = NULL;\n"
+                + "int i;\n"
+                + "int mappings;\n"
+                + "<LOAD>(2, 3, &A);\n"
+                + "EXPECT(A->length == 6);\n"
+                + "EXPECT(A->dims == 2 && A->shape[0] == 2 && A->shape[1] == 3);\n"
+                + "EXPECT(!A->owns_data);\n"
+                + "EXPECT(A->release_data != NULL);\n"
+                + "for (i = 0; i < 6; ++i) {\n"
+                + "   EXPECT(A->data[i] == i + 1.0);\n"
+                + "}\n"
+                + "<COUNT_MAPPINGS>"
+                + "EXPECT(mappings != 0);\n"
+                // Writes only change the private copy of the page
+                + "A->data[0] = 10.0;\n"
+                + "EXPECT(A->data[0] == 10.0);\n"
+                // Loading again releases the previous mapping
+                + "<LOAD>(2, 3, &A);\n"
+                + "EXPECT(A->data[0] == 1.0);\n"
+                + "<FREE>(&A);\n"
+                + "EXPECT(A == NULL);\n"
+                + "<COUNT_MAPPINGS>"
+                + "EXPECT(mappings <= 0);\n"
+                + "return 0;\n");
+
+        writeMatrix(executable.getParentFile());
+        CompilerTestUtils.run(executable);
+    }
+
+    @Test
+    public void testWrongShape() throws IOException {
+        File executable = compile("<TENSOR>* A = NULL;\n"
+                + "<LOAD>(3, 2, &A);\n"
+                + "return 0;\n");
+
+        writeMatrix(executable.getParentFile());
+        String output = CompilerTestUtils.runExpectingFailure(executable);
+
+        assertTrue(output, output.contains("does not contain the expected matrix"));
+    }
+
+    @Test
+    public void testCorruptHeader() throws IOException {
+        File executable = compile("<TENSOR>* A = NULL;\n"
+                + "<LOAD>(2, 3, &A);\n"
+                + "return 0;\n");
+
+        File file = writeMatrix(executable.getParentFile());
+        try (RandomAccessFile corrupt = new RandomAccessFile(file, "rw")) {
+            // Byte order mark
+            corrupt.seek(8);
+            corrupt.write(new byte[] { 1, 2, 3, 4 });
+        }
+        String output = CompilerTestUtils.runExpectingFailure(executable);
+
+        assertTrue(output, output.contains("different byte order"));
+    }
+
+    @Test
+    public void testTruncatedFile() throws IOException {
+        File executable = compile("<TENSOR>* A = NULL;\n"
+                + "<LOAD>(2, 3, &A);\n"
+                + "return 0;\n");
+
+        File file = writeMatrix(executable.getParentFile());
+        try (RandomAccessFile truncated = new RandomAccessFile(file, "rw")) {
+            truncated.setLength(file.length() - 8);
+        }
+        String output = CompilerTestUtils.runExpectingFailure(executable);
+
+        assertTrue(output, output.contains("does not contain the expected matrix"));
+    }
+
+    @Test
+    public void testNotMatisseFile() throws IOException {
+        File executable = compile("<TENSOR>* A = NULL;\n"
+                + "<LOAD>(2, 3, &A);\n"
+                + "return 0;\n");
+
+        File file = writeMatrix(executable.getParentFile());
+        try (RandomAccessFile corrupt = new RandomAccessFile(file, "rw")) {
+            corrupt.write("MATLAB 5".getBytes("US-ASCII"));
+        }
+        String output = CompilerTestUtils.runExpectingFailure(executable);
+
+        assertTrue(output, output.contains("is not a MATISSE data file"));
+    }
+
+    /**
+     * Writes the matrix [1 3 5; 2 4 6] to the data folder of the executable.
+     */
+    private static File writeMatrix(File folder) throws IOException {
+        MLDouble matrix = new MLDouble(VARIABLE, new double[] { 1, 2, 3, 4, 5, 6 }, 2);
+
+        File dataFolder = new File(folder, "data");
+        dataFolder.mkdirs();
+        File file = new File(dataFolder, VARIABLE + "." + MappedMatrixFile.EXTENSION);
+        try (OutputStream out = new FileOutputStream(file)) {
+            MappedMatrixFile.write(matrix, out);
+        }
+
+        return file;
+    }
+
+    /**
+     * 
+     * @return the executable
+     */
+    private File compile(String testCode) throws IOException {
+        CompilerTestUtils.assumeCompilerAvailable();
+
+        DataStore settings = CirTestUtils.newDefaultSettings();
+        ProviderData data = ProviderData.newInstance(settings);
+
+        DynamicMatrixType matrixType = DynamicMatrixType.newInstance(ELEMENT_TYPE);
+        VariableType nameType = StringType.create(VARIABLE, data.getNumerics().getSizes().getCharSize(), true);
+        ProviderData loadData = data.create(Arrays.asList(nameType, data.getNumerics().newInt(),
+                data.getNumerics().newInt()));
+        loadData.setOutputType(matrixType);
+
+        FunctionInstance load = new LoadMappedMatrixVariable(loadData).create();
+        FunctionInstance free = matrixType.matrix().functions().free().newCInstance(data.create(matrixType));
+
+        Replacer code = new Replacer(testCode);
+        code.replace("<COUNT_MAPPINGS>", COUNT_MAPPINGS);
+        code.replace("<TENSOR>", DynamicMatrixUtils.getStructInstance(matrixType).getCName());
+        code.replace("<LOAD>(", load.getCName() + "(\"" + VARIABLE + "\", ");
+        code.replace("<FREE>", free.getCName());
+
+        File folder = temporaryFolder.newFolder();
+        CompilerTestUtils.writeHarness(folder, settings, code.toString(), load, free);
+
+        return CompilerTestUtils.compile(folder);
+    }
+}
@@ -80,8 +80,14 @@ public class MApp extends AApp {
         MApp.DEFS.put("inline", MApp::defInline);
         MApp.DEFS.put("default_float", MApp::defDefaultFloat);
         MApp.DEFS.put("use_blas", MApp::defUseBlas);
+        MApp.DEFS.put("use_blocked_matrix_mul", MApp::defUseBlockedMatrixMul);
+        MApp.DEFS.put("blocked_matrix_mul_min_operations", MApp::defBlockedMatrixMulMinOperations);
+        MApp.DEFS.put("matrix_mul_block_m", MApp::defMatrixMulBlockM);
+        MApp.DEFS.put("matrix_mul_block_k", MApp::defMatrixMulBlockK);
+        MApp.DEFS.put("matrix_mul_block_n", MApp::defMatrixMulBlockN);
         MApp.DEFS.put("use_z3", MApp::defUseZ3);
         MApp.DEFS.put("allow_dynamic_allocation", MApp::defAllowDynamicAllocation);
+        MApp.DEFS.put("pool_tensor_headers", MApp::defPoolTensorHeaders);
 
         MApp.DEFS.put("sub_group_size", MApp::defSubGroupSize);
         MApp.DEFS.put("sum_reduction_strategy", MApp::defSumReductionStrategy);
@@ -92,13 +98,17 @@ public class MApp extends AApp {
         MApp.DEFS.put("device_memory_management_strategy", MApp::defDeviceMemoryManagementStrategy);
         MApp.DEFS.put("svm_elimination_mode", MApp::defSVMEliminationMode);
         MApp.DEFS.put("range_set_instruction_enabled", MApp::defRangeSetInstructionEnabled);
+        MApp.DEFS.put("async_host_code", MApp::defAsyncHostCode);
         MApp.DEFS.put("svm_restrict_coalesced", MApp::defSvmRestrictCoalesced);
         MApp.DEFS.put("svm_restrict_sequential", MApp::defSvmRestrictSequential);
         MApp.DEFS.put("svm_set_range_forbidden", MApp::defSvmSetRangeForbidden);
         MApp.DEFS.put("program_compiled_name", MApp::defProgramCompiledName);
         MApp.DEFS.put("load_program_from_source", MApp::defLoadProgramFromSource);
+        MApp.DEFS.put("program_cache_directory", MApp::defProgramCacheDirectory);
         MApp.DEFS.put("try_use_schedule_cooperative", MApp::defTryUseScheduleCooperative);
         MApp.DEFS.put("prefer_subgroup_cooperative", MApp::defPreferSubGroupCooperative);
+        MApp.DEFS.put("automatic_parallelization", MApp::defAutomaticParallelization);
+        MApp.DEFS.put("automatic_parallelization_min_trip_count", MApp::defAutomaticParallelizationMinTripCount);
         MApp.DEFS.put("sum_sub_group_reduction_strategy", MApp::defSumSubGroupReductionStrategy);
         MApp.DEFS.put("sum_local_reduction_strategy", MApp::defSumLocalReductionStrategy);
         MApp.DEFS.put("sub_group_as_warp_fallback", MApp::defSubGroupAsWarpFallback);
@@ -181,6 +191,34 @@ public class MApp extends AApp {
         }
     }
 
+    private static void defUseBlockedMatrixMul(DataStore setup, Object value) {
+        HashSetString optimizations = setup.get(MatlabToCKeys.MATISSE_OPTIMIZATIONS);
+
+        // Decode value
+        Boolean boolValue = decodeBoolean("use_blocked_matrix_mul", value);
+        if (boolValue) {
+            optimizations.add(MatisseOptimization.UseBlockedMatrixMul.getName());
+        } else {
+            optimizations.remove(MatisseOptimization.UseBlockedMatrixMul.getName());
+        }
+    }
+
+    private static void defBlockedMatrixMulMinOperations(DataStore setup, Object value) {
+        setup.set(MatlabToCKeys.BLOCKED_MATRIX_MUL_MIN_OPERATIONS, Integer.valueOf(value.toString()));
+    }
+
+    private static void defMatrixMulBlockM(DataStore setup, Object value) {
+        setup.set(MatlabToCKeys.MATRIX_MUL_BLOCK_M, Integer.valueOf(value.toString()));
+    }
+
+    private static void defMatrixMulBlockK(DataStore setup, Object value) {
+        setup.set(MatlabToCKeys.MATRIX_MUL_BLOCK_K, Integer.valueOf(value.toString()));
+    }
+
+    private static void defMatrixMulBlockN(DataStore setup, Object value) {
+        setup.set(MatlabToCKeys.MATRIX_MUL_BLOCK_N, Integer.valueOf(value.toString()));
+    }
+
     private static Boolean decodeBoolean(String property, Object value) {
         if (value instanceof Boolean) {
             return (Boolean) value;
@@ -206,6 +244,13 @@ public class MApp extends AApp {
         setup.set(CirKeys.ALLOW_DYNAMIC_ALLOCATION, boolValue);
     }
 
+    private static void defPoolTensorHeaders(DataStore setup, Object value) {
+        // Decode value
+        Boolean boolValue = decodeBoolean("pool_tensor_headers", value);
+
+        setup.set(CirKeys.POOL_TENSOR_HEADERS, boolValue);
+    }
+
     private static void defDefaultFloat(DataStore setup, Object value) {
         VariableType type = new MatlabAspectsUtils(setup).getDecoder().decode(value.toString());
 
@@ -295,6 +340,12 @@ public class MApp extends AApp {
         setup.set(MatisseCLKeys.RANGE_SET_INSTRUCTION_ENABLED, Boolean.valueOf(valueStr));
     }
 
+    private static void defAsyncHostCode(DataStore setup, Object value) {
+        String valueStr = value.toString();
+
+        setup.set(MatisseCLKeys.ASYNC_HOST_CODE, Boolean.valueOf(valueStr));
+    }
+
     private static void defSvmRestrictCoalesced(DataStore setup, Object value) {
         String valueStr = value.toString();
 
@@ -325,6 +376,12 @@ public class MApp extends AApp {
         setup.set(MatisseCLKeys.LOAD_PROGRAM_FROM_SOURCE, Boolean.valueOf(valueStr));
     }
 
+    private static void defProgramCacheDirectory(DataStore setup, Object value) {
+        String valueStr = value.toString();
+
+        setup.set(MatisseCLKeys.PROGRAM_CACHE_DIRECTORY, valueStr);
+    }
+
     private static void defTryUseScheduleCooperative(DataStore setup, Object value) {
         String valueStr = value.toString();
 
@@ -347,6 +404,18 @@ public class MApp extends AApp {
                 SumLocalReductionStrategy.valueOf(value.toString()));
     }
 
+    private static void defAutomaticParallelization(DataStore setup, Object value) {
+        String valueStr = value.toString();
+
+        setup.set(MatisseCLKeys.AUTOMATIC_PARALLELIZATION, Boolean.valueOf(valueStr));
+    }
+
+    private static void defAutomaticParallelizationMinTripCount(DataStore setup, Object value) {
+        String valueStr = value.toString();
+
+        setup.set(MatisseCLKeys.AUTOMATIC_PARALLELIZATION_MIN_TRIP_COUNT, Integer.valueOf(valueStr));
+    }
+
     private static void defSubGroupAsWarpFallback(DataStore setup, Object value) {
         setup.set(MatisseCLKeys.SUBGROUP_AS_WARP_FALLBACK,
                 Boolean.valueOf(value.toString()));